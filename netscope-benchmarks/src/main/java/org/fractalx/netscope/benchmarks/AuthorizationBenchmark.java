@@ -0,0 +1,108 @@
+package org.fractalx.netscope.benchmarks;
+
+import org.fractalx.netscope.server.config.NetScopeConfig;
+import org.fractalx.netscope.server.model.NetworkMethodDefinition;
+import org.fractalx.netscope.server.security.OAuth2AuthorizationService;
+import org.fractalx.netscope.server.security.OAuth2TokenValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OAuth2AuthorizationService#authorize} for a public member, an OAuth member
+ * with a token already in the validator's cache, and an OAuth member with a token
+ * the validator has never seen (full signature verification).
+ */
+public class AuthorizationBenchmark {
+
+    /** Distinct tokens consumed per measured batch in the uncached benchmark. */
+    static final int UNCACHED_BATCH = 256;
+
+    @State(Scope.Benchmark)
+    public static class Pipeline {
+        LocalJwks jwks;
+        NetScopeConfig config;
+        NetScopeFixture fixture;
+        NetworkMethodDefinition publicDef;
+        NetworkMethodDefinition securedDef;
+        String cachedToken;
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            jwks   = new LocalJwks();
+            config = new NetScopeConfig();
+            NetScopeConfig.SecurityConfig.OAuthConfig oauth = config.getSecurity().getOauth();
+            oauth.setEnabled(true);
+            oauth.setIssuerUri(LocalJwks.ISSUER);
+            oauth.setJwkSetUri(jwks.jwkSetUri());
+            oauth.setAudiences(List.of(LocalJwks.AUDIENCE));
+
+            fixture = new NetScopeFixture(config, authService(config));
+            publicDef  = fixture.scanner().findMethod("CatalogService", "echo", List.of()).orElseThrow();
+            securedDef = fixture.scanner().findMethod("CatalogService", "securedEcho", List.of()).orElseThrow();
+
+            cachedToken = jwks.token("cached-user");
+            fixture.authService().authorize(securedDef, cachedToken, null);   // populate cache
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            fixture.close();
+            jwks.close();
+        }
+    }
+
+    /** Fresh validator (empty cache) and a fresh set of never-seen tokens per iteration. */
+    @State(Scope.Thread)
+    public static class UncachedTokens {
+        OAuth2AuthorizationService authService;
+        String[] tokens;
+        int next;
+
+        @Setup(Level.Iteration)
+        public void setup(Pipeline pipeline) throws Exception {
+            authService = authService(pipeline.config);
+            // Load the JWK set outside the measurement with a throwaway token
+            authService.authorize(pipeline.securedDef, pipeline.jwks.token("warmup"), null);
+            tokens = new String[UNCACHED_BATCH];
+            for (int i = 0; i < tokens.length; i++) tokens[i] = pipeline.jwks.token("user-" + i);
+            next = 0;
+        }
+    }
+
+    static OAuth2AuthorizationService authService(NetScopeConfig config) {
+        return new OAuth2AuthorizationService(config, new OAuth2TokenValidator(config),
+                null);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    public void publicMember(Pipeline p) {
+        p.fixture.authService().authorize(p.publicDef, null, null);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    public void cachedToken(Pipeline p) {
+        p.fixture.authService().authorize(p.securedDef, p.cachedToken, null);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, batchSize = UNCACHED_BATCH)
+    @Measurement(iterations = 10, batchSize = UNCACHED_BATCH)
+    @Fork(1)
+    public void uncachedToken(Pipeline p, UncachedTokens t) {
+        t.authService.authorize(p.securedDef, t.tokens[t.next++], null);
+    }
+}
@@ -0,0 +1,111 @@
+package org.fractalx.netscope.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files and prints the per-benchmark delta.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar -rf json -rff baseline.json      # on main
+ * java -jar target/benchmarks.jar -rf json -rff current.json       # on the branch
+ * java -cp target/benchmarks.jar org.fractalx.netscope.benchmarks.BaselineReport \
+ *      baseline.json current.json [thresholdPercent]
+ * </pre>
+ *
+ * A benchmark regresses when it is worse than the baseline by more than the
+ * threshold (default 10%) — lower is better for time modes, higher is better for
+ * throughput. Exits with status 1 if anything regressed, so CI can gate on it.
+ */
+public final class BaselineReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private BaselineReport() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineReport <baseline.json> <current.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        Map<String, Result> baseline = load(new File(args[0]));
+        Map<String, Result> current  = load(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-78s %14s %14s %9s  %s%n", "Benchmark", "Baseline", "Current", "Delta", "");
+        for (Map.Entry<String, Result> entry : new TreeMap<>(current).entrySet()) {
+            Result now  = entry.getValue();
+            Result then = baseline.get(entry.getKey());
+            if (then == null) {
+                System.out.printf("%-78s %14s %14.3f %9s  new%n", entry.getKey(), "-", now.score, "");
+                continue;
+            }
+            double delta = (now.score - then.score) / then.score * 100.0;
+            // Positive "worse" means the change moved in the bad direction for this mode
+            double worse = now.higherIsBetter ? -delta : delta;
+            String verdict = worse > threshold ? "REGRESSION" : worse < -threshold ? "improved" : "";
+            if (worse > threshold) regressions++;
+            System.out.printf("%-78s %14.3f %14.3f %+8.1f%%  %s%n",
+                    entry.getKey(), then.score, now.score, delta, verdict);
+        }
+        for (String removed : baseline.keySet()) {
+            if (!current.containsKey(removed)) {
+                System.out.printf("%-78s %14.3f %14s %9s  removed%n",
+                        removed, baseline.get(removed).score, "-", "");
+            }
+        }
+
+        System.out.printf("%n%d regression(s) beyond %.1f%%%n", regressions, threshold);
+        if (regressions > 0) System.exit(1);
+    }
+
+    private static Map<String, Result> load(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : MAPPER.readTree(file)) {
+            String mode = run.path("mode").asText();
+            JsonNode metric = run.path("primaryMetric");
+            results.put(key(run, mode), new Result(
+                    metric.path("score").asDouble(),
+                    mode.equals("thrpt")));
+        }
+        return results;
+    }
+
+    /** "Class.method [mode] {param=value,...} (unit)" */
+    private static String key(JsonNode run, String mode) {
+        String benchmark = run.path("benchmark").asText();
+        benchmark = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+        StringBuilder key = new StringBuilder(benchmark).append(" [").append(mode).append(']');
+        JsonNode params = run.path("params");
+        if (params.isObject() && params.size() > 0) {
+            Map<String, String> sorted = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> f = fields.next();
+                sorted.put(f.getKey(), f.getValue().asText());
+            }
+            key.append(' ').append(sorted);
+        }
+        key.append(" (").append(run.path("primaryMetric").path("scoreUnit").asText()).append(')');
+        return key.toString();
+    }
+
+    private static final class Result {
+        final double score;
+        final boolean higherIsBetter;
+
+        Result(double score, boolean higherIsBetter) {
+            this.score          = score;
+            this.higherIsBetter = higherIsBetter;
+        }
+    }
+}
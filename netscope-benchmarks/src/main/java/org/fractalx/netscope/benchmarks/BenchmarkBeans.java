@@ -0,0 +1,89 @@
+package org.fractalx.netscope.benchmarks;
+
+import org.fractalx.netscope.server.annotation.AuthType;
+import org.fractalx.netscope.server.annotation.NetworkPublic;
+import org.fractalx.netscope.server.annotation.NetworkSecured;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sample beans registered in the benchmark application context. Shapes mirror what
+ * real NetScope users expose: plain echo calls, overloads, POJO lists, fields,
+ * secured members and interface aliases.
+ */
+public final class BenchmarkBeans {
+
+    private BenchmarkBeans() {}
+
+    /** User interface — registers the "Catalog" alias for CatalogService. */
+    public interface Catalog {
+        @NetworkPublic
+        String echo(String payload);
+    }
+
+    public static class CatalogService implements Catalog {
+
+        @NetworkPublic(description = "Current catalog version")
+        private String version = "1.0.0";
+
+        @NetworkPublic(description = "Mutable counter")
+        private long counter = 0;
+
+        @Override
+        public String echo(String payload) {
+            return payload;
+        }
+
+        // Overloads — one per protobuf Value kind, so inference has to do real work
+        @NetworkPublic public String process(String s)        { return s; }
+        @NetworkPublic public String process(int n)           { return Integer.toString(n); }
+        @NetworkPublic public String process(boolean b)       { return Boolean.toString(b); }
+        @NetworkPublic public String process(List<String> l)  { return Integer.toString(l.size()); }
+        @NetworkPublic public String process(Item item)       { return item.name; }
+
+        @NetworkPublic(description = "Returns count generated items")
+        public List<Item> items(int count) {
+            List<Item> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) items.add(Item.of(i));
+            return items;
+        }
+
+        // Array rather than List<Item>: arguments are bound against the erased parameter type
+        @NetworkPublic(description = "Sums item prices — exercises POJO argument decoding")
+        public double total(Item[] items) {
+            double sum = 0;
+            for (Item item : items) sum += item.price;
+            return sum;
+        }
+
+        @NetworkPublic(description = "Void write")
+        public void touch() {
+            counter++;
+        }
+
+        @NetworkSecured(auth = AuthType.OAUTH, description = "OAuth-protected echo")
+        public String securedEcho(String payload) {
+            return payload;
+        }
+    }
+
+    /** POJO payload with a mix of scalar and list members. */
+    public static class Item {
+        public long id;
+        public String name;
+        public double price;
+        public boolean available;
+        public List<String> tags;
+
+        public static Item of(int i) {
+            Item item = new Item();
+            item.id        = i;
+            item.name      = "item-" + i;
+            item.price     = i * 1.25;
+            item.available = (i & 1) == 0;
+            item.tags      = List.of("tag-a", "tag-b");
+            return item;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.fractalx.netscope.benchmarks;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.fractalx.netscope.server.grpc.NetScopeAuthInterceptor;
+import org.fractalx.netscope.server.grpc.proto.InvokeRequest;
+import org.fractalx.netscope.server.grpc.proto.InvokeResponse;
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Full round trips over the in-process transport: client stub → auth interceptor →
+ * service → scanner → invoker → response, with no sockets involved.
+ *
+ *   unaryEcho   one InvokeMethod per operation
+ *   streamEcho  STREAM_BATCH requests over one InvokeMethodStream, reported per request
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndToEndBenchmark {
+
+    static final int STREAM_BATCH = 64;
+
+    @Param({"16", "1024", "65536"})
+    public int payloadBytes;
+
+    private NetScopeFixture fixture;
+    private Server server;
+    private ManagedChannel channel;
+    private NetScopeServiceGrpc.NetScopeServiceBlockingStub blockingStub;
+    private NetScopeServiceGrpc.NetScopeServiceStub asyncStub;
+    private InvokeRequest echoRequest;
+
+    @Setup
+    public void setup() throws Exception {
+        fixture = new NetScopeFixture();
+        String name = "netscope-bench-" + System.nanoTime();
+        server = InProcessServerBuilder.forName(name)
+                .addService(fixture.service())
+                .intercept(new NetScopeAuthInterceptor())
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).build();
+        blockingStub = NetScopeServiceGrpc.newBlockingStub(channel);
+        asyncStub    = NetScopeServiceGrpc.newStub(channel);
+
+        echoRequest = InvokeRequest.newBuilder()
+                .setBeanName("CatalogService")
+                .setMemberName("echo")
+                .setArguments(NetScopeFixture.stringArgument(payloadBytes))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        fixture.close();
+    }
+
+    @Benchmark
+    public InvokeResponse unaryEcho() {
+        return blockingStub.invokeMethod(echoRequest);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STREAM_BATCH)
+    public InvokeResponse streamEcho() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<InvokeResponse> last = new AtomicReference<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        StreamObserver<InvokeRequest> requests = asyncStub.invokeMethodStream(new StreamObserver<>() {
+            @Override public void onNext(InvokeResponse r) { last.set(r); }
+            @Override public void onError(Throwable t)     { failure.set(t); done.countDown(); }
+            @Override public void onCompleted()            { done.countDown(); }
+        });
+        for (int i = 0; i < STREAM_BATCH; i++) requests.onNext(echoRequest);
+        requests.onCompleted();
+
+        if (!done.await(30, TimeUnit.SECONDS)) throw new IllegalStateException("stream timed out");
+        if (failure.get() != null) throw new IllegalStateException(failure.get());
+        return last.get();
+    }
+}
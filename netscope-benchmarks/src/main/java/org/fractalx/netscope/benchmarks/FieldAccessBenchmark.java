@@ -0,0 +1,67 @@
+package org.fractalx.netscope.benchmarks;
+
+import org.fractalx.netscope.server.model.FieldAccessor;
+import org.fractalx.netscope.server.model.NetworkMethodDefinition;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Field reads and writes through the scan-time {@link FieldAccessor} against the
+ * per-request {@code setAccessible} + {@link Field#get}/{@link Field#set} path it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldAccessBenchmark {
+
+    private NetScopeFixture fixture;
+    private Object bean;
+    private Field field;
+    private FieldAccessor accessor;
+    private long next;
+
+    @Setup
+    public void setup() {
+        fixture = new NetScopeFixture();
+        NetworkMethodDefinition def = fixture.scanner()
+                .findMethod("CatalogService", "counter", List.of()).orElseThrow();
+        bean     = def.getBean();
+        field    = def.getField();
+        accessor = def.getFieldAccessor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public Object reflectiveRead() throws Exception {
+        field.setAccessible(true);
+        return field.get(bean);
+    }
+
+    @Benchmark
+    public Object accessorRead() {
+        return accessor.get(bean);
+    }
+
+    @Benchmark
+    public Object reflectiveReadThenWrite() throws Exception {
+        field.setAccessible(true);
+        Object previous = field.get(bean);
+        field.set(bean, ++next);
+        return previous;
+    }
+
+    @Benchmark
+    public Object accessorGetAndSet() {
+        return accessor.getAndSet(bean, ++next);
+    }
+}
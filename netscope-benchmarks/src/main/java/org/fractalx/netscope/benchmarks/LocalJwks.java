@@ -0,0 +1,72 @@
+package org.fractalx.netscope.benchmarks;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * A throwaway RSA signing key with its JWK set served over loopback HTTP,
+ * so token validation benchmarks exercise the real Nimbus processor.
+ */
+public class LocalJwks implements AutoCloseable {
+
+    public static final String ISSUER   = "https://bench.netscope.local";
+    public static final String AUDIENCE = "netscope-bench";
+
+    private final RSAKey key;
+    private final HttpServer http;
+
+    public LocalJwks() throws IOException, JOSEException {
+        this.key = new RSAKeyGenerator(2048).keyID("bench").generate();
+        byte[] body = new JWKSet(key.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+
+        this.http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.http.createContext("/jwks.json", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        this.http.start();
+    }
+
+    public String jwkSetUri() {
+        return "http://127.0.0.1:" + http.getAddress().getPort() + "/jwks.json";
+    }
+
+    /** Signs a fresh token for {@code subject}, valid for one hour. */
+    public String token(String subject) throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .audience(AUDIENCE)
+                .subject(subject)
+                .issueTime(new Date())
+                .expirationTime(new Date(System.currentTimeMillis() + 3_600_000L))
+                .claim("scope", "netscope.read")
+                .build();
+        SignedJWT jwt = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+
+    @Override
+    public void close() {
+        http.stop(0);
+    }
+}
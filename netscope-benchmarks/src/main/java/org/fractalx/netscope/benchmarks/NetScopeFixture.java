@@ -0,0 +1,94 @@
+package org.fractalx.netscope.benchmarks;
+
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import org.fractalx.netscope.server.config.NetScopeConfig;
+import org.fractalx.netscope.server.core.NetScopeInvoker;
+import org.fractalx.netscope.server.core.NetScopeScanner;
+import org.fractalx.netscope.server.grpc.NetScopeGrpcServiceImpl;
+import org.fractalx.netscope.server.security.OAuth2AuthorizationService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Wires the NetScope pipeline by hand against a small Spring context holding
+ * {@link BenchmarkBeans}. No auto-configuration and no network server, so each
+ * benchmark measures only the component it targets.
+ */
+public class NetScopeFixture implements AutoCloseable {
+
+    private final AnnotationConfigApplicationContext context;
+    private final NetScopeConfig config;
+    private final NetScopeScanner scanner;
+    private final NetScopeInvoker invoker;
+    private final OAuth2AuthorizationService authService;
+    private final NetScopeGrpcServiceImpl service;
+
+    public NetScopeFixture() {
+        this(new NetScopeConfig(), null);
+    }
+
+    public NetScopeFixture(NetScopeConfig config, OAuth2AuthorizationService authService) {
+        this.context = new AnnotationConfigApplicationContext();
+        this.context.registerBean(BenchmarkBeans.CatalogService.class);
+        this.context.refresh();
+
+        this.config      = config;
+        this.scanner     = new NetScopeScanner(context, config);
+        this.invoker     = new NetScopeInvoker();
+        this.authService = authService != null ? authService
+                                               : new OAuth2AuthorizationService(config, null, null);
+        this.service     = new NetScopeGrpcServiceImpl(scanner, invoker, this.authService);
+
+        scanner.scan();   // registry is built once, outside any measurement
+    }
+
+    public NetScopeConfig config()                  { return config; }
+    public NetScopeScanner scanner()                { return scanner; }
+    public NetScopeInvoker invoker()                { return invoker; }
+    public OAuth2AuthorizationService authService() { return authService; }
+    public NetScopeGrpcServiceImpl service()        { return service; }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    // ── Payload builders ──────────────────────────────────────────────────────
+
+    /** A string payload of exactly {@code bytes} ASCII characters. */
+    public static String payload(int bytes) {
+        return "x".repeat(Math.max(0, bytes));
+    }
+
+    /** {@code [ "<payload>" ]} */
+    public static ListValue stringArgument(int bytes) {
+        return ListValue.newBuilder()
+                .addValues(Value.newBuilder().setStringValue(payload(bytes)))
+                .build();
+    }
+
+    /** {@code [ [ {item}, {item}, ... ] ]} — a single Item[] argument. */
+    public static ListValue itemsArgument(int count) {
+        ListValue.Builder items = ListValue.newBuilder();
+        for (int i = 0; i < count; i++) {
+            items.addValues(Value.newBuilder().setStructValue(itemStruct(i)));
+        }
+        return ListValue.newBuilder()
+                .addValues(Value.newBuilder().setListValue(items))
+                .build();
+    }
+
+    public static Struct itemStruct(int i) {
+        BenchmarkBeans.Item item = BenchmarkBeans.Item.of(i);
+        return Struct.newBuilder()
+                .putFields("id",        Value.newBuilder().setNumberValue(item.id).build())
+                .putFields("name",      Value.newBuilder().setStringValue(item.name).build())
+                .putFields("price",     Value.newBuilder().setNumberValue(item.price).build())
+                .putFields("available", Value.newBuilder().setBoolValue(item.available).build())
+                .putFields("tags",      Value.newBuilder().setListValue(ListValue.newBuilder()
+                        .addValues(Value.newBuilder().setStringValue("tag-a"))
+                        .addValues(Value.newBuilder().setStringValue("tag-b"))).build())
+                .build();
+    }
+}
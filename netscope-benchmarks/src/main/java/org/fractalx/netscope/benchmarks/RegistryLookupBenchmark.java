@@ -0,0 +1,74 @@
+package org.fractalx.netscope.benchmarks;
+
+import org.fractalx.netscope.server.core.AmbiguousInvocationException;
+import org.fractalx.netscope.server.core.NetScopeScanner;
+import org.fractalx.netscope.server.model.NetworkMethodDefinition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link NetScopeScanner#findMethod} for each lookup path: field, exact signature,
+ * overload-unaware index, interface alias, miss and ambiguous overload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistryLookupBenchmark {
+
+    private static final List<String> NO_TYPES     = List.of();
+    private static final List<String> STRING_TYPES = List.of("String");
+
+    private NetScopeFixture fixture;
+    private NetScopeScanner scanner;
+
+    @Setup
+    public void setup() {
+        fixture = new NetScopeFixture();
+        scanner = fixture.scanner();
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public Optional<NetworkMethodDefinition> field() {
+        return scanner.findMethod("CatalogService", "version", NO_TYPES);
+    }
+
+    @Benchmark
+    public Optional<NetworkMethodDefinition> exactSignature() {
+        return scanner.findMethod("CatalogService", "process", STRING_TYPES);
+    }
+
+    @Benchmark
+    public Optional<NetworkMethodDefinition> unambiguousIndex() {
+        return scanner.findMethod("CatalogService", "items", NO_TYPES);
+    }
+
+    @Benchmark
+    public Optional<NetworkMethodDefinition> interfaceAlias() {
+        return scanner.findMethod("Catalog", "echo", NO_TYPES);
+    }
+
+    @Benchmark
+    public Optional<NetworkMethodDefinition> miss() {
+        return scanner.findMethod("CatalogService", "ghost", NO_TYPES);
+    }
+
+    @Benchmark
+    public Object ambiguous() {
+        try {
+            return scanner.findMethod("CatalogService", "process", NO_TYPES);
+        } catch (AmbiguousInvocationException e) {
+            return e.getCandidates();
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package org.fractalx.netscope.benchmarks.load;
+
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Value;
+import io.grpc.ManagedChannel;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.fractalx.netscope.server.grpc.proto.InvokeRequest;
+import org.fractalx.netscope.server.grpc.proto.InvokeResponse;
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc;
+import org.fractalx.netscope.server.grpc.proto.SetAttributeRequest;
+import org.fractalx.netscope.server.grpc.proto.SetAttributeResponse;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends one request for the open-loop driver without waiting for it to complete.
+ * {@link #issue} is only ever called from the driver thread.
+ */
+public interface CallIssuer {
+
+    void issue(long intendedNanos);
+
+    /** Requests sent whose outcome has not been recorded yet. */
+    long outstanding();
+
+    /** Ends any open streams so their pending responses can drain. */
+    default void finish() {}
+
+    /** Stops any background work; called once everything has drained or timed out. */
+    default void close() {}
+
+    // ── Factories ─────────────────────────────────────────────────────────────
+
+    static CallIssuer forMode(String mode, List<ManagedChannel> channels, int streamsPerChannel,
+                              int payloadBytes, long timeoutMillis, LatencyRecorder recorder) {
+        return switch (mode) {
+            case "invoke" -> new Unary(channels, payloadBytes, timeoutMillis, recorder);
+            case "set"    -> new SetAttribute(channels, payloadBytes, timeoutMillis, recorder);
+            case "stream" -> new Streaming(channels, streamsPerChannel, payloadBytes, timeoutMillis, recorder);
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode
+                    + " (expected invoke, stream or set)");
+        };
+    }
+
+    static InvokeRequest placeRequest(int payloadBytes) {
+        return InvokeRequest.newBuilder()
+                .setBeanName("OrderService")
+                .setMemberName("place")
+                .setArguments(ListValue.newBuilder()
+                        .addValues(Value.newBuilder().setStringValue("o".repeat(payloadBytes))))
+                .build();
+    }
+
+    // ── InvokeMethod ──────────────────────────────────────────────────────────
+
+    final class Unary implements CallIssuer {
+        private final List<NetScopeServiceGrpc.NetScopeServiceStub> stubs;
+        private final InvokeRequest request;
+        private final long timeoutMillis;
+        private final LatencyRecorder recorder;
+        private final AtomicLong outstanding = new AtomicLong();
+        private int next;
+
+        Unary(List<ManagedChannel> channels, int payloadBytes, long timeoutMillis,
+              LatencyRecorder recorder) {
+            this.stubs         = channels.stream().map(NetScopeServiceGrpc::newStub).toList();
+            this.request       = placeRequest(payloadBytes);
+            this.timeoutMillis = timeoutMillis;
+            this.recorder      = recorder;
+        }
+
+        @Override
+        public void issue(long intendedNanos) {
+            NetScopeServiceGrpc.NetScopeServiceStub stub = stubs.get(next++ % stubs.size());
+            long sentNanos = System.nanoTime();
+            outstanding.incrementAndGet();
+            recorder.sent(intendedNanos);
+            stub.withDeadlineAfter(timeoutMillis, TimeUnit.MILLISECONDS)
+                .invokeMethod(request, new StreamObserver<>() {
+                    @Override public void onNext(InvokeResponse r) {}
+                    @Override public void onError(Throwable t) {
+                        outstanding.decrementAndGet();
+                        recorder.failure(intendedNanos, sentNanos);
+                    }
+                    @Override public void onCompleted() {
+                        outstanding.decrementAndGet();
+                        recorder.success(intendedNanos, sentNanos);
+                    }
+                });
+        }
+
+        @Override
+        public long outstanding() { return outstanding.get(); }
+    }
+
+    // ── SetAttribute ──────────────────────────────────────────────────────────
+
+    final class SetAttribute implements CallIssuer {
+        private final List<NetScopeServiceGrpc.NetScopeServiceStub> stubs;
+        private final SetAttributeRequest request;
+        private final long timeoutMillis;
+        private final LatencyRecorder recorder;
+        private final AtomicLong outstanding = new AtomicLong();
+        private int next;
+
+        SetAttribute(List<ManagedChannel> channels, int payloadBytes, long timeoutMillis,
+                     LatencyRecorder recorder) {
+            this.stubs   = channels.stream().map(NetScopeServiceGrpc::newStub).toList();
+            this.request = SetAttributeRequest.newBuilder()
+                    .setBeanName("OrderService")
+                    .setAttributeName("status")
+                    .setValue(Value.newBuilder().setStringValue("s".repeat(payloadBytes)))
+                    .build();
+            this.timeoutMillis = timeoutMillis;
+            this.recorder      = recorder;
+        }
+
+        @Override
+        public void issue(long intendedNanos) {
+            NetScopeServiceGrpc.NetScopeServiceStub stub = stubs.get(next++ % stubs.size());
+            long sentNanos = System.nanoTime();
+            outstanding.incrementAndGet();
+            recorder.sent(intendedNanos);
+            stub.withDeadlineAfter(timeoutMillis, TimeUnit.MILLISECONDS)
+                .setAttribute(request, new StreamObserver<>() {
+                    @Override public void onNext(SetAttributeResponse r) {}
+                    @Override public void onError(Throwable t) {
+                        outstanding.decrementAndGet();
+                        recorder.failure(intendedNanos, sentNanos);
+                    }
+                    @Override public void onCompleted() {
+                        outstanding.decrementAndGet();
+                        recorder.success(intendedNanos, sentNanos);
+                    }
+                });
+        }
+
+        @Override
+        public long outstanding() { return outstanding.get(); }
+    }
+
+    // ── InvokeMethodStream ────────────────────────────────────────────────────
+
+    /**
+     * Spreads requests over long-lived bidirectional streams. The server answers each
+     * stream in order, so every stream keeps a FIFO of {intended, sent} timestamps that
+     * responses are matched against. A failed stream fails its pending requests and is
+     * reopened on the next send.
+     *
+     * <p>A stream has no per-item deadline of its own, so a sweeper thread checks the
+     * oldest pending item of every stream; once it has waited {@code timeoutMillis}, the
+     * stream is cancelled and its pending items fail, as a unary call would at its deadline.
+     */
+    final class Streaming implements CallIssuer {
+        private final List<NetScopeServiceGrpc.NetScopeServiceStub> stubs;
+        private final InvokeRequest request;
+        private final long timeoutNanos;
+        private final LatencyRecorder recorder;
+        private final Lane[] lanes;
+        private final AtomicLong outstanding = new AtomicLong();
+        private final ScheduledExecutorService sweeper;
+        private int next;
+
+        Streaming(List<ManagedChannel> channels, int streamsPerChannel, int payloadBytes,
+                  long timeoutMillis, LatencyRecorder recorder) {
+            this.stubs        = channels.stream().map(NetScopeServiceGrpc::newStub).toList();
+            this.request      = placeRequest(payloadBytes);
+            this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            this.recorder     = recorder;
+            this.lanes        = new Lane[channels.size() * Math.max(1, streamsPerChannel)];
+            for (int i = 0; i < lanes.length; i++) lanes[i] = new Lane(stubs.get(i % stubs.size()));
+            this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "netscope-load-stream-deadlines");
+                t.setDaemon(true);
+                return t;
+            });
+            sweeper.scheduleWithFixedDelay(this::expire, 10, 10, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void issue(long intendedNanos) {
+            Lane lane = lanes[next++ % lanes.length];
+            long sentNanos = System.nanoTime();
+            outstanding.incrementAndGet();
+            recorder.sent(intendedNanos);
+            lane.send(new long[] {intendedNanos, sentNanos});
+        }
+
+        @Override
+        public long outstanding() { return outstanding.get(); }
+
+        @Override
+        public void finish() {
+            for (Lane lane : lanes) lane.finish();
+        }
+
+        @Override
+        public void close() {
+            sweeper.shutdownNow();
+        }
+
+        private void expire() {
+            long now = System.nanoTime();
+            for (Lane lane : lanes) {
+                Stream stream = lane.current;
+                if (stream == null) continue;
+                long[] oldest = stream.pending.peek();
+                if (oldest != null && now - oldest[1] >= timeoutNanos) stream.fail("Stream item deadline exceeded");
+            }
+        }
+
+        /** One opened stream: its pending items, and whether it has failed. */
+        private final class Stream {
+            final Queue<long[]> pending = new ConcurrentLinkedQueue<>();
+            final AtomicBoolean broken = new AtomicBoolean();
+            volatile ClientCallStreamObserver<InvokeRequest> requests;
+
+            /** Marks the stream broken, cancels it and fails what is pending. Any thread. */
+            void fail(String reason) {
+                if (broken.compareAndSet(false, true) && requests != null) requests.cancel(reason, null);
+                failAll();
+            }
+
+            void failAll() {
+                long[] t;
+                while ((t = pending.poll()) != null) {
+                    outstanding.decrementAndGet();
+                    recorder.failure(t[0], t[1]);
+                }
+            }
+        }
+
+        private final class Lane {
+            private final NetScopeServiceGrpc.NetScopeServiceStub stub;
+            private volatile Stream current;   // written by the driver thread only
+
+            Lane(NetScopeServiceGrpc.NetScopeServiceStub stub) {
+                this.stub = stub;
+            }
+
+            void send(long[] timestamps) {
+                Stream stream = current;
+                if (stream == null || stream.broken.get()) stream = open();
+                stream.pending.add(timestamps);
+                stream.requests.onNext(request);
+                // The stream may have failed between the check above and the add —
+                // broken is set before the callback drains, so one of us fails the entry
+                if (stream.broken.get()) stream.failAll();
+            }
+
+            void finish() {
+                Stream stream = current;
+                if (stream != null && !stream.broken.get()) stream.requests.onCompleted();
+                current = null;
+            }
+
+            private Stream open() {
+                Stream stream = new Stream();
+                stream.requests = (ClientCallStreamObserver<InvokeRequest>) stub.invokeMethodStream(new StreamObserver<>() {
+                    @Override
+                    public void onNext(InvokeResponse r) {
+                        long[] t = stream.pending.poll();
+                        if (t == null) return;
+                        outstanding.decrementAndGet();
+                        recorder.success(t[0], t[1]);
+                    }
+
+                    @Override
+                    public void onError(Throwable err) {
+                        stream.broken.set(true);
+                        stream.failAll();
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        stream.broken.set(true);
+                        stream.failAll();   // anything still pending never got an answer
+                    }
+                });
+                current = stream;
+                return stream;
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.fractalx.netscope.benchmarks.load;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulated service time for the sample beans, parsed from a compact spec:
+ *
+ * <pre>
+ *   none                      no delay (default)
+ *   fixed:5ms                 always 5 ms
+ *   uniform:1ms-10ms          uniformly distributed in [1 ms, 10 ms)
+ *   exponential:2ms           exponential with a 2 ms mean
+ *   bimodal:1ms,50ms,0.05     1 ms, except 5% of calls take 50 ms
+ * </pre>
+ *
+ * Durations accept {@code ns}, {@code us}, {@code ms} and {@code s} suffixes.
+ */
+public final class LatencyProfile {
+
+    private enum Kind { NONE, FIXED, UNIFORM, EXPONENTIAL, BIMODAL }
+
+    private final Kind kind;
+    private final long a;          // fixed / min / mean / fast
+    private final long b;          // max / slow
+    private final double fraction; // bimodal slow fraction
+    private final String spec;
+
+    private LatencyProfile(Kind kind, long a, long b, double fraction, String spec) {
+        this.kind     = kind;
+        this.a        = a;
+        this.b        = b;
+        this.fraction = fraction;
+        this.spec     = spec;
+    }
+
+    public static LatencyProfile none() {
+        return new LatencyProfile(Kind.NONE, 0, 0, 0, "none");
+    }
+
+    public static LatencyProfile parse(String spec) {
+        if (spec == null || spec.isBlank() || spec.equals("none")) return none();
+        int colon = spec.indexOf(':');
+        if (colon < 0) throw new IllegalArgumentException("Invalid latency profile: " + spec);
+        String kind = spec.substring(0, colon);
+        String args = spec.substring(colon + 1);
+        return switch (kind) {
+            case "fixed" -> new LatencyProfile(Kind.FIXED, nanos(args), 0, 0, spec);
+            case "uniform" -> {
+                String[] range = args.split("-");
+                yield new LatencyProfile(Kind.UNIFORM, nanos(range[0]), nanos(range[1]), 0, spec);
+            }
+            case "exponential" -> new LatencyProfile(Kind.EXPONENTIAL, nanos(args), 0, 0, spec);
+            case "bimodal" -> {
+                String[] parts = args.split(",");
+                yield new LatencyProfile(Kind.BIMODAL, nanos(parts[0]), nanos(parts[1]),
+                        Double.parseDouble(parts[2]), spec);
+            }
+            default -> throw new IllegalArgumentException("Unknown latency profile: " + kind);
+        };
+    }
+
+    /** Draws one service time in nanoseconds. */
+    public long sampleNanos() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (kind) {
+            case NONE        -> 0;
+            case FIXED       -> a;
+            case UNIFORM     -> a + (long) (random.nextDouble() * (b - a));
+            case EXPONENTIAL -> (long) (-a * Math.log(1.0 - random.nextDouble()));
+            case BIMODAL     -> random.nextDouble() < fraction ? b : a;
+        };
+    }
+
+    /** Blocks the calling thread for one sampled service time. */
+    public void pause() {
+        long nanos = sampleNanos();
+        if (nanos <= 0) return;
+        long deadline = System.nanoTime() + nanos;
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+    static long nanos(String value) {
+        String v = value.trim();
+        if (v.endsWith("ns")) return Long.parseLong(v.substring(0, v.length() - 2));
+        if (v.endsWith("us")) return Long.parseLong(v.substring(0, v.length() - 2)) * 1_000;
+        if (v.endsWith("ms")) return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2))).toNanos();
+        if (v.endsWith("s"))  return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1))).toNanos();
+        throw new IllegalArgumentException("Duration needs a unit (ns, us, ms, s): " + value);
+    }
+}
@@ -0,0 +1,97 @@
+package org.fractalx.netscope.benchmarks.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe latency accounting for an open-loop run.
+ *
+ * <p>Every outcome, success or failure, records two values:
+ * <ul>
+ *   <li><b>response time</b> — from the request's <em>intended</em> start, so time spent
+ *       queued behind a slow server counts against it (coordinated-omission corrected);</li>
+ *   <li><b>service time</b> — from the moment the request was actually sent.</li>
+ * </ul>
+ * A request that times out after ten seconds is a ten-second sample, not a gap in the
+ * histogram. Outcomes of requests intended before {@code measureFromNanos} are warm-up and
+ * ignored. Throughput counts only successes that complete between {@code measureFromNanos}
+ * and {@code measureUntilNanos}, so the drain after the last send does not inflate it.
+ */
+public class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE = TimeUnit.MINUTES.toNanos(5);
+
+    private final Recorder responseTime = new Recorder(HIGHEST_TRACKABLE, 3);
+    private final Recorder serviceTime  = new Recorder(HIGHEST_TRACKABLE, 3);
+    private final Histogram totalResponse = new Histogram(HIGHEST_TRACKABLE, 3);
+    private final Histogram totalService  = new Histogram(HIGHEST_TRACKABLE, 3);
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder inWindow  = new LongAdder();
+    private final LongAdder errors    = new LongAdder();
+    private final LongAdder sent      = new LongAdder();
+
+    private final long measureFromNanos;
+    private final long measureUntilNanos;
+
+    public LatencyRecorder(long measureFromNanos, long measureUntilNanos) {
+        this.measureFromNanos  = measureFromNanos;
+        this.measureUntilNanos = measureUntilNanos;
+    }
+
+    public void sent(long intendedNanos) {
+        if (intendedNanos >= measureFromNanos) sent.increment();
+    }
+
+    public void success(long intendedNanos, long sentNanos) {
+        long now = System.nanoTime();
+        if (intendedNanos < measureFromNanos) return;
+        record(now, intendedNanos, sentNanos);
+        completed.increment();
+        if (now <= measureUntilNanos) inWindow.increment();
+    }
+
+    public void failure(long intendedNanos, long sentNanos) {
+        long now = System.nanoTime();
+        if (intendedNanos < measureFromNanos) return;
+        record(now, intendedNanos, sentNanos);
+        errors.increment();
+    }
+
+    /** Successes completed inside the measured window, per second of it. */
+    public double throughput() {
+        return inWindow.sum() / ((measureUntilNanos - measureFromNanos) / 1e9);
+    }
+
+    public long sentCount()      { return sent.sum(); }
+    public long completedCount() { return completed.sum(); }
+    public long errorCount()     { return errors.sum(); }
+
+    /**
+     * Swaps out the interval histograms, folds them into the run totals and returns
+     * the interval's response-time histogram. Call from a single reporting thread.
+     */
+    public synchronized Histogram interval() {
+        Histogram response = responseTime.getIntervalHistogram();
+        Histogram service  = serviceTime.getIntervalHistogram();
+        totalResponse.add(response);
+        totalService.add(service);
+        return response;
+    }
+
+    /** Run totals; call {@link #interval()} once more after the run to flush. */
+    public Histogram totalResponseTime() { return totalResponse; }
+    public Histogram totalServiceTime()  { return totalService; }
+
+    private void record(long now, long intendedNanos, long sentNanos) {
+        responseTime.recordValue(clamp(now - intendedNanos));
+        serviceTime.recordValue(clamp(now - sentNanos));
+    }
+
+    private static long clamp(long nanos) {
+        return Math.max(1, Math.min(nanos, HIGHEST_TRACKABLE));
+    }
+}
@@ -0,0 +1,256 @@
+package org.fractalx.netscope.benchmarks.load;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.fractalx.netscope.server.grpc.NetScopeAuthInterceptor;
+import org.fractalx.netscope.server.grpc.NetScopeGrpcServer;
+import org.fractalx.netscope.server.grpc.NetScopeGrpcServiceImpl;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for a NetScope server.
+ *
+ * <p>Requests are issued on a fixed schedule regardless of how fast the server answers,
+ * and each latency is measured from the request's intended start time, so a stalled
+ * server shows up in the percentiles instead of silently lowering the offered load
+ * (coordinated omission).
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar org.fractalx.netscope.benchmarks.load.LoadGenerator \
+ *      --mode=invoke --target=loopback --rate=5000 --duration=30 --latency=exponential:2ms
+ * </pre>
+ *
+ * Options (all {@code --name=value}):
+ * <pre>
+ *   mode       invoke | stream | set                    (invoke)
+ *   target     inprocess | loopback | host:port         (inprocess)
+ *   rate       offered requests per second              (1000)
+ *   duration   measured seconds                         (30)
+ *   warmup     seconds discarded before measuring       (10)
+ *   channels   client channels                          (4)
+ *   streams    streams per channel in stream mode       (4)
+ *   payload    request payload bytes                    (64)
+ *   latency    bean service time, see LatencyProfile    (none)
+ *   timeout    per-call deadline in milliseconds        (10000)
+ *   hdr-out    file to write the interval histogram log (none)
+ * </pre>
+ * {@code inprocess} and {@code loopback} start {@link LoadTestApplication} in this JVM;
+ * {@code loopback} serves it through {@link NetScopeGrpcServer} on an ephemeral port.
+ */
+public final class LoadGenerator {
+
+    private static final PrintStream out = System.out;
+
+    private LoadGenerator() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parse(args);
+        String mode     = opts.getOrDefault("mode", "invoke");
+        String target   = opts.getOrDefault("target", "inprocess");
+        int rate        = Integer.parseInt(opts.getOrDefault("rate", "1000"));
+        int duration    = Integer.parseInt(opts.getOrDefault("duration", "30"));
+        int warmup      = Integer.parseInt(opts.getOrDefault("warmup", "10"));
+        int channelsN   = Integer.parseInt(opts.getOrDefault("channels", "4"));
+        int streams     = Integer.parseInt(opts.getOrDefault("streams", "4"));
+        int payload     = Integer.parseInt(opts.getOrDefault("payload", "64"));
+        String latency  = opts.getOrDefault("latency", "none");
+        long timeout    = Long.parseLong(opts.getOrDefault("timeout", "10000"));
+        String hdrOut   = opts.get("hdr-out");
+
+        LatencyProfile.parse(latency);   // fail fast on a bad spec
+
+        ConfigurableApplicationContext context = null;
+        Server inProcessServer = null;
+        List<ManagedChannel> channels = new ArrayList<>();
+        try {
+            String description;
+            if (target.equals("inprocess") || target.equals("loopback")) {
+                context = startSampleContext(latency);
+            }
+            if (target.equals("inprocess")) {
+                String name = "netscope-load-" + System.nanoTime();
+                inProcessServer = InProcessServerBuilder.forName(name)
+                        .addService(context.getBean(NetScopeGrpcServiceImpl.class))
+                        .intercept(new NetScopeAuthInterceptor())
+                        .build().start();
+                for (int i = 0; i < channelsN; i++) {
+                    channels.add(InProcessChannelBuilder.forName(name).directExecutor().build());
+                }
+                description = "in-process (" + name + ")";
+            } else {
+                String address = target.equals("loopback")
+                        ? "127.0.0.1:" + context.getBean(NetScopeGrpcServer.class).getPort()
+                        : target;
+                for (int i = 0; i < channelsN; i++) {
+                    channels.add(ManagedChannelBuilder.forTarget(address)
+                            .usePlaintext().directExecutor().build());
+                }
+                description = address;
+            }
+
+            out.printf("NetScope load: mode=%s target=%s rate=%d/s duration=%ds warmup=%ds "
+                            + "channels=%d payload=%dB latency=%s%n",
+                    mode, description, rate, duration, warmup, channelsN, payload, latency);
+
+            run(mode, channels, streams, payload, timeout, rate, warmup, duration, hdrOut);
+        } finally {
+            for (ManagedChannel channel : channels) channel.shutdownNow();
+            if (inProcessServer != null) inProcessServer.shutdownNow();
+            if (context != null) context.close();
+        }
+    }
+
+    // ── Driver ────────────────────────────────────────────────────────────────
+
+    private static void run(String mode, List<ManagedChannel> channels, int streams, int payload,
+                            long timeoutMillis, int rate, int warmupSeconds, int durationSeconds,
+                            String hdrOut) throws Exception {
+        long start        = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom  = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end          = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        double interval   = 1_000_000_000.0 / rate;
+
+        LatencyRecorder recorder = new LatencyRecorder(measureFrom, end);
+        CallIssuer issuer = CallIssuer.forMode(mode, channels, streams, payload, timeoutMillis, recorder);
+
+        HistogramLogWriter log = hdrOut != null ? new HistogramLogWriter(new File(hdrOut)) : null;
+        if (log != null) {
+            log.outputLogFormatVersion();
+            log.outputLegend();
+        }
+
+        Thread reporter = new Thread(() -> report(recorder, issuer, measureFrom, end, log),
+                "netscope-load-reporter");
+        reporter.setDaemon(true);
+        reporter.start();
+
+        // Issue on schedule; if we fall behind, send immediately — the latency of late
+        // requests still counts from their intended start
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * interval);
+            if (intended >= end) break;
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                long wait = intended - now;
+                if (wait > 50_000) LockSupport.parkNanos(wait - 20_000);
+                else Thread.onSpinWait();
+            }
+            issuer.issue(intended);
+        }
+        issuer.finish();
+
+        // Let in-flight calls finish or hit their deadline
+        long drainUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis + 1000);
+        while (issuer.outstanding() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(10);
+        }
+        issuer.close();
+        reporter.interrupt();
+        reporter.join();
+
+        summary(recorder, issuer, rate, durationSeconds);
+        if (log != null) log.close();
+    }
+
+    private static void report(LatencyRecorder recorder, CallIssuer issuer, long measureFrom,
+                               long end, HistogramLogWriter log) {
+        out.printf("%8s %10s %10s %8s %10s %10s %10s %10s%n",
+                "t(s)", "completed", "rate/s", "errors", "p50(ms)", "p99(ms)", "max(ms)", "inflight");
+        long lastCompleted = 0;
+        long lastErrors = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(1000);
+                Histogram h = recorder.interval();
+                long now = System.nanoTime();
+                if (now < measureFrom) continue;
+                if (log != null) log.outputIntervalHistogram(h);
+                long completed = recorder.completedCount();
+                long errors    = recorder.errorCount();
+                out.printf("%8.1f %10d %10d %8d %10.3f %10.3f %10.3f %10d%n",
+                        (now - measureFrom) / 1e9, completed, completed - lastCompleted,
+                        errors - lastErrors,
+                        ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(99)),
+                        ms(h.getMaxValue()), issuer.outstanding());
+                lastCompleted = completed;
+                lastErrors    = errors;
+            }
+        } catch (InterruptedException ignored) {
+            // run finished
+        }
+        Histogram h = recorder.interval();   // flush the last partial interval
+        if (log != null && h.getTotalCount() > 0) log.outputIntervalHistogram(h);
+    }
+
+    private static void summary(LatencyRecorder recorder, CallIssuer issuer, int rate, int seconds) {
+        Histogram response = recorder.totalResponseTime();
+        Histogram service  = recorder.totalServiceTime();
+        out.println();
+        out.println("-- Summary ---------------------------------------------------------");
+        out.printf("Offered      : %d req/s for %d s (%d sent)%n", rate, seconds, recorder.sentCount());
+        out.printf("Throughput   : %.1f req/s completed%n", recorder.throughput());
+        out.printf("Errors       : %d%n", recorder.errorCount());
+        out.printf("Unanswered   : %d%n", issuer.outstanding());
+        out.println();
+        out.printf("%-10s %18s %18s%n", "percentile", "response (ms)", "service (ms)");
+        for (double p : new double[] {50, 90, 99, 99.9, 99.99}) {
+            out.printf("%-10s %18.3f %18.3f%n", "p" + p,
+                    ms(response.getValueAtPercentile(p)), ms(service.getValueAtPercentile(p)));
+        }
+        out.printf("%-10s %18.3f %18.3f%n", "max", ms(response.getMaxValue()), ms(service.getMaxValue()));
+        out.println();
+        out.println("response = from intended start (coordinated-omission corrected); "
+                + "service = from actual send; failed and timed-out requests included");
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /**
+     * Boots the sample application with NetScope auto-configuration. The TCP server
+     * always starts on an ephemeral port; in-process runs simply don't connect to it.
+     */
+    static ConfigurableApplicationContext startSampleContext(String latency) {
+        return new SpringApplicationBuilder(LoadTestApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "load.latency=" + latency,
+                        "netscope.server.grpc.enabled=true",
+                        "netscope.server.grpc.port=0",
+                        "netscope.server.grpc.enable-reflection=false",
+                        "netscope.server.security.enabled=false",
+                        "logging.level.org.fractalx.netscope.server=WARN")
+                .run();
+    }
+
+    static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            opts.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return opts;
+    }
+}
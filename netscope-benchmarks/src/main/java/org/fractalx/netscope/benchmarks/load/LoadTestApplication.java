@@ -0,0 +1,34 @@
+package org.fractalx.netscope.benchmarks.load;
+
+import org.fractalx.netscope.server.annotation.NetworkPublic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.stereotype.Service;
+
+/**
+ * Sample Spring Boot application the load generator starts when it targets
+ * {@code loopback} or {@code inprocess}. NetScope is wired by its normal
+ * auto-configuration; the bean's service time follows {@code load.latency}.
+ */
+@SpringBootApplication
+public class LoadTestApplication {
+
+    @Service
+    public static class OrderService {
+
+        private final LatencyProfile latency;
+
+        @NetworkPublic(description = "Writable status flag — target of SetAttribute load")
+        private volatile String status = "OPEN";
+
+        public OrderService(@Value("${load.latency:none}") String latency) {
+            this.latency = LatencyProfile.parse(latency);
+        }
+
+        @NetworkPublic(description = "Echoes the order after the configured service time")
+        public String place(String order) {
+            latency.pause();
+            return order;
+        }
+    }
+}
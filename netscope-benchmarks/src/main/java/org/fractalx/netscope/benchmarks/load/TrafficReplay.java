@@ -0,0 +1,325 @@
+package org.fractalx.netscope.benchmarks.load;
+
+import com.google.protobuf.Message;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.fractalx.netscope.server.grpc.NetScopeAuthInterceptor;
+import org.fractalx.netscope.server.grpc.NetScopeGrpcServer;
+import org.fractalx.netscope.server.grpc.NetScopeGrpcServiceImpl;
+import org.fractalx.netscope.server.grpc.TrafficCapture;
+import org.fractalx.netscope.server.grpc.proto.InvokeRequest;
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc;
+import org.fractalx.netscope.server.grpc.proto.SetAttributeRequest;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays traffic captured by {@link TrafficCapture} against a NetScope server and reports
+ * latency percentiles, overall and by member.
+ *
+ * <p>Requests are sent open-loop at their captured arrival times, divided by {@code speed},
+ * and each latency is measured from that intended time, as in {@link LoadGenerator}.
+ * Gaps longer than {@code max-gap} — a server restart between capture sessions, a quiet
+ * night — are shortened to it. Captures hold no credentials; pass them with
+ * {@code api-key} or {@code bearer} if the target needs them.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar org.fractalx.netscope.benchmarks.load.TrafficReplay \
+ *      --capture=/var/tmp/netscope-capture --target=localhost:9090 --speed=2
+ * </pre>
+ *
+ * Options (all {@code --name=value}):
+ * <pre>
+ *   capture    directory holding capture-NNNNNN.bin files   (required)
+ *   target     inprocess | loopback | host:port             (inprocess)
+ *   speed      replay rate as a multiple of the original    (1.0)
+ *   max-gap    longest pause between requests, ms           (1000)
+ *   repeat     times to replay the capture                  (1)
+ *   warmup     seconds of replay discarded                  (0)
+ *   channels   client channels                              (4)
+ *   latency    sample bean service time, see LatencyProfile (none)
+ *   timeout    per-call deadline in milliseconds            (10000)
+ *   api-key    x-api-key header sent with every request     (none)
+ *   bearer     bearer token sent with every request         (none)
+ * </pre>
+ * {@code inprocess} and {@code loopback} start {@link LoadTestApplication} in this JVM, so
+ * they suit captures of its {@code OrderService}; point {@code target} at a local copy of
+ * the captured application for anything else.
+ */
+public final class TrafficReplay {
+
+    private static final PrintStream out = System.out;
+
+    private static final long HIGHEST_TRACKABLE = TimeUnit.MINUTES.toNanos(5);
+
+    private TrafficReplay() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = LoadGenerator.parse(args);
+        String capture  = opts.get("capture");
+        String target   = opts.getOrDefault("target", "inprocess");
+        double speed    = Double.parseDouble(opts.getOrDefault("speed", "1.0"));
+        long maxGap     = Long.parseLong(opts.getOrDefault("max-gap", "1000"));
+        int repeat      = Integer.parseInt(opts.getOrDefault("repeat", "1"));
+        int warmup      = Integer.parseInt(opts.getOrDefault("warmup", "0"));
+        int channelsN   = Integer.parseInt(opts.getOrDefault("channels", "4"));
+        String latency  = opts.getOrDefault("latency", "none");
+        long timeout    = Long.parseLong(opts.getOrDefault("timeout", "10000"));
+
+        if (capture == null) throw new IllegalArgumentException("--capture=<directory> is required");
+        if (speed <= 0) throw new IllegalArgumentException("--speed must be positive");
+        LatencyProfile.parse(latency);   // fail fast on a bad spec
+
+        List<TrafficCapture.Captured> records = TrafficCapture.read(Path.of(capture));
+        if (records.isEmpty()) throw new IllegalArgumentException("No captured requests in " + capture);
+        long[] offsets = schedule(records, TimeUnit.MILLISECONDS.toNanos(maxGap), speed);
+
+        Metadata headers = new Metadata();
+        if (opts.containsKey("api-key")) headers.put(NetScopeAuthInterceptor.API_KEY_HEADER, opts.get("api-key"));
+        if (opts.containsKey("bearer"))  headers.put(NetScopeAuthInterceptor.AUTHORIZATION_KEY, "Bearer " + opts.get("bearer"));
+
+        ConfigurableApplicationContext context = null;
+        Server inProcessServer = null;
+        List<ManagedChannel> channels = new ArrayList<>();
+        try {
+            String description;
+            if (target.equals("inprocess") || target.equals("loopback")) {
+                context = LoadGenerator.startSampleContext(latency);
+            }
+            if (target.equals("inprocess")) {
+                String name = "netscope-replay-" + System.nanoTime();
+                inProcessServer = InProcessServerBuilder.forName(name)
+                        .addService(context.getBean(NetScopeGrpcServiceImpl.class))
+                        .intercept(new NetScopeAuthInterceptor())
+                        .build().start();
+                for (int i = 0; i < channelsN; i++) {
+                    channels.add(InProcessChannelBuilder.forName(name).directExecutor().build());
+                }
+                description = "in-process (" + name + ")";
+            } else {
+                String address = target.equals("loopback")
+                        ? "127.0.0.1:" + context.getBean(NetScopeGrpcServer.class).getPort()
+                        : target;
+                for (int i = 0; i < channelsN; i++) {
+                    channels.add(ManagedChannelBuilder.forTarget(address)
+                            .usePlaintext().directExecutor().build());
+                }
+                description = address;
+            }
+
+            out.printf("NetScope replay: %d request(s) from %s, %.1f s at speed %.2fx, repeat=%d target=%s%n",
+                    records.size(), capture, offsets[offsets.length - 1] / 1e9, speed, repeat, description);
+
+            Replayer replayer = new Replayer(channels, headers, timeout);
+            run(replayer, records, offsets, repeat, warmup, timeout);
+        } finally {
+            for (ManagedChannel channel : channels) channel.shutdownNow();
+            if (inProcessServer != null) inProcessServer.shutdownNow();
+            if (context != null) context.close();
+        }
+    }
+
+    // ── Schedule ──────────────────────────────────────────────────────────────
+
+    /**
+     * Orders {@code records} by arrival and returns each one's send time, in nanoseconds
+     * from the first: the original spacing, gaps capped at {@code maxGapNanos}, divided by
+     * {@code speed}.
+     */
+    static long[] schedule(List<TrafficCapture.Captured> records, long maxGapNanos, double speed) {
+        records.sort(Comparator.comparingLong(TrafficReplay::arrival));
+        long[] offsets = new long[records.size()];
+        long elapsed = 0;
+        for (int i = 1; i < offsets.length; i++) {
+            long gap = arrival(records.get(i)) - arrival(records.get(i - 1));
+            elapsed += Math.min(gap, maxGapNanos);
+            offsets[i] = (long) (elapsed / speed);
+        }
+        return offsets;
+    }
+
+    /** Captured arrival on one time line across capture sessions, in nanoseconds. */
+    private static long arrival(TrafficCapture.Captured record) {
+        return TimeUnit.MILLISECONDS.toNanos(record.sessionStartMillis()) + record.arrivalNanos();
+    }
+
+    // ── Driver ────────────────────────────────────────────────────────────────
+
+    private static void run(Replayer replayer, List<TrafficCapture.Captured> records, long[] offsets,
+                            int repeat, int warmupSeconds, long timeoutMillis) throws Exception {
+        long pass         = offsets[offsets.length - 1] + 1;
+        long start        = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom  = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long measureUntil = start + (repeat - 1) * pass + offsets[offsets.length - 1] + 1;
+        replayer.measure(measureFrom, measureUntil);
+
+        // Send on schedule; if we fall behind, send immediately — the latency of late
+        // requests still counts from their intended start
+        for (int r = 0; r < repeat; r++) {
+            for (int i = 0; i < offsets.length; i++) {
+                long intended = start + r * pass + offsets[i];
+                long now;
+                while ((now = System.nanoTime()) < intended) {
+                    long wait = intended - now;
+                    if (wait > 50_000) LockSupport.parkNanos(wait - 20_000);
+                    else Thread.onSpinWait();
+                }
+                replayer.issue(intended, records.get(i).request());
+            }
+        }
+        long end = System.nanoTime();
+
+        // Let in-flight calls finish or hit their deadline
+        long drainUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis + 1000);
+        while (replayer.outstanding() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(10);
+        }
+
+        summary(replayer, Math.max(1, end - measureFrom));
+    }
+
+    private static void summary(Replayer replayer, long measuredNanos) {
+        LatencyRecorder recorder = replayer.recorder;
+        recorder.interval();   // fold everything recorded into the totals
+        Histogram response = recorder.totalResponseTime();
+        Histogram service  = recorder.totalServiceTime();
+        double seconds = measuredNanos / 1e9;
+        out.println();
+        out.println("-- Summary ---------------------------------------------------------");
+        out.printf("Replayed     : %d requests in %.1f s (%.1f req/s offered)%n",
+                recorder.sentCount(), seconds, recorder.sentCount() / seconds);
+        out.printf("Throughput   : %.1f req/s completed%n", recorder.throughput());
+        out.printf("Errors       : %d %s%n", recorder.errorCount(), replayer.errorsByCode());
+        out.printf("Unanswered   : %d%n", replayer.outstanding());
+        out.println();
+        out.printf("%-10s %18s %18s%n", "percentile", "response (ms)", "service (ms)");
+        for (double p : new double[] {50, 90, 99, 99.9, 99.99}) {
+            out.printf("%-10s %18.3f %18.3f%n", "p" + p,
+                    LoadGenerator.ms(response.getValueAtPercentile(p)),
+                    LoadGenerator.ms(service.getValueAtPercentile(p)));
+        }
+        out.printf("%-10s %18.3f %18.3f%n", "max",
+                LoadGenerator.ms(response.getMaxValue()), LoadGenerator.ms(service.getMaxValue()));
+        out.println();
+        out.printf("%-40s %10s %8s %10s %10s %10s%n", "member", "completed", "errors", "p50(ms)", "p99(ms)", "max(ms)");
+        for (Map.Entry<String, Member> e : new TreeMap<>(replayer.members).entrySet()) {
+            Histogram h = e.getValue().responseTime;
+            out.printf("%-40s %10d %8d %10.3f %10.3f %10.3f%n", e.getKey(), h.getTotalCount(),
+                    e.getValue().errors.sum(), LoadGenerator.ms(h.getValueAtPercentile(50)),
+                    LoadGenerator.ms(h.getValueAtPercentile(99)), LoadGenerator.ms(h.getMaxValue()));
+        }
+        out.println();
+        out.println("response = from intended start (coordinated-omission corrected); "
+                + "service = from actual send");
+    }
+
+    // ── Sending ───────────────────────────────────────────────────────────────
+
+    private static final class Member {
+        final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE, 3);
+        final LongAdder errors = new LongAdder();
+    }
+
+    /**
+     * Sends captured requests on their own RPC without waiting for them to complete.
+     * {@link #issue} is only ever called from the driver thread.
+     */
+    private static final class Replayer {
+        private final List<NetScopeServiceGrpc.NetScopeServiceStub> stubs;
+        private final long timeoutMillis;
+        private final AtomicLong outstanding = new AtomicLong();
+        private final Map<String, Member> members = new ConcurrentHashMap<>();
+        private final Map<Status.Code, LongAdder> errors = new ConcurrentHashMap<>();
+        private LatencyRecorder recorder;
+        private long measureFrom;
+        private int next;
+
+        Replayer(List<ManagedChannel> channels, Metadata headers, long timeoutMillis) {
+            this.stubs = channels.stream()
+                    .map(c -> NetScopeServiceGrpc.newStub(c)
+                            .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers)))
+                    .toList();
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        void measure(long fromNanos, long untilNanos) {
+            this.measureFrom = fromNanos;
+            this.recorder    = new LatencyRecorder(fromNanos, untilNanos);
+        }
+
+        void issue(long intendedNanos, Message request) {
+            NetScopeServiceGrpc.NetScopeServiceStub stub = stubs.get(next++ % stubs.size())
+                    .withDeadlineAfter(timeoutMillis, TimeUnit.MILLISECONDS);
+            long sentNanos = System.nanoTime();
+            outstanding.incrementAndGet();
+            recorder.sent(intendedNanos);
+            if (request instanceof InvokeRequest r) {
+                Member member = members.computeIfAbsent(r.getBeanName() + "." + r.getMemberName(), k -> new Member());
+                stub.invokeMethod(r, new Outcome<>(member, intendedNanos, sentNanos));
+            } else if (request instanceof SetAttributeRequest r) {
+                Member member = members.computeIfAbsent(r.getBeanName() + "." + r.getAttributeName(), k -> new Member());
+                stub.setAttribute(r, new Outcome<>(member, intendedNanos, sentNanos));
+            }
+        }
+
+        long outstanding() { return outstanding.get(); }
+
+        Map<Status.Code, Long> errorsByCode() {
+            Map<Status.Code, Long> counts = new TreeMap<>();
+            errors.forEach((code, n) -> counts.put(code, n.sum()));
+            return counts;
+        }
+
+        private final class Outcome<T> implements StreamObserver<T> {
+            private final Member member;
+            private final long intendedNanos;
+            private final long sentNanos;
+
+            Outcome(Member member, long intendedNanos, long sentNanos) {
+                this.member        = member;
+                this.intendedNanos = intendedNanos;
+                this.sentNanos     = sentNanos;
+            }
+
+            @Override public void onNext(T response) {}
+
+            @Override
+            public void onError(Throwable t) {
+                outstanding.decrementAndGet();
+                recorder.failure(intendedNanos, sentNanos);
+                if (intendedNanos < measureFrom) return;
+                member.errors.increment();
+                errors.computeIfAbsent(Status.fromThrowable(t).getCode(), c -> new LongAdder()).increment();
+            }
+
+            @Override
+            public void onCompleted() {
+                outstanding.decrementAndGet();
+                recorder.success(intendedNanos, sentNanos);
+                if (intendedNanos < measureFrom) return;
+                member.responseTime.recordValue(Math.min(System.nanoTime() - intendedNanos, HIGHEST_TRACKABLE));
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.fractalx.netscope.server.grpc;
+
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Value;
+import org.fractalx.netscope.benchmarks.NetScopeFixture;
+import org.fractalx.netscope.server.core.AmbiguousInvocationException;
+import org.fractalx.netscope.server.model.NetworkMethodDefinition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code NetScopeGrpcServiceImpl.inferOverload} against the five {@code process(..)}
+ * overloads of the benchmark bean, one argument kind per parameter value.
+ * Lives in the service's package to reach the package-private helper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OverloadInferenceBenchmark {
+
+    @Param({"string", "number", "bool", "list", "struct"})
+    public String argumentKind;
+
+    private NetScopeFixture fixture;
+    private NetScopeGrpcServiceImpl service;
+    private List<NetworkMethodDefinition> candidates;
+    private List<Value> arguments;
+
+    @Setup
+    public void setup() {
+        fixture = new NetScopeFixture();
+        service = fixture.service();
+        try {
+            fixture.scanner().findMethod("CatalogService", "process", List.of());
+            throw new IllegalStateException("process(..) is expected to be overloaded");
+        } catch (AmbiguousInvocationException e) {
+            candidates = e.getCandidates();
+        }
+        Value argument = switch (argumentKind) {
+            case "string" -> Value.newBuilder().setStringValue("abc").build();
+            case "number" -> Value.newBuilder().setNumberValue(42).build();
+            case "bool"   -> Value.newBuilder().setBoolValue(true).build();
+            case "list"   -> Value.newBuilder().setListValue(ListValue.newBuilder()
+                                 .addValues(Value.newBuilder().setStringValue("a"))).build();
+            case "struct" -> Value.newBuilder().setStructValue(NetScopeFixture.itemStruct(1)).build();
+            default       -> throw new IllegalArgumentException(argumentKind);
+        };
+        arguments = List.of(argument);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public Optional<NetworkMethodDefinition> inferOverload() {
+        return service.inferOverload(candidates, arguments);
+    }
+}
@@ -0,0 +1,83 @@
+package org.fractalx.netscope.server.grpc;
+
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Value;
+import org.fractalx.netscope.benchmarks.NetScopeFixture;
+import org.fractalx.netscope.server.core.NetScopeInvoker;
+import org.fractalx.netscope.server.model.NetworkMethodDefinition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code Value} ↔ JSON conversions around each call, parameterised by payload
+ * size (number of POJO items):
+ *
+ *   decodeArguments  ListValue → JSON text          (service)
+ *   bindArguments    JSON text → typed args + call  (invoker)
+ *   encodeResult     result object → JSON text      (invoker)
+ *   parseResult      JSON text → Value              (service)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueCodecBenchmark {
+
+    @Param({"1", "32", "1024"})
+    public int items;
+
+    private NetScopeFixture fixture;
+    private NetScopeGrpcServiceImpl service;
+    private NetScopeInvoker invoker;
+
+    private NetworkMethodDefinition totalDef;
+    private NetworkMethodDefinition itemsDef;
+    private ListValue itemsArgument;
+    private String itemsArgumentJson;
+    private String countArgumentJson;
+    private String itemsResultJson;
+
+    @Setup
+    public void setup() throws Exception {
+        fixture = new NetScopeFixture();
+        service = fixture.service();
+        invoker = fixture.invoker();
+
+        totalDef = fixture.scanner().findMethod("CatalogService", "total", List.of()).orElseThrow();
+        itemsDef = fixture.scanner().findMethod("CatalogService", "items", List.of()).orElseThrow();
+
+        itemsArgument     = NetScopeFixture.itemsArgument(items);
+        itemsArgumentJson = service.toArgumentsJson(itemsArgument);
+        countArgumentJson = "[" + items + "]";
+        itemsResultJson   = invoker.invoke(itemsDef, countArgumentJson);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public String decodeArguments() {
+        return service.toArgumentsJson(itemsArgument);
+    }
+
+    @Benchmark
+    public String bindArguments() throws Exception {
+        return invoker.invoke(totalDef, itemsArgumentJson);
+    }
+
+    @Benchmark
+    public String encodeResult() throws Exception {
+        return invoker.invoke(itemsDef, countArgumentJson);
+    }
+
+    @Benchmark
+    public Value parseResult() {
+        return service.toProtoValue(itemsResultJson);
+    }
+}
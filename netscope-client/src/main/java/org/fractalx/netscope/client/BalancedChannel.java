@@ -0,0 +1,123 @@
+package org.fractalx.netscope.client;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A channel that sends each call to one replica. Calls carrying
+ * {@link NetScopeClient#AFFINITY_KEY} are placed by the consistent-hash ring; the rest
+ * follow the {@link LoadBalancingPolicy}. Replicas whose last connection attempt failed
+ * are skipped while any other is available.
+ */
+final class BalancedChannel extends Channel {
+
+    private final List<Replica> replicas;
+    private final LoadBalancingPolicy policy;
+    private final ConsistentHashRing ring;
+    private final AtomicInteger next = new AtomicInteger();
+
+    BalancedChannel(List<Replica> replicas, LoadBalancingPolicy policy, int virtualNodes) {
+        this.replicas = List.copyOf(replicas);
+        this.policy   = policy;
+        this.ring     = new ConsistentHashRing(replicas, virtualNodes);
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(MethodDescriptor<ReqT, RespT> method, CallOptions options) {
+        return newCall(pick(options), method, options);
+    }
+
+    /** A call on a replica picked earlier, e.g. for a batch of calls already routed to it. */
+    <ReqT, RespT> ClientCall<ReqT, RespT> newCall(Replica replica, MethodDescriptor<ReqT, RespT> method,
+                                                  CallOptions options) {
+        return new CountingCall<>(replica, replica.channel().newCall(method, options));
+    }
+
+    @Override
+    public String authority() {
+        return replicas.get(0).channels[0].authority();
+    }
+
+    List<Replica> replicas() {
+        return replicas;
+    }
+
+    Replica pick(CallOptions options) {
+        byte[] key = options.getOption(NetScopeClient.AFFINITY_KEY);
+        if (key != null) return ring.pick(key);
+        return switch (policy) {
+            case PICK_FIRST        -> pickFirst();
+            case ROUND_ROBIN       -> roundRobin();
+            case LEAST_OUTSTANDING -> leastOutstanding();
+        };
+    }
+
+    private Replica pickFirst() {
+        for (Replica replica : replicas) {
+            if (replica.isAvailable()) return replica;
+        }
+        return replicas.get(0);
+    }
+
+    private Replica roundRobin() {
+        int start = next.getAndIncrement();
+        for (int n = 0; n < replicas.size(); n++) {
+            Replica replica = replicas.get(Math.floorMod(start + n, replicas.size()));
+            if (replica.isAvailable()) return replica;
+        }
+        return replicas.get(Math.floorMod(start, replicas.size()));
+    }
+
+    /** Scans from a rotating start so ties are spread instead of all landing on the first replica. */
+    private Replica leastOutstanding() {
+        int start = next.getAndIncrement();
+        Replica best = null;
+        int fewest = Integer.MAX_VALUE;
+        for (int n = 0; n < replicas.size(); n++) {
+            Replica replica = replicas.get(Math.floorMod(start + n, replicas.size()));
+            int inFlight = replica.outstanding.get();
+            if (inFlight < fewest && replica.isAvailable()) {
+                best = replica;
+                fewest = inFlight;
+            }
+        }
+        return best != null ? best : replicas.get(Math.floorMod(start, replicas.size()));
+    }
+
+    /** Counts the call as outstanding on its replica from start until it closes. */
+    private static final class CountingCall<ReqT, RespT>
+            extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+        private final Replica replica;
+
+        CountingCall(Replica replica, ClientCall<ReqT, RespT> delegate) {
+            super(delegate);
+            this.replica = replica;
+        }
+
+        @Override
+        public void start(Listener<RespT> listener, Metadata headers) {
+            replica.outstanding.incrementAndGet();
+            try {
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(listener) {
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        replica.outstanding.decrementAndGet();
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            } catch (RuntimeException e) {
+                replica.outstanding.decrementAndGet();
+                throw e;
+            }
+        }
+    }
+}
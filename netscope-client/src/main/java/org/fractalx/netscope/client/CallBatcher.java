@@ -0,0 +1,170 @@
+package org.fractalx.netscope.client;
+
+import org.fractalx.netscope.server.grpc.proto.CallError;
+import org.fractalx.netscope.server.grpc.proto.InvokeBatchRequest;
+import org.fractalx.netscope.server.grpc.proto.InvokeBatchResponse;
+import org.fractalx.netscope.server.grpc.proto.InvokeRequest;
+import org.fractalx.netscope.server.grpc.proto.InvokeResponse;
+import org.fractalx.netscope.server.grpc.proto.InvokeResult;
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc;
+import com.google.protobuf.Value;
+import io.grpc.CallOptions;
+import io.grpc.Status;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces small calls made at about the same time into InvokeBatch requests.
+ *
+ * <p>Each call is routed to its replica first (affinity included) and queued for it.
+ * A queue is sent when it reaches {@code maxBatchSize} or {@code window} after its first
+ * call, whichever comes first. A lone call is sent as a plain InvokeMethod. Every call
+ * completes with its own result or error; a failed batch fails all of its calls.
+ */
+final class CallBatcher implements AutoCloseable {
+
+    private final BalancedChannel channel;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Supplier<CallOptions> options;
+    private final Map<Replica, Queue> queues = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "netscope-client-batcher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    CallBatcher(BalancedChannel channel, long windowNanos, int maxBatchSize, Supplier<CallOptions> options) {
+        if (maxBatchSize < 2) throw new IllegalArgumentException("maxBatchSize must be at least 2");
+        this.channel      = channel;
+        this.windowNanos  = windowNanos;
+        this.maxBatchSize = maxBatchSize;
+        this.options      = options;
+    }
+
+    CompletableFuture<Value> submit(InvokeRequest request, CallOptions routing) {
+        Pending pending = new Pending(request);
+        queues.computeIfAbsent(channel.pick(routing), Queue::new).add(pending);
+        return pending.result;
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        for (Queue queue : queues.values()) queue.failAll();
+    }
+
+    private record Pending(InvokeRequest request, CompletableFuture<Value> result) {
+        Pending(InvokeRequest request) {
+            this(request, new CompletableFuture<>());
+        }
+    }
+
+    private final class Queue {
+        private final Replica replica;
+        private final ConcurrentLinkedQueue<Pending> items = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Queue(Replica replica) {
+            this.replica = replica;
+        }
+
+        void add(Pending pending) {
+            items.add(pending);
+            if (size.incrementAndGet() >= maxBatchSize) {
+                timer.execute(this::flush);
+            } else if (scheduled.compareAndSet(false, true)) {
+                timer.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        /** Sends everything queued, in batches of at most {@code maxBatchSize}. */
+        void flush() {
+            scheduled.set(false);
+            List<Pending> batch;
+            while (!(batch = drain()).isEmpty()) send(batch);
+        }
+
+        private List<Pending> drain() {
+            List<Pending> batch = new ArrayList<>(Math.min(size.get(), maxBatchSize));
+            Pending next;
+            while (batch.size() < maxBatchSize && (next = items.poll()) != null) {
+                size.decrementAndGet();
+                batch.add(next);
+            }
+            return batch;
+        }
+
+        private void send(List<Pending> batch) {
+            if (batch.size() == 1) {
+                Pending only = batch.get(0);
+                ClientCalls.asyncUnaryCall(
+                        channel.newCall(replica, NetScopeServiceGrpc.getInvokeMethodMethod(), options.get()),
+                        only.request, new StreamObserver<InvokeResponse>() {
+                            @Override public void onNext(InvokeResponse r) { only.result.complete(r.getResult()); }
+                            @Override public void onError(Throwable t)     { only.result.completeExceptionally(t); }
+                            @Override public void onCompleted()            { }
+                        });
+                return;
+            }
+            InvokeBatchRequest.Builder request = InvokeBatchRequest.newBuilder();
+            for (Pending pending : batch) request.addRequests(pending.request);
+            ClientCalls.asyncUnaryCall(
+                    channel.newCall(replica, NetScopeServiceGrpc.getInvokeBatchMethod(), options.get()),
+                    request.build(), new StreamObserver<InvokeBatchResponse>() {
+                        @Override
+                        public void onNext(InvokeBatchResponse response) {
+                            for (int i = 0; i < batch.size(); i++) {
+                                CompletableFuture<Value> result = batch.get(i).result;
+                                if (i >= response.getResultsCount()) {
+                                    result.completeExceptionally(Status.INTERNAL
+                                            .withDescription("No result for batched call").asRuntimeException());
+                                    continue;
+                                }
+                                InvokeResult item = response.getResults(i);
+                                if (item.hasError()) {
+                                    result.completeExceptionally(toException(item.getError()));
+                                } else {
+                                    result.complete(item.getResult());
+                                }
+                            }
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            for (Pending pending : batch) pending.result.completeExceptionally(t);
+                        }
+
+                        @Override public void onCompleted() { }
+                    });
+        }
+
+        void failAll() {
+            List<Pending> batch;
+            while (!(batch = drain()).isEmpty()) {
+                for (Pending pending : batch) {
+                    pending.result.completeExceptionally(
+                            Status.CANCELLED.withDescription("Client closed").asRuntimeException());
+                }
+            }
+        }
+    }
+
+    private static RuntimeException toException(CallError error) {
+        return Status.fromCodeValue(error.getCode()).withDescription(error.getMessage()).asRuntimeException();
+    }
+}
@@ -0,0 +1,76 @@
+package org.fractalx.netscope.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps affinity keys to replicas so the same key keeps landing on the same replica.
+ *
+ * <p>Each replica is placed on a 64-bit ring at {@code virtualNodes} points; a key goes
+ * to the first point at or after its hash. Adding or removing one of {@code n} replicas
+ * moves only about {@code 1/n} of the keys. An unavailable replica is skipped for the
+ * next one on the ring, so its keys spread over the others and return once it recovers.
+ */
+final class ConsistentHashRing {
+
+    private final List<Replica> replicas;
+    private final long[] points;      // sorted hashes
+    private final int[] owners;       // replica index for each point
+
+    ConsistentHashRing(List<Replica> replicas, int virtualNodes) {
+        if (virtualNodes < 1) throw new IllegalArgumentException("virtualNodes must be at least 1");
+        this.replicas = List.copyOf(replicas);
+
+        int count = replicas.size() * virtualNodes;
+        long[][] entries = new long[count][];
+        for (int r = 0, e = 0; r < replicas.size(); r++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                byte[] id = (replicas.get(r).target + "#" + v).getBytes(StandardCharsets.UTF_8);
+                entries[e++] = new long[] { hash(id), r };
+            }
+        }
+        Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+        this.points = new long[count];
+        this.owners = new int[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = entries[i][0];
+            owners[i] = (int) entries[i][1];
+        }
+    }
+
+    /** Replica owning {@code key}, or the next available one after it on the ring. */
+    Replica pick(byte[] key) {
+        int i = Arrays.binarySearch(points, hash(key));
+        if (i < 0) i = -i - 1;
+        if (i == points.length) i = 0;
+        Replica owner = replicas.get(owners[i]);
+        if (owner.isAvailable()) return owner;
+
+        boolean[] visited = new boolean[replicas.size()];
+        visited[owners[i]] = true;
+        for (int n = 1, remaining = replicas.size() - 1; n < points.length && remaining > 0; n++) {
+            int next = owners[(i + n) % points.length];
+            if (visited[next]) continue;
+            visited[next] = true;
+            remaining--;
+            if (replicas.get(next).isAvailable()) return replicas.get(next);
+        }
+        return owner;   // none available: let the owner's channel report the failure
+    }
+
+    /** FNV-1a over the bytes, finished with the MurmurHash3 mixer so close keys spread over the ring. */
+    static long hash(byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
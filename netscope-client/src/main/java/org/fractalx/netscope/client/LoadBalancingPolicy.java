@@ -0,0 +1,17 @@
+package org.fractalx.netscope.client;
+
+/**
+ * How {@link NetScopeClient} picks a replica for a call that has no affinity key.
+ * Calls with an affinity key always use the consistent-hash ring.
+ */
+public enum LoadBalancingPolicy {
+
+    /** Every call goes to the first available replica, in the order they were listed. */
+    PICK_FIRST,
+
+    /** Calls rotate over the available replicas. */
+    ROUND_ROBIN,
+
+    /** Each call goes to the available replica with the fewest calls in flight from this client. */
+    LEAST_OUTSTANDING
+}
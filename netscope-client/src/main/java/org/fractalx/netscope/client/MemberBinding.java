@@ -0,0 +1,57 @@
+package org.fractalx.netscope.client;
+
+import org.fractalx.netscope.server.grpc.proto.InvokeRequest;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Value;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * How one interface method maps to a remote member, worked out once when the proxy is
+ * created. The request template already carries the parameter types the server indexes
+ * overloads by, so the server never has to infer an overload from argument values.
+ *
+ * <p>Methods returning {@link CompletableFuture} or {@link CompletionStage} are async;
+ * an {@code Async} suffix on their name is dropped, so {@code getOrderAsync} calls
+ * {@code getOrder}.
+ */
+final class MemberBinding {
+
+    final InvokeRequest template;
+    final boolean async;
+    final Type resultType;
+
+    MemberBinding(String beanName, Method method) {
+        Class<?> returns = method.getReturnType();
+        this.async = returns == CompletableFuture.class || returns == CompletionStage.class;
+        this.resultType = async ? futureType(method) : method.getGenericReturnType();
+
+        String member = method.getName();
+        if (async && member.endsWith("Async") && member.length() > "Async".length()) {
+            member = member.substring(0, member.length() - "Async".length());
+        }
+        InvokeRequest.Builder request = InvokeRequest.newBuilder().setBeanName(beanName).setMemberName(member);
+        for (Class<?> type : method.getParameterTypes()) request.addParameterTypes(type.getSimpleName());
+        this.template = request.build();
+    }
+
+    InvokeRequest request(Object[] args, ValueCodec codec) {
+        if (args == null || args.length == 0) return template;
+        ListValue.Builder arguments = ListValue.newBuilder();
+        for (Object arg : args) arguments.addValues(codec.toValue(arg));
+        return template.toBuilder().setArguments(arguments).build();
+    }
+
+    Object decode(Value result, ValueCodec codec) {
+        return codec.fromValue(result, resultType);
+    }
+
+    private static Type futureType(Method method) {
+        Type generic = method.getGenericReturnType();
+        return generic instanceof ParameterizedType p ? p.getActualTypeArguments()[0] : Object.class;
+    }
+}
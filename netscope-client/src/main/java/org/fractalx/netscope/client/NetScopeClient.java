@@ -0,0 +1,305 @@
+package org.fractalx.netscope.client;
+
+import org.fractalx.netscope.server.grpc.proto.InvokeRequest;
+import org.fractalx.netscope.server.grpc.proto.InvokeResponse;
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.Value;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.stub.AbstractStub;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Client for a bean served by several NetScope replicas.
+ *
+ * <pre>{@code
+ * NetScopeClient client = NetScopeClient.builder()
+ *         .replicas("orders-1:9090,orders-2:9090,orders-3:9090")
+ *         .policy(LoadBalancingPolicy.LEAST_OUTSTANDING)
+ *         .affinity("OrderService", "getOrder", 0)      // same order id → same replica
+ *         .batching(Duration.ofMillis(2), 64)
+ *         .build();
+ *
+ * OrderService orders = client.proxy(OrderService.class);
+ * Order order = orders.getOrder(42);
+ * }</pre>
+ *
+ * <p>Each replica has a small pool of channels. Calls to a member with an affinity argument
+ * are hashed on that argument's value, so repeated calls for one key reach the replica whose
+ * caches already hold it; all other calls follow the load-balancing policy. Typed proxies
+ * convert arguments straight to {@link Value}s and, when batching is on, small calls made
+ * close together share one InvokeBatch request.
+ */
+public class NetScopeClient implements AutoCloseable {
+
+    /** Per-call affinity key; calls carrying one are placed by consistent hashing. */
+    public static final CallOptions.Key<byte[]> AFFINITY_KEY = CallOptions.Key.create("netscope.affinity");
+
+    private final List<Replica> replicas;
+    private final BalancedChannel channel;
+    private final Map<String, Integer> affinity;   // "Bean.member" → argument index
+    private final ValueCodec codec;
+    private final Duration timeout;                 // null = no deadline
+    private final CallBatcher batcher;              // null = batching off
+    private final int batchableSize;
+
+    private NetScopeClient(Builder builder) {
+        this.replicas = new ArrayList<>(builder.targets.size());
+        for (String target : builder.targets) {
+            replicas.add(new Replica(target, builder.channelsPerReplica, builder.configurer));
+        }
+        this.channel       = new BalancedChannel(replicas, builder.policy, builder.virtualNodes);
+        this.affinity      = Map.copyOf(builder.affinity);
+        this.codec         = new ValueCodec(builder.mapper);
+        this.timeout       = builder.timeout;
+        this.batchableSize = builder.batchableSize;
+        this.batcher       = builder.batchWindow == null ? null
+                : new CallBatcher(channel, builder.batchWindow.toNanos(), builder.maxBatchSize, this::baseOptions);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** A channel that balances every call; use it for stubs of your own. */
+    public Channel channel() {
+        return channel;
+    }
+
+    public NetScopeServiceGrpc.NetScopeServiceBlockingStub blockingStub() {
+        return NetScopeServiceGrpc.newBlockingStub(channel);
+    }
+
+    public NetScopeServiceGrpc.NetScopeServiceStub asyncStub() {
+        return NetScopeServiceGrpc.newStub(channel);
+    }
+
+    /** Calls InvokeMethod on the replica chosen for {@code request}. */
+    public InvokeResponse invoke(InvokeRequest request) {
+        return ClientCalls.blockingUnaryCall(channel, NetScopeServiceGrpc.getInvokeMethodMethod(),
+                options(request), request);
+    }
+
+    /** Like {@link #invoke} but does not block; the future fails with the call's {@code StatusRuntimeException}. */
+    public CompletableFuture<InvokeResponse> invokeAsync(InvokeRequest request) {
+        CompletableFuture<InvokeResponse> future = new CompletableFuture<>();
+        ClientCalls.asyncUnaryCall(channel.newCall(NetScopeServiceGrpc.getInvokeMethodMethod(), options(request)),
+                request, completing(future));
+        return future;
+    }
+
+    /**
+     * A typed proxy for the bean named like {@code type}'s simple name. Methods returning
+     * {@link CompletableFuture} or {@link java.util.concurrent.CompletionStage} are called
+     * asynchronously; a trailing "Async" in their name is dropped, so {@code getOrderAsync}
+     * calls {@code getOrder}.
+     */
+    public <T> T proxy(Class<T> type) {
+        return proxy(type, type.getSimpleName());
+    }
+
+    /** A typed proxy for the bean {@code beanName}; see {@link #proxy(Class)}. */
+    public <T> T proxy(Class<T> type, String beanName) {
+        return ProxyHandler.create(this, type, beanName);
+    }
+
+    /**
+     * Returns {@code stub} carrying the affinity key for {@code request} when its member has
+     * an affinity argument, or {@code stub} unchanged otherwise.
+     */
+    public <S extends AbstractStub<S>> S withAffinity(S stub, InvokeRequest request) {
+        byte[] key = affinityKey(request);
+        return key == null ? stub : stub.withOption(AFFINITY_KEY, key);
+    }
+
+    // ── Calls made by proxies ─────────────────────────────────────────────────
+
+    ValueCodec codec() {
+        return codec;
+    }
+
+    CompletableFuture<Value> call(InvokeRequest request) {
+        if (batchable(request)) return batcher.submit(request, routing(request));
+        return invokeAsync(request).thenApply(InvokeResponse::getResult);
+    }
+
+    Value callBlocking(InvokeRequest request) {
+        if (!batchable(request)) return invoke(request).getResult();
+        try {
+            return batcher.submit(request, routing(request)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private boolean batchable(InvokeRequest request) {
+        return batcher != null && request.getSerializedSize() <= batchableSize;
+    }
+
+    private CallOptions baseOptions() {
+        return timeout == null ? CallOptions.DEFAULT
+                : CallOptions.DEFAULT.withDeadlineAfter(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /** Options that only place the call; a batch takes its deadline when it is sent. */
+    private CallOptions routing(InvokeRequest request) {
+        byte[] key = affinityKey(request);
+        return key == null ? CallOptions.DEFAULT : CallOptions.DEFAULT.withOption(AFFINITY_KEY, key);
+    }
+
+    private CallOptions options(InvokeRequest request) {
+        byte[] key = affinityKey(request);
+        return key == null ? baseOptions() : baseOptions().withOption(AFFINITY_KEY, key);
+    }
+
+    private byte[] affinityKey(InvokeRequest request) {
+        Integer index = affinity.get(request.getBeanName() + "." + request.getMemberName());
+        if (index == null || index >= request.getArguments().getValuesCount()) return null;
+        return request.getArguments().getValues(index).toByteArray();
+    }
+
+    private static <T> StreamObserver<T> completing(CompletableFuture<T> future) {
+        return new StreamObserver<>() {
+            @Override public void onNext(T value)         { future.complete(value); }
+            @Override public void onError(Throwable t)    { future.completeExceptionally(t); }
+            @Override public void onCompleted()           { }
+        };
+    }
+
+    /** Replica targets in the order given to the builder. */
+    public List<String> replicas() {
+        return replicas.stream().map(r -> r.target).toList();
+    }
+
+    @Override
+    public void close() {
+        if (batcher != null) batcher.close();
+        for (Replica replica : replicas) replica.shutdown();
+        try {
+            for (Replica replica : replicas) replica.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ── Builder ───────────────────────────────────────────────────────────────
+
+    public static final class Builder {
+        private final List<String> targets = new ArrayList<>();
+        private final Map<String, Integer> affinity = new HashMap<>();
+        private LoadBalancingPolicy policy = LoadBalancingPolicy.ROUND_ROBIN;
+        private int virtualNodes = 100;
+        private Consumer<ManagedChannelBuilder<?>> configurer = b -> { };
+        private int channelsPerReplica = 1;
+        private ObjectMapper mapper = new ObjectMapper();
+        private Duration timeout;
+        private Duration batchWindow;
+        private int maxBatchSize;
+        private int batchableSize = 1024;
+
+        private Builder() {}
+
+        /**
+         * Adds replicas. Each entry is a gRPC target ("host:port", "dns:///host:port") or
+         * "in-process:NAME", and may hold several separated by commas or whitespace, so a
+         * single configuration property can list them all.
+         */
+        public Builder replicas(String... targets) {
+            for (String entry : targets) {
+                for (String target : entry.split("[,\\s]+")) {
+                    if (!target.isEmpty()) this.targets.add(target);
+                }
+            }
+            return this;
+        }
+
+        public Builder replicas(List<String> targets) {
+            return replicas(targets.toArray(new String[0]));
+        }
+
+        /** Policy for calls without an affinity key. Defaults to {@link LoadBalancingPolicy#ROUND_ROBIN}. */
+        public Builder policy(LoadBalancingPolicy policy) {
+            this.policy = policy;
+            return this;
+        }
+
+        /** Routes calls to {@code beanName.memberName} by consistent hashing on argument {@code argumentIndex}. */
+        public Builder affinity(String beanName, String memberName, int argumentIndex) {
+            if (argumentIndex < 0) throw new IllegalArgumentException("argumentIndex must not be negative");
+            affinity.put(beanName + "." + memberName, argumentIndex);
+            return this;
+        }
+
+        /** Ring points per replica; more points spread keys more evenly. Defaults to 100. */
+        public Builder virtualNodes(int virtualNodes) {
+            this.virtualNodes = virtualNodes;
+            return this;
+        }
+
+        /** Applied to every replica's channel builder, e.g. for TLS, keep-alive or interceptors. */
+        public Builder channel(Consumer<ManagedChannelBuilder<?>> configurer) {
+            this.configurer = configurer;
+            return this;
+        }
+
+        /**
+         * Channels (HTTP/2 connections) per replica, used in turn. One connection caps a
+         * replica at its server's concurrent-stream limit; raise this for heavy traffic.
+         * Defaults to 1.
+         */
+        public Builder channelsPerReplica(int channelsPerReplica) {
+            if (channelsPerReplica < 1) throw new IllegalArgumentException("channelsPerReplica must be at least 1");
+            this.channelsPerReplica = channelsPerReplica;
+            return this;
+        }
+
+        /** Mapper used by proxies for POJO arguments and results. */
+        public Builder objectMapper(ObjectMapper mapper) {
+            this.mapper = mapper;
+            return this;
+        }
+
+        /** Deadline for each call made through this client. None by default. */
+        public Builder timeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Sends small proxy calls made within {@code window} of each other to the same
+         * replica as one InvokeBatch request of at most {@code maxBatchSize} calls. Off by
+         * default; a window of a millisecond or two is usually enough.
+         */
+        public Builder batching(Duration window, int maxBatchSize) {
+            if (maxBatchSize < 2) throw new IllegalArgumentException("maxBatchSize must be at least 2");
+            this.batchWindow  = window;
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /** Largest request, in serialized bytes, that batching will hold back. Defaults to 1024. */
+        public Builder batchableSize(int bytes) {
+            this.batchableSize = bytes;
+            return this;
+        }
+
+        public NetScopeClient build() {
+            if (targets.isEmpty()) throw new IllegalStateException("At least one replica is required");
+            return new NetScopeClient(this);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.fractalx.netscope.client;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Turns calls on a typed proxy into InvokeMethod calls on the bean it stands for. */
+final class ProxyHandler implements InvocationHandler {
+
+    private final NetScopeClient client;
+    private final String beanName;
+    private final Map<Method, MemberBinding> bindings;
+
+    private ProxyHandler(NetScopeClient client, Class<?> type, String beanName) {
+        this.client   = client;
+        this.beanName = beanName;
+        Map<Method, MemberBinding> bindings = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            if (!method.isDefault() && !Modifier.isStatic(method.getModifiers())) {
+                bindings.put(method, new MemberBinding(beanName, method));
+            }
+        }
+        this.bindings = Map.copyOf(bindings);
+    }
+
+    static <T> T create(NetScopeClient client, Class<T> type, String beanName) {
+        if (!type.isInterface()) throw new IllegalArgumentException(type.getName() + " is not an interface");
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                new ProxyHandler(client, type, beanName)));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        MemberBinding binding = bindings.get(method);
+        if (binding == null) {
+            if (method.isDefault()) return InvocationHandler.invokeDefault(proxy, method, args);
+            return switch (method.getName()) {
+                case "equals"   -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> "NetScope proxy for " + beanName;
+                default -> throw new UnsupportedOperationException(method.toString());
+            };
+        }
+        ValueCodec codec = client.codec();
+        if (binding.async) {
+            return client.call(binding.request(args, codec)).thenApply(result -> binding.decode(result, codec));
+        }
+        return binding.decode(client.callBlocking(binding.request(args, codec)), codec);
+    }
+}
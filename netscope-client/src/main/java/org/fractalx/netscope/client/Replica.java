@@ -0,0 +1,70 @@
+package org.fractalx.netscope.client;
+
+import io.grpc.Channel;
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.inprocess.InProcessChannelBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * One server exposing the beans: a small pool of channels to it and the calls in flight.
+ * Each channel is one HTTP/2 connection multiplexing any number of calls; more than one
+ * only helps when a single connection's flow control or event loop becomes the limit.
+ */
+final class Replica {
+
+    static final String IN_PROCESS = "in-process:";
+
+    final String target;
+    final ManagedChannel[] channels;
+    final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger next = new AtomicInteger();
+
+    Replica(String target, int channelCount, Consumer<ManagedChannelBuilder<?>> configurer) {
+        this.target   = target;
+        this.channels = new ManagedChannel[Math.max(1, channelCount)];
+        for (int i = 0; i < channels.length; i++) {
+            ManagedChannelBuilder<?> builder = target.startsWith(IN_PROCESS)
+                    ? InProcessChannelBuilder.forName(target.substring(IN_PROCESS.length()))
+                    : ManagedChannelBuilder.forTarget(target).usePlaintext();
+            configurer.accept(builder);
+            channels[i] = builder.build();
+        }
+    }
+
+    /** Next channel of the pool, round-robin. */
+    Channel channel() {
+        return channels.length == 1 ? channels[0] : channels[Math.floorMod(next.getAndIncrement(), channels.length)];
+    }
+
+    /**
+     * False while the last connection attempt of every channel failed, so calls go elsewhere
+     * until gRPC reconnects. A replica not yet connected counts as available.
+     */
+    boolean isAvailable() {
+        for (ManagedChannel channel : channels) {
+            ConnectivityState state = channel.getState(false);
+            if (state != ConnectivityState.TRANSIENT_FAILURE && state != ConnectivityState.SHUTDOWN) return true;
+        }
+        return false;
+    }
+
+    void shutdown() {
+        for (ManagedChannel channel : channels) channel.shutdown();
+    }
+
+    void awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        for (ManagedChannel channel : channels) {
+            if (!channel.awaitTermination(timeout, unit)) channel.shutdownNow();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return target;
+    }
+}
@@ -0,0 +1,130 @@
+package org.fractalx.netscope.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.NullValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Type;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Converts Java objects to and from {@link Value} without going through JSON text.
+ *
+ * <p>Strings, numbers, booleans, enums, maps, collections and arrays are converted
+ * directly. Other objects go through a Jackson tree, mapped the same way the server's
+ * invoker maps them, so a POJO sent by a proxy binds to the server's parameter type.
+ */
+final class ValueCodec {
+
+    private static final Value NULL = Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build();
+
+    private final ObjectMapper mapper;
+
+    ValueCodec(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    // ── Java → Value ──────────────────────────────────────────────────────────
+
+    Value toValue(Object o) {
+        if (o == null)                   return NULL;
+        if (o instanceof Value v)        return v;
+        if (o instanceof CharSequence s) return string(s.toString());
+        if (o instanceof Character c)    return string(c.toString());
+        if (o instanceof Enum<?> e)      return string(e.name());
+        if (o instanceof Boolean b)      return Value.newBuilder().setBoolValue(b).build();
+        if (o instanceof Number n)       return Value.newBuilder().setNumberValue(n.doubleValue()).build();
+        if (o instanceof byte[] bytes)   return string(Base64.getEncoder().encodeToString(bytes));
+        if (o instanceof Map<?, ?> map) {
+            Struct.Builder struct = Struct.newBuilder();
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                struct.putFields(String.valueOf(e.getKey()), toValue(e.getValue()));
+            }
+            return Value.newBuilder().setStructValue(struct).build();
+        }
+        if (o instanceof Iterable<?> items) {
+            ListValue.Builder list = ListValue.newBuilder();
+            for (Object item : items) list.addValues(toValue(item));
+            return Value.newBuilder().setListValue(list).build();
+        }
+        if (o.getClass().isArray()) {
+            ListValue.Builder list = ListValue.newBuilder();
+            for (int i = 0, n = Array.getLength(o); i < n; i++) list.addValues(toValue(Array.get(o, i)));
+            return Value.newBuilder().setListValue(list).build();
+        }
+        return toValue((JsonNode) mapper.valueToTree(o));
+    }
+
+    private static Value toValue(JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) return NULL;
+        if (node.isTextual() || node.isBinary()) return string(node.asText());
+        if (node.isBoolean())                    return Value.newBuilder().setBoolValue(node.booleanValue()).build();
+        if (node.isNumber())                     return Value.newBuilder().setNumberValue(node.doubleValue()).build();
+        if (node.isArray()) {
+            ListValue.Builder list = ListValue.newBuilder();
+            for (JsonNode item : node) list.addValues(toValue(item));
+            return Value.newBuilder().setListValue(list).build();
+        }
+        Struct.Builder struct = Struct.newBuilder();
+        for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> e = it.next();
+            struct.putFields(e.getKey(), toValue(e.getValue()));
+        }
+        return Value.newBuilder().setStructValue(struct).build();
+    }
+
+    private static Value string(String s) {
+        return Value.newBuilder().setStringValue(s).build();
+    }
+
+    // ── Value → Java ──────────────────────────────────────────────────────────
+
+    /** Converts {@code value} to {@code type}, which may be generic (e.g. {@code List<Order>}). */
+    Object fromValue(Value value, Type type) {
+        if (type == void.class || type == Void.class) return null;
+        if (type == Value.class) return value;
+        if (type == String.class && value.hasStringValue()) return value.getStringValue();
+        if ((type == boolean.class || type == Boolean.class) && value.hasBoolValue()) return value.getBoolValue();
+        if ((type == double.class || type == Double.class) && value.hasNumberValue()) return value.getNumberValue();
+        try {
+            return mapper.readerFor(mapper.constructType(type)).readValue(toNode(value));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot convert result to " + type.getTypeName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static JsonNode toNode(Value value) {
+        JsonNodeFactory f = JsonNodeFactory.instance;
+        switch (value.getKindCase()) {
+            case STRING_VALUE: return f.textNode(value.getStringValue());
+            case BOOL_VALUE:   return f.booleanNode(value.getBoolValue());
+            case NUMBER_VALUE: {
+                // Integral numbers stay integral so long and int targets bind without float coercion
+                double d = value.getNumberValue();
+                return d == Math.rint(d) && Math.abs(d) < 0x1p53 ? f.numberNode((long) d) : f.numberNode(d);
+            }
+            case LIST_VALUE: {
+                ArrayNode array = f.arrayNode(value.getListValue().getValuesCount());
+                for (Value item : value.getListValue().getValuesList()) array.add(toNode(item));
+                return array;
+            }
+            case STRUCT_VALUE: {
+                ObjectNode object = f.objectNode();
+                value.getStructValue().getFieldsMap().forEach((k, v) -> object.set(k, toNode(v)));
+                return object;
+            }
+            default:
+                return f.nullNode();
+        }
+    }
+}
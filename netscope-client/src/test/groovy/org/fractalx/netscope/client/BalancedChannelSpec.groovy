@@ -0,0 +1,82 @@
+package org.fractalx.netscope.client
+
+import io.grpc.CallOptions
+import io.grpc.ConnectivityState
+import spock.lang.Specification
+
+class BalancedChannelSpec extends Specification {
+
+    List<Replica> replicas = []
+
+    def cleanup() {
+        replicas*.shutdown()
+    }
+
+    List<Replica> three() {
+        (1..3).each { replicas << new Replica("in-process:balanced-spec-$it-" + UUID.randomUUID(), 1, { }) }
+        replicas
+    }
+
+    static void fail(Replica r) {
+        r.channels[0].getState(true)
+        def deadline = System.currentTimeMillis() + 5000
+        while (r.channels[0].getState(false) != ConnectivityState.TRANSIENT_FAILURE
+                && System.currentTimeMillis() < deadline) Thread.sleep(10)
+        assert !r.isAvailable()
+    }
+
+    def "PICK_FIRST sends every call to the first available replica"() {
+        given:
+        def (a, b, c) = three()
+        def channel = new BalancedChannel(replicas, LoadBalancingPolicy.PICK_FIRST, 10)
+        expect:
+        (1..5).collect { channel.pick(CallOptions.DEFAULT) }.every { it.is(a) }
+        when:
+        fail(a)
+        then:
+        channel.pick(CallOptions.DEFAULT).is(b)
+    }
+
+    def "ROUND_ROBIN rotates over available replicas"() {
+        given:
+        def (a, b, c) = three()
+        def channel = new BalancedChannel(replicas, LoadBalancingPolicy.ROUND_ROBIN, 10)
+        expect:
+        (1..6).collect { channel.pick(CallOptions.DEFAULT) }.countBy { it } == [(a): 2, (b): 2, (c): 2]
+        when:
+        fail(b)
+        then:
+        !(1..6).collect { channel.pick(CallOptions.DEFAULT) }.contains(b)
+    }
+
+    def "LEAST_OUTSTANDING picks the replica with the fewest calls in flight"() {
+        given:
+        def (a, b, c) = three()
+        def channel = new BalancedChannel(replicas, LoadBalancingPolicy.LEAST_OUTSTANDING, 10)
+        a.outstanding.set(5)
+        b.outstanding.set(1)
+        c.outstanding.set(3)
+        expect:
+        (1..4).collect { channel.pick(CallOptions.DEFAULT) }.every { it.is(b) }
+    }
+
+    def "LEAST_OUTSTANDING spreads ties"() {
+        given:
+        three()
+        def channel = new BalancedChannel(replicas, LoadBalancingPolicy.LEAST_OUTSTANDING, 10)
+        expect:
+        (1..6).collect { channel.pick(CallOptions.DEFAULT) }.toSet().size() == 3
+    }
+
+    def "calls with an affinity key use the ring whatever the policy"() {
+        given:
+        three()
+        def channel = new BalancedChannel(replicas, LoadBalancingPolicy.PICK_FIRST, 100)
+        def ring = new ConsistentHashRing(replicas, 100)
+        expect:
+        (0..<30).every {
+            byte[] key = "k$it".bytes
+            channel.pick(CallOptions.DEFAULT.withOption(NetScopeClient.AFFINITY_KEY, key)).is(ring.pick(key))
+        }
+    }
+}
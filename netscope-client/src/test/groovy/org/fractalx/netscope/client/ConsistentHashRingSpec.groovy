@@ -0,0 +1,93 @@
+package org.fractalx.netscope.client
+
+import io.grpc.ConnectivityState
+import spock.lang.Specification
+
+class ConsistentHashRingSpec extends Specification {
+
+    List<Replica> replicas = []
+
+    def cleanup() {
+        replicas*.shutdown()
+    }
+
+    Replica replica(String name) {
+        def r = new Replica("in-process:ring-spec-" + name + "-" + UUID.randomUUID(), 1, { })
+        replicas << r
+        r
+    }
+
+    static byte[] key(int i) { "order-$i".bytes }
+
+    /** Connects to a server that does not exist, so the channel ends up in TRANSIENT_FAILURE. */
+    static void fail(Replica r) {
+        r.channels[0].getState(true)
+        def deadline = System.currentTimeMillis() + 5000
+        while (r.channels[0].getState(false) != ConnectivityState.TRANSIENT_FAILURE
+                && System.currentTimeMillis() < deadline) Thread.sleep(10)
+        assert !r.isAvailable()
+    }
+
+    def "the same key always maps to the same replica"() {
+        given:
+        def ring = new ConsistentHashRing([replica("a"), replica("b"), replica("c")], 100)
+        expect:
+        (0..<50).every { ring.pick(key(it)).is(ring.pick(key(it))) }
+    }
+
+    def "keys spread over every replica"() {
+        given:
+        def ring = new ConsistentHashRing([replica("a"), replica("b"), replica("c")], 100)
+        when:
+        def counts = (0..<3000).countBy { ring.pick(key(it)) }
+        then:
+        counts.size() == 3
+        counts.values().every { it > 600 && it < 1400 }
+    }
+
+    def "adding a replica moves only about its share of the keys"() {
+        given:
+        def a = replica("a")
+        def b = replica("b")
+        def c = replica("c")
+        def d = replica("d")
+        def before = new ConsistentHashRing([a, b, c], 100)
+        def after  = new ConsistentHashRing([a, b, c, d], 100)
+        when:
+        def moved = (0..<4000).count { !before.pick(key(it)).is(after.pick(key(it))) }
+        then:
+        moved < 1600          // ~1000 expected; a modulo scheme would move ~3000
+        (0..<4000).every { i -> def to = after.pick(key(i)); to.is(before.pick(key(i))) || to.is(d) }
+    }
+
+    def "keys of an unavailable replica go to the next one on the ring and the rest stay put"() {
+        given:
+        def a = replica("a")
+        def b = replica("b")
+        def c = replica("c")
+        def ring = new ConsistentHashRing([a, b, c], 100)
+        def owners = (0..<300).collect { ring.pick(key(it)) }
+        when:
+        fail(b)
+        def now = (0..<300).collect { ring.pick(key(it)) }
+        then:
+        !now.contains(b)
+        (0..<300).every { owners[it].is(b) || now[it].is(owners[it]) }
+    }
+
+    def "with no replica available the owner is still returned"() {
+        given:
+        def a = replica("a")
+        def ring = new ConsistentHashRing([a], 10)
+        fail(a)
+        expect:
+        ring.pick(key(1)).is(a)
+    }
+
+    def "virtualNodes must be positive"() {
+        when:
+        new ConsistentHashRing([replica("a")], 0)
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
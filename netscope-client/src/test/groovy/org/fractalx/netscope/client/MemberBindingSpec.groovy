@@ -0,0 +1,81 @@
+package org.fractalx.netscope.client
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.google.protobuf.Value
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionStage
+
+class MemberBindingSpec extends Specification {
+
+    // ── Fixtures ──────────────────────────────────────────────────────────────
+
+    interface Api {
+        String find(String name, int limit)
+        Map<String, List<Long>> index()
+        CompletableFuture<List<String>> findAsync(String name)
+        CompletionStage<Void> Async()
+    }
+
+    def codec = new ValueCodec(new ObjectMapper())
+
+    static MemberBinding binding(String name) {
+        new MemberBinding("Catalog", Api.methods.find { it.name == name })
+    }
+
+    // ── Templates ─────────────────────────────────────────────────────────────
+
+    def "the template carries bean, member and simple parameter type names"() {
+        when:
+        def b = binding("find")
+        then:
+        b.template.beanName == "Catalog"
+        b.template.memberName == "find"
+        b.template.parameterTypesList == ["String", "int"]
+        !b.async
+        b.resultType == String
+    }
+
+    def "future-returning methods are async, drop the suffix and decode the future's type"() {
+        when:
+        def b = binding("findAsync")
+        then:
+        b.async
+        b.template.memberName == "find"
+        b.resultType.typeName == "java.util.List<java.lang.String>"
+    }
+
+    def "a member called just Async keeps its name"() {
+        expect:
+        binding("Async").template.memberName == "Async"
+        binding("Async").async
+    }
+
+    // ── Requests and results ──────────────────────────────────────────────────
+
+    def "requests fill the template with converted arguments"() {
+        given:
+        def b = binding("find")
+        when:
+        def request = b.request(["pen", 5] as Object[], codec)
+        then:
+        request.arguments.valuesList == [Value.newBuilder().setStringValue("pen").build(),
+                                         Value.newBuilder().setNumberValue(5).build()]
+        request.parameterTypesList == ["String", "int"]
+    }
+
+    def "a no-argument call reuses the template"() {
+        given:
+        def b = binding("index")
+        expect:
+        b.request(null, codec).is(b.template)
+    }
+
+    def "results decode to the generic return type"() {
+        given:
+        def value = codec.toValue([a: [1, 2]])
+        expect:
+        binding("index").decode(value, codec) == [a: [1L, 2L]]
+    }
+}
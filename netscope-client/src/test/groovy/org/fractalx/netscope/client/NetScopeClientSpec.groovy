@@ -0,0 +1,286 @@
+package org.fractalx.netscope.client
+
+import com.google.protobuf.ListValue
+import com.google.protobuf.Value
+import io.grpc.Server
+import io.grpc.Status
+import io.grpc.StatusRuntimeException
+import io.grpc.inprocess.InProcessServerBuilder
+import io.grpc.stub.StreamObserver
+import org.fractalx.netscope.server.grpc.proto.CallError
+import org.fractalx.netscope.server.grpc.proto.InvokeBatchRequest
+import org.fractalx.netscope.server.grpc.proto.InvokeBatchResponse
+import org.fractalx.netscope.server.grpc.proto.InvokeRequest
+import org.fractalx.netscope.server.grpc.proto.InvokeResponse
+import org.fractalx.netscope.server.grpc.proto.InvokeResult
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CopyOnWriteArrayList
+
+class NetScopeClientSpec extends Specification {
+
+    // ── Fixtures: replicas answering with their own name ──────────────────────
+    //
+    // "echo" answers with its first argument and "fail" with NOT_FOUND; everything else
+    // answers with the replica's name. Every request and batch is recorded.
+
+    List<Server> servers = []
+    List<String> names = []
+    List<InvokeRequest> received = new CopyOnWriteArrayList<>()
+    List<Integer> batches = new CopyOnWriteArrayList<>()
+    NetScopeClient client
+
+    def setup() {
+        3.times {
+            def name = "client-spec-$it-" + UUID.randomUUID()
+            names << name
+            servers << InProcessServerBuilder.forName(name).addService(new NetScopeServiceGrpc.NetScopeServiceImplBase() {
+                @Override
+                void invokeMethod(InvokeRequest request, StreamObserver<InvokeResponse> observer) {
+                    received << request
+                    if (request.memberName == "fail") {
+                        observer.onError(Status.NOT_FOUND.withDescription("no such order").asRuntimeException())
+                        return
+                    }
+                    observer.onNext(InvokeResponse.newBuilder().setResult(answer(name, request)).build())
+                    observer.onCompleted()
+                }
+
+                @Override
+                void invokeBatch(InvokeBatchRequest batch, StreamObserver<InvokeBatchResponse> observer) {
+                    batches << batch.requestsCount
+                    def response = InvokeBatchResponse.newBuilder()
+                    batch.requestsList.each { request ->
+                        received << request
+                        response.addResults(request.memberName == "fail"
+                                ? InvokeResult.newBuilder().setError(CallError.newBuilder()
+                                        .setCode(Status.Code.NOT_FOUND.value()).setMessage("no such order"))
+                                : InvokeResult.newBuilder().setResult(answer(name, request)))
+                    }
+                    observer.onNext(response.build())
+                    observer.onCompleted()
+                }
+            }).build().start()
+        }
+    }
+
+    static Value answer(String name, InvokeRequest request) {
+        request.memberName == "echo" ? request.arguments.getValues(0) : Value.newBuilder().setStringValue(name).build()
+    }
+
+    interface Orders {
+        Object echo(Object value)
+        long echo(long value)
+        List<Map<String, Object>> echo(List<Map<String, Object>> rows)
+        CompletableFuture<Object> echoAsync(Object value)
+        String list()
+        String fail()
+    }
+
+    def cleanup() {
+        client?.close()
+        servers*.shutdownNow()
+    }
+
+    NetScopeClient.Builder builder() {
+        NetScopeClient.builder().replicas(names.collect { "in-process:" + it }.join(","))
+    }
+
+    static InvokeRequest request(String bean, String member, String... args) {
+        def list = ListValue.newBuilder()
+        args.each { list.addValues(Value.newBuilder().setStringValue(it)) }
+        InvokeRequest.newBuilder().setBeanName(bean).setMemberName(member).setArguments(list).build()
+    }
+
+    String served(InvokeRequest request) {
+        client.invoke(request).result.stringValue
+    }
+
+    // ── Builder ───────────────────────────────────────────────────────────────
+
+    def "replicas can be listed in one comma or whitespace separated string"() {
+        when:
+        client = NetScopeClient.builder().replicas("a:1, b:2", "c:3 d:4").replicas(["e:5"]).build()
+        then:
+        client.replicas() == ["a:1", "b:2", "c:3", "d:4", "e:5"]
+    }
+
+    def "at least one replica is required"() {
+        when:
+        NetScopeClient.builder().build()
+        then:
+        thrown(IllegalStateException)
+    }
+
+    // ── Balancing over the wire ───────────────────────────────────────────────
+
+    def "round robin spreads calls over every replica"() {
+        given:
+        client = builder().policy(LoadBalancingPolicy.ROUND_ROBIN).build()
+        when:
+        def hits = (1..9).collect { served(request("Orders", "list")) }.countBy { it }
+        then:
+        hits == names.collectEntries { [(it): 3] }
+    }
+
+    def "pick first sends everything to the first replica"() {
+        given:
+        client = builder().policy(LoadBalancingPolicy.PICK_FIRST).build()
+        expect:
+        (1..5).collect { served(request("Orders", "list")) }.every { it == names[0] }
+    }
+
+    def "outstanding counts return to zero once calls complete"() {
+        given:
+        client = builder().policy(LoadBalancingPolicy.LEAST_OUTSTANDING).build()
+        when:
+        (1..6).each { served(request("Orders", "list")) }
+        then:
+        client.channel().replicas().every { it.outstanding.get() == 0 }
+    }
+
+    // ── Affinity ──────────────────────────────────────────────────────────────
+
+    def "calls for the same key land on the same replica; different keys spread"() {
+        given:
+        client = builder().policy(LoadBalancingPolicy.ROUND_ROBIN).affinity("Orders", "get", 0).build()
+        when:
+        def first  = (1..5).collect { served(request("Orders", "get", "order-42")) }
+        def spread = (1..60).collect { served(request("Orders", "get", "order-$it")) }.toSet()
+        then:
+        first.toSet().size() == 1
+        spread.size() == 3
+    }
+
+    def "affinity applies only to the configured member and argument"() {
+        given:
+        client = builder().affinity("Orders", "get", 1).build()
+        expect:
+        client.withAffinity(client.blockingStub(), request("Orders", "get", "x", "key"))
+                .callOptions.getOption(NetScopeClient.AFFINITY_KEY) == Value.newBuilder().setStringValue("key").build().toByteArray()
+        client.withAffinity(client.blockingStub(), request("Orders", "get", "x"))
+                .callOptions.getOption(NetScopeClient.AFFINITY_KEY) == null
+        client.withAffinity(client.blockingStub(), request("Orders", "list", "x", "key"))
+                .callOptions.getOption(NetScopeClient.AFFINITY_KEY) == null
+    }
+
+    // ── Typed proxies ─────────────────────────────────────────────────────────
+
+    def "proxy calls send the bean, member, parameter types and converted arguments"() {
+        given:
+        client = builder().build()
+        def orders = client.proxy(Orders)
+        when:
+        def echoed = orders.echo([id: 7, tags: ["a", "b"]] as Object)
+        then:
+        echoed == [id: 7L, tags: ["a", "b"]]
+        received[0].beanName == "Orders"
+        received[0].memberName == "echo"
+        received[0].parameterTypesList == ["Object"]
+    }
+
+    def "proxy results bind to primitive and generic return types"() {
+        given:
+        client = builder().build()
+        def orders = client.proxy(Orders, "OrderService")
+        expect:
+        orders.echo(42L) == 42L
+        orders.echo([[sku: "x", qty: 2]]) == [[sku: "x", qty: 2L]]
+        received*.beanName.toSet() == ["OrderService"] as Set
+        received*.parameterTypesList == [["long"], ["List"]]
+    }
+
+    def "async proxy methods drop the Async suffix and complete later"() {
+        given:
+        client = builder().build()
+        def orders = client.proxy(Orders)
+        when:
+        def result = orders.echoAsync("hello").get()
+        then:
+        result == "hello"
+        received[0].memberName == "echo"
+    }
+
+    def "proxy errors surface as StatusRuntimeException; Object methods stay local"() {
+        given:
+        client = builder().build()
+        def orders = client.proxy(Orders)
+        when:
+        orders.fail()
+        then:
+        def ex = thrown(StatusRuntimeException)
+        ex.status.code == Status.Code.NOT_FOUND
+        orders.toString().contains("Orders")
+        orders.equals(orders)
+        orders.hashCode() == System.identityHashCode(orders)
+        received.size() == 1
+    }
+
+    def "proxy requires an interface"() {
+        given:
+        client = builder().build()
+        when:
+        client.proxy(String)
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    // ── Batching ──────────────────────────────────────────────────────────────
+
+    def "concurrent small calls to one replica share an InvokeBatch request"() {
+        given:
+        client = builder().policy(LoadBalancingPolicy.PICK_FIRST).batching(Duration.ofMillis(50), 8).build()
+        def orders = client.proxy(Orders)
+        when:
+        def futures = (1..8).collect { orders.echoAsync("v$it") }
+        def results = futures*.get()
+        then:
+        results == (1..8).collect { "v$it" }
+        batches == [8]
+    }
+
+    def "a batched call fails alone while the rest of its batch succeeds"() {
+        given:
+        client = builder().policy(LoadBalancingPolicy.PICK_FIRST).batching(Duration.ofMillis(50), 3).build()
+        def ok1 = client.call(request("Orders", "echo", "a"))
+        def bad = client.call(request("Orders", "fail"))
+        def ok2 = client.call(request("Orders", "echo", "b"))
+        expect:
+        ok1.get().stringValue == "a"
+        ok2.get().stringValue == "b"
+        when:
+        bad.join()
+        then:
+        def ex = thrown(Exception)
+        (ex.cause as StatusRuntimeException).status.code == Status.Code.NOT_FOUND
+        batches == [3]
+    }
+
+    def "a lone call after the window is sent as a plain InvokeMethod"() {
+        given:
+        client = builder().batching(Duration.ofMillis(1), 16).build()
+        expect:
+        client.proxy(Orders).echo("solo" as Object) == "solo"
+        batches.isEmpty()
+        received.size() == 1
+    }
+
+    def "requests over the batchable size skip the batcher"() {
+        given:
+        client = builder().batching(Duration.ofSeconds(30), 16).batchableSize(8).build()
+        expect:
+        client.proxy(Orders).echo("a string longer than eight bytes" as Object) == "a string longer than eight bytes"
+        batches.isEmpty()
+    }
+
+    def "channelsPerReplica opens a pool of channels for each replica"() {
+        given:
+        client = builder().channelsPerReplica(3).build()
+        expect:
+        client.channel().replicas().every { it.channels.length == 3 }
+        (1..6).collect { served(request("Orders", "list")) }.size() == 6
+    }
+}
@@ -0,0 +1,107 @@
+package org.fractalx.netscope.client
+
+import com.fasterxml.jackson.core.type.TypeReference
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.google.protobuf.ListValue
+import com.google.protobuf.NullValue
+import com.google.protobuf.Struct
+import com.google.protobuf.Value
+import spock.lang.Specification
+
+class ValueCodecSpec extends Specification {
+
+    // ── Fixtures ──────────────────────────────────────────────────────────────
+
+    enum Status { OPEN, CLOSED }
+
+    static class Order {
+        public long id
+        public String sku
+        public List<String> tags
+    }
+
+    def codec = new ValueCodec(new ObjectMapper())
+
+    static Value str(String s) { Value.newBuilder().setStringValue(s).build() }
+    static Value num(double d) { Value.newBuilder().setNumberValue(d).build() }
+
+    // ── Java → Value ──────────────────────────────────────────────────────────
+
+    def "scalars convert directly"() {
+        expect:
+        codec.toValue(null).nullValue == NullValue.NULL_VALUE
+        codec.toValue("x") == str("x")
+        codec.toValue('c' as char) == str("c")
+        codec.toValue(Status.OPEN) == str("OPEN")
+        codec.toValue(true).boolValue
+        codec.toValue(42) == num(42)
+        codec.toValue(2.5f) == num(2.5)
+        codec.toValue([1, 2] as byte[]) == str(Base64.encoder.encodeToString([1, 2] as byte[]))
+    }
+
+    def "maps, collections and arrays become structs and lists"() {
+        when:
+        def value = codec.toValue([name: "a", items: [1, 2], nested: [3, 4] as int[]])
+        then:
+        value.structValue.fieldsMap["name"] == str("a")
+        value.structValue.fieldsMap["items"].listValue.valuesList == [num(1), num(2)]
+        value.structValue.fieldsMap["nested"].listValue.valuesList == [num(3), num(4)]
+    }
+
+    def "POJOs go through the mapper's tree"() {
+        given:
+        def order = new Order(id: 7, sku: "x", tags: ["a"])
+        when:
+        def fields = codec.toValue(order).structValue.fieldsMap
+        then:
+        fields["id"] == num(7)
+        fields["sku"] == str("x")
+        fields["tags"].listValue.valuesList == [str("a")]
+    }
+
+    def "a Value passes through unchanged"() {
+        given:
+        def value = str("already")
+        expect:
+        codec.toValue(value).is(value)
+    }
+
+    // ── Value → Java ──────────────────────────────────────────────────────────
+
+    def "scalars bind to their Java types"() {
+        expect:
+        codec.fromValue(str("x"), String) == "x"
+        codec.fromValue(num(3), int) == 3
+        codec.fromValue(num(3), Long) == 3L
+        codec.fromValue(num(1.5), double) == 1.5d
+        codec.fromValue(Value.newBuilder().setBoolValue(true).build(), boolean) == true
+        codec.fromValue(str("CLOSED"), Status) == Status.CLOSED
+        codec.fromValue(str("ignored"), void) == null
+    }
+
+    def "structs and lists bind to POJOs and generic collections"() {
+        given:
+        def struct = Value.newBuilder().setStructValue(Struct.newBuilder()
+                .putFields("id", num(7)).putFields("sku", str("x"))
+                .putFields("tags", Value.newBuilder().setListValue(ListValue.newBuilder().addValues(str("a"))).build()))
+                .build()
+        def list = Value.newBuilder().setListValue(ListValue.newBuilder().addValues(struct)).build()
+        when:
+        Order order = codec.fromValue(struct, Order)
+        List<Order> orders = codec.fromValue(list, new TypeReference<List<Order>>() {}.type)
+        then:
+        order.id == 7L
+        order.sku == "x"
+        order.tags == ["a"]
+        orders.size() == 1
+        orders[0] instanceof Order
+    }
+
+    def "a value that cannot bind throws IllegalArgumentException"() {
+        when:
+        codec.fromValue(str("not a number"), int)
+        then:
+        def ex = thrown(IllegalArgumentException)
+        ex.message.contains("int")
+    }
+}
@@ -22,4 +22,14 @@ import java.lang.annotation.*;
 @Documented
 public @interface NetworkPublic {
     String description() default "";
+
+    /** Scheduling class of calls to this member, when call scheduling is enabled. */
+    Priority priority() default Priority.NORMAL;
+
+    /**
+     * Void methods only: queue the call on a background executor and answer at once with
+     * {@code {"status":"accepted","invocationId":...}}. Failures are reported on the
+     * {@code WatchAsyncOutcomes} stream. Ignored on fields and non-void methods.
+     */
+    boolean async() default false;
 }
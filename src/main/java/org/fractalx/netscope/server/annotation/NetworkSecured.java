@@ -45,4 +45,16 @@ public @interface NetworkSecured {
      * Description for documentation.
      */
     String description() default "";
+
+    /**
+     * Scheduling class of calls to this member, when call scheduling is enabled.
+     */
+    Priority priority() default Priority.NORMAL;
+
+    /**
+     * Void methods only: queue the call on a background executor and answer at once with
+     * {@code {"status":"accepted","invocationId":...}}. Failures are reported on the
+     * {@code WatchAsyncOutcomes} stream. Ignored on fields and non-void methods.
+     */
+    boolean async() default false;
 }
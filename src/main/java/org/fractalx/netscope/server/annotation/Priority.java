@@ -0,0 +1,20 @@
+package org.fractalx.netscope.server.annotation;
+
+/**
+ * Scheduling class of a member, used when call scheduling is enabled.
+ *
+ * <pre>
+ * {@code @NetworkSecured(auth = AuthType.OAUTH, priority = Priority.HIGH)}
+ * {@code @NetworkPublic(priority = Priority.LOW)}
+ * </pre>
+ *
+ * Callers may lower the priority of a call with the {@code netscope-priority} header.
+ */
+public enum Priority {
+    /** Latency-sensitive calls; served first, with the largest share of workers */
+    HIGH,
+    /** Everything not marked otherwise (default) */
+    NORMAL,
+    /** Batch and background calls; served with the smallest share, never starved */
+    LOW
+}
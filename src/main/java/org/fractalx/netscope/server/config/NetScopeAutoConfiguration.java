@@ -1,9 +1,18 @@
 package org.fractalx.netscope.server.config;
 
+import org.fractalx.netscope.server.core.AsyncInvocations;
+import org.fractalx.netscope.server.core.AttributeJournal;
+import org.fractalx.netscope.server.core.AttributeWatchRegistry;
+import org.fractalx.netscope.server.core.NetScopeCallContext;
 import org.fractalx.netscope.server.core.NetScopeInvoker;
+import org.fractalx.netscope.server.core.NetScopeRegistrationProcessor;
 import org.fractalx.netscope.server.core.NetScopeScanner;
+import org.fractalx.netscope.server.core.PriorityScheduler;
+import org.fractalx.netscope.server.federation.FederationGateway;
+import org.fractalx.netscope.server.grpc.NetScopeCompression;
 import org.fractalx.netscope.server.grpc.NetScopeGrpcServer;
 import org.fractalx.netscope.server.grpc.NetScopeGrpcServiceImpl;
+import org.fractalx.netscope.server.ratelimit.RateLimiter;
 import org.fractalx.netscope.server.security.ApiKeyValidator;
 import org.fractalx.netscope.server.security.OAuth2AuthorizationService;
 import org.fractalx.netscope.server.security.OAuth2TokenValidator;
@@ -17,6 +26,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 
+import java.io.IOException;
+
 @AutoConfiguration
 public class NetScopeAutoConfiguration {
 
@@ -46,10 +57,38 @@ public class NetScopeAutoConfiguration {
         return new NetScopeScanner(context, config);
     }
 
+    /** Static so it is registered as a post-processor before any other bean is created. */
+    @Bean
+    @ConditionalOnMissingBean
+    public static NetScopeRegistrationProcessor netScopeRegistrationProcessor() {
+        return new NetScopeRegistrationProcessor();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public AttributeWatchRegistry attributeWatchRegistry(@Qualifier(NS_CONFIG) NetScopeConfig config) {
+        return new AttributeWatchRegistry(config.getWatch());
+    }
+
     @Bean
     @ConditionalOnMissingBean
-    public NetScopeInvoker netScopeInvoker() {
-        return new NetScopeInvoker();
+    public NetScopeInvoker netScopeInvoker(AttributeWatchRegistry watchRegistry,
+            org.springframework.beans.factory.ObjectProvider<AttributeJournal> journalProvider) {
+        return new NetScopeInvoker(watchRegistry, journalProvider.getIfAvailable());   // null if journal disabled
+    }
+
+    /** Replayed once the context has been scanned, by {@link NetScopeRegistrationProcessor}. */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "netscope.server.journal.enabled", havingValue = "true")
+    public AttributeJournal netScopeAttributeJournal(@Qualifier(NS_CONFIG) NetScopeConfig config) throws IOException {
+        return new AttributeJournal(config.getJournal());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public NetScopeCallContext netScopeCallContext() {
+        return new NetScopeCallContext();
     }
 
     // ── Security: OAuth 2.0 ───────────────────────────────────────────────────
@@ -94,14 +133,33 @@ public class NetScopeAutoConfiguration {
 
     // ── gRPC Server ───────────────────────────────────────────────────────────
 
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "netscope.server.grpc.enabled", havingValue = "true", matchIfMissing = true)
+    public NetScopeCompression netScopeCompression(@Qualifier(NS_CONFIG) NetScopeConfig config) {
+        return new NetScopeCompression(config.getCompression());
+    }
+
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnProperty(name = "netscope.server.grpc.enabled", havingValue = "true", matchIfMissing = true)
     public NetScopeGrpcServiceImpl netScopeGrpcService(
+            @Qualifier(NS_CONFIG) NetScopeConfig config,
             NetScopeScanner scanner,
             NetScopeInvoker invoker,
-            OAuth2AuthorizationService authService) {
-        return new NetScopeGrpcServiceImpl(scanner, invoker, authService);
+            OAuth2AuthorizationService authService,
+            NetScopeCompression compression,
+            AttributeWatchRegistry watchRegistry,
+            org.springframework.beans.factory.ObjectProvider<RateLimiter> rateLimiterProvider,
+            org.springframework.beans.factory.ObjectProvider<PriorityScheduler> schedulerProvider,
+            org.springframework.beans.factory.ObjectProvider<AsyncInvocations> asyncProvider) {
+        NetScopeGrpcServiceImpl service =
+                new NetScopeGrpcServiceImpl(scanner, invoker, authService, compression, watchRegistry);
+        service.setRateLimiter(rateLimiterProvider.getIfAvailable());   // null if rate limiting disabled
+        service.setScheduler(schedulerProvider.getIfAvailable());       // null if scheduling disabled
+        service.setAsyncInvocations(asyncProvider.getIfAvailable());
+        service.setMaxBatchSize(config.getGrpc().getMaxBatchSize());
+        return service;
     }
 
     @Bean
@@ -109,7 +167,48 @@ public class NetScopeAutoConfiguration {
     @ConditionalOnProperty(name = "netscope.server.grpc.enabled", havingValue = "true", matchIfMissing = true)
     public NetScopeGrpcServer netScopeGrpcServer(
             @Qualifier(NS_CONFIG) NetScopeConfig config,
+            NetScopeGrpcServiceImpl grpcService,
+            org.springframework.beans.factory.ObjectProvider<FederationGateway> federationProvider) {
+        return new NetScopeGrpcServer(config, grpcService, federationProvider.getIfAvailable());
+    }
+
+    // ── Rate limiting ─────────────────────────────────────────────────────────
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "netscope.server.rate-limit.enabled", havingValue = "true")
+    public RateLimiter netScopeRateLimiter(@Qualifier(NS_CONFIG) NetScopeConfig config) {
+        return new RateLimiter(config.getRateLimit());
+    }
+
+    // ── Call scheduling ───────────────────────────────────────────────────────
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "netscope.server.scheduling.enabled", havingValue = "true")
+    public PriorityScheduler netScopePriorityScheduler(@Qualifier(NS_CONFIG) NetScopeConfig config) {
+        return new PriorityScheduler(config.getScheduling());
+    }
+
+    // ── Async void methods ────────────────────────────────────────────────────
+
+    /** Threads start with the first async = true call, so this costs nothing unless used. */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "netscope.server.grpc.enabled", havingValue = "true", matchIfMissing = true)
+    public AsyncInvocations netScopeAsyncInvocations(@Qualifier(NS_CONFIG) NetScopeConfig config) {
+        return new AsyncInvocations(config.getAsync());
+    }
+
+    // ── Federation ────────────────────────────────────────────────────────────
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "netscope.server.federation.enabled", havingValue = "true")
+    public FederationGateway federationGateway(
+            @Qualifier(NS_CONFIG) NetScopeConfig config,
+            NetScopeScanner scanner,
             NetScopeGrpcServiceImpl grpcService) {
-        return new NetScopeGrpcServer(config, grpcService);
+        return new FederationGateway(config, scanner, grpcService);
     }
 }
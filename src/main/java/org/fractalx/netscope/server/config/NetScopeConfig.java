@@ -1,7 +1,9 @@
 package org.fractalx.netscope.server.config;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * NetScope configuration — plain POJO, no Spring annotations on the class.
@@ -10,18 +12,48 @@ import java.util.List;
 public class NetScopeConfig {
 
     private final GrpcConfig grpc = new GrpcConfig();
+    private final CompressionConfig compression = new CompressionConfig();
+    private final WatchConfig watch = new WatchConfig();
+    private final FederationConfig federation = new FederationConfig();
+    private final IdempotencyConfig idempotency = new IdempotencyConfig();
+    private final RateLimitConfig rateLimit = new RateLimitConfig();
+    private final SchedulingConfig scheduling = new SchedulingConfig();
+    private final AsyncConfig async = new AsyncConfig();
+    private final JournalConfig journal = new JournalConfig();
+    private final CaptureConfig capture = new CaptureConfig();
+    private final ShutdownConfig shutdown = new ShutdownConfig();
+    private final HealthConfig health = new HealthConfig();
     private final SecurityConfig security = new SecurityConfig();
 
     public GrpcConfig getGrpc() { return grpc; }
+    public CompressionConfig getCompression() { return compression; }
+    public WatchConfig getWatch() { return watch; }
+    public FederationConfig getFederation() { return federation; }
+    public IdempotencyConfig getIdempotency() { return idempotency; }
+    public RateLimitConfig getRateLimit() { return rateLimit; }
+    public SchedulingConfig getScheduling() { return scheduling; }
+    public AsyncConfig getAsync() { return async; }
+    public JournalConfig getJournal() { return journal; }
+    public CaptureConfig getCapture() { return capture; }
+    public ShutdownConfig getShutdown() { return shutdown; }
+    public HealthConfig getHealth() { return health; }
     public SecurityConfig getSecurity() { return security; }
 
     // ── gRPC ─────────────────────────────────────────────────────────────────
 
     public static class GrpcConfig {
+
+        /** Netty channel/event-loop implementation. AUTO picks EPOLL when the native library loads. */
+        public enum Transport { AUTO, EPOLL, NIO }
+
+        /** ByteBuf allocator for accepted connections. DEFAULT leaves Netty's own choice. */
+        public enum BufferAllocator { DEFAULT, POOLED_DIRECT, POOLED_HEAP, UNPOOLED }
+
         private boolean enabled = true;
         private int port = 9090;
         private int maxInboundMessageSize = 4194304;
         private int maxConcurrentCallsPerConnection = 100;
+        private int maxBatchSize = 1000;            // requests in one InvokeBatch call
         private long keepAliveTime = 300;
         private long keepAliveTimeout = 20;
         private boolean permitKeepAliveWithoutCalls = false;
@@ -29,6 +61,18 @@ public class NetScopeConfig {
         private long maxConnectionAge = 0;
         private boolean enableReflection = true;
 
+        // ── Netty transport tuning ─────────────────────────────────────────
+        private Transport transport = Transport.AUTO;
+        private int bossThreads = 1;
+        private int workerThreads = 0;              // 0 = Netty default (2 × cores)
+        private BufferAllocator bufferAllocator = BufferAllocator.DEFAULT;
+        private int flowControlWindow = 0;          // bytes, 0 = gRPC default (auto-tuned)
+        private int maxHeaderListSize = 0;          // bytes, 0 = gRPC default (8 KiB)
+
+        // ── Co-located listeners (in addition to the TCP port) ─────────────
+        private String unixSocketPath;              // null = no Unix domain socket (requires epoll)
+        private String inProcessName;               // null = no in-process listener
+
         public boolean isEnabled() { return enabled; }
         public void setEnabled(boolean v) { this.enabled = v; }
         public int getPort() { return port; }
@@ -37,6 +81,8 @@ public class NetScopeConfig {
         public void setMaxInboundMessageSize(int v) { this.maxInboundMessageSize = v; }
         public int getMaxConcurrentCallsPerConnection() { return maxConcurrentCallsPerConnection; }
         public void setMaxConcurrentCallsPerConnection(int v) { this.maxConcurrentCallsPerConnection = v; }
+        public int getMaxBatchSize() { return maxBatchSize; }
+        public void setMaxBatchSize(int v) { this.maxBatchSize = v; }
         public long getKeepAliveTime() { return keepAliveTime; }
         public void setKeepAliveTime(long v) { this.keepAliveTime = v; }
         public long getKeepAliveTimeout() { return keepAliveTimeout; }
@@ -49,6 +95,295 @@ public class NetScopeConfig {
         public void setMaxConnectionAge(long v) { this.maxConnectionAge = v; }
         public boolean isEnableReflection() { return enableReflection; }
         public void setEnableReflection(boolean v) { this.enableReflection = v; }
+        public Transport getTransport() { return transport; }
+        public void setTransport(Transport v) { this.transport = v; }
+        public int getBossThreads() { return bossThreads; }
+        public void setBossThreads(int v) { this.bossThreads = v; }
+        public int getWorkerThreads() { return workerThreads; }
+        public void setWorkerThreads(int v) { this.workerThreads = v; }
+        public BufferAllocator getBufferAllocator() { return bufferAllocator; }
+        public void setBufferAllocator(BufferAllocator v) { this.bufferAllocator = v; }
+        public int getFlowControlWindow() { return flowControlWindow; }
+        public void setFlowControlWindow(int v) { this.flowControlWindow = v; }
+        public int getMaxHeaderListSize() { return maxHeaderListSize; }
+        public void setMaxHeaderListSize(int v) { this.maxHeaderListSize = v; }
+        public String getUnixSocketPath() { return unixSocketPath; }
+        public void setUnixSocketPath(String v) { this.unixSocketPath = v; }
+        public String getInProcessName() { return inProcessName; }
+        public void setInProcessName(String v) { this.inProcessName = v; }
+    }
+
+    // ── Response compression ──────────────────────────────────────────────────
+
+    public static class CompressionConfig {
+        private boolean enabled = false;
+        /** Default codec: gzip, lz4 (needs org.lz4:lz4-java) or identity. */
+        private String algorithm = "gzip";
+        /** Responses smaller than this many encoded bytes are sent uncompressed. */
+        private int minResponseSize = 1024;
+        /** Per-member codec overrides keyed by "BeanName.memberName", e.g. identity to opt out. */
+        private Map<String, String> members = new LinkedHashMap<>();
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean v) { this.enabled = v; }
+        public String getAlgorithm() { return algorithm; }
+        public void setAlgorithm(String v) { this.algorithm = v; }
+        public int getMinResponseSize() { return minResponseSize; }
+        public void setMinResponseSize(int v) { this.minResponseSize = v; }
+        public Map<String, String> getMembers() { return members; }
+        public void setMembers(Map<String, String> v) { this.members = v; }
+    }
+
+    // ── Attribute watches ─────────────────────────────────────────────────────
+
+    public static class WatchConfig {
+        /** How often watched fields are re-read to catch changes made without a notification. 0 = never. */
+        private long sampleIntervalMillis = 1000;
+
+        public long getSampleIntervalMillis() { return sampleIntervalMillis; }
+        public void setSampleIntervalMillis(long v) { this.sampleIntervalMillis = v; }
+    }
+
+    // ── Federation ────────────────────────────────────────────────────────────
+
+    public static class FederationConfig {
+        private boolean enabled = false;
+        /** Other NetScope nodes: "host:port", any gRPC target URI, or "in-process:name". */
+        private List<String> peers = new ArrayList<>();
+        /** How often each peer's GetDocs is polled to rebuild the bean → node routing table. */
+        private long refreshIntervalMillis = 30000;
+        /** Deadline for one GetDocs poll. */
+        private long docsTimeoutMillis = 5000;
+        /** HTTP/2 connections per peer; forwarded calls are spread over them round-robin. */
+        private int channelsPerPeer = 1;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean v) { this.enabled = v; }
+        public List<String> getPeers() { return peers; }
+        public void setPeers(List<String> v) { this.peers = v; }
+        public long getRefreshIntervalMillis() { return refreshIntervalMillis; }
+        public void setRefreshIntervalMillis(long v) { this.refreshIntervalMillis = v; }
+        public long getDocsTimeoutMillis() { return docsTimeoutMillis; }
+        public void setDocsTimeoutMillis(long v) { this.docsTimeoutMillis = v; }
+        public int getChannelsPerPeer() { return channelsPerPeer; }
+        public void setChannelsPerPeer(int v) { this.channelsPerPeer = v; }
+    }
+
+    // ── Idempotency keys ──────────────────────────────────────────────────────
+
+    public static class IdempotencyConfig {
+        private boolean enabled = false;
+        /** How long a key's outcome is kept after its call ends. */
+        private long ttlMillis = 300000;
+        /** Most keys kept at once; the oldest are dropped first. */
+        private int maxEntries = 10000;
+        /** Larger responses are not kept; a repeat of their call fails with ALREADY_EXISTS. */
+        private int maxResponseBytes = 65536;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean v) { this.enabled = v; }
+        public long getTtlMillis() { return ttlMillis; }
+        public void setTtlMillis(long v) { this.ttlMillis = v; }
+        public int getMaxEntries() { return maxEntries; }
+        public void setMaxEntries(int v) { this.maxEntries = v; }
+        public int getMaxResponseBytes() { return maxResponseBytes; }
+        public void setMaxResponseBytes(int v) { this.maxResponseBytes = v; }
+    }
+
+    // ── Rate limiting ─────────────────────────────────────────────────────────
+
+    public static class RateLimitConfig {
+        private boolean enabled = false;
+        /** Every call to the server. */
+        private Limit global = new Limit();
+        /** Each authenticated principal (OAuth subject or API key) separately. */
+        private Limit principal = new Limit();
+        /** Each member ("Bean.member") separately, unless it has its own entry in {@code members}. */
+        private Limit member = new Limit();
+        /** Limits for single members, keyed "Bean.member"; they replace {@code member} for that member. */
+        private Map<String, Limit> members = new LinkedHashMap<>();
+        /** Most principals tracked at once; when all are busy, new principals are rejected. */
+        private int maxPrincipals = 10000;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean v) { this.enabled = v; }
+        public Limit getGlobal() { return global; }
+        public void setGlobal(Limit v) { this.global = v; }
+        public Limit getPrincipal() { return principal; }
+        public void setPrincipal(Limit v) { this.principal = v; }
+        public Limit getMember() { return member; }
+        public void setMember(Limit v) { this.member = v; }
+        public Map<String, Limit> getMembers() { return members; }
+        public void setMembers(Map<String, Limit> v) { this.members = v; }
+        public int getMaxPrincipals() { return maxPrincipals; }
+        public void setMaxPrincipals(int v) { this.maxPrincipals = v; }
+
+        public static class Limit {
+            /** Sustained rate. 0 = unlimited. */
+            private double permitsPerSecond = 0;
+            /** Calls allowed at once after an idle spell. 0 = one second's worth of permits. */
+            private int burst = 0;
+
+            public boolean isLimited() { return permitsPerSecond > 0; }
+            public double getPermitsPerSecond() { return permitsPerSecond; }
+            public void setPermitsPerSecond(double v) { this.permitsPerSecond = v; }
+            public int getBurst() { return burst; }
+            public void setBurst(int v) { this.burst = v; }
+        }
+    }
+
+    // ── Call scheduling ───────────────────────────────────────────────────────
+
+    public static class SchedulingConfig {
+        private boolean enabled = false;
+        /** Worker threads running scheduled calls. 0 = 2 × cores. */
+        private int threads = 0;
+        /** Most calls waiting at once; beyond this calls fail with RESOURCE_EXHAUSTED. */
+        private int maxQueued = 10000;
+        /** Share of workers each priority gets while all of them have calls waiting. */
+        private int highWeight = 8;
+        private int normalWeight = 4;
+        private int lowWeight = 1;
+        /** A call waiting longer than this is run next, whatever its priority. */
+        private long maxWaitMillis = 1000;
+        /** Whether the netscope-priority header may raise a call above its member's priority. */
+        private boolean allowHeaderRaise = false;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean v) { this.enabled = v; }
+        public int getThreads() { return threads; }
+        public void setThreads(int v) { this.threads = v; }
+        public int getMaxQueued() { return maxQueued; }
+        public void setMaxQueued(int v) { this.maxQueued = v; }
+        public int getHighWeight() { return highWeight; }
+        public void setHighWeight(int v) { this.highWeight = v; }
+        public int getNormalWeight() { return normalWeight; }
+        public void setNormalWeight(int v) { this.normalWeight = v; }
+        public int getLowWeight() { return lowWeight; }
+        public void setLowWeight(int v) { this.lowWeight = v; }
+        public long getMaxWaitMillis() { return maxWaitMillis; }
+        public void setMaxWaitMillis(long v) { this.maxWaitMillis = v; }
+        public boolean isAllowHeaderRaise() { return allowHeaderRaise; }
+        public void setAllowHeaderRaise(boolean v) { this.allowHeaderRaise = v; }
+    }
+
+    // ── Async void methods ────────────────────────────────────────────────────
+
+    public static class AsyncConfig {
+        /** Threads running async = true calls. */
+        private int threads = 4;
+        /** Calls that may wait for a thread; beyond this new ones fail with RESOURCE_EXHAUSTED. */
+        private int maxQueued = 10000;
+        /** Outcomes buffered per WatchAsyncOutcomes stream whose reader is behind; older ones are dropped. */
+        private int outcomeBuffer = 1000;
+        /** How long shutdown waits for queued calls to run. */
+        private long shutdownTimeoutMillis = 10000;
+
+        public int getThreads() { return threads; }
+        public void setThreads(int v) { this.threads = v; }
+        public int getMaxQueued() { return maxQueued; }
+        public void setMaxQueued(int v) { this.maxQueued = v; }
+        public int getOutcomeBuffer() { return outcomeBuffer; }
+        public void setOutcomeBuffer(int v) { this.outcomeBuffer = v; }
+        public long getShutdownTimeoutMillis() { return shutdownTimeoutMillis; }
+        public void setShutdownTimeoutMillis(long v) { this.shutdownTimeoutMillis = v; }
+    }
+
+    // ── Attribute journal ─────────────────────────────────────────────────────
+
+    public static class JournalConfig {
+        private boolean enabled = false;
+        /** Holds journal.log and snapshot.json; created if missing. */
+        private String directory = "netscope-journal";
+        /** Size of the memory-mapped journal file; when full it is compacted into the snapshot. */
+        private int fileSize = 16 * 1024 * 1024;
+        /** How often appended writes are forced to disk. */
+        private long syncIntervalMillis = 10;
+        /** Attribute writes return only once forced to disk, sharing one fsync per interval. */
+        private boolean waitForSync = false;
+        /** How often the journal is compacted into the snapshot if it has new writes; 0 = only when full. */
+        private long snapshotIntervalMillis = 60000;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean v) { this.enabled = v; }
+        public String getDirectory() { return directory; }
+        public void setDirectory(String v) { this.directory = v; }
+        public int getFileSize() { return fileSize; }
+        public void setFileSize(int v) { this.fileSize = v; }
+        public long getSyncIntervalMillis() { return syncIntervalMillis; }
+        public void setSyncIntervalMillis(long v) { this.syncIntervalMillis = v; }
+        public boolean isWaitForSync() { return waitForSync; }
+        public void setWaitForSync(boolean v) { this.waitForSync = v; }
+        public long getSnapshotIntervalMillis() { return snapshotIntervalMillis; }
+        public void setSnapshotIntervalMillis(long v) { this.snapshotIntervalMillis = v; }
+    }
+
+    // ── Traffic capture ───────────────────────────────────────────────────────
+
+    public static class CaptureConfig {
+        private boolean enabled = false;
+        /** Holds the rotating capture-NNNNNN.bin files; created if missing. */
+        private String directory = "netscope-capture";
+        /** Fraction of InvokeRequest and SetAttributeRequest messages written, 0.0–1.0. */
+        private double sampleRate = 0.01;
+        /** Size of each memory-mapped capture file. */
+        private int fileSize = 64 * 1024 * 1024;
+        /** Files kept; the oldest is deleted when a new one starts. */
+        private int maxFiles = 8;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean v) { this.enabled = v; }
+        public String getDirectory() { return directory; }
+        public void setDirectory(String v) { this.directory = v; }
+        public double getSampleRate() { return sampleRate; }
+        public void setSampleRate(double v) { this.sampleRate = v; }
+        public int getFileSize() { return fileSize; }
+        public void setFileSize(int v) { this.fileSize = v; }
+        public int getMaxFiles() { return maxFiles; }
+        public void setMaxFiles(int v) { this.maxFiles = v; }
+    }
+
+    // ── Graceful shutdown ─────────────────────────────────────────────────────
+
+    public static class ShutdownConfig {
+        /** Time between reporting NOT_SERVING and refusing new calls, for load balancers to notice. */
+        private long readinessDelayMillis = 0;
+        /** How long running calls may take to finish before they are cut. */
+        private long drainTimeoutMillis = 30000;
+
+        public long getReadinessDelayMillis() { return readinessDelayMillis; }
+        public void setReadinessDelayMillis(long v) { this.readinessDelayMillis = v; }
+        public long getDrainTimeoutMillis() { return drainTimeoutMillis; }
+        public void setDrainTimeoutMillis(long v) { this.drainTimeoutMillis = v; }
+    }
+
+    // ── Health ────────────────────────────────────────────────────────────────
+
+    public static class HealthConfig {
+        /** Re-evaluate serving status from live signals; when false it is SERVING from start to shutdown. */
+        private boolean enabled = true;
+        private long intervalMillis = 1000;
+        /** NOT_SERVING while this many calls are running; 0 = not checked. */
+        private int maxInFlight = 0;
+        /** NOT_SERVING while the scheduler queue is this full (fraction of scheduling.maxQueued). */
+        private double maxQueuedRatio = 0.8;
+        /** A saturated signal clears once it falls below this fraction of its limit. */
+        private double resumeRatio = 0.8;
+        /** NOT_SERVING while the OAuth JWK set cannot be fetched (and none is cached). */
+        private boolean checkJwks = true;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean v) { this.enabled = v; }
+        public long getIntervalMillis() { return intervalMillis; }
+        public void setIntervalMillis(long v) { this.intervalMillis = v; }
+        public int getMaxInFlight() { return maxInFlight; }
+        public void setMaxInFlight(int v) { this.maxInFlight = v; }
+        public double getMaxQueuedRatio() { return maxQueuedRatio; }
+        public void setMaxQueuedRatio(double v) { this.maxQueuedRatio = v; }
+        public double getResumeRatio() { return resumeRatio; }
+        public void setResumeRatio(double v) { this.resumeRatio = v; }
+        public boolean isCheckJwks() { return checkJwks; }
+        public void setCheckJwks(boolean v) { this.checkJwks = v; }
     }
 
     // ── Security ──────────────────────────────────────────────────────────────
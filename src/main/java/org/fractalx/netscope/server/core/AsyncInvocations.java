@@ -0,0 +1,155 @@
+package org.fractalx.netscope.server.core;
+
+import org.fractalx.netscope.server.config.NetScopeConfig;
+import org.fractalx.netscope.server.model.NetworkMethodDefinition;
+import io.grpc.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs calls to {@code async = true} void methods after their caller has been answered.
+ *
+ * <p>Calls wait in a bounded queue for one of a fixed set of daemon threads. When the
+ * queue is full, {@link #submit} fails with RESOURCE_EXHAUSTED, so a caller producing
+ * work faster than it can run is pushed back rather than buffered without limit.
+ *
+ * <p>Every call gets an invocation id, returned to the caller. When the call finishes,
+ * its {@link Outcome} goes to the listeners of its member; nothing is kept afterwards.
+ * Failures are also logged.
+ */
+public class AsyncInvocations implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncInvocations.class);
+
+    /** How one call ended. {@code error} is null on success. */
+    public record Outcome(String invocationId, String beanName, String memberName,
+                          Throwable error, long durationNanos) {
+        public boolean success() { return error == null; }
+    }
+
+    /** Receives outcomes on the thread that ran the call — must not block. */
+    public interface Listener {
+        void onOutcome(Outcome outcome);
+    }
+
+    /** Stops delivery to a listener. Idempotent. */
+    public interface Registration extends AutoCloseable {
+        @Override void close();
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentHashMap<String, Set<Listener>> listeners = new ConcurrentHashMap<>();
+    private final String idPrefix = Integer.toHexString(ThreadLocalRandom.current().nextInt()) + "-";
+    private final AtomicLong sequence = new AtomicLong();
+    private final int outcomeBuffer;
+    private final long shutdownTimeoutMillis;
+
+    public AsyncInvocations(NetScopeConfig.AsyncConfig config) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(config.getThreads(), config.getThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, config.getMaxQueued())), r -> {
+                    Thread t = new Thread(r, "netscope-async-" + threadCount.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.outcomeBuffer         = config.getOutcomeBuffer();
+        this.shutdownTimeoutMillis = config.getShutdownTimeoutMillis();
+    }
+
+    /**
+     * Queues {@code task}, a prepared call to {@code member}, and returns its invocation id.
+     * Throws RESOURCE_EXHAUSTED when the queue is full and UNAVAILABLE once closed.
+     */
+    public String submit(NetworkMethodDefinition member, Callable<?> task) {
+        String id = idPrefix + Long.toHexString(sequence.incrementAndGet());
+        try {
+            executor.execute(() -> run(member, id, task));
+        } catch (RejectedExecutionException e) {
+            if (executor.isShutdown()) {
+                throw Status.UNAVAILABLE.withDescription("Server is shutting down").asRuntimeException();
+            }
+            throw Status.RESOURCE_EXHAUSTED
+                    .withDescription("Async queue full: " + executor.getQueue().size() + " calls waiting")
+                    .asRuntimeException();
+        }
+        return id;
+    }
+
+    /** Delivers the outcome of every call to {@code beanName.memberName} that finishes from now on. */
+    public Registration subscribe(String beanName, String memberName, Listener listener) {
+        String key = beanName + "." + memberName;
+        listeners.computeIfAbsent(key, k -> new CopyOnWriteArraySet<>()).add(listener);
+        return new Registration() {
+            private volatile boolean done;
+
+            @Override
+            public void close() {
+                if (done) return;
+                done = true;
+                listeners.computeIfPresent(key, (k, set) -> {
+                    set.remove(listener);
+                    return set.isEmpty() ? null : set;
+                });
+            }
+        };
+    }
+
+    /** Outcomes a listener that cannot keep up should buffer before dropping the oldest. */
+    public int outcomeBuffer() {
+        return outcomeBuffer;
+    }
+
+    /** Calls waiting for a thread. */
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    /** Stops taking calls and waits up to {@code shutdownTimeoutMillis} for queued ones to run. */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                int dropped = executor.shutdownNow().size();
+                logger.warn("NetScope: {} async call(s) dropped at shutdown", dropped);
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(NetworkMethodDefinition member, String id, Callable<?> task) {
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            task.call();
+        } catch (Throwable t) {
+            error = t;
+            logger.warn("Async call {}.{} [{}] failed", member.getBeanName(), member.getMethodName(), id, t);
+        }
+        Set<Listener> set = listeners.get(member.getBeanName() + "." + member.getMethodName());
+        if (set == null) return;
+        Outcome outcome = new Outcome(id, member.getBeanName(), member.getMethodName(),
+                error, System.nanoTime() - start);
+        for (Listener listener : set) {
+            try {
+                listener.onOutcome(outcome);
+            } catch (RuntimeException e) {
+                logger.error("Async outcome listener failed", e);
+            }
+        }
+    }
+}
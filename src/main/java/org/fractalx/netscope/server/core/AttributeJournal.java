@@ -0,0 +1,393 @@
+package org.fractalx.netscope.server.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.fractalx.netscope.server.config.NetScopeConfig;
+import org.fractalx.netscope.server.model.NetworkMethodDefinition;
+import io.grpc.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps the values of attributes written over the network across restarts: an
+ * append-only journal of writes in a memory-mapped file, compacted into a snapshot.
+ *
+ * <p>After every successful SetAttribute, CompareAndSetAttribute or AddAndGetAttribute,
+ * the field's new value is appended to {@code journal.log} as one checksummed record —
+ * a copy into the mapped file, with no system call. A daemon thread forces new records
+ * to disk every {@code syncIntervalMillis}, one fsync for everything appended since the
+ * last. With {@code waitForSync}, a write returns only once its record is on disk; writers
+ * waiting at the same time share one fsync.
+ *
+ * <p>When the journal file is full, every {@code snapshotIntervalMillis} and at close, the
+ * last value of every attribute is written to {@code snapshot.json} and the journal starts
+ * over. On startup the snapshot and then the journal are read back, stopping at the first
+ * torn record, and {@link #replay} writes the values into the scanned fields. Until then,
+ * writes fail with UNAVAILABLE, so the replay cannot overwrite them.
+ */
+public class AttributeJournal implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttributeJournal.class);
+
+    static final String JOURNAL_FILE  = "journal.log";
+    static final String SNAPSHOT_FILE = "snapshot.json";
+
+    private static final int MAGIC         = 0x4E534A31;   // "NSJ1"
+    private static final int HEADER        = 8;            // magic, generation
+    private static final int RECORD_HEADER = 12;           // payload length, generation, CRC-32 of the payload
+    private static final int MIN_FILE_SIZE = 4096;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path directory;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long syncIntervalMillis;
+    private final boolean waitForSync;
+    private final long snapshotIntervalNanos;
+    private final Thread flusher;
+
+    // Guarded by this
+    private final Map<String, String> latest = new LinkedHashMap<>();   // "Bean.field" → JSON
+    private int generation;       // records of other generations are stale
+    private int position;         // where the next record goes
+    private int syncedPosition;   // records before this offset are on disk
+    private long appended;        // records appended since opening
+    private long synced;          // how many of them are on disk
+    private int sinceSnapshot;    // records in the journal now
+    private long lastSnapshot;
+    private int waiters;
+    private boolean closed;
+
+    private volatile boolean replayed;
+    private volatile String failure;   // why a write went unjournaled, until the next snapshot holds it
+
+    public AttributeJournal(NetScopeConfig.JournalConfig config) throws IOException {
+        this.directory             = Path.of(config.getDirectory());
+        this.syncIntervalMillis    = Math.max(1, config.getSyncIntervalMillis());
+        this.waitForSync           = config.isWaitForSync();
+        this.snapshotIntervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getSnapshotIntervalMillis());
+
+        Files.createDirectories(directory);
+        readSnapshot();
+        this.channel = FileChannel.open(directory.resolve(JOURNAL_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = Math.max(Math.max(config.getFileSize(), MIN_FILE_SIZE), channel.size());
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            synchronized (this) {
+                int records = readJournal();
+                lastSnapshot = System.nanoTime();
+                // Start each run from an empty journal, so nothing torn or stale is left behind new records
+                if (records > 0 || buffer.getInt(HEADER) != 0) compact();
+                logger.info("NetScope journal: {} attribute(s) loaded from {} ({} journal record(s))",
+                        latest.size(), directory, records);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        this.flusher = new Thread(this::flushLoop, "netscope-journal");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // ── Writes ────────────────────────────────────────────────────────────────
+
+    /**
+     * Appends the current value of {@code attribute}, which has just been written. With
+     * {@code waitForSync}, returns once the record is on disk. A failure here does not undo
+     * the write; the caller reports it through {@link #recordFailed}.
+     */
+    public void record(NetworkMethodDefinition attribute) throws Exception {
+        long record;
+        synchronized (this) {
+            if (closed) throw Status.UNAVAILABLE.withDescription("Attribute journal is closed").asRuntimeException();
+            // Read under the lock, so a field's last record always holds its latest value
+            Object value = attribute.getFieldAccessor().get(attribute.getBean());
+            append(key(attribute), value == null ? "null" : objectMapper.writeValueAsString(value));
+            record = appended;
+        }
+        if (waitForSync) awaitSynced(record);
+    }
+
+    /**
+     * Notes that the write to {@code attribute} was applied but could not be journaled.
+     * {@link #failure} reports it until a snapshot, which holds every last value, is written.
+     */
+    public void recordFailed(NetworkMethodDefinition attribute, Exception e) {
+        failure = key(attribute) + " was written but not journaled: " + e.getMessage();
+        logger.error("NetScope journal: {}", failure, e);
+    }
+
+    /** Why a write has not been journaled since the last snapshot, or null if none. */
+    public String failure() {
+        return failure;
+    }
+
+    /** Throws UNAVAILABLE until {@link #replay} has run, so no write is lost to it. */
+    public void checkReplayed() {
+        if (!replayed) {
+            throw Status.UNAVAILABLE.withDescription("Attribute journal is being replayed").asRuntimeException();
+        }
+    }
+
+    private void append(String key, String json) throws IOException {
+        byte[] payload = encode(key, json);
+        int size = RECORD_HEADER + payload.length;
+        latest.put(key, json);
+        appended++;
+        if (position + size > buffer.capacity()) {
+            // Compacting writes the value to the snapshot, so it does not need a record
+            compact();
+            return;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        buffer.put(position + RECORD_HEADER, payload);
+        buffer.putInt(position + 8, (int) crc.getValue());
+        buffer.putInt(position + 4, generation);
+        buffer.putInt(position, payload.length);
+        position += size;
+        sinceSnapshot++;
+    }
+
+    private synchronized void awaitSynced(long record) throws InterruptedException {
+        waiters++;
+        notifyAll();   // the flusher syncs at once rather than at the end of its interval
+        try {
+            while (synced < record && !closed) wait();
+        } finally {
+            waiters--;
+        }
+    }
+
+    // ── Replay ────────────────────────────────────────────────────────────────
+
+    /**
+     * Writes every journaled value into its field, found through {@code scanner}. Values of
+     * attributes that no longer exist or are no longer writable are kept in the journal but
+     * not restored. Returns how many fields were restored; writes are accepted from then on.
+     */
+    public synchronized int replay(NetScopeScanner scanner, NetScopeInvoker invoker) {
+        int restored = 0;
+        for (Map.Entry<String, String> entry : latest.entrySet()) {
+            String key = entry.getKey();
+            int dot = key.indexOf('.');
+            Optional<NetworkMethodDefinition> found;
+            try {
+                found = scanner.findMethod(key.substring(0, dot), key.substring(dot + 1), List.of());
+            } catch (AmbiguousInvocationException e) {
+                found = Optional.empty();
+            }
+            NetworkMethodDefinition attribute = found.filter(NetworkMethodDefinition::isWriteable).orElse(null);
+            if (attribute == null) {
+                logger.warn("NetScope journal: {} is not a writable attribute — kept, not restored", key);
+                continue;
+            }
+            try {
+                invoker.restore(attribute, entry.getValue());
+                restored++;
+            } catch (Exception e) {
+                logger.warn("NetScope journal: could not restore {} = {}: {}", key, entry.getValue(), e.getMessage());
+            }
+        }
+        replayed = true;
+        logger.info("NetScope journal: restored {} of {} attribute(s)", restored, latest.size());
+        return restored;
+    }
+
+    /** True once {@link #replay} has run. */
+    public boolean isReplayed() {
+        return replayed;
+    }
+
+    /** Attributes with a journaled value. */
+    public synchronized int size() {
+        return latest.size();
+    }
+
+    // ── Snapshot and journal files ────────────────────────────────────────────
+
+    /**
+     * Writes the last value of every attribute to the snapshot, then starts the journal
+     * over by moving to a new generation. A crash in between replays the old records over
+     * the snapshot, which holds the same last values.
+     */
+    private void compact() throws IOException {
+        ObjectNode snapshot = objectMapper.createObjectNode();
+        for (Map.Entry<String, String> entry : latest.entrySet()) {
+            snapshot.set(entry.getKey(), objectMapper.readTree(entry.getValue()));
+        }
+        Path target = directory.resolve(SNAPSHOT_FILE);
+        Path temp   = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bytes = ByteBuffer.wrap(objectMapper.writeValueAsBytes(snapshot));
+            while (bytes.hasRemaining()) out.write(bytes);
+            out.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory();
+
+        generation++;
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, generation);
+        buffer.putInt(HEADER, 0);
+        buffer.force(0, HEADER + 4);
+        position = syncedPosition = HEADER;
+        synced = appended;
+        sinceSnapshot = 0;
+        lastSnapshot = System.nanoTime();
+        failure = null;
+        notifyAll();
+    }
+
+    private void readSnapshot() throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) return;
+        JsonNode snapshot = objectMapper.readTree(file.toFile());
+        for (Iterator<Map.Entry<String, JsonNode>> it = snapshot.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            latest.put(field.getKey(), field.getValue().toString());
+        }
+    }
+
+    /** Reads records of the current generation into {@code latest}, up to the first torn one. Returns how many. */
+    private int readJournal() throws IOException {
+        int magic = buffer.getInt(0);
+        if (magic == 0) {
+            generation = 1;
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, generation);
+            buffer.force(0, HEADER);
+            position = syncedPosition = HEADER;
+            return 0;
+        }
+        if (magic != MAGIC) {
+            throw new IOException(directory.resolve(JOURNAL_FILE) + " is not a NetScope journal");
+        }
+        generation = buffer.getInt(4);
+        int offset = HEADER;
+        int records = 0;
+        while (offset + RECORD_HEADER <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + RECORD_HEADER + length > buffer.capacity()) break;
+            if (buffer.getInt(offset + 4) != generation) break;
+            byte[] payload = new byte[length];
+            buffer.get(offset + RECORD_HEADER, payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(offset + 8)) {
+                logger.warn("NetScope journal: torn record at offset {} — later records dropped", offset);
+                break;
+            }
+            ByteBuffer in = ByteBuffer.wrap(payload);
+            byte[] key = new byte[in.getInt()];
+            in.get(key);
+            latest.put(new String(key, StandardCharsets.UTF_8),
+                    new String(payload, in.position(), in.remaining(), StandardCharsets.UTF_8));
+            offset += RECORD_HEADER + length;
+            records++;
+        }
+        position = syncedPosition = offset;
+        return records;
+    }
+
+    private static byte[] encode(String key, String json) {
+        byte[] k = key.getBytes(StandardCharsets.UTF_8);
+        byte[] v = json.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(4 + k.length + v.length).putInt(k.length).put(k).put(v).array();
+    }
+
+    private static String key(NetworkMethodDefinition attribute) {
+        return attribute.getBeanName() + "." + attribute.getMethodName();
+    }
+
+    /** Makes the snapshot's rename durable. Not every platform can open a directory; the rename then stands alone. */
+    private void forceDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException ignored) {
+        }
+    }
+
+    // ── Background sync ───────────────────────────────────────────────────────
+
+    private void flushLoop() {
+        while (true) {
+            long target;
+            int from, to, gen;
+            synchronized (this) {
+                try {
+                    if (waiters == 0 || appended == synced) wait(syncIntervalMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (closed) return;
+                if (snapshotIntervalNanos > 0 && sinceSnapshot > 0
+                        && System.nanoTime() - lastSnapshot >= snapshotIntervalNanos) {
+                    try {
+                        compact();
+                    } catch (IOException e) {
+                        logger.error("NetScope journal: snapshot failed", e);
+                    }
+                    continue;
+                }
+                if (appended == synced) continue;
+                target = appended;
+                from   = syncedPosition;
+                to     = position;
+                gen    = generation;
+            }
+            if (to > from) buffer.force(from, to - from);
+            synchronized (this) {
+                if (gen == generation) syncedPosition = to;   // otherwise compacted meanwhile, syncing everything
+                if (target > synced) synced = target;
+                notifyAll();
+            }
+        }
+    }
+
+    /** Compacts the journal into the snapshot and stops. Writes after this fail with UNAVAILABLE. */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            try {
+                if (sinceSnapshot > 0) compact();
+            } catch (IOException e) {
+                logger.error("NetScope journal: final snapshot failed — the journal will be replayed instead", e);
+                buffer.force();
+            }
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.warn("NetScope journal: closing {} failed", JOURNAL_FILE, e);
+        }
+    }
+}
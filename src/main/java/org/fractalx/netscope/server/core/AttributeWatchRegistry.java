@@ -0,0 +1,281 @@
+package org.fractalx.netscope.server.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.fractalx.netscope.server.config.NetScopeConfig;
+import org.fractalx.netscope.server.model.NetworkMethodDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Tracks watchers of exposed fields and tells them when a field's value changes.
+ *
+ * <p>A change is detected in one of three ways:
+ * <ul>
+ *   <li>{@link Source#WRITE} — a write through {@link NetScopeInvoker}</li>
+ *   <li>{@link Source#NOTIFY} — the owning bean calls {@link #notifyChanged(Object, String)}
+ *       after mutating the field itself</li>
+ *   <li>{@link Source#SAMPLE} — a low-frequency sampler re-reads every watched field</li>
+ * </ul>
+ *
+ * Whatever the trigger, the field is re-read and its JSON compared with the last value
+ * published, so unchanged values are never sent twice. Each change is delivered to all
+ * watchers of the attribute as the same {@link Change} instance, letting a transport
+ * encode it once via {@link Change#encoded}. Attributes nobody watches cost a single map
+ * lookup per notification.
+ */
+public class AttributeWatchRegistry implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttributeWatchRegistry.class);
+
+    public enum Source { INITIAL, WRITE, NOTIFY, SAMPLE }
+
+    /** Receives changes for one attribute. Called with the attribute's lock held — must not block. */
+    public interface Listener {
+        void onChange(Change change);
+
+        /** The registry is closing; no further changes will be delivered. */
+        default void onClose() {}
+    }
+
+    /** Cancels a watch. Idempotent. */
+    public interface Registration extends AutoCloseable {
+        @Override void close();
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ConcurrentHashMap<String, Topic> topics = new ConcurrentHashMap<>();
+    private final long sampleIntervalMillis;
+    private ScheduledExecutorService sampler;   // started with the first watch, guarded by this
+    private boolean closed;                     // guarded by this
+
+    public AttributeWatchRegistry() {
+        this(new NetScopeConfig.WatchConfig());
+    }
+
+    public AttributeWatchRegistry(NetScopeConfig.WatchConfig config) {
+        this.sampleIntervalMillis = config.getSampleIntervalMillis();
+    }
+
+    // ── Watching ──────────────────────────────────────────────────────────────
+
+    /**
+     * Starts watching a field attribute. The listener first receives the current value as
+     * an {@link Source#INITIAL} change, then every subsequent change in version order.
+     */
+    public Registration watch(NetworkMethodDefinition attribute, Listener listener) {
+        if (!attribute.isField()) {
+            throw new IllegalArgumentException("Only field attributes can be watched: "
+                    + attribute.getBeanName() + "." + attribute.getMethodName());
+        }
+        startSampler();
+        String key = key(attribute.getBeanName(), attribute.getMethodName());
+        // The map only hands out topics; reading the field and calling listeners happen under
+        // the topic's lock, never inside a map operation, so a listener may use the registry
+        Topic topic;
+        while (true) {
+            topic = topics.computeIfAbsent(key, k -> new Topic(attribute));
+            synchronized (topic) {
+                if (topic.retired) continue;   // its last watcher left after we fetched it
+                // Bring existing watchers up to date before the newcomer's snapshot
+                topic.refresh(Source.SAMPLE);
+                topic.listeners.add(listener);
+                if (topic.current != null) listener.onChange(topic.current.as(Source.INITIAL));
+                break;
+            }
+        }
+        Topic watched = topic;
+        return new Registration() {
+            private volatile boolean done;
+
+            @Override
+            public void close() {
+                if (done) return;
+                done = true;
+                synchronized (watched) {
+                    watched.listeners.remove(listener);
+                    if (watched.listeners.isEmpty() && !watched.retired) {
+                        watched.retired = true;
+                        topics.remove(key, watched);
+                    }
+                }
+            }
+        };
+    }
+
+    /** Number of active watches across all attributes. */
+    public int watcherCount() {
+        int count = 0;
+        for (Topic topic : topics.values()) {
+            synchronized (topic) { count += topic.listeners.size(); }
+        }
+        return count;
+    }
+
+    // ── Change notification ───────────────────────────────────────────────────
+
+    /** Called by {@link NetScopeInvoker} after it writes a field. */
+    public void written(NetworkMethodDefinition attribute) {
+        publish(key(attribute.getBeanName(), attribute.getMethodName()), Source.WRITE);
+    }
+
+    /**
+     * Tells watchers that a bean changed one of its exposed fields directly.
+     * Beans call this after mutating a field outside of NetScope:
+     * <pre>{@code
+     * this.status = "DRAINING";
+     * watchRegistry.notifyChanged(this, "status");
+     * }</pre>
+     */
+    public void notifyChanged(Object bean, String attributeName) {
+        publish(key(AopUtils.getTargetClass(bean).getSimpleName(), attributeName), Source.NOTIFY);
+    }
+
+    /** Same as {@link #notifyChanged(Object, String)} for callers that only know the bean name. */
+    public void notifyChanged(String beanName, String attributeName) {
+        publish(key(beanName, attributeName), Source.NOTIFY);
+    }
+
+    private void publish(String key, Source source) {
+        Topic topic = topics.get(key);
+        if (topic == null) return;   // nobody watching
+        synchronized (topic) {
+            topic.refresh(source);
+        }
+    }
+
+    // ── Sampling ──────────────────────────────────────────────────────────────
+
+    private synchronized void startSampler() {
+        if (closed) throw new IllegalStateException("AttributeWatchRegistry is closed");
+        if (sampler != null || sampleIntervalMillis <= 0) return;
+        sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "netscope-watch-sampler");
+            t.setDaemon(true);
+            return t;
+        });
+        sampler.scheduleWithFixedDelay(this::sampleAll,
+                sampleIntervalMillis, sampleIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void sampleAll() {
+        for (String key : topics.keySet()) {
+            try {
+                publish(key, Source.SAMPLE);
+            } catch (RuntimeException e) {
+                logger.warn("NetScope: sampling {} failed: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        List<Topic> open;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            if (sampler != null) sampler.shutdownNow();
+            open = new ArrayList<>(topics.values());
+            topics.clear();
+        }
+        for (Topic topic : open) {
+            List<Listener> listeners;
+            synchronized (topic) {
+                listeners = new ArrayList<>(topic.listeners);
+                topic.listeners.clear();
+            }
+            listeners.forEach(Listener::onClose);
+        }
+    }
+
+    private static String key(String beanName, String attributeName) {
+        return beanName + "." + attributeName;
+    }
+
+    // ── Per-attribute state ───────────────────────────────────────────────────
+
+    private final class Topic {
+        final NetworkMethodDefinition attribute;
+        final List<Listener> listeners = new CopyOnWriteArrayList<>();   // a listener may add or close watches mid-delivery
+        Change current;     // last published value, null until the first successful read
+        boolean retired;    // removed from the map with its last watcher; a new topic takes over
+
+        Topic(NetworkMethodDefinition attribute) {
+            this.attribute = attribute;
+        }
+
+        /** Re-reads the field and publishes it if its JSON differs from the last value. Caller holds the lock. */
+        void refresh(Source source) {
+            String json;
+            try {
+                Object value = attribute.getFieldAccessor().get(attribute.getBean());
+                json = value == null ? "null" : objectMapper.writeValueAsString(value);
+            } catch (Exception e) {
+                logger.warn("NetScope: cannot read watched attribute {}.{}: {}",
+                        attribute.getBeanName(), attribute.getMethodName(), e.getMessage());
+                return;
+            }
+            if (current != null && current.json.equals(json)) return;   // equality suppression
+
+            current = new Change(attribute, json, current == null ? 0 : current.version + 1, source);
+            for (Listener listener : listeners) {
+                try {
+                    listener.onChange(current);
+                } catch (RuntimeException e) {
+                    logger.warn("NetScope: watcher of {}.{} failed: {}",
+                            attribute.getBeanName(), attribute.getMethodName(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    // ── Change ────────────────────────────────────────────────────────────────
+
+    /** One published value of a watched attribute, shared by all of its watchers. */
+    public static final class Change {
+        private final NetworkMethodDefinition attribute;
+        private final String json;
+        private final long version;
+        private final Source source;
+        private volatile Object encoded;
+
+        Change(NetworkMethodDefinition attribute, String json, long version, Source source) {
+            this.attribute = attribute;
+            this.json      = json;
+            this.version   = version;
+            this.source    = source;
+        }
+
+        public NetworkMethodDefinition getAttribute() { return attribute; }
+        public String getJson()                       { return json; }
+        public long getVersion()                      { return version; }
+        public Source getSource()                     { return source; }
+
+        /**
+         * Returns this change in a transport's wire form, computing it on first use only.
+         * Every caller must pass an equivalent encoder: the first result is reused by all.
+         */
+        @SuppressWarnings("unchecked")
+        public <T> T encoded(Function<Change, T> encoder) {
+            Object result = encoded;
+            if (result == null) {
+                result = encoder.apply(this);
+                encoded = result;   // a racing duplicate encode is harmless
+            }
+            return (T) result;
+        }
+
+        Change as(Source newSource) {
+            return newSource == source ? this : new Change(attribute, json, version, newSource);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.fractalx.netscope.server.core;
+
+import io.grpc.Context;
+import io.grpc.Deadline;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The NetScope call a bean method is running for. Inject it into a bean to stop long work
+ * once the caller has cancelled or its deadline has passed:
+ *
+ * <pre>{@code
+ * @NetworkPublic
+ * public Report build(String id) {
+ *     for (Section s : sections(id)) {
+ *         callContext.checkCancelled();
+ *         render(s);
+ *     }
+ *     ...
+ * }
+ * }</pre>
+ *
+ * <p>It is stateless and reads the gRPC context of the calling thread, so one instance
+ * serves every call. Work handed to another thread sees the call only if it is wrapped
+ * with {@code Context.current().wrap(...)}. Outside a call nothing is ever cancelled and
+ * there is no deadline.
+ */
+public class NetScopeCallContext {
+
+    /** True once the caller has cancelled, disconnected or run past its deadline. */
+    public boolean isCancelled() {
+        return Context.current().isCancelled();
+    }
+
+    /** Throws {@link CancellationException} if {@link #isCancelled()}; NetScope reports it as the call's status. */
+    public void checkCancelled() {
+        if (isCancelled()) throw new CancellationException("Call cancelled by the client");
+    }
+
+    /** Time left until the caller's deadline, or empty if it set none. Negative once it has passed. */
+    public Optional<Duration> remaining() {
+        Deadline deadline = Context.current().getDeadline();
+        return deadline == null ? Optional.empty()
+                : Optional.of(Duration.ofNanos(deadline.timeRemaining(TimeUnit.NANOSECONDS)));
+    }
+}
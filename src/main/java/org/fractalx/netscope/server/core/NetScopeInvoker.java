@@ -1,34 +1,52 @@
 package org.fractalx.netscope.server.core;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.Context;
+import org.fractalx.netscope.server.model.FieldAccessor;
 import org.fractalx.netscope.server.model.NetworkMethodDefinition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.Lock;
 
 public class NetScopeInvoker {
 
     private static final Logger logger = LoggerFactory.getLogger(NetScopeInvoker.class);
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AttributeWatchRegistry watchRegistry;
+    private final AttributeJournal journal;   // null unless the journal is enabled
+
+    /** What a void method answers. */
+    public static final String VOID_RESULT = "{\"status\":\"accepted\"}";
+
+    /** Passes an optimistic snapshot makes before giving up on two consecutive passes agreeing. */
+    static final int SNAPSHOT_ATTEMPTS = 8;
 
     // ── Optional Reactor support — detected at class load time ───────────────
     private static final Class<?> MONO_CLASS;
     private static final Class<?> FLUX_CLASS;
-    private static final Method   MONO_BLOCK;
+    private static final Method   MONO_TO_FUTURE;
     private static final Method   FLUX_COLLECT_LIST;
 
     static {
         Class<?> mono = null, flux = null;
-        Method   monoBlock = null, fluxCollectList = null;
+        Method   monoToFuture = null, fluxCollectList = null;
         try {
             mono            = Class.forName("reactor.core.publisher.Mono");
             flux            = Class.forName("reactor.core.publisher.Flux");
-            monoBlock       = mono.getMethod("block");
+            monoToFuture    = mono.getMethod("toFuture");
             fluxCollectList = flux.getMethod("collectList");
             logger.debug("NetScope: Project Reactor detected — Mono/Flux return types will be unwrapped");
         } catch (ClassNotFoundException | NoSuchMethodException ignored) {
@@ -36,15 +54,42 @@ public class NetScopeInvoker {
         }
         MONO_CLASS        = mono;
         FLUX_CLASS        = flux;
-        MONO_BLOCK        = monoBlock;
+        MONO_TO_FUTURE    = monoToFuture;
         FLUX_COLLECT_LIST = fluxCollectList;
     }
 
+    public NetScopeInvoker() {
+        this(null);
+    }
+
+    /** Writes through this invoker are reported to {@code watchRegistry}'s watchers. */
+    public NetScopeInvoker(AttributeWatchRegistry watchRegistry) {
+        this(watchRegistry, null);
+    }
+
+    /** As above, and every successful write is recorded in {@code journal}. */
+    public NetScopeInvoker(AttributeWatchRegistry watchRegistry, AttributeJournal journal) {
+        this.watchRegistry = watchRegistry;
+        this.journal       = journal;
+    }
+
+    /** The registry writes are reported to, or null. */
+    public AttributeWatchRegistry watchRegistry() {
+        return watchRegistry;
+    }
+
+    /** The journal writes are recorded in, or null. */
+    public AttributeJournal journal() {
+        return journal;
+    }
+
     // ── Public API ────────────────────────────────────────────────────────────
 
     /**
      * Invokes a method or reads a field value.
      * Reactive return types (Mono, Flux, CompletableFuture) are automatically unwrapped.
+     * Throws {@link CancellationException} without serializing the result if the calling
+     * gRPC context is cancelled meanwhile.
      */
     public String invoke(NetworkMethodDefinition def, String argumentsJson) throws Exception {
         if (def.isField()) {
@@ -55,42 +100,234 @@ public class NetScopeInvoker {
 
     /**
      * Writes a value to an exposed field attribute.
-     * Rejects writes to final fields. Returns JSON of the previous value.
+     * Rejects writes to final fields. Returns JSON of the previous value, read and
+     * replaced in one atomic step so concurrent writers each see a distinct previous value.
      */
     public String write(NetworkMethodDefinition def, String valueJson) throws Exception {
+        FieldAccessor accessor = writableAccessor(def, "write()");
+        Object newValue = readValue(valueJson, accessor.getType());
+
+        Object previous = accessor.getAndSet(def.getBean(), newValue);
+        logger.debug("NetScope: wrote {}.{} = {}", def.getBeanName(), def.getMethodName(), valueJson);
+        written(def);
+        return toJson(previous);
+    }
+
+    /**
+     * Atomically replaces the field value with {@code newJson} if it currently equals
+     * {@code expectedJson}. Equality is by value: {@code equals()} first, then JSON tree
+     * comparison for types without a value-based {@code equals()}. On a miss the
+     * returned update carries the value that did not match.
+     */
+    public AttributeUpdate compareAndSet(NetworkMethodDefinition def,
+                                         String expectedJson, String newJson) throws Exception {
+        FieldAccessor accessor = writableAccessor(def, "compareAndSet()");
+        Object expected = readValue(expectedJson, accessor.getType());
+        Object newValue = readValue(newJson, accessor.getType());
+
+        // The CAS itself compares references, so retry on the exact instance read until
+        // it either succeeds or the current value no longer equals expected.
+        for (;;) {
+            Object current = accessor.get(def.getBean());
+            if (!sameValue(current, expected)) {
+                String currentJson = toJson(current);
+                return new AttributeUpdate(false, currentJson, currentJson);
+            }
+            if (accessor.compareAndSet(def.getBean(), current, newValue)) {
+                logger.debug("NetScope: compare-and-set {}.{} = {}",
+                        def.getBeanName(), def.getMethodName(), newJson);
+                written(def);
+                return new AttributeUpdate(true, toJson(current), toJson(newValue));
+            }
+        }
+    }
+
+    /**
+     * Atomically adds {@code deltaJson} to a numeric field and returns the previous and
+     * resulting values. Integral fields require an integral delta that fits their type.
+     */
+    public AttributeUpdate addAndGet(NetworkMethodDefinition def, String deltaJson) throws Exception {
+        FieldAccessor accessor = writableAccessor(def, "addAndGet()");
+        if (!FieldAccessor.isNumeric(accessor.getType())) {
+            throw new UnsupportedOperationException("Attribute is not numeric: "
+                    + def.getBeanName() + "." + def.getMethodName() + " (" + def.getReturnType() + ")");
+        }
+        Number delta    = toDelta(deltaJson, accessor.getType());
+        Number previous = (Number) accessor.getAndAdd(def.getBean(), delta);
+        written(def);
+        return new AttributeUpdate(true, toJson(previous), toJson(FieldAccessor.add(previous, delta)));
+    }
+
+    /**
+     * Sets a field to {@code valueJson} without recording it in the journal, as when the
+     * journal itself is replayed. Watchers are told as for any write.
+     */
+    public void restore(NetworkMethodDefinition def, String valueJson) throws Exception {
+        FieldAccessor accessor = def.getFieldAccessor();
+        accessor.getAndSet(def.getBean(), readValue(valueJson, accessor.getType()));
+        if (watchRegistry != null) watchRegistry.written(def);
+    }
+
+    /**
+     * Reads several fields of one bean and returns them as a single JSON object keyed by
+     * field name, in the order given.
+     *
+     * <p>When {@code consistent} is set, the values come from one point in time as far as
+     * the field references go: under the bean's {@link SnapshotLockProvider} lock if it
+     * has one, otherwise by re-reading until two consecutive passes return the same
+     * values. If the fields keep changing for {@value #SNAPSHOT_ATTEMPTS} passes, the last
+     * pass is returned and {@link Snapshot#consistent()} is false. Without {@code consistent}
+     * the fields are read once.
+     */
+    public Snapshot readAll(List<NetworkMethodDefinition> defs, boolean consistent) throws Exception {
+        if (defs.isEmpty()) return new Snapshot("{}", true, 0);
+        for (NetworkMethodDefinition def : defs) {
+            if (!def.isField()) {
+                throw new UnsupportedOperationException(
+                    "readAll() is only supported for field attributes, not methods: " + def.getMethodName());
+            }
+        }
+        Object bean = defs.get(0).getBean();
+
+        Object[] values = new Object[defs.size()];
+        int attempts = 1;
+        boolean stable = true;
+        if (!consistent) {
+            readPass(defs, values);
+        } else if (bean instanceof SnapshotLockProvider provider) {
+            Lock lock = provider.snapshotLock();
+            lock.lock();
+            try {
+                readPass(defs, values);
+            } finally {
+                lock.unlock();
+            }
+        } else {
+            Object[] previous = new Object[defs.size()];
+            readPass(defs, previous);
+            for (;;) {
+                readPass(defs, values);
+                attempts++;
+                if (Arrays.equals(previous, values)) break;
+                if (attempts == SNAPSHOT_ATTEMPTS) { stable = false; break; }
+                Object[] swap = previous; previous = values; values = swap;
+            }
+        }
+
+        Map<String, Object> snapshot = new LinkedHashMap<>(values.length * 2);
+        for (int i = 0; i < values.length; i++) snapshot.put(defs.get(i).getMethodName(), values[i]);
+        return new Snapshot(objectMapper.writeValueAsString(snapshot), stable, attempts);
+    }
+
+    /** Fields read together by {@link #readAll}: a JSON object, whether it is consistent, and passes taken. */
+    public record Snapshot(String json, boolean consistent, int attempts) {}
+
+    /** Outcome of an atomic field update; both values are JSON. */
+    public record AttributeUpdate(boolean applied, String previousJson, String currentJson) {}
+
+    // ── Private helpers ───────────────────────────────────────────────────────
+
+    /**
+     * Journals and announces a write that has already been applied. The field holds the new
+     * value whatever the journal does, so a journal failure does not fail the write: it is
+     * logged and reported by health, and watchers are told as usual.
+     */
+    private void written(NetworkMethodDefinition def) {
+        if (journal != null) {
+            try {
+                journal.record(def);
+            } catch (InterruptedException e) {
+                // The record is appended; only the wait for its fsync was cut short
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                journal.recordFailed(def, e);
+            }
+        }
+        if (watchRegistry != null) watchRegistry.written(def);
+    }
+
+    private FieldAccessor writableAccessor(NetworkMethodDefinition def, String operation) {
         if (!def.isField()) {
             throw new UnsupportedOperationException(
-                "write() is only supported for field attributes, not methods");
+                operation + " is only supported for field attributes, not methods");
         }
         if (def.isFinal()) {
             throw new IllegalStateException(
                 "Cannot write to final field: " + def.getBeanName() + "." + def.getMethodName());
         }
+        if (journal != null) journal.checkReplayed();
+        return def.getFieldAccessor();
+    }
 
-        Field field = def.getField();
-        field.setAccessible(true);
+    private Object readValue(String json, Class<?> type) throws Exception {
+        return (json == null || json.equals("null")) ? null : objectMapper.readValue(json, type);
+    }
 
-        Object target   = def.isStatic() ? null : def.getBean();
-        Object previous = field.get(target);
-        String previousJson = previous == null ? "null" : objectMapper.writeValueAsString(previous);
+    private String toJson(Object value) throws Exception {
+        return value == null ? "null" : objectMapper.writeValueAsString(value);
+    }
 
-        Object newValue = (valueJson == null || valueJson.equals("null"))
-                ? null
-                : objectMapper.readValue(valueJson, field.getType());
+    private boolean sameValue(Object current, Object expected) {
+        if (Objects.equals(current, expected)) return true;
+        if (current == null || expected == null) return false;
+        return objectMapper.valueToTree(current).equals(objectMapper.valueToTree(expected));
+    }
 
-        field.set(target, newValue);
-        logger.debug("NetScope: wrote {}.{} = {}", def.getBeanName(), def.getMethodName(), valueJson);
-        return previousJson;
+    /** Parses a delta and converts it exactly to the field's wrapper type. */
+    private Number toDelta(String deltaJson, Class<?> type) throws Exception {
+        BigDecimal delta = deltaJson == null || deltaJson.equals("null")
+                ? null : objectMapper.readValue(deltaJson, BigDecimal.class);
+        if (delta == null) {
+            throw new IllegalArgumentException("A numeric delta is required");
+        }
+        if (type == double.class || type == Double.class) return delta.doubleValue();
+        if (type == float.class  || type == Float.class)  return delta.floatValue();
+        try {
+            long value = delta.longValueExact();   // rejects fractions and out-of-range values
+            if (type == long.class  || type == Long.class)  return value;
+            if (type == int.class   || type == Integer.class) return Math.toIntExact(value);
+            if (type == short.class || type == Short.class) {
+                if (value != (short) value) throw new ArithmeticException("short overflow");
+                return (short) value;
+            }
+            if (value != (byte) value) throw new ArithmeticException("byte overflow");
+            return (byte) value;
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Delta " + delta.toPlainString()
+                    + " is not a valid " + type.getSimpleName() + " increment");
+        }
     }
 
-    // ── Private helpers ───────────────────────────────────────────────────────
+    private static void readPass(List<NetworkMethodDefinition> defs, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            NetworkMethodDefinition def = defs.get(i);
+            values[i] = def.getFieldAccessor().get(def.getBean());
+        }
+    }
+
+    /**
+     * Decodes the arguments of a method now and returns a task that calls it later, on any
+     * thread. Argument errors are thrown here, to the caller; the task throws whatever the
+     * method throws, unwrapped. The result is discarded, so this suits void methods.
+     */
+    public Callable<Void> prepare(NetworkMethodDefinition def, String argumentsJson) throws Exception {
+        Method method = def.getMethod();
+        method.setAccessible(true);
+        Object[] args   = resolveArguments(method, argumentsJson);
+        Object   target = def.isStatic() ? null : def.getBean();
+        return () -> {
+            try {
+                method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof Exception cause) throw cause;
+                throw e;
+            }
+            return null;
+        };
+    }
 
     private String readField(NetworkMethodDefinition def) throws Exception {
-        Field field = def.getField();
-        field.setAccessible(true);
-        Object target = def.isStatic() ? null : def.getBean();
-        Object value  = field.get(target);
-        return value == null ? "null" : objectMapper.writeValueAsString(value);
+        return toJson(def.getFieldAccessor().get(def.getBean()));
     }
 
     private String invokeMethod(NetworkMethodDefinition def, String argumentsJson) throws Exception {
@@ -99,16 +336,27 @@ public class NetScopeInvoker {
 
         Object[] args   = resolveArguments(method, argumentsJson);
         Object   target = def.isStatic() ? null : def.getBean();
-        Object   result = method.invoke(target, args);
+        Object   result;
+        try {
+            result = method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            // A bean that gave up via NetScopeCallContext.checkCancelled()
+            if (e.getCause() instanceof CancellationException cancelled) throw cancelled(cancelled);
+            throw e;
+        }
 
         // Raw void return — no need to unwrap
         if (def.isVoidReturn()) {
-            return "{\"status\":\"accepted\"}";
+            return VOID_RESULT;
         }
 
         // Unwrap reactive types before serializing
         result = unwrapReactive(result);
 
+        // Nobody is waiting for the result any more — skip serializing it
+        if (Context.current().isCancelled()) {
+            throw new CancellationException("Call cancelled by the client");
+        }
         if (result == null) {
             return "null";
         }
@@ -121,33 +369,57 @@ public class NetScopeInvoker {
      *   Mono<T>              → T  (requires Project Reactor on classpath)
      *   Flux<T>              → List<T> (requires Project Reactor on classpath)
      *
-     * Non-reactive values are returned as-is.
+     * Non-reactive values are returned as-is. If the calling gRPC context is cancelled
+     * while waiting, {@link CancellationException} is thrown and Reactor subscriptions are
+     * disposed. A bean's own CompletableFuture is left alone: others may depend on it.
      */
     private Object unwrapReactive(Object result) throws Exception {
         if (result == null) return null;
 
-        // CompletableFuture — standard Java, always available
+        // CompletableFuture — standard Java, always available; wait on a copy so only that is cancelled
         if (result instanceof CompletableFuture<?> future) {
-            try {
-                return future.get();
-            } catch (ExecutionException e) {
-                Throwable cause = e.getCause();
-                throw cause instanceof Exception ? (Exception) cause : new RuntimeException(cause);
-            }
+            return await(future.copy());
         }
 
         // Project Reactor — optional dependency
         if (MONO_CLASS != null && MONO_CLASS.isInstance(result)) {
-            return MONO_BLOCK.invoke(result);   // Mono<T>.block() → T (or null for empty/void)
+            return await((CompletableFuture<?>) MONO_TO_FUTURE.invoke(result));   // Mono<T> → T (null if empty)
         }
         if (FLUX_CLASS != null && FLUX_CLASS.isInstance(result)) {
-            Object monoList = FLUX_COLLECT_LIST.invoke(result);  // Flux<T>.collectList() → Mono<List<T>>
-            return MONO_BLOCK.invoke(monoList);                  // .block() → List<T>
+            Object monoList = FLUX_COLLECT_LIST.invoke(result);                   // Flux<T> → Mono<List<T>>
+            return await((CompletableFuture<?>) MONO_TO_FUTURE.invoke(monoList)); // → List<T>
         }
 
         return result;
     }
 
+    private static Object await(CompletableFuture<?> future) throws Exception {
+        Context context = Context.current();
+        Context.CancellationListener cancel = c -> future.cancel(true);
+        context.addListener(cancel, Runnable::run);   // runs at once if already cancelled
+        try {
+            return future.get();
+        } catch (CancellationException e) {
+            throw cancelled(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CancellationException cancelled) throw cancelled(cancelled);
+            throw cause instanceof Exception ? (Exception) cause : new RuntimeException(cause);
+        } finally {
+            context.removeListener(cancel);
+        }
+    }
+
+    /**
+     * {@code e} itself when the call was cancelled. Otherwise the bean cancelled something of
+     * its own, which is an ordinary failure rather than the client going away.
+     */
+    private static Exception cancelled(CancellationException e) {
+        if (Context.current().isCancelled()) return e;
+        return new IllegalStateException("Cancelled by the method, not the client"
+                + (e.getMessage() != null ? ": " + e.getMessage() : ""), e);
+    }
+
     private Object[] resolveArguments(Method method, String argumentsJson) throws Exception {
         Class<?>[] paramTypes = method.getParameterTypes();
 
@@ -0,0 +1,99 @@
+package org.fractalx.netscope.server.core;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
+import org.springframework.core.Ordered;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps {@link NetScopeScanner} in step with beans created or destroyed after startup —
+ * beans registered at runtime, re-created scoped beans, plugin beans.
+ *
+ * <p>Once all singletons exist, the registry is brought up to date with one full scan,
+ * and the {@link AttributeJournal}, if there is one, is replayed into the scanned fields.
+ * From then on every bean with {@code @NetworkPublic} / {@code @NetworkSecured} members
+ * is registered when it finishes initialization and removed when it is destroyed.
+ * Beans created before that point are covered by the scan, so nothing is registered
+ * twice during startup.
+ *
+ * <p>Only singletons and beans of {@link #REBINDABLE_SCOPES} are registered this way.
+ * Prototype, request and session beans get a new instance per use, so registering each
+ * one would rebuild the registry on every request and route calls to whichever instance
+ * happened to be created last.
+ */
+public class NetScopeRegistrationProcessor
+        implements DestructionAwareBeanPostProcessor, SmartInitializingSingleton, BeanFactoryAware, Ordered {
+
+    /** Scopes whose one instance is re-created in place, e.g. Spring Cloud's {@code refresh} scope. */
+    static final Set<String> REBINDABLE_SCOPES = Set.of("refresh");
+
+    private final Map<Class<?>, Boolean> exposedTypes = new ConcurrentHashMap<>();
+    private ConfigurableListableBeanFactory beanFactory;
+    private volatile NetScopeScanner scanner;
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        if (beanFactory instanceof ConfigurableListableBeanFactory listable) {
+            this.beanFactory = listable;
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (beanFactory == null) return;
+        NetScopeScanner found = beanFactory.getBeanProvider(NetScopeScanner.class).getIfAvailable();
+        if (found != null) {
+            found.refresh();
+            scanner = found;
+            AttributeJournal journal = beanFactory.getBeanProvider(AttributeJournal.class).getIfAvailable();
+            NetScopeInvoker invoker  = beanFactory.getBeanProvider(NetScopeInvoker.class).getIfAvailable();
+            if (journal != null && invoker != null) journal.replay(found, invoker);
+        }
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        NetScopeScanner current = scanner;
+        if (current != null && isExposed(bean) && isRegistrable(beanName)) {
+            current.register(beanName, bean);
+        }
+        return bean;
+    }
+
+    @Override
+    public void postProcessBeforeDestruction(Object bean, String beanName) throws BeansException {
+        NetScopeScanner current = scanner;
+        if (current != null && isRegistrable(beanName)) current.unregister(beanName, bean);
+    }
+
+    @Override
+    public boolean requiresDestruction(Object bean) {
+        return isExposed(bean);
+    }
+
+    /** Runs after proxy creators so the registered instance is the one callers get from the context. */
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    private boolean isExposed(Object bean) {
+        return exposedTypes.computeIfAbsent(AopUtils.getTargetClass(bean), NetScopeScanner::hasNetworkMembers);
+    }
+
+    /** Singletons, including those registered without a definition, and rebindable scopes. */
+    private boolean isRegistrable(String beanName) {
+        if (beanFactory == null || !beanFactory.containsBeanDefinition(beanName)) return true;
+        BeanDefinition definition = beanFactory.getMergedBeanDefinition(beanName);
+        return definition.isSingleton() || REBINDABLE_SCOPES.contains(definition.getScope());
+    }
+}
@@ -3,18 +3,30 @@ package org.fractalx.netscope.server.core;
 import org.fractalx.netscope.server.annotation.NetworkPublic;
 import org.fractalx.netscope.server.annotation.NetworkSecured;
 import org.fractalx.netscope.server.config.NetScopeConfig;
+import org.fractalx.netscope.server.jfr.ScanEvent;
 import org.fractalx.netscope.server.model.NetworkMethodDefinition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.context.ApplicationContext;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+/**
+ * Registry of exposed members.
+ *
+ * <p>The registry is an immutable snapshot swapped atomically on every change: lookups
+ * never lock, and a call that resolved a member keeps using it even if its bean is
+ * removed meanwhile. The first lookup scans the whole application context. After that,
+ * beans can be added and removed one at a time through {@link #register} and
+ * {@link #unregister}; {@link NetScopeRegistrationProcessor} does this for beans the
+ * context creates or destroys later. Each change that alters the member set bumps
+ * {@link #getVersion()}.
+ */
 public class NetScopeScanner {
 
     private static final Logger logger = LoggerFactory.getLogger(NetScopeScanner.class);
@@ -22,19 +34,8 @@ public class NetScopeScanner {
     private final ApplicationContext context;
     private final NetScopeConfig config;
 
-    // Canonical cache — methods: "BeanName.method(T1,T2)", fields: "BeanName.field"
-    private final Map<String, NetworkMethodDefinition> cache = new ConcurrentHashMap<>();
-
-    // Alias cache — same key format, keyed by interface name instead of concrete class name
-    private final Map<String, NetworkMethodDefinition> aliasCache = new ConcurrentHashMap<>();
-
-    // Method index — "BeanName.method" → all overloads (for lookup without parameter_types)
-    private final Map<String, List<NetworkMethodDefinition>> methodIndex = new ConcurrentHashMap<>();
-
-    // Alias method index — same as methodIndex but keyed by interface name
-    private final Map<String, List<NetworkMethodDefinition>> aliasMethodIndex = new ConcurrentHashMap<>();
-
-    private volatile boolean scanned = false;
+    // Current snapshot; null until the first scan. Replaced, never mutated, under this.
+    private volatile Registry registry;
 
     public NetScopeScanner(ApplicationContext context, NetScopeConfig config) {
         this.context = context;
@@ -42,8 +43,15 @@ public class NetScopeScanner {
     }
 
     public List<NetworkMethodDefinition> scan() {
-        if (!scanned) doScan();
-        return new ArrayList<>(cache.values());
+        return new ArrayList<>(registry().cache.values());
+    }
+
+    /**
+     * Registry version: 0 before the first scan, incremented on every change to the
+     * registered members. Callers cache anything derived from {@link #scan()} against it.
+     */
+    public long getVersion() {
+        return registry().version;
     }
 
     /**
@@ -59,27 +67,27 @@ public class NetScopeScanner {
      */
     public Optional<NetworkMethodDefinition> findMethod(String beanName, String memberName,
                                                         List<String> parameterTypes) {
-        if (!scanned) doScan();
+        Registry r = registry();
 
         String baseKey = beanName + "." + memberName;
 
         // 1. Direct lookup — hits fields (no parens) and aliased fields
-        NetworkMethodDefinition def = cache.get(baseKey);
-        if (def == null) def = aliasCache.get(baseKey);
+        NetworkMethodDefinition def = r.cache.get(baseKey);
+        if (def == null) def = r.aliasCache.get(baseKey);
         if (def != null) return Optional.of(def);
 
         // 2. Exact method lookup when caller supplies parameter types
         if (parameterTypes != null && !parameterTypes.isEmpty()) {
             String exactKey = baseKey + "(" + String.join(",", parameterTypes) + ")";
-            def = cache.get(exactKey);
-            if (def == null) def = aliasCache.get(exactKey);
+            def = r.cache.get(exactKey);
+            if (def == null) def = r.aliasCache.get(exactKey);
             return Optional.ofNullable(def);
         }
 
         // 3. Unambiguous index lookup — no parameter types provided
-        List<NetworkMethodDefinition> candidates = methodIndex.getOrDefault(baseKey, List.of());
+        List<NetworkMethodDefinition> candidates = r.methodIndex.getOrDefault(baseKey, List.of());
         if (candidates.isEmpty()) {
-            candidates = aliasMethodIndex.getOrDefault(baseKey, List.of());
+            candidates = r.aliasMethodIndex.getOrDefault(baseKey, List.of());
         }
         if (candidates.size() == 1) return Optional.of(candidates.get(0));
         if (candidates.size() > 1) {
@@ -89,13 +97,120 @@ public class NetScopeScanner {
         return Optional.empty();
     }
 
+    /** True once the application context has been scanned; health reports NOT_SERVING until then. */
+    public boolean isScanned() {
+        return registry != null;
+    }
+
+    /** True if any member is registered under {@code beanName}, either the class name or an interface alias. */
+    public boolean hasBean(String beanName) {
+        return registry().beanNames.contains(beanName);
+    }
+
+    // ── Hot registration ──────────────────────────────────────────────────────
+
+    /**
+     * Adds or replaces the members of one bean. A bean already registered under
+     * {@code beanName} is replaced as a whole. Returns true if the registry changed.
+     */
+    public synchronized boolean register(String beanName, Object bean) {
+        Registry current = registry();
+        BeanMembers scanned = scanBean(bean);
+        BeanMembers previous = current.beans.get(beanName);
+        if (previous == null && scanned.members.isEmpty()) return false;
+        if (previous != null && previous.bean == bean) return false;
+
+        Map<String, BeanMembers> beans = new LinkedHashMap<>(current.beans);
+        if (scanned.members.isEmpty()) beans.remove(beanName);
+        else beans.put(beanName, scanned);
+        publish(beans, "registered " + beanName);
+        return true;
+    }
+
+    /** Removes the members of the bean registered under {@code beanName}. Returns true if it was registered. */
+    public synchronized boolean unregister(String beanName) {
+        return unregister(beanName, null);
+    }
+
+    /** Removes {@code beanName} only while it still refers to {@code bean} (any bean when null). */
+    synchronized boolean unregister(String beanName, Object bean) {
+        Registry current = registry;
+        if (current == null) return false;
+        BeanMembers previous = current.beans.get(beanName);
+        if (previous == null || (bean != null && !sameInstance(previous.bean, bean))) return false;
+
+        Map<String, BeanMembers> beans = new LinkedHashMap<>(current.beans);
+        beans.remove(beanName);
+        publish(beans, "unregistered " + beanName);
+        return true;
+    }
+
+    /**
+     * Rescans the whole application context and publishes the result if the members
+     * differ from the current snapshot. Returns the registry version afterwards.
+     */
+    public synchronized long refresh() {
+        Registry current = registry;
+        Registry scanned = scanContext();
+        if (current == null) {
+            registry = scanned.withVersion(1);
+        } else if (!sameBeans(current.beans, scanned.beans)) {
+            registry = scanned.withVersion(current.version + 1);
+            logger.info("NetScope: registry refreshed — {} member(s), version {}",
+                    scanned.cache.size(), registry.version);
+        }
+        return registry.version;
+    }
+
+    /** True if {@code type} declares or inherits any @NetworkPublic / @NetworkSecured member. */
+    static boolean hasNetworkMembers(Class<?> type) {
+        for (Method m : getAllMethods(type)) {
+            if (isExposed(m)) return true;
+        }
+        for (Field f : getAllFields(type)) {
+            if (isExposed(f)) return true;
+        }
+        return false;
+    }
+
+    private void publish(Map<String, BeanMembers> beans, String reason) {
+        Registry next = Registry.build(registry.version + 1, beans, false);
+        registry = next;
+        logger.info("NetScope: registry {} — {} member(s), version {}", reason, next.cache.size(), next.version);
+    }
+
+    /** Destruction callbacks see the raw bean; the registry may hold the proxy wrapping it. */
+    private static boolean sameInstance(Object registered, Object bean) {
+        return registered == bean || AopProxyUtils.getSingletonTarget(registered) == bean;
+    }
+
+    private static boolean sameBeans(Map<String, BeanMembers> a, Map<String, BeanMembers> b) {
+        if (!a.keySet().equals(b.keySet())) return false;
+        for (Map.Entry<String, BeanMembers> e : a.entrySet()) {
+            if (e.getValue().bean != b.get(e.getKey()).bean) return false;
+        }
+        return true;
+    }
+
     // ── Scanning ──────────────────────────────────────────────────────────────
 
-    private synchronized void doScan() {
-        if (scanned) return;
+    private Registry registry() {
+        Registry r = registry;
+        return r != null ? r : initialScan();
+    }
+
+    private synchronized Registry initialScan() {
+        if (registry == null) registry = scanContext().withVersion(1);
+        return registry;
+    }
+
+    private Registry scanContext() {
+        ScanEvent event = new ScanEvent();
+        event.begin();
 
         logger.info("NetScope: scanning for @NetworkPublic and @NetworkSecured members...");
-        int count = 0;
+        Map<String, BeanMembers> beans = new LinkedHashMap<>();
+        int beanCount = 0;
 
         for (String beanName : context.getBeanDefinitionNames()) {
             Object bean;
@@ -104,108 +219,220 @@ public class NetScopeScanner {
             } catch (Exception e) {
                 continue;
             }
+            beanCount++;
 
-            Class<?> clazz = getTargetClass(bean);
+            BeanMembers members = scanBean(bean);
+            if (!members.members.isEmpty()) beans.put(beanName, members);
+        }
 
-            // ── Scan METHODS (including inherited + interface) ────────────────
-            for (Method method : getAllMethods(clazz)) {
-                NetworkMethodDefinition def = null;
+        Registry scanned = Registry.build(0, beans, true);
+        logger.info("NetScope: scan complete — {} member(s) registered", scanned.cache.size());
 
-                NetworkPublic pub = method.getAnnotation(NetworkPublic.class);
-                if (pub != null) {
-                    def = new NetworkMethodDefinition(bean, method, false, null,
-                            pub.description());
-                }
+        if (event.shouldCommit()) {
+            event.beanCount   = beanCount;
+            event.memberCount = scanned.cache.size();
+            event.aliasCount  = scanned.aliasCount;
+            event.commit();
+        }
+        return scanned;
+    }
 
-                NetworkSecured sec = method.getAnnotation(NetworkSecured.class);
-                if (sec != null) {
-                    def = new NetworkMethodDefinition(bean, method, true, sec.auth(),
-                            sec.description());
-                }
+    /** Finds the exposed members of one bean, most specific declaration first. */
+    private BeanMembers scanBean(Object bean) {
+        Class<?> clazz = getTargetClass(bean);
+        List<NetworkMethodDefinition> members = new ArrayList<>();
+        Set<String> keys = new HashSet<>();
 
-                if (def != null) {
-                    // Methods use parameterized key to support overloading
-                    String key = methodKey(def.getBeanName(), def.getMethodName(), method);
-                    if (cache.putIfAbsent(key, def) == null) {
-                        // Also add to method index for overload-unaware lookups
-                        String baseKey = def.getBeanName() + "." + def.getMethodName();
-                        methodIndex.computeIfAbsent(baseKey, k -> new ArrayList<>()).add(def);
-                        logger.info("  [method] {}.{}({}) → {} | auth={} | static={} | final={}",
-                                def.getBeanName(), def.getMethodName(), paramSignature(method),
-                                def.isSecured() ? "SECURED" : "PUBLIC",
-                                def.getAuthType(), def.isStatic(), def.isFinal());
-                        count++;
-                    }
-                }
+        // ── Scan METHODS (including inherited + interface) ────────────────
+        for (Method method : getAllMethods(clazz)) {
+            NetworkMethodDefinition def = null;
+
+            NetworkPublic pub = method.getAnnotation(NetworkPublic.class);
+            if (pub != null) {
+                def = new NetworkMethodDefinition(bean, method, false, null,
+                        pub.description(), pub.priority(), pub.async());
             }
 
-            // ── Scan FIELDS (including inherited) ────────────────────────────
-            for (Field field : getAllFields(clazz)) {
-                NetworkMethodDefinition def = null;
+            NetworkSecured sec = method.getAnnotation(NetworkSecured.class);
+            if (sec != null) {
+                def = new NetworkMethodDefinition(bean, method, true, sec.auth(),
+                        sec.description(), sec.priority(), sec.async());
+            }
 
-                NetworkPublic pub = field.getAnnotation(NetworkPublic.class);
-                if (pub != null) {
-                    field.setAccessible(true);
-                    def = new NetworkMethodDefinition(bean, field, false, null,
-                            pub.description());
-                }
+            if (def != null && !def.isAsync() && (pub != null && pub.async() || sec != null && sec.async())) {
+                logger.warn("NetScope: {}.{} is not void — async = true ignored",
+                        def.getBeanName(), def.getMethodName());
+            }
 
-                NetworkSecured sec = field.getAnnotation(NetworkSecured.class);
-                if (sec != null) {
-                    field.setAccessible(true);
-                    def = new NetworkMethodDefinition(bean, field, true, sec.auth(),
-                            sec.description());
-                }
+            // Methods use parameterized key to support overloading
+            if (def != null && keys.add(methodKey(def.getBeanName(), def.getMethodName(), method))) {
+                members.add(def);
+                logger.info("  [method] {}.{}({}) → {} | auth={} | static={} | final={}",
+                        def.getBeanName(), def.getMethodName(), paramSignature(method),
+                        def.isSecured() ? "SECURED" : "PUBLIC",
+                        def.getAuthType(), def.isStatic(), def.isFinal());
+            }
+        }
+
+        // ── Scan FIELDS (including inherited) ────────────────────────────
+        for (Field field : getAllFields(clazz)) {
+            NetworkMethodDefinition def = null;
+
+            NetworkPublic pub = field.getAnnotation(NetworkPublic.class);
+            if (pub != null) {
+                field.setAccessible(true);
+                def = new NetworkMethodDefinition(bean, field, false, null,
+                        pub.description(), pub.priority());
+            }
+
+            NetworkSecured sec = field.getAnnotation(NetworkSecured.class);
+            if (sec != null) {
+                field.setAccessible(true);
+                def = new NetworkMethodDefinition(bean, field, true, sec.auth(),
+                        sec.description(), sec.priority());
+            }
+
+            // Fields use plain key — they cannot be overloaded
+            if (def != null && keys.add(def.getBeanName() + "." + def.getMethodName())) {
+                members.add(def);
+                logger.info("  [field]  {}.{} → {} | auth={} | static={} | final={} | writeable={}",
+                        def.getBeanName(), def.getMethodName(),
+                        def.isSecured() ? "SECURED" : "PUBLIC",
+                        def.getAuthType(),
+                        def.isStatic(), def.isFinal(), def.isWriteable());
+            }
+        }
+
+        return new BeanMembers(bean, clazz, List.copyOf(members));
+    }
+
+    private static boolean isExposed(java.lang.reflect.AnnotatedElement element) {
+        return element.isAnnotationPresent(NetworkPublic.class)
+            || element.isAnnotationPresent(NetworkSecured.class);
+    }
+
+    // ── Snapshot ──────────────────────────────────────────────────────────────
+
+    /** The exposed members found on one bean. */
+    private record BeanMembers(Object bean, Class<?> type, List<NetworkMethodDefinition> members) {}
+
+    /** One immutable version of the registry, with every lookup index derived from {@code beans}. */
+    private static final class Registry {
+        final long version;
+        final Map<String, BeanMembers> beans;
+
+        // Canonical cache — methods: "BeanName.method(T1,T2)", fields: "BeanName.field"
+        final Map<String, NetworkMethodDefinition> cache;
+
+        // Alias cache — same key format, keyed by interface name instead of concrete class name
+        final Map<String, NetworkMethodDefinition> aliasCache;
 
-                if (def != null) {
-                    // Fields use plain key — they cannot be overloaded
-                    String key = def.getBeanName() + "." + def.getMethodName();
+        // Method index — "BeanName.method" → all overloads (for lookup without parameter_types)
+        final Map<String, List<NetworkMethodDefinition>> methodIndex;
+
+        // Alias method index — same as methodIndex but keyed by interface name
+        final Map<String, List<NetworkMethodDefinition>> aliasMethodIndex;
+
+        final int aliasCount;
+
+        // Every name a member can be looked up by: concrete class names and interface aliases
+        final Set<String> beanNames;
+
+        private Registry(long version, Map<String, BeanMembers> beans,
+                         Map<String, NetworkMethodDefinition> cache,
+                         Map<String, NetworkMethodDefinition> aliasCache,
+                         Map<String, List<NetworkMethodDefinition>> methodIndex,
+                         Map<String, List<NetworkMethodDefinition>> aliasMethodIndex,
+                         int aliasCount) {
+            this.version          = version;
+            this.beans            = beans;
+            this.cache            = cache;
+            this.aliasCache       = aliasCache;
+            this.methodIndex      = methodIndex;
+            this.aliasMethodIndex = aliasMethodIndex;
+            this.aliasCount       = aliasCount;
+
+            Set<String> names = new HashSet<>();
+            for (String key : cache.keySet())      names.add(key.substring(0, key.indexOf('.')));
+            for (String key : aliasCache.keySet()) names.add(key.substring(0, key.indexOf('.')));
+            this.beanNames = Collections.unmodifiableSet(names);
+        }
+
+        Registry withVersion(long newVersion) {
+            return new Registry(newVersion, beans, cache, aliasCache, methodIndex, aliasMethodIndex, aliasCount);
+        }
+
+        /**
+         * Builds every index from scratch. Earlier beans win when two expose the same key.
+         * Aliases are logged for full scans only; incremental changes would repeat them all.
+         */
+        static Registry build(long version, Map<String, BeanMembers> beans, boolean logAliases) {
+            Map<String, NetworkMethodDefinition> cache = new LinkedHashMap<>();
+            Map<String, NetworkMethodDefinition> aliasCache = new HashMap<>();
+            Map<String, List<NetworkMethodDefinition>> methodIndex = new HashMap<>();
+            Map<String, List<NetworkMethodDefinition>> aliasMethodIndex = new HashMap<>();
+            int totalAliases = 0;
+
+            for (BeanMembers entry : beans.values()) {
+                for (NetworkMethodDefinition def : entry.members()) {
+                    if (def.isField()) {
+                        cache.putIfAbsent(def.getBeanName() + "." + def.getMethodName(), def);
+                        continue;
+                    }
+                    String key = methodKey(def.getBeanName(), def.getMethodName(), def.getMethod());
                     if (cache.putIfAbsent(key, def) == null) {
-                        logger.info("  [field]  {}.{} → {} | auth={} | static={} | final={} | writeable={}",
-                                def.getBeanName(), def.getMethodName(),
-                                def.isSecured() ? "SECURED" : "PUBLIC",
-                                def.getAuthType(),
-                                def.isStatic(), def.isFinal(), def.isWriteable());
-                        count++;
+                        // Also add to method index for overload-unaware lookups
+                        String baseKey = def.getBeanName() + "." + def.getMethodName();
+                        methodIndex.computeIfAbsent(baseKey, k -> new ArrayList<>()).add(def);
                     }
                 }
             }
 
             // ── Register interface aliases (lookup-only, not in GetDocs) ─────
-            String concreteName = clazz.getSimpleName();
-            for (Class<?> iface : collectInterfaces(clazz)) {
-                if (!isUserInterface(iface)) continue;
-                String ifaceName = iface.getSimpleName();
-                if (ifaceName.equals(concreteName)) continue;
-
-                int aliasCount = 0;
-                for (Map.Entry<String, NetworkMethodDefinition> entry : cache.entrySet()) {
-                    String cacheKey = entry.getKey();
-                    if (!cacheKey.startsWith(concreteName + ".")) continue;
-
-                    String memberSuffix = cacheKey.substring(concreteName.length() + 1);
-                    String aliasKey = ifaceName + "." + memberSuffix;
-                    NetworkMethodDefinition def = entry.getValue();
-
-                    if (aliasCache.putIfAbsent(aliasKey, def) == null) {
-                        aliasCount++;
-                        if (!def.isField()) {
-                            // Also index the alias by base name for overload-unaware lookups
-                            String aliasBaseKey = ifaceName + "." + def.getMethodName();
-                            aliasMethodIndex
-                                    .computeIfAbsent(aliasBaseKey, k -> new ArrayList<>())
-                                    .add(def);
+            for (BeanMembers entry : beans.values()) {
+                String concreteName = entry.type().getSimpleName();
+                for (Class<?> iface : collectInterfaces(entry.type())) {
+                    if (!isUserInterface(iface)) continue;
+                    String ifaceName = iface.getSimpleName();
+                    if (ifaceName.equals(concreteName)) continue;
+
+                    int aliasCount = 0;
+                    for (Map.Entry<String, NetworkMethodDefinition> member : cache.entrySet()) {
+                        String cacheKey = member.getKey();
+                        if (!cacheKey.startsWith(concreteName + ".")) continue;
+
+                        String memberSuffix = cacheKey.substring(concreteName.length() + 1);
+                        String aliasKey = ifaceName + "." + memberSuffix;
+                        NetworkMethodDefinition def = member.getValue();
+
+                        if (aliasCache.putIfAbsent(aliasKey, def) == null) {
+                            aliasCount++;
+                            if (!def.isField()) {
+                                // Also index the alias by base name for overload-unaware lookups
+                                String aliasBaseKey = ifaceName + "." + def.getMethodName();
+                                aliasMethodIndex
+                                        .computeIfAbsent(aliasBaseKey, k -> new ArrayList<>())
+                                        .add(def);
+                            }
                         }
                     }
-                }
-                if (aliasCount > 0) {
-                    logger.info("  [alias]  {} → {} ({} member(s))", ifaceName, concreteName, aliasCount);
+                    totalAliases += aliasCount;
+                    if (aliasCount > 0 && logAliases) {
+                        logger.info("  [alias]  {} → {} ({} member(s))", ifaceName, concreteName, aliasCount);
+                    }
                 }
             }
-        }
 
-        scanned = true;
-        logger.info("NetScope: scan complete — {} member(s) registered", count);
+            methodIndex.replaceAll((k, v) -> List.copyOf(v));
+            aliasMethodIndex.replaceAll((k, v) -> List.copyOf(v));
+            return new Registry(version,
+                    Collections.unmodifiableMap(new LinkedHashMap<>(beans)),
+                    Collections.unmodifiableMap(cache),
+                    Collections.unmodifiableMap(aliasCache),
+                    Collections.unmodifiableMap(methodIndex),
+                    Collections.unmodifiableMap(aliasMethodIndex),
+                    totalAliases);
+        }
     }
 
     // ── Key helpers ───────────────────────────────────────────────────────────
@@ -214,12 +441,12 @@ public class NetScopeScanner {
      * Full cache key for a method, including parameter type signature.
      * Example: "CustomerServiceImpl.process(String,int)"
      */
-    private String methodKey(String beanName, String methodName, Method method) {
+    private static String methodKey(String beanName, String methodName, Method method) {
         return beanName + "." + methodName + "(" + paramSignature(method) + ")";
     }
 
     /** Comma-separated simple type names of method parameters. */
-    private String paramSignature(Method method) {
+    private static String paramSignature(Method method) {
         return Arrays.stream(method.getParameterTypes())
                 .map(Class::getSimpleName)
                 .collect(Collectors.joining(","));
@@ -231,7 +458,7 @@ public class NetScopeScanner {
      * Collects all methods from the class hierarchy then all reachable interfaces.
      * Subclass methods come first so putIfAbsent lets the most-specific declaration win.
      */
-    private List<Method> getAllMethods(Class<?> clazz) {
+    private static List<Method> getAllMethods(Class<?> clazz) {
         List<Method> methods = new ArrayList<>();
         Class<?> current = clazz;
         while (current != null && current != Object.class) {
@@ -248,7 +475,7 @@ public class NetScopeScanner {
      * Collects all fields from the class hierarchy.
      * Subclass fields come first so putIfAbsent lets the subclass shadow win.
      */
-    private List<Field> getAllFields(Class<?> clazz) {
+    private static List<Field> getAllFields(Class<?> clazz) {
         List<Field> fields = new ArrayList<>();
         Class<?> current = clazz;
         while (current != null && current != Object.class) {
@@ -259,13 +486,13 @@ public class NetScopeScanner {
     }
 
     /** All interfaces reachable from clazz, depth-first, deduplicated. */
-    private Set<Class<?>> collectInterfaces(Class<?> clazz) {
+    private static Set<Class<?>> collectInterfaces(Class<?> clazz) {
         Set<Class<?>> visited = new LinkedHashSet<>();
         collectInterfaces(clazz, visited);
         return visited;
     }
 
-    private void collectInterfaces(Class<?> clazz, Set<Class<?>> visited) {
+    private static void collectInterfaces(Class<?> clazz, Set<Class<?>> visited) {
         if (clazz == null || clazz == Object.class) return;
         for (Class<?> iface : clazz.getInterfaces()) {
             if (visited.add(iface)) {
@@ -279,7 +506,7 @@ public class NetScopeScanner {
      * Excludes java.*, javax.*, jakarta.*, org.springframework.*, and other
      * JVM/framework internals so they are never registered as aliases.
      */
-    private boolean isUserInterface(Class<?> iface) {
+    private static boolean isUserInterface(Class<?> iface) {
         String pkg = iface.getPackageName();
         return !pkg.startsWith("java.")
             && !pkg.startsWith("javax.")
@@ -290,7 +517,7 @@ public class NetScopeScanner {
     }
 
     /** Unwrap Spring proxies (both CGLIB and JDK dynamic) to get the real class. */
-    private Class<?> getTargetClass(Object bean) {
+    private static Class<?> getTargetClass(Object bean) {
         return AopUtils.getTargetClass(bean);
     }
 }
@@ -0,0 +1,208 @@
+package org.fractalx.netscope.server.core;
+
+import org.fractalx.netscope.server.annotation.Priority;
+import org.fractalx.netscope.server.config.NetScopeConfig;
+import io.grpc.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs calls on a fixed set of workers, choosing the next call by {@link Priority}.
+ *
+ * <p>Each priority has its own queue. While several have calls waiting, workers are shared
+ * between them in proportion to their weights (start-time fair queuing): every call served
+ * advances its class's virtual clock by {@code 1 / weight}, and the class whose next call
+ * would finish earliest goes next. A class that was idle starts from the current virtual
+ * time, so it cannot save up credit. Weights alone never starve a class, but a long burst
+ * can still hold a low priority call back; any call that has waited longer than
+ * {@code maxWaitMillis} is therefore run next, oldest first.
+ *
+ * <p>When {@code maxQueued} calls are waiting, new ones fail with RESOURCE_EXHAUSTED.
+ */
+public class PriorityScheduler implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriorityScheduler.class);
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private record Task(Runnable body, long enqueuedAt) {}
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final ArrayDeque<Task>[] queues;     // by Priority ordinal, guarded by lock
+    private final double[] cost;                 // virtual time one call takes: 1 / weight
+    private final double[] start;                // virtual start time of each class's next call
+    private double virtualTime;
+    private int queued;
+    private boolean closed;
+
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final boolean allowHeaderRaise;
+    private final LongSupplier clock;
+    private final Thread[] workers;
+
+    public PriorityScheduler(NetScopeConfig.SchedulingConfig config) {
+        this(config.getThreads() > 0 ? config.getThreads() : 2 * Runtime.getRuntime().availableProcessors(),
+                config, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    PriorityScheduler(int threads, NetScopeConfig.SchedulingConfig config, LongSupplier clock) {
+        this.maxQueued        = config.getMaxQueued();
+        this.maxWaitNanos     = TimeUnit.MILLISECONDS.toNanos(config.getMaxWaitMillis());
+        this.allowHeaderRaise = config.isAllowHeaderRaise();
+        this.clock            = clock;
+        this.queues = new ArrayDeque[PRIORITIES.length];
+        this.cost   = new double[PRIORITIES.length];
+        this.start  = new double[PRIORITIES.length];
+        int[] weights = {config.getHighWeight(), config.getNormalWeight(), config.getLowWeight()};
+        for (Priority p : PRIORITIES) {
+            queues[p.ordinal()] = new ArrayDeque<>();
+            cost[p.ordinal()]   = 1.0 / Math.max(1, weights[p.ordinal()]);
+        }
+        this.workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(this::work, "netscope-worker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * The priority a call runs at: the member's, or the one named in the caller's
+     * {@code netscope-priority} header. The header may only lower the priority unless
+     * {@code allowHeaderRaise} is set. Unknown header values are ignored.
+     */
+    public Priority effective(Priority declared, String header) {
+        if (header == null || header.isBlank()) return declared;
+        Priority requested;
+        try {
+            requested = Priority.valueOf(header.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return declared;
+        }
+        return allowHeaderRaise || requested.compareTo(declared) > 0 ? requested : declared;
+    }
+
+    /** Queues {@code task}; throws RESOURCE_EXHAUSTED when the queue is full, UNAVAILABLE once closed. */
+    public void execute(Priority priority, Runnable task) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw Status.UNAVAILABLE.withDescription("Server is shutting down").asRuntimeException();
+            }
+            if (queued >= maxQueued) {
+                throw Status.RESOURCE_EXHAUSTED
+                        .withDescription("Server busy: " + queued + " calls waiting").asRuntimeException();
+            }
+            int c = priority.ordinal();
+            if (queues[c].isEmpty()) start[c] = Math.max(start[c], virtualTime);
+            queues[c].addLast(new Task(task, clock.getAsLong()));
+            queued++;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Calls waiting at {@code priority}. */
+    public int queued(Priority priority) {
+        lock.lock();
+        try {
+            return queues[priority.ordinal()].size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Calls waiting at any priority. */
+    public int queued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Calls that may wait before new ones are rejected. */
+    public int maxQueued() {
+        return maxQueued;
+    }
+
+    /** Stops taking calls. Calls already queued still run; workers exit once the queues are empty. */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ── Workers ───────────────────────────────────────────────────────────────
+
+    private void work() {
+        while (true) {
+            Task task;
+            lock.lock();
+            try {
+                while (queued == 0 && !closed) available.awaitUninterruptibly();
+                if (queued == 0) return;
+                task = next();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                task.body.run();
+            } catch (Throwable t) {
+                logger.error("Scheduled call failed", t);
+            }
+        }
+    }
+
+    /** Removes the call to run next. Caller holds the lock and {@code queued > 0}. */
+    private Task next() {
+        long now = clock.getAsLong();
+        int pick = -1;
+
+        // Starvation protection: the longest-waiting call past maxWait goes first
+        long oldest = 0;
+        for (int c = 0; c < queues.length; c++) {
+            Task head = queues[c].peekFirst();
+            if (head == null || now - head.enqueuedAt < maxWaitNanos) continue;
+            if (pick < 0 || head.enqueuedAt - oldest < 0) {
+                pick = c;
+                oldest = head.enqueuedAt;
+            }
+        }
+
+        // Otherwise weighted fair queuing: earliest virtual finish, ties to the higher priority
+        if (pick < 0) {
+            double best = Double.MAX_VALUE;
+            for (int c = 0; c < queues.length; c++) {
+                if (queues[c].isEmpty()) continue;
+                double finish = start[c] + cost[c];
+                if (finish < best) {
+                    best = finish;
+                    pick = c;
+                }
+            }
+        }
+
+        virtualTime = Math.max(virtualTime, start[pick]);
+        start[pick] += cost[pick];
+        queued--;
+        return queues[pick].pollFirst();
+    }
+}
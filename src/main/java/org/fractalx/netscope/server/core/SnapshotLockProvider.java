@@ -0,0 +1,17 @@
+package org.fractalx.netscope.server.core;
+
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Implemented by beans whose exposed fields must be read together under their own lock.
+ *
+ * <p>A consistent {@code ReadAttributes} call holds {@link #snapshotLock()} while it reads
+ * the requested fields, so the snapshot never straddles an update the bean makes under
+ * the same lock. Beans without a lock get an optimistic read instead: the fields are
+ * read repeatedly until two consecutive passes agree.
+ */
+public interface SnapshotLockProvider {
+
+    /** The lock guarding the bean's exposed fields. Typically the read side of a ReadWriteLock. */
+    Lock snapshotLock();
+}
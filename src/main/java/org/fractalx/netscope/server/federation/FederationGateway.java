@@ -0,0 +1,445 @@
+package org.fractalx.netscope.server.federation;
+
+import org.fractalx.netscope.server.config.NetScopeConfig;
+import org.fractalx.netscope.server.core.NetScopeScanner;
+import org.fractalx.netscope.server.grpc.IdempotencyInterceptor;
+import org.fractalx.netscope.server.grpc.NetScopeGrpcServiceImpl;
+import org.fractalx.netscope.server.grpc.RemoteDocs;
+import org.fractalx.netscope.server.grpc.proto.CallError;
+import org.fractalx.netscope.server.grpc.proto.InvokeBatchRequest;
+import org.fractalx.netscope.server.grpc.proto.InvokeBatchResponse;
+import org.fractalx.netscope.server.grpc.proto.InvokeRequest;
+import org.fractalx.netscope.server.grpc.proto.InvokeResponse;
+import org.fractalx.netscope.server.grpc.proto.InvokeResult;
+import org.fractalx.netscope.server.grpc.proto.MethodInfo;
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.grpc.CallOptions;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.ServerMethodDefinition;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.ServiceDescriptor;
+import io.grpc.Status;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Routes InvokeMethod, InvokeMethodStream and InvokeBatch calls for beans this node does
+ * not serve to the peer that does.
+ *
+ * <p>Each peer's own members are polled with a conditional GetDocs and merged into a
+ * bean → peer routing table. Beans served locally always win; when two peers serve the
+ * same bean the one listed first wins. Forwarded requests and responses stay serialized
+ * bytes end to end — only the bean name is read to pick the route — and travel over a
+ * small pool of multiplexed channels per peer. Deadlines, cancellation and credentials
+ * carry over to the forwarded call; a forwarded call is always served by the node that
+ * receives it, so misrouted calls fail with NOT_FOUND instead of looping.
+ */
+public class FederationGateway implements RemoteDocs, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FederationGateway.class);
+
+    static final Metadata.Key<String> FORWARDED_HEADER =
+            Metadata.Key.of("netscope-forwarded", Metadata.ASCII_STRING_MARSHALLER);
+    private static final Context.Key<Boolean> FORWARDED_CTX = Context.key("netscope.forwarded");
+    private static final Object DROPPED = new Object();   // a stream item dropped by a drain
+
+    private final NetScopeConfig.FederationConfig config;
+    private final NetScopeScanner scanner;
+    private final NetScopeGrpcServiceImpl service;
+    private final List<Peer> peers = new ArrayList<>();
+    private final MethodDescriptor<byte[], byte[]> forwardMethod = NetScopeServiceGrpc.getInvokeMethodMethod()
+            .toBuilder(RawBytes.MARSHALLER, RawBytes.MARSHALLER).build();
+    private final Set<FederatedStream> streams = ConcurrentHashMap.newKeySet();
+    private volatile Routes routes = new Routes(0, Map.of(), List.of());
+    private ScheduledExecutorService refresher;
+
+    public FederationGateway(NetScopeConfig config, NetScopeScanner scanner, NetScopeGrpcServiceImpl service) {
+        this.config  = config.getFederation();
+        this.scanner = scanner;
+        this.service = service;
+        for (String target : this.config.getPeers()) {
+            peers.add(new Peer(target, this.config.getChannelsPerPeer(), config.getGrpc().getMaxInboundMessageSize()));
+        }
+    }
+
+    /** Lists peers' members in GetDocs and starts polling them. Called by the gRPC server on start. */
+    public synchronized void start() {
+        if (refresher != null) return;
+        service.setRemoteDocs(this);
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "netscope-federation-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = config.getRefreshIntervalMillis();
+        if (interval > 0) {
+            refresher.scheduleWithFixedDelay(this::refreshQuietly, 0, interval, TimeUnit.MILLISECONDS);
+        } else {
+            refresher.execute(this::refreshQuietly);
+        }
+    }
+
+    /** Polls every peer now; returns true when the routing table changed. */
+    public synchronized boolean refresh() {
+        boolean changed = false;
+        for (Peer peer : peers) changed |= peer.refresh(config.getDocsTimeoutMillis());
+        if (!changed) return false;
+
+        Map<String, Peer> owners = new HashMap<>();
+        List<MethodInfo> members = new ArrayList<>();
+        for (Peer peer : peers) {
+            Set<String> conflicts = new HashSet<>();
+            for (MethodInfo info : peer.members()) {
+                Peer owner = owners.putIfAbsent(info.getBeanName(), peer);
+                if (owner == null || owner == peer) {
+                    members.add(info);
+                } else if (conflicts.add(info.getBeanName())) {
+                    logger.warn("Bean '{}' is served by both {} and {}; routing to {}",
+                            info.getBeanName(), owner.target(), peer.target(), owner.target());
+                }
+            }
+        }
+        routes = new Routes(routes.version() + 1, Map.copyOf(owners), List.copyOf(members));
+        logger.info("Federation routes updated: {} remote beans on {} peers", owners.size(), peers.size());
+        return true;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.warn("Federation refresh failed", e);
+        }
+    }
+
+    /** Target of the peer calls to {@code beanName} are forwarded to, or null when served here. */
+    public String peerFor(String beanName) {
+        if (scanner.hasBean(beanName)) return null;
+        Peer peer = routes.owners().get(beanName);
+        return peer != null ? peer.target() : null;
+    }
+
+    @Override public long version()            { return routes.version(); }
+    @Override public List<MethodInfo> members() { return routes.members(); }
+
+    @Override
+    public synchronized void close() {
+        if (refresher != null) refresher.shutdownNow();
+        for (Peer peer : peers) peer.close();
+    }
+
+    // ── Service binding ───────────────────────────────────────────────────────
+
+    /**
+     * Returns {@code definition} with InvokeMethod, InvokeMethodStream and InvokeBatch
+     * routed through this gateway. The first two take the request as raw bytes, so
+     * forwarded calls are never decoded; calls served locally are parsed and handed to the
+     * NetScope service. Batches are split by the node serving each item.
+     */
+    public ServerServiceDefinition bind(ServerServiceDefinition definition) {
+        MethodDescriptor<InvokeRequest, InvokeResponse> unary  = NetScopeServiceGrpc.getInvokeMethodMethod();
+        MethodDescriptor<InvokeRequest, InvokeResponse> stream = NetScopeServiceGrpc.getInvokeMethodStreamMethod();
+        MethodDescriptor<byte[], Object> rawUnary = unary.toBuilder(
+                RawBytes.MARSHALLER, RawBytes.orMessage(unary.getResponseMarshaller())).build();
+        MethodDescriptor<byte[], Object> rawStream = stream.toBuilder(
+                RawBytes.MARSHALLER, RawBytes.orMessage(stream.getResponseMarshaller())).build();
+        MethodDescriptor<InvokeBatchRequest, InvokeBatchResponse> batch = NetScopeServiceGrpc.getInvokeBatchMethod();
+        Set<String> rebound = Set.of(unary.getFullMethodName(), stream.getFullMethodName());
+        Set<String> replaced = Set.of(unary.getFullMethodName(), stream.getFullMethodName(),
+                batch.getFullMethodName());
+
+        ServiceDescriptor original = definition.getServiceDescriptor();
+        ServiceDescriptor.Builder descriptor = ServiceDescriptor.newBuilder(original.getName())
+                .setSchemaDescriptor(original.getSchemaDescriptor())
+                .addMethod(rawUnary)
+                .addMethod(rawStream);
+        for (MethodDescriptor<?, ?> m : original.getMethods()) {
+            if (!rebound.contains(m.getFullMethodName())) descriptor.addMethod(m);
+        }
+
+        ServerServiceDefinition.Builder builder = ServerServiceDefinition.builder(descriptor.build())
+                .addMethod(rawUnary, ServerCalls.asyncUnaryCall(this::invoke))
+                .addMethod(rawStream, ServerCalls.asyncBidiStreamingCall(FederatedStream::new))
+                .addMethod(batch, ServerCalls.asyncUnaryCall(this::invokeBatch));
+        for (ServerMethodDefinition<?, ?> m : definition.getMethods()) {
+            if (!replaced.contains(m.getMethodDescriptor().getFullMethodName())) builder.addMethod(m);
+        }
+        return ServerInterceptors.intercept(builder.build(), new ForwardedInterceptor());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void invoke(byte[] request, StreamObserver<Object> responseObserver) {
+        Peer peer;
+        try {
+            peer = route(request);
+            if (peer == null) {
+                // The response observer takes either bytes or messages, so InvokeResponse is fine
+                service.invokeMethod(InvokeRequest.parseFrom(request), (StreamObserver) responseObserver);
+                return;
+            }
+        } catch (Exception e) {
+            responseObserver.onError(status(e));
+            return;
+        }
+        forward(peer, request).whenComplete((response, error) -> {
+            if (error != null) {
+                responseObserver.onError(status(error));
+            } else {
+                responseObserver.onNext(response);
+                responseObserver.onCompleted();
+            }
+        });
+    }
+
+    /** Peer that serves the request's bean, or null to serve it here. */
+    private Peer route(byte[] request) {
+        return route(RawBytes.beanName(request));
+    }
+
+    private Peer route(String beanName) {
+        if (Boolean.TRUE.equals(FORWARDED_CTX.get())) return null;
+        if (scanner.hasBean(beanName)) return null;
+        return routes.owners().get(beanName);
+    }
+
+    // ── Batches ───────────────────────────────────────────────────────────────
+
+    /**
+     * InvokeBatch with its items grouped by owner: local items run here as one batch, and
+     * each peer gets one forwarded batch of its items. Results are put back in request order;
+     * a group that fails as a whole reports that status on each of its items.
+     */
+    private void invokeBatch(InvokeBatchRequest request, StreamObserver<InvokeBatchResponse> responseObserver) {
+        int count = request.getRequestsCount();
+        if (count > service.maxBatchSize()) {
+            responseObserver.onError(service.batchTooLarge(count));
+            return;
+        }
+        Map<Peer, List<Integer>> groups = new LinkedHashMap<>();   // null key = served here
+        for (int i = 0; i < count; i++) {
+            groups.computeIfAbsent(route(request.getRequests(i).getBeanName()), p -> new ArrayList<>()).add(i);
+        }
+        if (groups.size() == 1 && groups.containsKey(null)) {
+            service.invokeBatch(request, responseObserver);
+            return;
+        }
+
+        InvokeResult[] results = new InvokeResult[count];
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        groups.forEach((peer, items) -> {
+            InvokeBatchRequest.Builder part = InvokeBatchRequest.newBuilder();
+            for (int i : items) part.addRequests(request.getRequests(i));
+            CompletableFuture<InvokeBatchResponse> sent = new CompletableFuture<>();
+            StreamObserver<InvokeBatchResponse> collect = new StreamObserver<>() {
+                @Override public void onNext(InvokeBatchResponse response) { sent.complete(response); }
+                @Override public void onError(Throwable t)                 { sent.completeExceptionally(t); }
+                @Override public void onCompleted()                        { }
+            };
+            if (peer == null) {
+                service.invokeBatch(part.build(), collect);
+            } else {
+                IdempotencyInterceptor.markExecuted();
+                ClientCalls.asyncUnaryCall(peer.channel().newCall(NetScopeServiceGrpc.getInvokeBatchMethod(),
+                        CallOptions.DEFAULT), part.build(), collect);
+            }
+            pending.add(sent.handle((response, error) -> {
+                for (int j = 0; j < items.size(); j++) {
+                    results[items.get(j)] = error == null && response.getResultsCount() == items.size()
+                            ? response.getResults(j)
+                            : failed(error != null ? status(error) : Status.INTERNAL
+                                    .withDescription("Peer answered a batch of " + items.size() + " with "
+                                            + response.getResultsCount() + " results").asRuntimeException());
+                }
+                return null;
+            }));
+        });
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).thenRun(() -> {
+            responseObserver.onNext(InvokeBatchResponse.newBuilder().addAllResults(List.of(results)).build());
+            responseObserver.onCompleted();
+        });
+    }
+
+    private static InvokeResult failed(RuntimeException error) {
+        Status status = Status.fromThrowable(error);
+        return InvokeResult.newBuilder().setError(CallError.newBuilder()
+                .setCode(status.getCode().value())
+                .setMessage(status.getDescription() != null ? status.getDescription() : "")).build();
+    }
+
+    /** Sends the request bytes to {@code peer} as-is; the current Context's deadline and cancellation apply. */
+    private CompletableFuture<byte[]> forward(Peer peer, byte[] request) {
+        IdempotencyInterceptor.markExecuted();
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        ClientCalls.asyncUnaryCall(peer.channel().newCall(forwardMethod, CallOptions.DEFAULT), request,
+                new StreamObserver<>() {
+                    @Override public void onNext(byte[] response) { result.complete(response); }
+                    @Override public void onError(Throwable t)    { result.completeExceptionally(t); }
+                    @Override public void onCompleted()           { }
+                });
+        return result;
+    }
+
+    private static RuntimeException status(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof InvalidProtocolBufferException) {
+            return Status.INVALID_ARGUMENT.withDescription("Malformed InvokeRequest").asRuntimeException();
+        }
+        return Status.fromThrowable(cause).asRuntimeException();
+    }
+
+    // ── Streams ───────────────────────────────────────────────────────────────
+
+    /**
+     * Completes every open federated InvokeMethodStream once the items it has taken are
+     * answered, taking no more. Called while the server drains, before the local streams
+     * are drained.
+     */
+    public void drainStreams() {
+        for (FederatedStream stream : streams) stream.drain();
+    }
+
+    /**
+     * InvokeMethodStream with each item routed on its own. Local items go through a local
+     * stream; remote items are forwarded as unary calls. Responses are written in request
+     * order, and the first failed item ends the stream as it would locally. A drain, of
+     * this stream or of the local one, drops later items and completes after those taken.
+     */
+    private final class FederatedStream implements StreamObserver<byte[]> {
+        private final StreamObserver<Object> responseObserver;
+        private final StreamObserver<InvokeRequest> local;
+        private final AtomicBoolean failed = new AtomicBoolean();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private CompletableFuture<Object> localItem;
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);   // guarded by this
+        private boolean busy;       // an item is being routed; guarded by this
+        private boolean draining;
+
+        FederatedStream(StreamObserver<Object> responseObserver) {
+            this.responseObserver = responseObserver;
+            // Local items are answered synchronously within local.onNext
+            this.local = service.invokeMethodStream(new StreamObserver<>() {
+                @Override public void onNext(InvokeResponse response) { localItem.complete(response); }
+                @Override public void onError(Throwable t)            { localItem.completeExceptionally(t); }
+                @Override public void onCompleted()                   { drain(); }   // the local stream drained
+            });
+            streams.add(this);
+        }
+
+        @Override
+        public void onNext(byte[] request) {
+            synchronized (this) {
+                if (draining || failed.get()) return;
+                busy = true;
+            }
+            CompletableFuture<?> item;
+            try {
+                Peer peer = route(request);
+                if (peer == null) {
+                    item = localItem = new CompletableFuture<>();
+                    local.onNext(InvokeRequest.parseFrom(request));
+                    localItem.complete(DROPPED);   // unanswered: the local stream was drained
+                } else {
+                    item = forward(peer, request);
+                }
+            } catch (Exception e) {
+                item = CompletableFuture.failedFuture(e);
+            }
+            CompletableFuture<Void> last;
+            boolean finish;
+            synchronized (this) {
+                last = tail = tail.thenCombine(item, (ignored, response) -> {
+                    if (response != DROPPED) responseObserver.onNext(response);
+                    return null;
+                });
+                busy = false;
+                finish = draining;
+            }
+            last.exceptionally(error -> {
+                if (failed.compareAndSet(false, true) && finished.compareAndSet(false, true)) {
+                    close();
+                    responseObserver.onError(status(error));
+                }
+                return null;
+            });
+            if (finish) finishAfter(last);
+        }
+
+        /** Takes no more items and completes the response stream once those taken are answered. */
+        void drain() {
+            CompletableFuture<Void> last;
+            synchronized (this) {
+                if (draining) return;
+                draining = true;
+                if (busy) return;   // onNext finishes once its item is queued
+                last = tail;
+            }
+            finishAfter(last);
+        }
+
+        private void finishAfter(CompletableFuture<Void> last) {
+            last.thenRun(() -> {
+                if (!finished.compareAndSet(false, true)) return;
+                close();
+                responseObserver.onCompleted();
+            });
+        }
+
+        /** Stops tracking this stream and ends the local one. Never called with this lock held. */
+        private void close() {
+            streams.remove(this);
+            local.onCompleted();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            // Client cancelled: forwarded calls are cancelled with the call's Context
+            failed.set(true);
+            if (finished.compareAndSet(false, true)) close();
+        }
+
+        @Override
+        public void onCompleted() {
+            drain();
+        }
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    /** Serves calls forwarded by another gateway locally, whatever the routing table says. */
+    private static final class ForwardedInterceptor implements ServerInterceptor {
+        @Override
+        public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+                ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+            if (!headers.containsKey(FORWARDED_HEADER)) return next.startCall(call, headers);
+            return Contexts.interceptCall(Context.current().withValue(FORWARDED_CTX, true), call, headers, next);
+        }
+    }
+
+    private record Routes(long version, Map<String, Peer> owners, List<MethodInfo> members) {}
+}
@@ -0,0 +1,126 @@
+package org.fractalx.netscope.server.federation;
+
+import org.fractalx.netscope.server.grpc.NetScopeAuthInterceptor;
+import org.fractalx.netscope.server.grpc.proto.DocsRequest;
+import org.fractalx.netscope.server.grpc.proto.DocsResponse;
+import org.fractalx.netscope.server.grpc.proto.MethodInfo;
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ClientInterceptors;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One federated node: a small pool of channels to it and the members it last reported.
+ * Each channel multiplexes any number of forwarded calls over one HTTP/2 connection.
+ */
+final class Peer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(Peer.class);
+    static final String IN_PROCESS = "in-process:";
+
+    private final String target;
+    private final ManagedChannel[] channels;
+    private final Channel[] forwarding;       // the same channels, adding forwarding headers
+    private final AtomicInteger next = new AtomicInteger();
+
+    // Only touched by FederationGateway.refresh(), which is synchronized
+    private String docsVersion = "";
+    private List<MethodInfo> members = List.of();
+    private boolean reachable = true;
+
+    Peer(String target, int channelCount, int maxInboundMessageSize) {
+        this.target     = target;
+        this.channels   = new ManagedChannel[Math.max(1, channelCount)];
+        this.forwarding = new Channel[channels.length];
+        for (int i = 0; i < channels.length; i++) {
+            ManagedChannelBuilder<?> builder = target.startsWith(IN_PROCESS)
+                    ? InProcessChannelBuilder.forName(target.substring(IN_PROCESS.length()))
+                    : ManagedChannelBuilder.forTarget(target).usePlaintext();
+            channels[i]   = builder.maxInboundMessageSize(maxInboundMessageSize).build();
+            forwarding[i] = ClientInterceptors.intercept(channels[i], new ForwardingHeaders());
+        }
+    }
+
+    String target()            { return target; }
+    List<MethodInfo> members() { return members; }
+
+    /** Next channel for a forwarded call, round-robin over the pool. */
+    Channel channel() {
+        return forwarding[Math.floorMod(next.getAndIncrement(), forwarding.length)];
+    }
+
+    /**
+     * Polls the peer's own members (not those it federates itself) with a conditional
+     * GetDocs. Returns true when they changed. An unreachable peer keeps its last members,
+     * so calls to it fail with UNAVAILABLE rather than NOT_FOUND until it returns.
+     */
+    boolean refresh(long timeoutMillis) {
+        DocsResponse response;
+        try {
+            response = NetScopeServiceGrpc.newBlockingStub(channels[0])
+                    .withDeadlineAfter(timeoutMillis, TimeUnit.MILLISECONDS)
+                    .getDocs(DocsRequest.newBuilder().setIfNoneMatch(docsVersion).setLocalOnly(true).build());
+        } catch (StatusRuntimeException e) {
+            if (reachable) logger.warn("Federation peer {} unavailable: {}", target, e.getStatus());
+            reachable = false;
+            return false;
+        }
+        reachable = true;
+        if (response.getNotModified()) return false;
+        docsVersion = response.getVersion();
+        members     = List.copyOf(response.getMethodsList());
+        return true;
+    }
+
+    @Override
+    public void close() {
+        for (ManagedChannel channel : channels) channel.shutdown();
+        for (ManagedChannel channel : channels) {
+            try {
+                if (!channel.awaitTermination(5, TimeUnit.SECONDS)) channel.shutdownNow();
+            } catch (InterruptedException e) {
+                channel.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Marks a call as forwarded, so the peer serves it itself instead of routing it again,
+     * and passes on the caller's credentials for the peer to authorize.
+     */
+    private static final class ForwardingHeaders implements ClientInterceptor {
+        @Override
+        public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+                MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+            return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+                @Override
+                public void start(Listener<RespT> responseListener, Metadata headers) {
+                    headers.put(FederationGateway.FORWARDED_HEADER, "1");
+                    String token  = NetScopeAuthInterceptor.ACCESS_TOKEN_CTX.get();
+                    String apiKey = NetScopeAuthInterceptor.API_KEY_CTX.get();
+                    if (token != null && !token.isEmpty())
+                        headers.put(NetScopeAuthInterceptor.AUTHORIZATION_KEY, "Bearer " + token);
+                    if (apiKey != null && !apiKey.isEmpty())
+                        headers.put(NetScopeAuthInterceptor.API_KEY_HEADER, apiKey);
+                    super.start(responseListener, headers);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.fractalx.netscope.server.federation;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import io.grpc.Drainable;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Serialized messages passed through the gateway untouched. Forwarded requests and
+ * responses are never parsed into messages and re-encoded; only the bean name is
+ * read from a request to route it.
+ */
+final class RawBytes {
+
+    /** Field number of {@code bean_name} in {@code InvokeRequest}. */
+    private static final int BEAN_NAME_FIELD = 1;
+
+    static final MethodDescriptor.Marshaller<byte[]> MARSHALLER = new MethodDescriptor.Marshaller<>() {
+        @Override
+        public InputStream stream(byte[] value) {
+            return new BytesStream(value);
+        }
+
+        @Override
+        public byte[] parse(InputStream stream) {
+            try {
+                return stream.readAllBytes();
+            } catch (IOException e) {
+                throw Status.INTERNAL.withDescription("Failed to read message").withCause(e).asRuntimeException();
+            }
+        }
+    };
+
+    private RawBytes() {}
+
+    /**
+     * Response marshaller for methods answered either with raw bytes from a peer or with
+     * a message built locally.
+     */
+    static <T> MethodDescriptor.Marshaller<Object> orMessage(MethodDescriptor.Marshaller<T> delegate) {
+        return new MethodDescriptor.Marshaller<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public InputStream stream(Object value) {
+                if (value instanceof byte[] bytes) return new BytesStream(bytes);
+                return delegate.stream((T) value);
+            }
+
+            @Override
+            public Object parse(InputStream stream) {
+                return delegate.parse(stream);
+            }
+        };
+    }
+
+    /** Reads {@code bean_name} from a serialized {@code InvokeRequest}, skipping every other field. */
+    static String beanName(byte[] request) {
+        try {
+            CodedInputStream in = CodedInputStream.newInstance(request);
+            int tag;
+            while ((tag = in.readTag()) != 0) {
+                if (WireFormat.getTagFieldNumber(tag) == BEAN_NAME_FIELD
+                        && WireFormat.getTagWireType(tag) == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                    return in.readStringRequireUtf8();
+                }
+                in.skipField(tag);
+            }
+            return "";
+        } catch (IOException e) {
+            throw Status.INVALID_ARGUMENT.withDescription("Malformed InvokeRequest").asRuntimeException();
+        }
+    }
+
+    /** Lets gRPC size the frame up front and copy the bytes without an intermediate buffer. */
+    private static final class BytesStream extends ByteArrayInputStream implements KnownLength, Drainable {
+        BytesStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public int drainTo(OutputStream target) throws IOException {
+            int n = count - pos;
+            target.write(buf, pos, n);
+            pos = count;
+            return n;
+        }
+    }
+}
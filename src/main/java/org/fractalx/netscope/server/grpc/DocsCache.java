@@ -0,0 +1,208 @@
+package org.fractalx.netscope.server.grpc;
+
+import org.fractalx.netscope.server.core.NetScopeScanner;
+import org.fractalx.netscope.server.grpc.proto.DocsRequest;
+import org.fractalx.netscope.server.grpc.proto.DocsResponse;
+import org.fractalx.netscope.server.grpc.proto.MemberKind;
+import org.fractalx.netscope.server.grpc.proto.MethodInfo;
+import org.fractalx.netscope.server.grpc.proto.ParameterInfo;
+import org.fractalx.netscope.server.model.NetworkMethodDefinition;
+import io.grpc.Status;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * GetDocs responses built once per registry version.
+ *
+ * <p>The full response is serialized once and its bytes reused for every unfiltered
+ * call. Its version is a hash of those bytes, so it is identical on every node serving
+ * the same members and survives restarts. Filtered and paged responses reuse the cached
+ * {@link MethodInfo} messages instead of rebuilding them from the scanner.
+ *
+ * <p>With {@link RemoteDocs} set, members served by federated peers are listed after
+ * local ones and the cache is also keyed by the remote version. {@code local_only}
+ * requests still get the local members alone.
+ */
+final class DocsCache {
+
+    private static final Comparator<MethodInfo> ORDER = Comparator
+            .comparing(MethodInfo::getBeanName)
+            .thenComparing(MethodInfo::getMemberName)
+            .thenComparingInt(MethodInfo::getParametersCount)
+            .thenComparing(info -> info.getParametersList().stream()
+                    .map(ParameterInfo::getType).toList().toString());
+
+    private final NetScopeScanner scanner;
+    private volatile RemoteDocs remote;
+    private volatile Docs current;
+
+    DocsCache(NetScopeScanner scanner) {
+        this.scanner = scanner;
+    }
+
+    void setRemote(RemoteDocs remote) {
+        this.remote = remote;
+    }
+
+    /** Returns the response for {@code request}: pre-encoded when it is the full or not-modified one. */
+    Object respond(DocsRequest request) {
+        Docs docs = request.getLocalOnly() ? current().local : current();
+        if (!request.getIfNoneMatch().isEmpty() && request.getIfNoneMatch().equals(docs.version)) {
+            return docs.notModified;
+        }
+        if (request.getBeanNamesCount() == 0 && request.getPageSize() == 0 && request.getPageToken().isEmpty()) {
+            return docs.full;
+        }
+        return docs.page(request);
+    }
+
+    Docs current() {
+        long registryVersion = scanner.getVersion();
+        RemoteDocs remote = this.remote;
+        long remoteVersion = remote == null ? 0 : remote.version();
+        Docs docs = current;
+        if (docs == null || docs.registryVersion != registryVersion || docs.remoteVersion != remoteVersion) {
+            synchronized (this) {
+                docs = current;
+                if (docs == null || docs.registryVersion != registryVersion || docs.remoteVersion != remoteVersion) {
+                    List<MethodInfo> local = new ArrayList<>();
+                    for (NetworkMethodDefinition member : scanner.scan()) local.add(toMethodInfo(member));
+                    Docs localDocs = new Docs(registryVersion, remoteVersion, local, null);
+                    docs = remote == null ? localDocs
+                            : new Docs(registryVersion, remoteVersion, withRemote(local, remote.members()), localDocs);
+                    current = docs;
+                }
+            }
+        }
+        return docs;
+    }
+
+    /** Local members plus remote members of beans this node does not serve itself. */
+    private static List<MethodInfo> withRemote(List<MethodInfo> local, List<MethodInfo> remote) {
+        Set<String> localBeans = new HashSet<>();
+        for (MethodInfo info : local) localBeans.add(info.getBeanName());
+        List<MethodInfo> all = new ArrayList<>(local);
+        for (MethodInfo info : remote) {
+            if (!localBeans.contains(info.getBeanName())) all.add(info);
+        }
+        return all;
+    }
+
+    static MethodInfo toMethodInfo(NetworkMethodDefinition member) {
+        MethodInfo.Builder info = MethodInfo.newBuilder()
+                .setBeanName(member.getBeanName())
+                .setMemberName(member.getMethodName())
+                .setSecured(member.isSecured())
+                .setReturnType(member.getReturnType())
+                .setDescription(member.getDescription())
+                .addAllRequiredScopes(member.getRequiredScopes())
+                .setKind(member.isField() ? MemberKind.FIELD : MemberKind.METHOD)
+                .setWriteable(member.isWriteable())
+                .setIsStatic(member.isStatic())
+                .setIsFinal(member.isFinal())
+                .setPriority(member.getPriority().name())
+                .setAsync(member.isAsync());
+        for (NetworkMethodDefinition.ParameterInfo p : member.getParameters()) {
+            info.addParameters(ParameterInfo.newBuilder()
+                    .setName(p.getName()).setType(p.getType()).setIndex(p.getIndex())
+                    .build());
+        }
+        return info.build();
+    }
+
+    // ── One registry version ──────────────────────────────────────────────────
+
+    static final class Docs {
+        final long registryVersion;
+        final long remoteVersion;
+        final Docs local;           // this, unless remote members are included
+        final String version;
+        final List<MethodInfo> members;
+        final PreEncoded<DocsResponse> full;
+        final PreEncoded<DocsResponse> notModified;
+
+        Docs(long registryVersion, long remoteVersion, List<MethodInfo> members, Docs local) {
+            List<MethodInfo> sorted = new ArrayList<>(members);
+            sorted.sort(ORDER);
+
+            DocsResponse unversioned = DocsResponse.newBuilder().addAllMethods(sorted).build();
+            this.registryVersion = registryVersion;
+            this.remoteVersion   = remoteVersion;
+            this.local           = local != null ? local : this;
+            this.members     = List.copyOf(sorted);
+            this.version     = hash(unversioned.toByteArray());
+            this.full        = new PreEncoded<>(unversioned.toBuilder().setVersion(version).build());
+            this.notModified = new PreEncoded<>(DocsResponse.newBuilder()
+                    .setVersion(version).setNotModified(true).build());
+        }
+
+        DocsResponse page(DocsRequest request) {
+            if (request.getPageSize() < 0) {
+                throw Status.INVALID_ARGUMENT
+                        .withDescription("page_size must not be negative").asRuntimeException();
+            }
+            Set<String> beans = new HashSet<>(request.getBeanNamesList());
+            List<MethodInfo> selected = beans.isEmpty() ? members
+                    : members.stream().filter(m -> beans.contains(m.getBeanName())).toList();
+
+            int offset = request.getPageToken().isEmpty() ? 0 : offset(request.getPageToken());
+            int end    = request.getPageSize() == 0
+                    ? selected.size() : (int) Math.min(selected.size(), (long) offset + request.getPageSize());
+
+            DocsResponse.Builder response = DocsResponse.newBuilder().setVersion(version);
+            if (offset < end) response.addAllMethods(selected.subList(offset, end));
+            if (end < selected.size()) response.setNextPageToken(token(end));
+            return response.build();
+        }
+
+        private String token(int offset) {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((version + ":" + offset).getBytes(StandardCharsets.UTF_8));
+        }
+
+        /** Decodes a page token; a token from an older registry version must restart from the first page. */
+        private int offset(String token) {
+            String decoded;
+            try {
+                decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                decoded = "";
+            }
+            int colon = decoded.lastIndexOf(':');
+            int offset = -1;
+            try {
+                if (colon > 0) offset = Integer.parseInt(decoded.substring(colon + 1));
+            } catch (NumberFormatException ignored) {
+                // reported below
+            }
+            if (offset < 0) {
+                throw Status.INVALID_ARGUMENT.withDescription("Invalid page_token").asRuntimeException();
+            }
+            if (!decoded.substring(0, colon).equals(version)) {
+                throw Status.ABORTED
+                        .withDescription("Registered members changed since page_token was issued; "
+                                + "restart from the first page")
+                        .asRuntimeException();
+            }
+            return offset;
+        }
+
+        private static String hash(byte[] bytes) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+                return HexFormat.of().formatHex(digest, 0, 8);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+}
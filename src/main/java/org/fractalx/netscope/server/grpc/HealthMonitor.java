@@ -0,0 +1,161 @@
+package org.fractalx.netscope.server.grpc;
+
+import org.fractalx.netscope.server.config.NetScopeConfig;
+import org.fractalx.netscope.server.core.AttributeJournal;
+import org.fractalx.netscope.server.core.PriorityScheduler;
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc;
+import org.fractalx.netscope.server.security.OAuth2AuthorizationService;
+import io.grpc.health.v1.HealthCheckResponse.ServingStatus;
+import io.grpc.protobuf.services.HealthStatusManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Drives the {@code grpc.health.v1} status of the NetScope service from live signals, so
+ * load balancers stop sending calls to a node before it is overloaded rather than after.
+ *
+ * <p>Every {@code intervalMillis} each check is evaluated; if any of them reports a reason,
+ * both {@code ""} and {@code netscope.NetScopeService} are NOT_SERVING, otherwise SERVING.
+ * The checks are:
+ * <ul>
+ *   <li>{@code scan} — the application context has not been scanned yet;</li>
+ *   <li>{@code journal} — the attribute journal has not been replayed into the fields yet,
+ *       or a write could not be journaled since its last snapshot;</li>
+ *   <li>{@code in-flight} — running calls reached {@code maxInFlight}; open watches do not count;</li>
+ *   <li>{@code queue} — the priority scheduler is {@code maxQueuedRatio} full;</li>
+ *   <li>{@code jwks} — OAuth is on and its JWK set can neither be fetched nor is cached.</li>
+ * </ul>
+ * Saturation checks clear only once their value falls below {@code resumeRatio} of the
+ * limit, so a node sitting at the limit does not flap in and out of rotation.
+ */
+public class HealthMonitor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(HealthMonitor.class);
+
+    /** One signal. Returns why the node should not take calls, or null if it may. */
+    @FunctionalInterface
+    public interface Check {
+        String unavailableReason();
+    }
+
+    private final HealthStatusManager health;
+    private final Map<String, Check> checks;
+    private final long intervalMillis;
+    private ScheduledExecutorService timer;
+    private ServingStatus status;
+    private List<String> reasons = List.of();
+
+    HealthMonitor(HealthStatusManager health, Map<String, Check> checks, long intervalMillis) {
+        this.health         = health;
+        this.checks         = checks;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /** The checks that apply to {@code service} under {@code config}. */
+    static HealthMonitor create(NetScopeConfig config, HealthStatusManager health,
+                                NetScopeGrpcServiceImpl service, InFlightCalls inFlight) {
+        NetScopeConfig.HealthConfig cfg = config.getHealth();
+        Map<String, Check> checks = new LinkedHashMap<>();
+        checks.put("scan", () -> service.scanner().isScanned() ? null : "members not scanned yet");
+        AttributeJournal journal = service.invoker().journal();
+        if (journal != null) {
+            checks.put("journal", () -> journal.isReplayed() ? journal.failure() : "attribute journal not replayed yet");
+        }
+        if (cfg.getMaxInFlight() > 0) {
+            checks.put("in-flight", threshold("calls in flight", inFlight::active,
+                    cfg.getMaxInFlight(), cfg.getResumeRatio()));
+        }
+        PriorityScheduler scheduler = service.scheduler();
+        if (scheduler != null && cfg.getMaxQueuedRatio() > 0) {
+            int limit = Math.max(1, (int) Math.ceil(scheduler.maxQueued() * cfg.getMaxQueuedRatio()));
+            checks.put("queue", threshold("calls queued", scheduler::queued, limit, cfg.getResumeRatio()));
+        }
+        OAuth2AuthorizationService auth = service.authService();
+        if (cfg.isCheckJwks() && config.getSecurity().isEnabled() && config.getSecurity().getOauth().isEnabled()
+                && config.getSecurity().getOauth().getJwkSetUri() != null) {
+            checks.put("jwks", () -> auth.isKeySourceAvailable() ? null : "JWK set unavailable");
+        }
+        return new HealthMonitor(health, checks, cfg.getIntervalMillis());
+    }
+
+    /**
+     * A check that fails once {@code value} reaches {@code limit}, and passes again only
+     * below {@code resumeRatio × limit}.
+     */
+    static Check threshold(String what, IntSupplier value, int limit, double resumeRatio) {
+        return new Check() {
+            private boolean saturated;
+
+            @Override
+            public String unavailableReason() {
+                int v = value.getAsInt();
+                saturated = saturated ? v >= limit * resumeRatio : v >= limit;
+                return saturated ? what + " " + v + " (limit " + limit + ")" : null;
+            }
+        };
+    }
+
+    /** Evaluates now, then every {@code intervalMillis} on a daemon thread. */
+    public synchronized void start() {
+        evaluate();
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "netscope-health");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.scheduleWithFixedDelay(this::evaluate, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Runs every check and publishes the resulting status. Returns it. */
+    public synchronized ServingStatus evaluate() {
+        List<String> failed = new ArrayList<>();
+        for (Map.Entry<String, Check> check : checks.entrySet()) {
+            String reason;
+            try {
+                reason = check.getValue().unavailableReason();
+            } catch (RuntimeException e) {
+                reason = "check failed: " + e;
+            }
+            if (reason != null) failed.add(check.getKey() + ": " + reason);
+        }
+        ServingStatus next = failed.isEmpty() ? ServingStatus.SERVING : ServingStatus.NOT_SERVING;
+        if (next != status) {
+            if (next == ServingStatus.SERVING) logger.info("NetScope health: SERVING");
+            else if (status != null)           logger.warn("NetScope health: NOT_SERVING — {}", failed);
+            else                               logger.info("NetScope health: NOT_SERVING — {}", failed);
+            health.setStatus(HealthStatusManager.SERVICE_NAME_ALL_SERVICES, next);
+            health.setStatus(NetScopeServiceGrpc.SERVICE_NAME, next);
+            status = next;
+        }
+        reasons = List.copyOf(failed);
+        return next;
+    }
+
+    /** The status last published; null before the first evaluation. */
+    public synchronized ServingStatus status() {
+        return status;
+    }
+
+    /** Why the node is NOT_SERVING, one entry per failing check, e.g. {@code "queue: calls queued 9000 (limit 8000)"}. */
+    public synchronized List<String> reasons() {
+        return reasons;
+    }
+
+    /** Stops re-evaluating. The status stays as last published. */
+    @Override
+    public synchronized void close() {
+        if (timer != null) {
+            timer.shutdownNow();
+            timer = null;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package org.fractalx.netscope.server.grpc;
+
+import org.fractalx.netscope.server.config.NetScopeConfig;
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs each call carrying an {@code idempotency-key} header at most once with success.
+ *
+ * <p>A repeat of a call that succeeded is answered with the stored response bytes and a
+ * {@code netscope-idempotent-replay: true} header. A repeat that arrives while the first
+ * call is still running waits for it. This makes client retries and hedged requests safe
+ * for methods that are not idempotent. Keys are scoped to the method and the caller's
+ * credentials. Reusing a key for a different request is rejected with INVALID_ARGUMENT.
+ *
+ * <p>A call that fails before its method runs (lookup, authorization, rate limit) is not
+ * stored, so its key can be retried. Once the method has run, the call's error is stored
+ * and replayed like a response, e.g. DEADLINE_EXCEEDED when the deadline passed while
+ * the method ran. The service reports that point with {@link #markExecuted()}.
+ *
+ * <p>Applies to the unary calls that can change state: InvokeMethod, InvokeBatch,
+ * SetAttribute, CompareAndSetAttribute and AddAndGetAttribute. Register it inside
+ * {@link NetScopeAuthInterceptor} so the credentials are in the context.
+ */
+public class IdempotencyInterceptor implements ServerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyInterceptor.class);
+
+    public static final Metadata.Key<String> IDEMPOTENCY_KEY_HEADER =
+            Metadata.Key.of("idempotency-key", Metadata.ASCII_STRING_MARSHALLER);
+
+    /** Response header set on answers served from the store. */
+    public static final Metadata.Key<String> REPLAYED_HEADER =
+            Metadata.Key.of("netscope-idempotent-replay", Metadata.ASCII_STRING_MARSHALLER);
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    /** Set once the called method has started, so its outcome must be kept. */
+    static final Context.Key<AtomicBoolean> EXECUTED_CTX = Context.key("netscope.idempotency.executed");
+
+    private static final Set<String> METHODS = Set.of(
+            NetScopeServiceGrpc.getInvokeMethodMethod().getFullMethodName(),
+            NetScopeServiceGrpc.getInvokeBatchMethod().getFullMethodName(),
+            NetScopeServiceGrpc.getSetAttributeMethod().getFullMethodName(),
+            NetScopeServiceGrpc.getCompareAndSetAttributeMethod().getFullMethodName(),
+            NetScopeServiceGrpc.getAddAndGetAttributeMethod().getFullMethodName());
+
+    private final IdempotencyStore store;
+    private final int maxResponseBytes;
+
+    public IdempotencyInterceptor(NetScopeConfig.IdempotencyConfig config) {
+        this(new IdempotencyStore(TimeUnit.MILLISECONDS.toNanos(config.getTtlMillis()),
+                config.getMaxEntries(), System::nanoTime), config.getMaxResponseBytes());
+    }
+
+    IdempotencyInterceptor(IdempotencyStore store, int maxResponseBytes) {
+        this.store = store;
+        this.maxResponseBytes = maxResponseBytes;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+            ServerCall<ReqT, RespT> call,
+            Metadata headers,
+            ServerCallHandler<ReqT, RespT> next) {
+
+        String key = headers.get(IDEMPOTENCY_KEY_HEADER);
+        String method = call.getMethodDescriptor().getFullMethodName();
+        if (key == null || !METHODS.contains(method)) return next.startCall(call, headers);
+
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            call.close(Status.INVALID_ARGUMENT.withDescription(
+                    "idempotency-key must be 1 to " + MAX_KEY_LENGTH + " characters"), new Metadata());
+            return new ServerCall.Listener<>() {};
+        }
+
+        // The handler starts only once the request is known; until then, ask for it ourselves
+        call.request(2);
+        return new Deduplicating<>(call, headers, next, method + '\n' + scope() + '\n' + key);
+    }
+
+    /** Keeps one caller from being answered with another caller's response. */
+    private static String scope() {
+        String token  = NetScopeAuthInterceptor.ACCESS_TOKEN_CTX.get();
+        String apiKey = NetScopeAuthInterceptor.API_KEY_CTX.get();
+        if ((token == null || token.isEmpty()) && (apiKey == null || apiKey.isEmpty())) return "";
+        MessageDigest digest = sha256();
+        digest.update((token == null ? "" : token).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+        digest.update((apiKey == null ? "" : apiKey).getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(digest.digest());
+    }
+
+    /**
+     * Records that the current call's method is about to run. From here on its outcome is
+     * kept, so a repeat with the same key never runs the method again. No-op without a key.
+     * A call forwarded to another node counts as run once it is sent.
+     */
+    public static void markExecuted() {
+        AtomicBoolean executed = EXECUTED_CTX.get();
+        if (executed != null) executed.set(true);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);   // every JRE has SHA-256
+        }
+    }
+
+    /**
+     * Holds a call until its request has arrived, then runs it, replays a stored response
+     * or waits for the call already running under the same key.
+     */
+    private final class Deduplicating<ReqT, RespT> extends ServerCall.Listener<ReqT> {
+        private final ServerCall<ReqT, RespT> call;
+        private final Metadata headers;
+        private final ServerCallHandler<ReqT, RespT> next;
+        private final String key;
+        private final Context context = Context.current();
+        private ReqT request;
+        private ServerCall.Listener<ReqT> delegate;   // set once the handler has started
+        private boolean ready;
+        private boolean cancelled;
+
+        Deduplicating(ServerCall<ReqT, RespT> call, Metadata headers,
+                      ServerCallHandler<ReqT, RespT> next, String key) {
+            this.call    = call;
+            this.headers = headers;
+            this.next    = next;
+            this.key     = key;
+        }
+
+        @Override
+        public synchronized void onMessage(ReqT message) {
+            if (delegate != null) delegate.onMessage(message);
+            else request = message;
+        }
+
+        @Override
+        public void onHalfClose() {
+            if (request == null) {
+                call.close(Status.INTERNAL.withDescription("Half-closed without a request"), new Metadata());
+                return;
+            }
+            proceed();
+        }
+
+        private void proceed() {
+            synchronized (this) {
+                if (cancelled) return;
+            }
+            byte[] fingerprint = fingerprint(request);
+            IdempotencyStore.Claim claim = store.claim(key, fingerprint);
+            if (claim.owner()) {
+                start(claim.entry());
+            } else if (!claim.entry().matches(fingerprint)) {
+                call.close(Status.INVALID_ARGUMENT.withDescription(
+                        "idempotency-key was already used for a different request"), new Metadata());
+            } else {
+                // Off the completing call's thread, in this call's context
+                claim.entry().response.whenCompleteAsync((outcome, t) -> {
+                    if (outcome != null) replay(outcome);
+                    else proceed();
+                }, context.fixedContextExecutor(ForkJoinPool.commonPool()));
+            }
+        }
+
+        /** SHA-256 of the request as sent on the wire. */
+        private byte[] fingerprint(ReqT request) {
+            MessageDigest digest = sha256();
+            if (request instanceof byte[] bytes) return digest.digest(bytes);   // federation's raw requests
+            try (InputStream in = call.getMethodDescriptor().streamRequest(request)) {
+                return digest.digest(in.readAllBytes());
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot serialize request", e);
+            }
+        }
+
+        private void replay(IdempotencyStore.Outcome outcome) {
+            synchronized (this) {
+                if (cancelled) return;
+            }
+            Metadata replayed = new Metadata();
+            replayed.put(REPLAYED_HEADER, "true");
+            if (outcome.response() == null) {
+                call.close(outcome.status(), replayed);
+                return;
+            }
+            call.sendHeaders(replayed);
+            call.sendMessage(call.getMethodDescriptor().parseResponse(new ByteArrayInputStream(outcome.response())));
+            call.close(Status.OK, new Metadata());
+        }
+
+        private void start(IdempotencyStore.Entry entry) {
+            AtomicBoolean executed = new AtomicBoolean();
+            ServerCall<ReqT, RespT> recording = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+                private byte[] response;
+
+                @Override
+                public void sendMessage(RespT message) {
+                    response = encode(message);
+                    super.sendMessage(message);
+                }
+
+                @Override
+                public void close(Status status, Metadata trailers) {
+                    if (!executed.get()) {
+                        store.abandon(key, entry);
+                    } else if (!status.isOk()) {
+                        store.complete(key, entry, IdempotencyStore.Outcome.of(status));
+                    } else if (response != null) {
+                        store.complete(key, entry, IdempotencyStore.Outcome.of(response));
+                    } else {
+                        store.complete(key, entry, IdempotencyStore.Outcome.of(Status.ALREADY_EXISTS.withDescription(
+                                "The call with this idempotency-key already ran; its response was too large to keep")));
+                    }
+                    super.close(status, trailers);
+                }
+            };
+            Context marked = context.withValue(EXECUTED_CTX, executed);
+            synchronized (this) {
+                delegate = Contexts.interceptCall(marked, recording, headers, next);
+                delegate.onMessage(request);
+                delegate.onHalfClose();
+                if (ready) delegate.onReady();
+                if (cancelled) delegate.onCancel();
+            }
+        }
+
+        /** The response as sent on the wire, or null if it is too large to keep. */
+        private byte[] encode(RespT message) {
+            try (InputStream in = call.getMethodDescriptor().streamResponse(message)) {
+                byte[] bytes = in.readAllBytes();
+                if (bytes.length <= maxResponseBytes) return bytes;
+                logger.debug("Response of {} bytes not stored for idempotent replay", bytes.length);
+                return null;
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public synchronized void onReady() {
+            ready = true;
+            if (delegate != null) delegate.onReady();
+        }
+
+        @Override
+        public synchronized void onCancel() {
+            cancelled = true;
+            if (delegate != null) delegate.onCancel();
+        }
+
+        @Override
+        public synchronized void onComplete() {
+            if (delegate != null) delegate.onComplete();
+        }
+    }
+}
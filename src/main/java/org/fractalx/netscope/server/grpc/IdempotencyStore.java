@@ -0,0 +1,111 @@
+package org.fractalx.netscope.server.grpc;
+
+import io.grpc.Status;
+
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Outcomes of calls made with an idempotency key, kept for a fixed time after the call
+ * finished and bounded in number. A key is claimed by the first call to use it; its entry
+ * is an in-flight marker until that call ends, then holds the serialized response or the
+ * error status. If the call failed before its method ran, the entry is dropped so the key
+ * can be tried again.
+ */
+final class IdempotencyStore {
+
+    /** The entry for a key, and whether this caller created it and so must run the call. */
+    record Claim(Entry entry, boolean owner) {}
+
+    /** How a call ended: its response bytes, or, when there are none to replay, its status. */
+    record Outcome(byte[] response, Status status) {
+        static Outcome of(byte[] response) { return new Outcome(response, Status.OK); }
+        static Outcome of(Status status)   { return new Outcome(null, status); }
+    }
+
+    static final class Entry {
+        final byte[] fingerprint;
+        volatile long expiresAt;   // set when the call ends; in-flight entries do not expire
+        /** Completes with the outcome, or with null if the call failed before it ran. */
+        final CompletableFuture<Outcome> response = new CompletableFuture<>();
+
+        Entry(byte[] fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        boolean matches(byte[] fingerprint) {
+            return MessageDigest.isEqual(this.fingerprint, fingerprint);
+        }
+
+        boolean expired(long now) {
+            return response.isDone() && expiresAt - now <= 0;
+        }
+    }
+
+    private record Node(String key, Entry entry) {}
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ArrayDeque<Node> order = new ArrayDeque<>();   // completion order, guarded by this
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier clock;
+
+    IdempotencyStore(long ttlNanos, int maxEntries, LongSupplier clock) {
+        this.ttlNanos   = ttlNanos;
+        this.maxEntries = maxEntries;
+        this.clock      = clock;
+    }
+
+    /** Returns the live entry for {@code key}, creating it if there is none. */
+    Claim claim(String key, byte[] fingerprint) {
+        long now = clock.getAsLong();
+        expire(now);
+        while (true) {
+            Entry fresh = new Entry(fingerprint);
+            Entry existing = entries.putIfAbsent(key, fresh);
+            if (existing == null) return new Claim(fresh, true);
+            if (!existing.expired(now)) return new Claim(existing, false);
+            entries.remove(key, existing);
+        }
+    }
+
+    /** Keeps the outcome of a call whose method ran, for the ttl from now. */
+    void complete(String key, Entry entry, Outcome outcome) {
+        entry.expiresAt = clock.getAsLong() + ttlNanos;
+        track(key, entry);
+        entry.response.complete(outcome);
+    }
+
+    /** Drops the entry of a call that failed before it ran; callers waiting on it claim the key again. */
+    void abandon(String key, Entry entry) {
+        entries.remove(key, entry);
+        entry.response.complete(null);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Entries that finished first go first, both on expiry and when over capacity. Calls
+     * still running are never evicted.
+     */
+    private synchronized void track(String key, Entry entry) {
+        order.addLast(new Node(key, entry));
+        while (entries.size() > maxEntries && !order.isEmpty()) evict(order.pollFirst());
+    }
+
+    private synchronized void expire(long now) {
+        Node head;
+        while ((head = order.peekFirst()) != null && head.entry.expiresAt - now <= 0) {
+            evict(order.pollFirst());
+        }
+    }
+
+    private void evict(Node node) {
+        entries.remove(node.key, node.entry);
+    }
+}
@@ -0,0 +1,160 @@
+package org.fractalx.netscope.server.grpc;
+
+import org.fractalx.netscope.server.grpc.proto.AddAndGetAttributeRequest;
+import org.fractalx.netscope.server.grpc.proto.AsyncOutcomesRequest;
+import org.fractalx.netscope.server.grpc.proto.CompareAndSetAttributeRequest;
+import org.fractalx.netscope.server.grpc.proto.InvokeRequest;
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc;
+import org.fractalx.netscope.server.grpc.proto.ReadAttributesRequest;
+import org.fractalx.netscope.server.grpc.proto.SetAttributeRequest;
+import org.fractalx.netscope.server.grpc.proto.WatchAttributeRequest;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the NetScope calls that are running, so a shutdown can wait for them and report
+ * the ones it had to cut. A call counts from when it starts until it is closed or
+ * cancelled. It is labelled with its RPC and, once its first request has arrived, the
+ * member it names, e.g. {@code "InvokeMethod OrderService.place"}.
+ *
+ * <p>Only NetScopeService calls are tracked. Health checks and reflection streams are left
+ * out, since they stay open until the listener is shut down.
+ */
+public class InFlightCalls implements ServerInterceptor {
+
+    private static final class Call {
+        final String method;
+        final boolean streaming;
+        final boolean subscription;   // server streaming: a watch that stays open while idle
+        volatile String member;
+
+        Call(String method, MethodDescriptor.MethodType type) {
+            this.method       = method;
+            this.streaming    = !type.clientSendsOneMessage() || !type.serverSendsOneMessage();
+            this.subscription = type == MethodDescriptor.MethodType.SERVER_STREAMING;
+        }
+
+        String label() {
+            return member == null ? method : method + " " + member;
+        }
+    }
+
+    private final Set<Call> calls = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+            ServerCall<ReqT, RespT> call,
+            Metadata headers,
+            ServerCallHandler<ReqT, RespT> next) {
+
+        MethodDescriptor<ReqT, RespT> method = call.getMethodDescriptor();
+        if (!NetScopeServiceGrpc.SERVICE_NAME.equals(method.getServiceName())) {
+            return next.startCall(call, headers);
+        }
+
+        Call tracked = new Call(method.getBareMethodName(), method.getType());
+        calls.add(tracked);
+        ServerCall<ReqT, RespT> closing = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                try {
+                    super.close(status, trailers);
+                } finally {
+                    finished(tracked);
+                }
+            }
+        };
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = next.startCall(closing, headers);
+        } catch (RuntimeException e) {
+            finished(tracked);
+            throw e;
+        }
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onMessage(ReqT message) {
+                if (tracked.member == null) tracked.member = memberOf(message);
+                super.onMessage(message);
+            }
+
+            @Override
+            public void onCancel() {
+                try {
+                    super.onCancel();
+                } finally {
+                    finished(tracked);
+                }
+            }
+        };
+    }
+
+    /** Calls running now. */
+    public int count() {
+        return calls.size();
+    }
+
+    /**
+     * Calls doing work now: unary calls and InvokeMethodStream. Watches (WatchAttribute,
+     * WatchAsyncOutcomes) are left out, since they stay open while waiting for changes.
+     */
+    public int active() {
+        return (int) calls.stream().filter(c -> !c.subscription).count();
+    }
+
+    /** Streaming calls running now. */
+    public int streaming() {
+        return (int) calls.stream().filter(c -> c.streaming).count();
+    }
+
+    /** Calls running now, counted by label, sorted. */
+    public Map<String, Integer> byMember() {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Call call : calls) counts.merge(call.label(), 1, Integer::sum);
+        return counts;
+    }
+
+    /** Waits until no call is running. Returns false if {@code timeout} passed first. */
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (this) {
+            while (!calls.isEmpty()) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) return false;
+                TimeUnit.NANOSECONDS.timedWait(this, left);
+            }
+        }
+        return true;
+    }
+
+    private void finished(Call call) {
+        if (calls.remove(call) && calls.isEmpty()) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    private static String memberOf(Object request) {
+        if (request instanceof InvokeRequest r)                 return r.getBeanName() + "." + r.getMemberName();
+        if (request instanceof SetAttributeRequest r)           return r.getBeanName() + "." + r.getAttributeName();
+        if (request instanceof CompareAndSetAttributeRequest r) return r.getBeanName() + "." + r.getAttributeName();
+        if (request instanceof AddAndGetAttributeRequest r)     return r.getBeanName() + "." + r.getAttributeName();
+        if (request instanceof WatchAttributeRequest r)         return r.getBeanName() + "." + r.getAttributeName();
+        if (request instanceof AsyncOutcomesRequest r)          return r.getBeanName() + "." + r.getMemberName();
+        if (request instanceof ReadAttributesRequest r)         return r.getBeanName();
+        return null;
+    }
+}
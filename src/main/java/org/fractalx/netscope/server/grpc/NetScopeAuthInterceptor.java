@@ -11,6 +11,7 @@ import org.slf4j.LoggerFactory;
  * Supported headers:
  *   authorization: Bearer <jwt>   ← OAuth 2.0 (standard HTTP Authorization header)
  *   x-api-key: <key>              ← API key
+ *   netscope-priority: low        ← optional scheduling class of the call
  */
 public class NetScopeAuthInterceptor implements ServerInterceptor {
 
@@ -23,6 +24,9 @@ public class NetScopeAuthInterceptor implements ServerInterceptor {
     public static final Metadata.Key<String> API_KEY_HEADER =
             Metadata.Key.of("x-api-key", Metadata.ASCII_STRING_MARSHALLER);
 
+    public static final Metadata.Key<String> PRIORITY_HEADER =
+            Metadata.Key.of("netscope-priority", Metadata.ASCII_STRING_MARSHALLER);
+
     // Context keys — used to pass credentials to the service handler
     public static final Context.Key<String> ACCESS_TOKEN_CTX =
             Context.key("netscope.access_token");
@@ -30,6 +34,9 @@ public class NetScopeAuthInterceptor implements ServerInterceptor {
     public static final Context.Key<String> API_KEY_CTX =
             Context.key("netscope.api_key");
 
+    public static final Context.Key<String> PRIORITY_CTX =
+            Context.key("netscope.priority");
+
     @Override
     public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
             ServerCall<ReqT, RespT> call,
@@ -53,10 +60,13 @@ public class NetScopeAuthInterceptor implements ServerInterceptor {
                 accessToken != null ? "[present]" : "[absent]",
                 apiKey      != null ? "[present]" : "[absent]");
 
+        String priority = headers.get(PRIORITY_HEADER);
+
         // Store credentials in Context so the service handler can read them
         Context ctx = Context.current()
                 .withValue(ACCESS_TOKEN_CTX, accessToken != null ? accessToken : "")
-                .withValue(API_KEY_CTX,      apiKey      != null ? apiKey      : "");
+                .withValue(API_KEY_CTX,      apiKey      != null ? apiKey      : "")
+                .withValue(PRIORITY_CTX,     priority    != null ? priority    : "");
 
         return Contexts.interceptCall(ctx, call, headers, next);
     }
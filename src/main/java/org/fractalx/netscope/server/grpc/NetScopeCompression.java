@@ -0,0 +1,186 @@
+package org.fractalx.netscope.server.grpc;
+
+import com.google.protobuf.MessageLite;
+import io.grpc.Codec;
+import io.grpc.CompressorRegistry;
+import io.grpc.DecompressorRegistry;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.fractalx.netscope.server.config.NetScopeConfig;
+import org.fractalx.netscope.server.model.NetworkMethodDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Response compression policy: which codec a member's responses use and whether a given
+ * response is large enough to be worth compressing.
+ *
+ * <p>gRPC only compresses when the caller advertised the codec in
+ * {@code grpc-accept-encoding}, so asking for {@code lz4} from a client that only knows
+ * gzip silently falls back to an uncompressed response rather than failing.
+ */
+public class NetScopeCompression {
+
+    private static final Logger logger = LoggerFactory.getLogger(NetScopeCompression.class);
+
+    static final String IDENTITY = Codec.Identity.NONE.getMessageEncoding();
+    static final String GZIP     = "gzip";
+    static final String LZ4      = "lz4";
+
+    private static final boolean LZ4_PRESENT;
+    private static final CompressorRegistry   COMPRESSORS;
+    private static final DecompressorRegistry DECOMPRESSORS;
+
+    static {
+        boolean lz4 = false;
+        try {
+            Class.forName("net.jpountz.lz4.LZ4FrameOutputStream");
+            lz4 = true;
+            logger.debug("NetScope: lz4-java detected — lz4 response compression available");
+        } catch (ClassNotFoundException ignored) {
+            logger.debug("NetScope: lz4-java not on classpath — lz4 compression disabled");
+        }
+        LZ4_PRESENT = lz4;
+
+        // The default registries already carry gzip and identity
+        CompressorRegistry   compressors   = CompressorRegistry.newEmptyInstance();
+        DecompressorRegistry decompressors = DecompressorRegistry.getDefaultInstance();
+        compressors.register(new Codec.Gzip());
+        if (lz4) {
+            Codec codec = new Lz4Codec();
+            compressors.register(codec);
+            decompressors = decompressors.with(codec, true);
+        }
+        COMPRESSORS   = compressors;
+        DECOMPRESSORS = decompressors;
+    }
+
+    private final boolean enabled;
+    private final String defaultCodec;
+    private final int minResponseSize;
+    private final Map<String, String> memberCodecs;
+    private final String streamFallback;   // codec a stream opens with when its first message is not compressed
+
+    public NetScopeCompression(NetScopeConfig.CompressionConfig config) {
+        this.enabled         = config.isEnabled();
+        this.defaultCodec    = validate(config.getAlgorithm());
+        this.minResponseSize = Math.max(0, config.getMinResponseSize());
+        this.memberCodecs    = new HashMap<>();
+        config.getMembers().forEach((member, codec) -> memberCodecs.put(member, validate(codec)));
+        this.streamFallback  = !defaultCodec.equals(IDENTITY) ? defaultCodec
+                : new TreeMap<>(memberCodecs).values().stream()
+                        .filter(c -> !c.equals(IDENTITY)).findFirst().orElse(IDENTITY);
+    }
+
+    /** A policy that never compresses — used when no compression config is supplied. */
+    public static NetScopeCompression disabled() {
+        return new NetScopeCompression(new NetScopeConfig.CompressionConfig());
+    }
+
+    /** Registry with every codec this server can encode responses with. */
+    public static CompressorRegistry compressorRegistry() { return COMPRESSORS; }
+
+    /** Registry with every codec this server accepts on requests; advertised to callers. */
+    public static DecompressorRegistry decompressorRegistry() { return DECOMPRESSORS; }
+
+    /** Codec names that can appear in {@code algorithm} or a member override. */
+    public static Set<String> availableCodecs() {
+        Set<String> names = new TreeSet<>(Set.of(IDENTITY, GZIP));
+        if (LZ4_PRESENT) names.add(LZ4);
+        return names;
+    }
+
+    // ── Per-call decisions ────────────────────────────────────────────────────
+
+    /**
+     * Unary responses: picks the member's codec for this call when the encoded response
+     * reaches the threshold. Must run before the response is passed to {@code onNext}.
+     * {@code member} may be null for responses not tied to a member (GetDocs).
+     */
+    void beforeResponse(StreamObserver<?> observer, NetworkMethodDefinition member, MessageLite response) {
+        if (!enabled || !(observer instanceof ServerCallStreamObserver<?> call)) return;
+        String codec = codecFor(member);
+        if (codec.equals(IDENTITY) || response.getSerializedSize() < minResponseSize) return;
+        call.setCompression(codec);
+    }
+
+    /**
+     * Streams: a stream carries one codec, sent in its headers with the first response, and
+     * each message is then compressed with it or not. Returns the policy for one stream.
+     */
+    StreamCompression forStream(StreamObserver<?> observer) {
+        boolean active = enabled && !streamFallback.equals(IDENTITY)
+                && observer instanceof ServerCallStreamObserver<?>;
+        return new StreamCompression(active ? (ServerCallStreamObserver<?>) observer : null);
+    }
+
+    /**
+     * Compression of one response stream. The codec is picked at the first message: that
+     * member's codec if the message is to be compressed, otherwise the default codec, or
+     * the first codec named by a member override when the default is {@code identity}.
+     * Later messages are compressed when their member's codec is not {@code identity} and
+     * they reach the size threshold — with the stream's codec, if their member names another.
+     * Not thread-safe; messages of one stream are sent one at a time.
+     */
+    final class StreamCompression {
+        private final ServerCallStreamObserver<?> call;   // null when nothing is ever compressed
+        private String codec;
+
+        private StreamCompression(ServerCallStreamObserver<?> call) {
+            this.call = call;
+        }
+
+        /** Must run before {@code response} is passed to {@code onNext}. */
+        void beforeMessage(NetworkMethodDefinition member, MessageLite response) {
+            if (call == null) return;
+            String wanted = codecFor(member);
+            boolean compress = !wanted.equals(IDENTITY) && response.getSerializedSize() >= minResponseSize;
+            if (codec == null) {
+                codec = compress ? wanted : streamFallback;
+                call.setCompression(codec);
+            }
+            call.setMessageCompression(compress);
+        }
+    }
+
+    String codecFor(NetworkMethodDefinition member) {
+        if (member == null || memberCodecs.isEmpty()) return defaultCodec;
+        return memberCodecs.getOrDefault(member.getBeanName() + "." + member.getMethodName(), defaultCodec);
+    }
+
+    private static String validate(String codec) {
+        String name = codec == null ? IDENTITY : codec.trim().toLowerCase();
+        if (!availableCodecs().contains(name)) {
+            throw new IllegalStateException("Unknown NetScope compression codec '" + codec
+                    + "' — available: " + availableCodecs()
+                    + (name.equals(LZ4) ? " (add org.lz4:lz4-java to enable lz4)" : ""));
+        }
+        return name;
+    }
+
+    // ── LZ4 ───────────────────────────────────────────────────────────────────
+
+    /** LZ4 frame format; only loaded when lz4-java is on the classpath. */
+    private static final class Lz4Codec implements Codec {
+        @Override public String getMessageEncoding() { return LZ4; }
+
+        @Override
+        public OutputStream compress(OutputStream os) throws IOException {
+            return new net.jpountz.lz4.LZ4FrameOutputStream(os);
+        }
+
+        @Override
+        public InputStream decompress(InputStream is) throws IOException {
+            return new net.jpountz.lz4.LZ4FrameInputStream(is);
+        }
+    }
+}
@@ -1,8 +1,16 @@
 package org.fractalx.netscope.server.grpc;
 
 import org.fractalx.netscope.server.config.NetScopeConfig;
+import org.fractalx.netscope.server.federation.FederationGateway;
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc;
 import io.grpc.Server;
 import io.grpc.ServerBuilder;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.health.v1.HealthCheckResponse.ServingStatus;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.netty.shaded.io.netty.channel.unix.DomainSocketAddress;
+import io.grpc.protobuf.services.HealthStatusManager;
 import io.grpc.protobuf.services.ProtoReflectionService;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
@@ -10,6 +18,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.net.ConnectException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
 import java.util.concurrent.TimeUnit;
 
 public class NetScopeGrpcServer {
@@ -18,11 +39,28 @@ public class NetScopeGrpcServer {
 
     private final NetScopeConfig config;
     private final NetScopeGrpcServiceImpl grpcService;
+    private final FederationGateway federation;   // null unless federation is enabled
+    private final IdempotencyInterceptor idempotency;   // null unless enabled; shared by all listeners
+    private final InFlightCalls inFlight = new InFlightCalls();
+    private final HealthStatusManager health = new HealthStatusManager();
+    private HealthMonitor healthMonitor;   // null unless health.enabled, and while stopped
     private Server server;
+    private Server domainSocketServer;
+    private Server inProcessServer;
+    private NettyTransport transport;
+    private TrafficCapture capture;   // null unless capture.enabled, and while stopped
 
     public NetScopeGrpcServer(NetScopeConfig config, NetScopeGrpcServiceImpl grpcService) {
+        this(config, grpcService, null);
+    }
+
+    public NetScopeGrpcServer(NetScopeConfig config, NetScopeGrpcServiceImpl grpcService,
+                              FederationGateway federation) {
         this.config = config;
         this.grpcService = grpcService;
+        this.federation = federation;
+        this.idempotency = config.getIdempotency().isEnabled()
+                ? new IdempotencyInterceptor(config.getIdempotency()) : null;
     }
 
     @PostConstruct
@@ -34,41 +72,40 @@ public class NetScopeGrpcServer {
             return;
         }
 
-        // Register auth interceptor — reads credentials from metadata headers
-        NetScopeAuthInterceptor authInterceptor = new NetScopeAuthInterceptor();
-
-        ServerBuilder<?> builder = ServerBuilder.forPort(grpcConfig.getPort())
-                .addService(grpcService)
-                .intercept(authInterceptor)           // ← auth interceptor
-                .maxInboundMessageSize(grpcConfig.getMaxInboundMessageSize());
-
-        if (grpcConfig.isEnableReflection()) {
-            builder.addService(ProtoReflectionService.newInstance());
-        }
+        if (federation != null) federation.start();
 
-        if (grpcConfig.getKeepAliveTime() > 0)
-            builder.keepAliveTime(grpcConfig.getKeepAliveTime(), TimeUnit.SECONDS);
-        if (grpcConfig.getKeepAliveTimeout() > 0)
-            builder.keepAliveTimeout(grpcConfig.getKeepAliveTimeout(), TimeUnit.SECONDS);
+        if (config.getCapture().isEnabled()) capture = new TrafficCapture(config.getCapture());
 
-        builder.permitKeepAliveWithoutCalls(grpcConfig.isPermitKeepAliveWithoutCalls());
+        // Netty event loops, buffer allocator, HTTP/2 limits and keepalive from GrpcConfig
+        transport = NettyTransport.create(grpcConfig);
 
-        if (grpcConfig.getMaxConnectionIdle() > 0)
-            builder.maxConnectionIdle(grpcConfig.getMaxConnectionIdle(), TimeUnit.SECONDS);
-        if (grpcConfig.getMaxConnectionAge() > 0)
-            builder.maxConnectionAge(grpcConfig.getMaxConnectionAge(), TimeUnit.SECONDS);
+        NettyServerBuilder builder = withServices(NettyServerBuilder.forPort(grpcConfig.getPort()), grpcConfig);
+        transport.configure(builder, grpcConfig);
 
-        server = builder.build().start();
+        try {
+            server = builder.build().start();
+            startColocatedListeners(grpcConfig);
+            if (config.getHealth().isEnabled()) {
+                healthMonitor = HealthMonitor.create(config, health, grpcService, inFlight);
+                healthMonitor.start();
+            } else {
+                health.setStatus(NetScopeServiceGrpc.SERVICE_NAME, ServingStatus.SERVING);
+            }
+        } catch (IOException | RuntimeException e) {
+            shutdownNow();
+            throw e;
+        }
 
         logger.info("╔════════════════════════════════════════════════════════════╗");
         logger.info("║           NetScope gRPC Server Started                     ║");
         logger.info("╠════════════════════════════════════════════════════════════╣");
-        logger.info("║  Port         : {}                                      ║", grpcConfig.getPort());
+        logger.info("║  Port         : {}                                      ║", server.getPort());
         logger.info("║  Reflection   : {}                                  ║", grpcConfig.isEnableReflection() ? "Enabled " : "Disabled");
         logger.info("║  OAuth 2.0    : {}                                  ║", config.getSecurity().getOauth().isEnabled()  ? "Enabled " : "Disabled");
         logger.info("║  API Key      : {}                                  ║", config.getSecurity().getApiKey().isEnabled() ? "Enabled " : "Disabled");
         logger.info("║  Auth via     : gRPC metadata headers                      ║");
         logger.info("╚════════════════════════════════════════════════════════════╝");
+        logger.info("NetScope gRPC server: {}", describeFeatures(grpcConfig));
 
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             try { NetScopeGrpcServer.this.stop(); }
@@ -76,13 +113,226 @@ public class NetScopeGrpcServer {
         }));
     }
 
+    /** The transport and the optional features in use, for one log line after the banner. */
+    private String describeFeatures(NetScopeConfig.GrpcConfig grpcConfig) {
+        StringJoiner features = new StringJoiner("; ");
+        features.add("transport " + transport.describe());
+        if (domainSocketServer != null)
+            features.add("unix socket " + grpcConfig.getUnixSocketPath());
+        if (inProcessServer != null)
+            features.add("in-process " + grpcConfig.getInProcessName());
+        features.add("compression " + (config.getCompression().isEnabled()
+                ? config.getCompression().getAlgorithm() + " ≥ " + config.getCompression().getMinResponseSize() + " B"
+                : "disabled"));
+        if (federation != null)
+            features.add("federation " + config.getFederation().getPeers().size() + " peers");
+        if (idempotency != null)
+            features.add("idempotency " + config.getIdempotency().getMaxEntries() + " keys, "
+                    + config.getIdempotency().getTtlMillis() + " ms");
+        if (config.getRateLimit().isEnabled())
+            features.add("rate limits global " + config.getRateLimit().getGlobal().getPermitsPerSecond()
+                    + "/s, principal " + config.getRateLimit().getPrincipal().getPermitsPerSecond()
+                    + "/s, member " + config.getRateLimit().getMember().getPermitsPerSecond() + "/s");
+        if (config.getScheduling().isEnabled())
+            features.add("scheduling weights " + config.getScheduling().getHighWeight() + "/"
+                    + config.getScheduling().getNormalWeight() + "/" + config.getScheduling().getLowWeight()
+                    + ", max wait " + config.getScheduling().getMaxWaitMillis() + " ms");
+        if (config.getJournal().isEnabled())
+            features.add("journal " + config.getJournal().getDirectory() + ", fsync every "
+                    + config.getJournal().getSyncIntervalMillis() + " ms"
+                    + (config.getJournal().isWaitForSync() ? ", writes wait" : ""));
+        if (capture != null)
+            features.add("capture " + config.getCapture().getSampleRate() * 100 + " % into "
+                    + config.getCapture().getDirectory());
+        if (healthMonitor != null)
+            features.add("health " + healthMonitor.status() + " every " + config.getHealth().getIntervalMillis() + " ms");
+        return features.toString();
+    }
+
+    /**
+     * Optional listeners for callers on the same host (Unix domain socket) or in the
+     * same JVM (in-process channel). Both serve the same service and interceptors as
+     * the TCP port, so auth behaves identically whichever path a caller uses.
+     */
+    private void startColocatedListeners(NetScopeConfig.GrpcConfig grpcConfig) throws IOException {
+        String socketPath = grpcConfig.getUnixSocketPath();
+        if (socketPath != null && !socketPath.isBlank()) {
+            removeStaleSocket(Path.of(socketPath));
+            NettyServerBuilder uds = withServices(
+                    NettyServerBuilder.forAddress(new DomainSocketAddress(socketPath)), grpcConfig);
+            transport.configureDomainSocket(uds, grpcConfig);
+            domainSocketServer = uds.build().start();
+        }
+
+        String inProcessName = grpcConfig.getInProcessName();
+        if (inProcessName != null && !inProcessName.isBlank()) {
+            inProcessServer = withServices(InProcessServerBuilder.forName(inProcessName), grpcConfig)
+                    .build().start();
+        }
+    }
+
+    /** Registers the NetScope service, auth interceptor, codecs and (optionally) reflection on any listener. */
+    private <T extends ServerBuilder<T>> T withServices(T builder, NetScopeConfig.GrpcConfig grpcConfig) {
+        ServerServiceDefinition service = grpcService.bindPreEncodedService();
+        if (federation != null) service = federation.bind(service);
+        // Interceptors added later run first: calls are tracked from the start, auth puts
+        // credentials in the context, calls are captured (before the service authorizes
+        // them), then idempotency keys are scoped to the credentials
+        builder.addService(service);
+        builder.addService(health.getHealthService());
+        if (idempotency != null) builder.intercept(idempotency);
+        if (capture != null) builder.intercept(capture);
+        builder.intercept(new NetScopeAuthInterceptor())   // ← auth interceptor
+               .intercept(inFlight)
+               .maxInboundMessageSize(grpcConfig.getMaxInboundMessageSize())
+               .compressorRegistry(NetScopeCompression.compressorRegistry())
+               .decompressorRegistry(NetScopeCompression.decompressorRegistry());
+        if (grpcConfig.isEnableReflection()) {
+            builder.addService(ProtoReflectionService.newInstance());
+        }
+        return builder;
+    }
+
+    /** The NetScope calls running now on any listener. */
+    public InFlightCalls inFlight() {
+        return inFlight;
+    }
+
+    /** The traffic capture; null if disabled or stopped. */
+    public TrafficCapture capture() {
+        return capture;
+    }
+
+    /** The monitor driving health status from load and readiness signals; null if disabled or stopped. */
+    public HealthMonitor healthMonitor() {
+        return healthMonitor;
+    }
+
+    /** Drains and stops every listener. Runs from both @PreDestroy and the JVM shutdown hook; the second call does nothing. */
     @PreDestroy
-    public void stop() throws InterruptedException {
-        if (server != null) {
-            logger.info("Stopping NetScope gRPC server...");
-            server.shutdown().awaitTermination(30, TimeUnit.SECONDS);
+    public synchronized void stop() throws InterruptedException {
+        if (server != null || domainSocketServer != null || inProcessServer != null) {
+            drain();
+            if (domainSocketServer != null) deleteSocketFile();
+            server = domainSocketServer = inProcessServer = null;
             logger.info("NetScope gRPC server stopped");
         }
+        closeCapture();
+        if (transport != null) {
+            transport.shutdown();
+            transport = null;
+        }
+    }
+
+    /**
+     * Takes the server out of service in order, so rolling deploys do not fail calls:
+     * <ol>
+     *   <li>health checks report NOT_SERVING, and calls are still accepted for
+     *       {@code readinessDelayMillis} while load balancers notice;</li>
+     *   <li>listeners stop accepting new calls (HTTP/2 GOAWAY);</li>
+     *   <li>watches complete, and InvokeMethodStream calls complete after their current item;</li>
+     *   <li>running calls get up to {@code drainTimeoutMillis} to finish;</li>
+     *   <li>whatever is left is cut, and logged by member.</li>
+     * </ol>
+     * Returns the calls that were cut, by member; empty if everything finished.
+     */
+    Map<String, Integer> drain() throws InterruptedException {
+        NetScopeConfig.ShutdownConfig shutdown = config.getShutdown();
+        logger.info("Draining NetScope gRPC server: {} calls in flight ({} streaming)",
+                inFlight.count(), inFlight.streaming());
+
+        if (healthMonitor != null) {
+            healthMonitor.close();
+            healthMonitor = null;
+        }
+        health.setStatus(HealthStatusManager.SERVICE_NAME_ALL_SERVICES, ServingStatus.NOT_SERVING);
+        health.setStatus(NetScopeServiceGrpc.SERVICE_NAME, ServingStatus.NOT_SERVING);
+        if (shutdown.getReadinessDelayMillis() > 0) Thread.sleep(shutdown.getReadinessDelayMillis());
+
+        for (Server s : listeners()) s.shutdown();
+        grpcService.closeWatches();
+        if (federation != null) federation.drainStreams();
+        grpcService.drainStreams();
+
+        Map<String, Integer> cut = Map.of();
+        if (!inFlight.awaitIdle(shutdown.getDrainTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+            cut = inFlight.byMember();
+            logger.warn("Drain timed out after {} ms; cutting {} calls: {}", shutdown.getDrainTimeoutMillis(),
+                    cut.values().stream().mapToInt(Integer::intValue).sum(), cut);
+        }
+        // Only cut calls and untracked ones (health watches, reflection) are left
+        health.enterTerminalState();
+        for (Server s : listeners()) s.shutdownNow();
+        for (Server s : listeners()) s.awaitTermination(5, TimeUnit.SECONDS);
+        return cut;
+    }
+
+    private void shutdownNow() {
+        if (healthMonitor != null) {
+            healthMonitor.close();
+            healthMonitor = null;
+        }
+        for (Server s : listeners()) s.shutdownNow();
+        if (domainSocketServer != null) deleteSocketFile();   // only a socket this server bound
+        server = domainSocketServer = inProcessServer = null;
+        closeCapture();
+        if (transport != null) {
+            transport.shutdown();
+            transport = null;
+        }
+    }
+
+    private void closeCapture() {
+        if (capture != null) {
+            capture.close();
+            capture = null;
+        }
+    }
+
+    private List<Server> listeners() {
+        List<Server> all = new ArrayList<>(3);
+        if (server != null) all.add(server);
+        if (domainSocketServer != null) all.add(domainSocketServer);
+        if (inProcessServer != null) all.add(inProcessServer);
+        return all;
+    }
+
+    /**
+     * Deletes a socket file left behind by an unclean shutdown, which would make bind() fail.
+     * Refuses to start rather than delete anything else: a file that is not a socket (a
+     * mistyped path), or a socket another process is still listening on.
+     */
+    private static void removeStaleSocket(Path socket) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(socket, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        if (!attributes.isOther()) {
+            throw new IOException("netscope.server.grpc.unixSocketPath " + socket
+                    + " exists and is not a socket — refusing to replace it");
+        }
+        try (SocketChannel probe = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            probe.connect(UnixDomainSocketAddress.of(socket));
+            throw new IOException("netscope.server.grpc.unixSocketPath " + socket
+                    + " is in use by another process");
+        } catch (ConnectException e) {
+            Files.delete(socket);   // nobody listening: left behind by an unclean shutdown
+        }
+    }
+
+    private void deleteSocketFile() {
+        String socketPath = config.getGrpc().getUnixSocketPath();
+        if (socketPath == null || socketPath.isBlank()) return;
+        try {
+            Path socket = Path.of(socketPath);
+            if (Files.readAttributes(socket, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS).isOther()) {
+                Files.delete(socket);
+            }
+        } catch (IOException e) {
+            logger.debug("Could not remove socket file {}", socketPath, e);
+        }
     }
 
     public int getPort() { return server != null ? server.getPort() : -1; }
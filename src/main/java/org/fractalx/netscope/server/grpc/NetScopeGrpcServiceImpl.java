@@ -1,21 +1,42 @@
 package org.fractalx.netscope.server.grpc;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Struct;
 import com.google.protobuf.Value;
 import com.google.protobuf.util.JsonFormat;
+import org.fractalx.netscope.server.annotation.Priority;
 import org.fractalx.netscope.server.core.AmbiguousInvocationException;
+import org.fractalx.netscope.server.core.AsyncInvocations;
+import org.fractalx.netscope.server.core.AttributeWatchRegistry;
 import org.fractalx.netscope.server.core.NetScopeInvoker;
 import org.fractalx.netscope.server.core.NetScopeScanner;
+import org.fractalx.netscope.server.core.PriorityScheduler;
 import org.fractalx.netscope.server.grpc.proto.*;
+import org.fractalx.netscope.server.jfr.InvocationEvent;
 import org.fractalx.netscope.server.model.NetworkMethodDefinition;
 import org.fractalx.netscope.server.model.NetworkMethodDefinition.ParameterInfo;
+import org.fractalx.netscope.server.ratelimit.RateLimiter;
 import org.fractalx.netscope.server.security.OAuth2AuthorizationService;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.ServerServiceDefinition;
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.ServerCalls;
 import io.grpc.stub.StreamObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class NetScopeGrpcServiceImpl extends NetScopeServiceGrpc.NetScopeServiceImplBase {
@@ -25,19 +46,69 @@ public class NetScopeGrpcServiceImpl extends NetScopeServiceGrpc.NetScopeService
     private final NetScopeScanner scanner;
     private final NetScopeInvoker invoker;
     private final OAuth2AuthorizationService authService;
+    private final NetScopeCompression compression;
+    private final AttributeWatchRegistry watchRegistry;
+    private final Set<Watcher> watchers = ConcurrentHashMap.newKeySet();
+    private final Set<InvocationStream> streams = ConcurrentHashMap.newKeySet();
+    private final Set<OutcomeWatcher> outcomeWatchers = ConcurrentHashMap.newKeySet();
+    private final DocsCache docsCache;
+
+    // Responses of members whose result never changes (NetworkMethodDefinition.hasConstantResult)
+    private static final Value ACCEPTED = Value.newBuilder().setStringValue("accepted").build();
+    private static final PreEncoded<InvokeResponse> VOID_RESPONSE = new PreEncoded<>(InvokeResponse.newBuilder()
+            .setResult(Value.newBuilder().setStructValue(Struct.newBuilder().putFields("status", ACCEPTED)))
+            .build());
+    private final Map<NetworkMethodDefinition, PreEncoded<InvokeResponse>> constantFields = new ConcurrentHashMap<>();
+    private volatile long constantFieldsVersion;   // registry version constantFields belong to
+    private volatile RateLimiter rateLimiter;   // null = no rate limits
+    private volatile PriorityScheduler scheduler;   // null = calls run on the gRPC executor
+    private volatile AsyncInvocations async;        // null = async = true members run in the call
+    private volatile int maxBatchSize = 1000;       // requests per InvokeBatch, as grpc.maxBatchSize
 
     public NetScopeGrpcServiceImpl(NetScopeScanner scanner,
                                    NetScopeInvoker invoker,
                                    OAuth2AuthorizationService authService) {
+        this(scanner, invoker, authService, NetScopeCompression.disabled());
+    }
+
+    public NetScopeGrpcServiceImpl(NetScopeScanner scanner,
+                                   NetScopeInvoker invoker,
+                                   OAuth2AuthorizationService authService,
+                                   NetScopeCompression compression) {
+        this(scanner, invoker, authService, compression, registryOf(invoker));
+    }
+
+    /**
+     * {@code watchRegistry} should be the registry {@code invoker} reports writes to,
+     * otherwise watchers only see notified and sampled changes.
+     */
+    public NetScopeGrpcServiceImpl(NetScopeScanner scanner,
+                                   NetScopeInvoker invoker,
+                                   OAuth2AuthorizationService authService,
+                                   NetScopeCompression compression,
+                                   AttributeWatchRegistry watchRegistry) {
         this.scanner = scanner;
         this.invoker = invoker;
         this.authService = authService;
+        this.compression = compression;
+        this.watchRegistry = watchRegistry;
+        this.docsCache = new DocsCache(scanner);
         logger.info("NetScope gRPC service initialized");
     }
 
+    /**
+     * The registry {@code invoker} reports writes to. An invoker without one reports no
+     * writes, so its watchers get a registry of their own, fed by notifications and sampling.
+     */
+    private static AttributeWatchRegistry registryOf(NetScopeInvoker invoker) {
+        AttributeWatchRegistry registry = invoker == null ? null : invoker.watchRegistry();
+        return registry != null ? registry : new AttributeWatchRegistry();
+    }
+
     // ── Proto ↔ JSON helpers ──────────────────────────────────────────────────
+    // Package-private so the benchmark module can measure them in isolation.
 
-    private String toArgumentsJson(com.google.protobuf.ListValue listValue) {
+    String toArgumentsJson(com.google.protobuf.ListValue listValue) {
         if (listValue == null || listValue.getValuesCount() == 0) return "[]";
         try {
             Value arrayValue = Value.newBuilder().setListValue(listValue).build();
@@ -48,7 +119,7 @@ public class NetScopeGrpcServiceImpl extends NetScopeServiceGrpc.NetScopeService
         }
     }
 
-    private String toValueJson(Value value) {
+    String toValueJson(Value value) {
         if (value == null) return "null";
         try {
             return JsonFormat.printer().omittingInsignificantWhitespace().print(value);
@@ -58,7 +129,7 @@ public class NetScopeGrpcServiceImpl extends NetScopeServiceGrpc.NetScopeService
         }
     }
 
-    private Value toProtoValue(String json) {
+    Value toProtoValue(String json) {
         if (json == null || json.equals("null")) {
             return Value.newBuilder().setNullValue(com.google.protobuf.NullValue.NULL_VALUE).build();
         }
@@ -74,82 +145,245 @@ public class NetScopeGrpcServiceImpl extends NetScopeServiceGrpc.NetScopeService
 
     // ── RPC handlers ──────────────────────────────────────────────────────────
 
+    /**
+     * With a {@link PriorityScheduler}, the call is authorized and rate limited here, then
+     * queued at its member's priority; arguments are decoded when a worker picks it up.
+     */
     @Override
     public void invokeMethod(InvokeRequest request, StreamObserver<InvokeResponse> responseObserver) {
+        invokeMethod(request, responseObserver, false);
+    }
+
+    /** With {@code preEncoded}, the call's marshaller takes {@link PreEncoded} responses. */
+    private void invokeMethod(InvokeRequest request, StreamObserver<InvokeResponse> responseObserver,
+                              boolean preEncoded) {
+        InvocationEvent event = new InvocationEvent();
+        event.begin();
+        StreamObserver<InvokeResponse> call = responseObserver;
+        StreamObserver<InvokeResponse> observer = record(event, "InvokeMethod", request.getBeanName(),
+                request.getMemberName(), request.getArguments(), responseObserver);
+        boolean queued = false;
         try {
             String accessToken = NetScopeAuthInterceptor.ACCESS_TOKEN_CTX.get();
             String apiKey      = NetScopeAuthInterceptor.API_KEY_CTX.get();
+            if (cancelled(observer)) return;
 
-            NetworkMethodDefinition method = resolve(request, responseObserver);
+            NetworkMethodDefinition method = resolve(request, observer);
             if (method == null) return;
 
             try {
-                authService.authorize(method, accessToken, apiKey);
+                admit(method, accessToken, apiKey);
             } catch (io.grpc.StatusRuntimeException e) {
-                responseObserver.onError(e);
+                observer.onError(e);
                 return;
             }
+            if (cancelled(observer)) return;
 
-            String resultJson = invoker.invoke(method, toArgumentsJson(request.getArguments()));
-            responseObserver.onNext(InvokeResponse.newBuilder()
-                    .setResult(toProtoValue(resultJson)).build());
-            responseObserver.onCompleted();
+            PriorityScheduler queue = scheduler;
+            if (queue != null) {
+                queue.execute(queue.effective(method.getPriority(), NetScopeAuthInterceptor.PRIORITY_CTX.get()),
+                        Context.current().wrap(() -> {
+                            try {
+                                if (!cancelled(observer)) respond(request, method, call, observer, preEncoded);
+                            } catch (Exception e) {
+                                fail(request, observer, e);
+                            } finally {
+                                event.commit();
+                            }
+                        }));
+                queued = true;
+                return;
+            }
+            respond(request, method, call, observer, preEncoded);
 
-        } catch (io.grpc.StatusRuntimeException e) {
-            responseObserver.onError(e);
         } catch (Exception e) {
+            fail(request, observer, e);
+        } finally {
+            if (!queued) event.commit();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void respond(InvokeRequest request, NetworkMethodDefinition method,
+                         StreamObserver<InvokeResponse> call, StreamObserver<InvokeResponse> observer,
+                         boolean preEncoded) throws Exception {
+        Object response = invokeForResponse(method, request);
+        InvokeResponse message = message(response);
+        compression.beforeResponse(call, method, message);
+        ((StreamObserver<Object>) (StreamObserver<?>) observer).onNext(preEncoded ? response : message);
+        observer.onCompleted();
+    }
+
+    /**
+     * Invokes {@code method} and returns its response: for a member with a constant result
+     * a {@link PreEncoded} one shared by every call, otherwise a new message. Void methods
+     * still run; static final fields are read once per registry version.
+     */
+    private Object invokeForResponse(NetworkMethodDefinition method, InvokeRequest request) throws Exception {
+        IdempotencyInterceptor.markExecuted();
+        AsyncInvocations background = async;
+        if (method.isAsync() && background != null) {
+            String id = background.submit(method, invoker.prepare(method, toArgumentsJson(request.getArguments())));
+            return InvokeResponse.newBuilder().setResult(Value.newBuilder().setStructValue(Struct.newBuilder()
+                    .putFields("status", ACCEPTED)
+                    .putFields("invocationId", Value.newBuilder().setStringValue(id).build()))).build();
+        }
+        if (!method.hasConstantResult()) {
+            String resultJson = invoker.invoke(method, toArgumentsJson(request.getArguments()));
+            return InvokeResponse.newBuilder().setResult(toProtoValue(resultJson)).build();
+        }
+        if (method.isVoidReturn()) {
+            invoker.invoke(method, toArgumentsJson(request.getArguments()));
+            return VOID_RESPONSE;
+        }
+        long version = scanner.getVersion();
+        if (version != constantFieldsVersion) {
+            constantFields.clear();
+            constantFieldsVersion = version;
+        }
+        PreEncoded<InvokeResponse> cached = constantFields.get(method);
+        if (cached != null) return cached;
+        PreEncoded<InvokeResponse> encoded = new PreEncoded<>(InvokeResponse.newBuilder()
+                .setResult(toProtoValue(invoker.invoke(method, "[]"))).build());
+        constantFields.putIfAbsent(method, encoded);   // racing first reads encode the same value
+        return encoded;
+    }
+
+    private static InvokeResponse message(Object response) {
+        return response instanceof PreEncoded<?> encoded
+                ? (InvokeResponse) encoded.message() : (InvokeResponse) response;
+    }
+
+    /** Reports a failed invocation: status errors as they are, cancellation as its status, the rest as INTERNAL. */
+    private void fail(InvokeRequest request, StreamObserver<?> observer, Exception e) {
+        if (e instanceof io.grpc.StatusRuntimeException) {
+            observer.onError(e);
+        } else if (e instanceof CancellationException) {
+            observer.onError(cancellation());
+        } else {
             logger.error("Error invoking {}.{}", request.getBeanName(), request.getMemberName(), e);
-            responseObserver.onError(Status.INTERNAL
+            observer.onError(Status.INTERNAL
                     .withDescription("Invocation error: " + e.getMessage()).asRuntimeException());
         }
     }
 
+    /**
+     * Runs each request as InvokeMethod would, in order, and answers them together. A failed
+     * call is reported in its own result and does not affect the others. Once the caller
+     * cancels, the remaining items are not run. With a {@link PriorityScheduler}, the items
+     * are resolved first and the whole batch is one task at the lowest priority among their
+     * members, or the priority named in its header. A batch of more than
+     * {@link #maxBatchSize()} requests fails with INVALID_ARGUMENT.
+     */
     @Override
-    public void setAttribute(SetAttributeRequest request,
-                             StreamObserver<SetAttributeResponse> responseObserver) {
+    public void invokeBatch(InvokeBatchRequest request, StreamObserver<InvokeBatchResponse> responseObserver) {
+        if (request.getRequestsCount() > maxBatchSize) {
+            responseObserver.onError(batchTooLarge(request.getRequestsCount()));
+            return;
+        }
+        String accessToken = NetScopeAuthInterceptor.ACCESS_TOKEN_CTX.get();
+        String apiKey      = NetScopeAuthInterceptor.API_KEY_CTX.get();
+        PriorityScheduler queue = scheduler;
+        NetworkMethodDefinition[] methods = new NetworkMethodDefinition[request.getRequestsCount()];
+        if (queue == null) {
+            runBatch(request, methods, responseObserver, accessToken, apiKey);
+            return;
+        }
+        // Resolved now for the priority; items that do not resolve are reported when the batch runs
+        Priority lowest = null;
+        for (int i = 0; i < methods.length; i++) {
+            methods[i] = resolve(request.getRequests(i), new BatchItem());
+            if (methods[i] != null && (lowest == null || methods[i].getPriority().compareTo(lowest) > 0)) {
+                lowest = methods[i].getPriority();
+            }
+        }
         try {
-            String accessToken = NetScopeAuthInterceptor.ACCESS_TOKEN_CTX.get();
-            String apiKey      = NetScopeAuthInterceptor.API_KEY_CTX.get();
+            queue.execute(queue.effective(lowest != null ? lowest : Priority.NORMAL,
+                            NetScopeAuthInterceptor.PRIORITY_CTX.get()),
+                    Context.current().wrap(() -> runBatch(request, methods, responseObserver, accessToken, apiKey)));
+        } catch (io.grpc.StatusRuntimeException e) {
+            responseObserver.onError(e);
+        }
+    }
 
-            Optional<NetworkMethodDefinition> defOpt =
-                    scanner.findMethod(request.getBeanName(), request.getAttributeName(), List.of());
+    /** {@code methods[i]} is the member of item i if already resolved, otherwise null. */
+    private void runBatch(InvokeBatchRequest request, NetworkMethodDefinition[] methods,
+                          StreamObserver<InvokeBatchResponse> responseObserver, String accessToken, String apiKey) {
+        InvokeBatchResponse.Builder response = InvokeBatchResponse.newBuilder();
+        for (int i = 0; i < methods.length; i++) {
+            if (cancelled(responseObserver)) return;
+            response.addResults(invokeBatchItem(request.getRequests(i), methods[i], accessToken, apiKey));
+        }
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
 
-            if (defOpt.isEmpty()) {
-                responseObserver.onError(Status.NOT_FOUND
-                        .withDescription("Attribute not found: "
-                                + request.getBeanName() + "." + request.getAttributeName())
-                        .asRuntimeException());
-                return;
+    private InvokeResult invokeBatchItem(InvokeRequest request, NetworkMethodDefinition resolved,
+                                         String accessToken, String apiKey) {
+        InvocationEvent event = new InvocationEvent();
+        event.begin();
+        BatchItem item = new BatchItem();
+        StreamObserver<InvokeResponse> itemObserver = record(event, "InvokeBatch",
+                request.getBeanName(), request.getMemberName(), request.getArguments(), item);
+        try {
+            NetworkMethodDefinition method = resolved != null ? resolved : resolve(request, itemObserver);
+            if (method != null) {
+                admit(method, accessToken, apiKey);
+                itemObserver.onNext(message(invokeForResponse(method, request)));
             }
+        } catch (io.grpc.StatusRuntimeException e) {
+            itemObserver.onError(e);
+        } catch (CancellationException e) {
+            itemObserver.onError(cancellation());
+        } catch (Exception e) {
+            logger.error("Error invoking {}.{}", request.getBeanName(), request.getMemberName(), e);
+            itemObserver.onError(Status.INTERNAL
+                    .withDescription("Invocation error: " + e.getMessage()).asRuntimeException());
+        } finally {
+            event.commit();
+        }
+        return item.result;
+    }
 
-            NetworkMethodDefinition def = defOpt.get();
+    /** Collects one batch item's response or error as its {@link InvokeResult}. */
+    private static final class BatchItem implements StreamObserver<InvokeResponse> {
+        InvokeResult result;
 
-            if (!def.isField()) {
-                responseObserver.onError(Status.INVALID_ARGUMENT
-                        .withDescription(request.getAttributeName() + " is a method, not an attribute. "
-                                + "Use InvokeMethod to call methods.")
-                        .asRuntimeException());
-                return;
-            }
+        @Override
+        public void onNext(InvokeResponse response) {
+            result = InvokeResult.newBuilder().setResult(response.getResult()).build();
+        }
 
-            if (!def.isWriteable()) {
-                responseObserver.onError(Status.FAILED_PRECONDITION
-                        .withDescription("Attribute is final and cannot be written: "
-                                + def.getBeanName() + "." + def.getMethodName())
-                        .asRuntimeException());
-                return;
-            }
+        @Override
+        public void onError(Throwable t) {
+            Status status = Status.fromThrowable(t);
+            result = InvokeResult.newBuilder().setError(CallError.newBuilder()
+                    .setCode(status.getCode().value())
+                    .setMessage(status.getDescription() != null ? status.getDescription() : "")).build();
+        }
 
-            try {
-                authService.authorize(def, accessToken, apiKey);
-            } catch (io.grpc.StatusRuntimeException e) {
-                responseObserver.onError(e);
-                return;
-            }
+        @Override public void onCompleted() { }
+    }
 
+    @Override
+    public void setAttribute(SetAttributeRequest request,
+                             StreamObserver<SetAttributeResponse> responseObserver) {
+        InvocationEvent event = new InvocationEvent();
+        event.begin();
+        StreamObserver<SetAttributeResponse> call = responseObserver;
+        responseObserver = record(event, "SetAttribute", request.getBeanName(),
+                request.getAttributeName(), request.getValue(), responseObserver);
+        try {
+            NetworkMethodDefinition def = resolveAttribute(
+                    request.getBeanName(), request.getAttributeName(), responseObserver);
+            if (def == null) return;
+
+            IdempotencyInterceptor.markExecuted();
             String previousJson = invoker.write(def, toValueJson(request.getValue()));
-            responseObserver.onNext(SetAttributeResponse.newBuilder()
-                    .setPreviousValue(toProtoValue(previousJson)).build());
+            SetAttributeResponse response = SetAttributeResponse.newBuilder()
+                    .setPreviousValue(toProtoValue(previousJson)).build();
+            compression.beforeResponse(call, def, response);
+            responseObserver.onNext(response);
             responseObserver.onCompleted();
 
         } catch (io.grpc.StatusRuntimeException e) {
@@ -159,35 +393,162 @@ public class NetScopeGrpcServiceImpl extends NetScopeServiceGrpc.NetScopeService
                     request.getBeanName(), request.getAttributeName(), e);
             responseObserver.onError(Status.INTERNAL
                     .withDescription("Write error: " + e.getMessage()).asRuntimeException());
+        } finally {
+            event.commit();
         }
     }
 
+    @Override
+    public void compareAndSetAttribute(CompareAndSetAttributeRequest request,
+                                       StreamObserver<CompareAndSetAttributeResponse> responseObserver) {
+        InvocationEvent event = new InvocationEvent();
+        event.begin();
+        StreamObserver<CompareAndSetAttributeResponse> call = responseObserver;
+        responseObserver = record(event, "CompareAndSetAttribute", request.getBeanName(),
+                request.getAttributeName(), request, responseObserver);
+        try {
+            NetworkMethodDefinition def = resolveAttribute(
+                    request.getBeanName(), request.getAttributeName(), responseObserver);
+            if (def == null) return;
+
+            IdempotencyInterceptor.markExecuted();
+            NetScopeInvoker.AttributeUpdate update = invoker.compareAndSet(def,
+                    toValueJson(request.getExpectedValue()), toValueJson(request.getNewValue()));
+            CompareAndSetAttributeResponse response = CompareAndSetAttributeResponse.newBuilder()
+                    .setSwapped(update.applied())
+                    .setCurrentValue(toProtoValue(update.currentJson())).build();
+            compression.beforeResponse(call, def, response);
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+
+        } catch (Exception e) {
+            responseObserver.onError(atomicUpdateError(e, "Compare-and-set",
+                    request.getBeanName(), request.getAttributeName()));
+        } finally {
+            event.commit();
+        }
+    }
+
+    @Override
+    public void addAndGetAttribute(AddAndGetAttributeRequest request,
+                                   StreamObserver<AddAndGetAttributeResponse> responseObserver) {
+        InvocationEvent event = new InvocationEvent();
+        event.begin();
+        StreamObserver<AddAndGetAttributeResponse> call = responseObserver;
+        responseObserver = record(event, "AddAndGetAttribute", request.getBeanName(),
+                request.getAttributeName(), request.getDelta(), responseObserver);
+        try {
+            NetworkMethodDefinition def = resolveAttribute(
+                    request.getBeanName(), request.getAttributeName(), responseObserver);
+            if (def == null) return;
+
+            IdempotencyInterceptor.markExecuted();
+            NetScopeInvoker.AttributeUpdate update = invoker.addAndGet(def, toValueJson(request.getDelta()));
+            AddAndGetAttributeResponse response = AddAndGetAttributeResponse.newBuilder()
+                    .setPreviousValue(toProtoValue(update.previousJson()))
+                    .setValue(toProtoValue(update.currentJson())).build();
+            compression.beforeResponse(call, def, response);
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+
+        } catch (Exception e) {
+            responseObserver.onError(atomicUpdateError(e, "Add-and-get",
+                    request.getBeanName(), request.getAttributeName()));
+        } finally {
+            event.commit();
+        }
+    }
+
+    /** Applies {@code rateLimiter} to every call, after authorization and before arguments are decoded. */
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /** Most requests one InvokeBatch call may carry. */
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int maxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /** INVALID_ARGUMENT for a batch of {@code count} requests, more than {@link #maxBatchSize()}. */
+    public io.grpc.StatusRuntimeException batchTooLarge(int count) {
+        return Status.INVALID_ARGUMENT
+                .withDescription("Batch of " + count + " requests exceeds maxBatchSize " + maxBatchSize)
+                .asRuntimeException();
+    }
+
+    /** Runs InvokeMethod and InvokeBatch calls on {@code scheduler}'s workers, by priority. */
+    public void setScheduler(PriorityScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Queues calls to {@code async = true} members on {@code async}, answering before they
+     * run. Without it they run in the call like any other void method.
+     */
+    public void setAsyncInvocations(AsyncInvocations async) {
+        this.async = async;
+    }
+
+    // Signals the server's health monitor reads
+    NetScopeScanner scanner()                { return scanner; }
+    PriorityScheduler scheduler()            { return scheduler; }
+    OAuth2AuthorizationService authService() { return authService; }
+    NetScopeInvoker invoker()                { return invoker; }
+
+    /**
+     * Authorizes the call and takes its rate-limit permits. Throws UNAUTHENTICATED or
+     * RESOURCE_EXHAUSTED; either way nothing of the request has been decoded yet.
+     */
+    private void admit(NetworkMethodDefinition def, String accessToken, String apiKey) {
+        String principal = authService.authorize(def, accessToken, apiKey);
+        acquire(List.of(def), principal, accessToken, apiKey);
+    }
+
+    /**
+     * Takes the rate-limit permits of one call using every member in {@code defs}, all
+     * authorized already. Credentials a public member did not check are validated only if
+     * principals have a limit.
+     */
+    private void acquire(List<NetworkMethodDefinition> defs, String principal, String accessToken, String apiKey) {
+        RateLimiter limiter = rateLimiter;
+        if (limiter == null) return;
+        if (principal == null && limiter.limitsPrincipals()) {
+            principal = authService.principalOf(defs.get(0), accessToken, apiKey);
+        }
+        List<String> members = new ArrayList<>(defs.size());
+        for (NetworkMethodDefinition def : defs) members.add(def.getBeanName() + "." + def.getMethodName());
+        limiter.acquire(members, principal);
+    }
+
+    /** Lists members served by other nodes in GetDocs, e.g. those routed by a federation gateway. */
+    public void setRemoteDocs(RemoteDocs remoteDocs) {
+        docsCache.setRemote(remoteDocs);
+    }
+
     @Override
     public void getDocs(DocsRequest request, StreamObserver<DocsResponse> responseObserver) {
+        docs(request, responseObserver, false);
+    }
+
+    /**
+     * Serves GetDocs from {@link DocsCache}. The full and not-modified responses are
+     * pre-encoded; when {@code preEncoded} is false the underlying message is sent instead.
+     */
+    @SuppressWarnings("unchecked")
+    private void docs(DocsRequest request, StreamObserver<?> responseObserver, boolean preEncoded) {
         try {
-            DocsResponse.Builder response = DocsResponse.newBuilder();
-            for (NetworkMethodDefinition member : scanner.scan()) {
-                MemberKind kind = member.isField() ? MemberKind.FIELD : MemberKind.METHOD;
-                MethodInfo.Builder info = MethodInfo.newBuilder()
-                        .setBeanName(member.getBeanName())
-                        .setMemberName(member.getMethodName())
-                        .setSecured(member.isSecured())
-                        .setReturnType(member.getReturnType())
-                        .setDescription(member.getDescription())
-                        .addAllRequiredScopes(member.getRequiredScopes())
-                        .setKind(kind)
-                        .setWriteable(member.isWriteable())
-                        .setIsStatic(member.isStatic())
-                        .setIsFinal(member.isFinal());
-                for (ParameterInfo p : member.getParameters()) {
-                    info.addParameters(org.fractalx.netscope.server.grpc.proto.ParameterInfo.newBuilder()
-                            .setName(p.getName()).setType(p.getType()).setIndex(p.getIndex())
-                            .build());
-                }
-                response.addMethods(info.build());
-            }
-            responseObserver.onNext(response.build());
+            Object response = docsCache.respond(request);
+            MessageLite message = response instanceof PreEncoded<?> encoded
+                    ? encoded.message() : (MessageLite) response;
+            compression.beforeResponse(responseObserver, null, message);
+            ((StreamObserver<Object>) responseObserver).onNext(preEncoded ? response : message);
             responseObserver.onCompleted();
+        } catch (io.grpc.StatusRuntimeException e) {
+            responseObserver.onError(e);
         } catch (Exception e) {
             responseObserver.onError(Status.INTERNAL
                     .withDescription("Failed to get docs: " + e.getMessage()).asRuntimeException());
@@ -200,29 +561,643 @@ public class NetScopeGrpcServiceImpl extends NetScopeServiceGrpc.NetScopeService
 
         final String accessToken = NetScopeAuthInterceptor.ACCESS_TOKEN_CTX.get();
         final String apiKey      = NetScopeAuthInterceptor.API_KEY_CTX.get();
+        InvocationStream stream = new InvocationStream(responseObserver, accessToken, apiKey);
+        streams.add(stream);
+        return stream;
+    }
+
+    /**
+     * Completes every open InvokeMethodStream once its current item is answered; idle
+     * streams complete at once. Called while the server drains, so callers can reopen
+     * their stream on another node.
+     */
+    public void drainStreams() {
+        for (InvocationStream stream : streams) stream.drain();
+    }
+
+    /** One InvokeMethodStream call: items are run in order, one at a time. */
+    private final class InvocationStream implements StreamObserver<InvokeRequest> {
+        private final StreamObserver<InvokeResponse> responseObserver;
+        private final NetScopeCompression.StreamCompression streamCompression;
+        private final String accessToken;
+        private final String apiKey;
+        private boolean busy;       // an item is being run; guarded by this
+        private boolean draining;
+        private boolean done;
+
+        /** The response stream, marked done when an item ends it with an error. */
+        private final StreamObserver<InvokeResponse> failing = new StreamObserver<>() {
+            @Override public void onNext(InvokeResponse response) { responseObserver.onNext(response); }
+            @Override public void onCompleted()                   { responseObserver.onCompleted(); }
 
-        return new StreamObserver<>() {
             @Override
-            public void onNext(InvokeRequest request) {
-                try {
-                    NetworkMethodDefinition method = resolve(request, responseObserver);
-                    if (method == null) return;
-                    authService.authorize(method, accessToken, apiKey);
-                    String resultJson = invoker.invoke(method, toArgumentsJson(request.getArguments()));
-                    responseObserver.onNext(InvokeResponse.newBuilder()
-                            .setResult(toProtoValue(resultJson)).build());
-                } catch (io.grpc.StatusRuntimeException e) {
-                    responseObserver.onError(e);
-                } catch (Exception e) {
-                    responseObserver.onError(Status.INTERNAL
-                            .withDescription("Invocation error: " + e.getMessage())
+            public void onError(Throwable t) {
+                synchronized (InvocationStream.this) {
+                    done = true;
+                    streams.remove(InvocationStream.this);
+                }
+                responseObserver.onError(t);
+            }
+        };
+
+        InvocationStream(StreamObserver<InvokeResponse> responseObserver, String accessToken, String apiKey) {
+            this.responseObserver  = responseObserver;
+            this.streamCompression = compression.forStream(responseObserver);
+            this.accessToken       = accessToken;
+            this.apiKey            = apiKey;
+        }
+
+        @Override
+        public void onNext(InvokeRequest request) {
+            synchronized (this) {
+                if (done) return;       // completed by a drain; later items are dropped
+                busy = true;
+            }
+            try {
+                invoke(request);
+            } finally {
+                synchronized (this) {
+                    busy = false;
+                    if (draining) finish();
+                }
+            }
+        }
+
+        private void invoke(InvokeRequest request) {
+            InvocationEvent event = new InvocationEvent();
+            event.begin();
+            StreamObserver<InvokeResponse> itemObserver = record(event, "InvokeMethodStream",
+                    request.getBeanName(), request.getMemberName(), request.getArguments(),
+                    failing);
+            try {
+                if (cancelled(itemObserver)) return;
+                NetworkMethodDefinition method = resolve(request, itemObserver);
+                if (method == null) return;
+                admit(method, accessToken, apiKey);
+                if (cancelled(itemObserver)) return;
+                InvokeResponse response = message(invokeForResponse(method, request));
+                streamCompression.beforeMessage(method, response);
+                itemObserver.onNext(response);
+            } catch (io.grpc.StatusRuntimeException e) {
+                itemObserver.onError(e);
+            } catch (CancellationException e) {
+                itemObserver.onError(cancellation());
+            } catch (Exception e) {
+                itemObserver.onError(Status.INTERNAL
+                        .withDescription("Invocation error: " + e.getMessage())
+                        .asRuntimeException());
+            } finally {
+                event.commit();
+            }
+        }
+
+        synchronized void drain() {
+            draining = true;
+            if (!busy) finish();
+        }
+
+        /** Completes the response stream once. Caller holds the lock. */
+        private void finish() {
+            if (done) return;
+            done = true;
+            streams.remove(this);
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            logger.error("Stream error", t);
+            synchronized (this) {
+                done = true;
+                streams.remove(this);
+            }
+        }
+
+        @Override
+        public synchronized void onCompleted() {
+            finish();
+        }
+    }
+
+    // ── Service binding ───────────────────────────────────────────────────────
+
+    /**
+     * Like {@link #bindService()}, but responses that are shared between calls are written
+     * from bytes serialized once: each WatchAttribute change goes to every watcher as one
+     * payload, the full GetDocs response is encoded once per registry version, and
+     * InvokeMethod answers members with a constant result from one encoding.
+     * {@link NetScopeGrpcServer} registers the service through this.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ServerServiceDefinition bindPreEncodedService() {
+        ServerServiceDefinition definition = PreEncoded.rebind(bindService(),
+                NetScopeServiceGrpc.getInvokeMethodMethod(),
+                ServerCalls.asyncUnaryCall(
+                        (InvokeRequest request, StreamObserver<Object> observer) ->
+                                invokeMethod(request, (StreamObserver) observer, true)));
+        definition = PreEncoded.rebind(definition,
+                NetScopeServiceGrpc.getWatchAttributeMethod(),
+                ServerCalls.asyncServerStreamingCall(
+                        (WatchAttributeRequest request, StreamObserver<Object> observer) ->
+                                watch(request, observer, true)));
+        return PreEncoded.rebind(definition,
+                NetScopeServiceGrpc.getGetDocsMethod(),
+                ServerCalls.asyncUnaryCall(
+                        (DocsRequest request, StreamObserver<Object> observer) ->
+                                docs(request, observer, true)));
+    }
+
+    // ── Multi-attribute reads ─────────────────────────────────────────────────
+
+    @Override
+    public void readAttributes(ReadAttributesRequest request,
+                               StreamObserver<ReadAttributesResponse> responseObserver) {
+        InvocationEvent event = new InvocationEvent();
+        event.begin();
+        StreamObserver<ReadAttributesResponse> call = responseObserver;
+        responseObserver = record(event, "ReadAttributes", request.getBeanName(),
+                String.join(",", request.getAttributeNamesList()), request, responseObserver);
+        try {
+            String accessToken = NetScopeAuthInterceptor.ACCESS_TOKEN_CTX.get();
+            String apiKey      = NetScopeAuthInterceptor.API_KEY_CTX.get();
+
+            if (request.getAttributeNamesCount() == 0) {
+                responseObserver.onError(Status.INVALID_ARGUMENT
+                        .withDescription("attribute_names must name at least one field")
+                        .asRuntimeException());
+                return;
+            }
+
+            // Every field is authorized, but the call takes one global and principal permit
+            List<NetworkMethodDefinition> defs = new ArrayList<>(request.getAttributeNamesCount());
+            String principal = null;
+            for (String name : new LinkedHashSet<>(request.getAttributeNamesList())) {
+                Optional<NetworkMethodDefinition> defOpt =
+                        scanner.findMethod(request.getBeanName(), name, List.of());
+                if (defOpt.isEmpty()) {
+                    responseObserver.onError(Status.NOT_FOUND
+                            .withDescription("Attribute not found: " + request.getBeanName() + "." + name)
                             .asRuntimeException());
+                    return;
                 }
+                if (!defOpt.get().isField()) {
+                    responseObserver.onError(Status.INVALID_ARGUMENT
+                            .withDescription(name + " is a method, not an attribute. "
+                                    + "Use InvokeMethod to call methods.")
+                            .asRuntimeException());
+                    return;
+                }
+                String authorized = authService.authorize(defOpt.get(), accessToken, apiKey);
+                if (principal == null) principal = authorized;
+                defs.add(defOpt.get());
             }
+            acquire(defs, principal, accessToken, apiKey);
 
-            @Override public void onError(Throwable t) { logger.error("Stream error", t); }
-            @Override public void onCompleted() { responseObserver.onCompleted(); }
-        };
+            NetScopeInvoker.Snapshot snapshot = invoker.readAll(defs, request.getConsistent());
+            ReadAttributesResponse response = ReadAttributesResponse.newBuilder()
+                    .setValues(toProtoValue(snapshot.json()).getStructValue())
+                    .setConsistent(snapshot.consistent()).build();
+            compression.beforeResponse(call, defs.get(0), response);
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+
+        } catch (io.grpc.StatusRuntimeException e) {
+            responseObserver.onError(e);
+        } catch (Exception e) {
+            logger.error("Error reading attributes of {}", request.getBeanName(), e);
+            responseObserver.onError(Status.INTERNAL
+                    .withDescription("Read error: " + e.getMessage()).asRuntimeException());
+        } finally {
+            event.commit();
+        }
+    }
+
+    // ── Attribute watches ─────────────────────────────────────────────────────
+
+    @Override
+    public void watchAttribute(WatchAttributeRequest request,
+                               StreamObserver<AttributeChange> responseObserver) {
+        watch(request, responseObserver, false);
+    }
+
+
+    /** Completes every open watch and outcome stream. Called before the server shuts down so calls can finish. */
+    public void closeWatches() {
+        for (Watcher watcher : watchers) watcher.complete();
+        for (OutcomeWatcher watcher : outcomeWatchers) watcher.complete();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void watch(WatchAttributeRequest request, StreamObserver<?> responseObserver, boolean preEncoded) {
+        String accessToken = NetScopeAuthInterceptor.ACCESS_TOKEN_CTX.get();
+        String apiKey      = NetScopeAuthInterceptor.API_KEY_CTX.get();
+
+        Optional<NetworkMethodDefinition> defOpt =
+                scanner.findMethod(request.getBeanName(), request.getAttributeName(), List.of());
+        if (defOpt.isEmpty()) {
+            responseObserver.onError(Status.NOT_FOUND
+                    .withDescription("Attribute not found: "
+                            + request.getBeanName() + "." + request.getAttributeName())
+                    .asRuntimeException());
+            return;
+        }
+        NetworkMethodDefinition def = defOpt.get();
+        if (!def.isField()) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription(request.getAttributeName() + " is a method, not an attribute. "
+                            + "Only fields can be watched.")
+                    .asRuntimeException());
+            return;
+        }
+        try {
+            admit(def, accessToken, apiKey);
+        } catch (io.grpc.StatusRuntimeException e) {
+            responseObserver.onError(e);
+            return;
+        }
+
+        Watcher watcher = new Watcher((StreamObserver<Object>) responseObserver, preEncoded);
+        watchers.add(watcher);
+        try {
+            watcher.attach(watchRegistry.watch(def, watcher));
+        } catch (RuntimeException e) {
+            watchers.remove(watcher);
+            responseObserver.onError(Status.UNAVAILABLE
+                    .withDescription("Cannot watch " + def.getBeanName() + "." + def.getMethodName()
+                            + ": " + e.getMessage())
+                    .asRuntimeException());
+        }
+    }
+
+    private PreEncoded<AttributeChange> encode(AttributeWatchRegistry.Change change) {
+        return new PreEncoded<>(AttributeChange.newBuilder()
+                .setValue(toProtoValue(change.getJson()))
+                .setVersion(change.getVersion())
+                .setSource(ChangeSource.valueOf(change.getSource().name()))
+                .build());
+    }
+
+    /**
+     * One open WatchAttribute call. Only the latest value matters to a watcher, so while
+     * the call is not ready for more data a newer change replaces the undelivered one
+     * instead of queueing behind it.
+     */
+    private final class Watcher implements AttributeWatchRegistry.Listener {
+        private final StreamObserver<Object> observer;
+        private final ServerCallStreamObserver<Object> call;   // null outside a real gRPC call
+        private final boolean preEncoded;
+        private AttributeWatchRegistry.Registration registration;
+        private Object pending;
+        private boolean closed;
+
+        Watcher(StreamObserver<Object> observer, boolean preEncoded) {
+            this.observer   = observer;
+            this.preEncoded = preEncoded;
+            this.call = observer instanceof ServerCallStreamObserver<Object> c ? c : null;
+            if (call != null) {
+                call.setOnCancelHandler(this::cancel);
+                call.setOnReadyHandler(this::drain);
+            }
+        }
+
+        synchronized void attach(AttributeWatchRegistry.Registration registration) {
+            if (closed) registration.close();
+            else this.registration = registration;
+        }
+
+        @Override
+        public void onChange(AttributeWatchRegistry.Change change) {
+            PreEncoded<AttributeChange> payload = change.encoded(NetScopeGrpcServiceImpl.this::encode);
+            send(preEncoded ? payload : payload.message());
+        }
+
+        @Override
+        public void onClose() {
+            complete();
+        }
+
+        private synchronized void send(Object payload) {
+            if (closed) return;
+            if (call != null && !call.isReady()) {
+                pending = payload;   // conflate: drop the older undelivered value
+                return;
+            }
+            observer.onNext(payload);
+        }
+
+        private synchronized void drain() {
+            if (closed || pending == null || !call.isReady()) return;
+            Object payload = pending;
+            pending = null;
+            observer.onNext(payload);
+        }
+
+        private void cancel() {
+            if (close()) return;
+            watchers.remove(this);
+        }
+
+        void complete() {
+            if (close()) return;
+            watchers.remove(this);
+            synchronized (this) {
+                observer.onCompleted();
+            }
+        }
+
+        /** Stops delivery and unregisters. Returns true if already closed. */
+        private boolean close() {
+            AttributeWatchRegistry.Registration r;
+            synchronized (this) {
+                if (closed) return true;
+                closed  = true;
+                pending = null;
+                r = registration;
+            }
+            if (r != null) r.close();
+            return false;
+        }
+    }
+
+    // ── Async outcomes ────────────────────────────────────────────────────────
+
+    /**
+     * Streams how calls to one {@code async = true} member end, as they finish: failures
+     * only, or every call with {@code include_successes}. Outcomes of calls that finished
+     * before the stream opened are not replayed.
+     */
+    @Override
+    public void watchAsyncOutcomes(AsyncOutcomesRequest request, StreamObserver<AsyncOutcome> responseObserver) {
+        String accessToken = NetScopeAuthInterceptor.ACCESS_TOKEN_CTX.get();
+        String apiKey      = NetScopeAuthInterceptor.API_KEY_CTX.get();
+
+        NetworkMethodDefinition def;
+        try {
+            def = scanner.findMethod(request.getBeanName(), request.getMemberName(), List.of()).orElse(null);
+        } catch (AmbiguousInvocationException e) {
+            // Overloads share one outcome stream; any async one stands for them all
+            def = e.getCandidates().stream().filter(NetworkMethodDefinition::isAsync).findFirst().orElse(null);
+        }
+        if (def == null) {
+            responseObserver.onError(Status.NOT_FOUND
+                    .withDescription("Member not found: " + request.getBeanName() + "." + request.getMemberName())
+                    .asRuntimeException());
+            return;
+        }
+        if (!def.isAsync()) {
+            responseObserver.onError(Status.FAILED_PRECONDITION
+                    .withDescription(def.getBeanName() + "." + def.getMethodName()
+                            + " is not an async = true void method")
+                    .asRuntimeException());
+            return;
+        }
+        AsyncInvocations background = async;
+        if (background == null) {
+            responseObserver.onError(Status.FAILED_PRECONDITION
+                    .withDescription("Async invocation is not configured on this server")
+                    .asRuntimeException());
+            return;
+        }
+        try {
+            admit(def, accessToken, apiKey);
+        } catch (io.grpc.StatusRuntimeException e) {
+            responseObserver.onError(e);
+            return;
+        }
+
+        OutcomeWatcher watcher = new OutcomeWatcher(responseObserver, request.getIncludeSuccesses(),
+                background.outcomeBuffer());
+        outcomeWatchers.add(watcher);
+        watcher.attach(background.subscribe(def.getBeanName(), def.getMethodName(), watcher));
+    }
+
+    /**
+     * One open WatchAsyncOutcomes call. While the call is not ready for more data, up to
+     * {@code buffer} outcomes wait in order; beyond that the oldest are dropped, and the
+     * next outcome sent says how many.
+     */
+    private final class OutcomeWatcher implements AsyncInvocations.Listener {
+        private final StreamObserver<AsyncOutcome> observer;
+        private final ServerCallStreamObserver<AsyncOutcome> call;   // null outside a real gRPC call
+        private final boolean includeSuccesses;
+        private final int buffer;
+        private final ArrayDeque<AsyncInvocations.Outcome> pending = new ArrayDeque<>();
+        private AsyncInvocations.Registration registration;
+        private long dropped;
+        private boolean closed;
+
+        OutcomeWatcher(StreamObserver<AsyncOutcome> observer, boolean includeSuccesses, int buffer) {
+            this.observer         = observer;
+            this.includeSuccesses = includeSuccesses;
+            this.buffer           = Math.max(1, buffer);
+            this.call = observer instanceof ServerCallStreamObserver<AsyncOutcome> c ? c : null;
+            if (call != null) {
+                call.setOnCancelHandler(this::cancel);
+                call.setOnReadyHandler(this::drain);
+            }
+        }
+
+        synchronized void attach(AsyncInvocations.Registration registration) {
+            if (closed) registration.close();
+            else this.registration = registration;
+        }
+
+        @Override
+        public synchronized void onOutcome(AsyncInvocations.Outcome outcome) {
+            if (closed || outcome.success() && !includeSuccesses) return;
+            if (pending.isEmpty() && (call == null || call.isReady())) {
+                deliver(outcome);
+                return;
+            }
+            if (pending.size() >= buffer) {
+                pending.pollFirst();
+                dropped++;
+            }
+            pending.addLast(outcome);
+        }
+
+        private synchronized void drain() {
+            while (!closed && !pending.isEmpty() && call.isReady()) deliver(pending.pollFirst());
+        }
+
+        private void deliver(AsyncInvocations.Outcome outcome) {
+            AsyncOutcome.Builder message = AsyncOutcome.newBuilder()
+                    .setInvocationId(outcome.invocationId())
+                    .setBeanName(outcome.beanName())
+                    .setMemberName(outcome.memberName())
+                    .setSuccess(outcome.success())
+                    .setDurationMicros(outcome.durationNanos() / 1000)
+                    .setDropped(dropped);
+            if (!outcome.success()) {
+                Status status = outcome.error() instanceof io.grpc.StatusRuntimeException sre
+                        ? sre.getStatus()
+                        : Status.INTERNAL.withDescription("Invocation error: " + outcome.error().getMessage());
+                message.setError(CallError.newBuilder()
+                        .setCode(status.getCode().value())
+                        .setMessage(status.getDescription() != null ? status.getDescription() : ""));
+            }
+            dropped = 0;
+            observer.onNext(message.build());
+        }
+
+        private void cancel() {
+            if (close()) return;
+            outcomeWatchers.remove(this);
+        }
+
+        void complete() {
+            if (close()) return;
+            outcomeWatchers.remove(this);
+            synchronized (this) {
+                observer.onCompleted();
+            }
+        }
+
+        /** Stops delivery and unsubscribes. Returns true if already closed. */
+        private boolean close() {
+            AsyncInvocations.Registration r;
+            synchronized (this) {
+                if (closed) return true;
+                closed = true;
+                pending.clear();
+                r = registration;
+            }
+            if (r != null) r.close();
+            return false;
+        }
+    }
+
+    // ── Attribute writes ──────────────────────────────────────────────────────
+
+    /**
+     * Looks up a field attribute for SetAttribute, CompareAndSetAttribute and
+     * AddAndGetAttribute: it must exist, be a field, be writeable and pass authorization.
+     * Returns null and writes the error to responseObserver on failure.
+     */
+    private NetworkMethodDefinition resolveAttribute(String beanName, String attributeName,
+                                                     StreamObserver<?> responseObserver) {
+        String accessToken = NetScopeAuthInterceptor.ACCESS_TOKEN_CTX.get();
+        String apiKey      = NetScopeAuthInterceptor.API_KEY_CTX.get();
+
+        Optional<NetworkMethodDefinition> defOpt = scanner.findMethod(beanName, attributeName, List.of());
+
+        if (defOpt.isEmpty()) {
+            responseObserver.onError(Status.NOT_FOUND
+                    .withDescription("Attribute not found: " + beanName + "." + attributeName)
+                    .asRuntimeException());
+            return null;
+        }
+
+        NetworkMethodDefinition def = defOpt.get();
+
+        if (!def.isField()) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription(attributeName + " is a method, not an attribute. "
+                            + "Use InvokeMethod to call methods.")
+                    .asRuntimeException());
+            return null;
+        }
+
+        if (!def.isWriteable()) {
+            responseObserver.onError(Status.FAILED_PRECONDITION
+                    .withDescription("Attribute is final and cannot be written: "
+                            + def.getBeanName() + "." + def.getMethodName())
+                    .asRuntimeException());
+            return null;
+        }
+
+        try {
+            admit(def, accessToken, apiKey);
+        } catch (io.grpc.StatusRuntimeException e) {
+            responseObserver.onError(e);
+            return null;
+        }
+        return def;
+    }
+
+    /**
+     * Maps atomic-update failures: bad values → INVALID_ARGUMENT, a field that cannot take
+     * the operation (not numeric, currently null) → FAILED_PRECONDITION, anything else → INTERNAL.
+     */
+    private io.grpc.StatusRuntimeException atomicUpdateError(Exception e, String operation,
+                                                             String beanName, String attributeName) {
+        if (e instanceof io.grpc.StatusRuntimeException sre) return sre;
+        if (e instanceof IllegalArgumentException || e instanceof JsonProcessingException) {
+            return Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof UnsupportedOperationException || e instanceof IllegalStateException) {
+            return Status.FAILED_PRECONDITION.withDescription(e.getMessage()).asRuntimeException();
+        }
+        logger.error("{} failed on {}.{}", operation, beanName, attributeName, e);
+        return Status.INTERNAL.withDescription(operation + " error: " + e.getMessage()).asRuntimeException();
+    }
+
+    // ── Cancellation ──────────────────────────────────────────────────────────
+
+    /**
+     * If the caller has cancelled or run past its deadline, reports that on
+     * {@code responseObserver} and returns true, so the remaining phases of the call
+     * (decoding, invoking, encoding) are skipped.
+     */
+    private static boolean cancelled(StreamObserver<?> responseObserver) {
+        if (!Context.current().isCancelled()) return false;
+        responseObserver.onError(cancellation());
+        return true;
+    }
+
+    /** DEADLINE_EXCEEDED when the deadline passed, CANCELLED otherwise. */
+    private static io.grpc.StatusRuntimeException cancellation() {
+        Status status = Contexts.statusFromCancelled(Context.current());
+        if (status == null) status = Status.CANCELLED.withDescription("Call cancelled by the client");
+        return status.asRuntimeException();
+    }
+
+    // ── JFR recording ─────────────────────────────────────────────────────────
+
+    /**
+     * Fills in the request side of the event and wraps the observer so the result size
+     * and final status are captured. Returns the observer untouched when the event is
+     * disabled, so nothing is measured or allocated beyond the event itself.
+     */
+    private <T extends MessageLite> StreamObserver<T> record(InvocationEvent event, String rpc,
+                                                             String beanName, String memberName,
+                                                             MessageLite arguments,
+                                                             StreamObserver<T> observer) {
+        if (!event.isEnabled()) return observer;
+        event.rpc        = rpc;
+        event.beanName   = beanName;
+        event.memberName = memberName;
+        event.argBytes   = arguments.getSerializedSize();
+        event.outcome    = "OK";
+        return new RecordingObserver<>(observer, event);
+    }
+
+    private static final class RecordingObserver<T> implements StreamObserver<T> {
+        private final StreamObserver<T> delegate;
+        private final InvocationEvent event;
+
+        RecordingObserver(StreamObserver<T> delegate, InvocationEvent event) {
+            this.delegate = delegate;
+            this.event    = event;
+        }
+
+        @Override
+        public void onNext(T value) {
+            event.resultBytes += value instanceof PreEncoded<?> encoded
+                    ? encoded.size() : ((MessageLite) value).getSerializedSize();
+            delegate.onNext(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            event.outcome = Status.fromThrowable(t).getCode().name();
+            delegate.onError(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            delegate.onCompleted();
+        }
     }
 
     // ── Overload resolution ───────────────────────────────────────────────────
@@ -278,7 +1253,7 @@ public class NetScopeGrpcServiceImpl extends NetScopeServiceGrpc.NetScopeService
      *
      * Returns the single matching candidate, or empty if zero or multiple still match.
      */
-    private Optional<NetworkMethodDefinition> inferOverload(
+    Optional<NetworkMethodDefinition> inferOverload(
             List<NetworkMethodDefinition> candidates, List<Value> argValues) {
 
         List<NetworkMethodDefinition> matching = candidates.stream()
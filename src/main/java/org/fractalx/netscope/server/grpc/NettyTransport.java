@@ -0,0 +1,162 @@
+package org.fractalx.netscope.server.grpc;
+
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.netty.shaded.io.netty.buffer.ByteBufAllocator;
+import io.grpc.netty.shaded.io.netty.buffer.PooledByteBufAllocator;
+import io.grpc.netty.shaded.io.netty.buffer.UnpooledByteBufAllocator;
+import io.grpc.netty.shaded.io.netty.channel.ChannelOption;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.ServerChannel;
+import io.grpc.netty.shaded.io.netty.channel.epoll.Epoll;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollServerDomainSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollServerSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.nio.NioEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.grpc.netty.shaded.io.netty.util.concurrent.DefaultThreadFactory;
+import org.fractalx.netscope.server.config.NetScopeConfig;
+import org.fractalx.netscope.server.config.NetScopeConfig.GrpcConfig.BufferAllocator;
+import org.fractalx.netscope.server.config.NetScopeConfig.GrpcConfig.Transport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the Netty event loops behind {@link NetScopeGrpcServer} and applies the
+ * transport-level settings from {@link NetScopeConfig.GrpcConfig} to a server builder.
+ *
+ * <p>The event loop groups are created here (not by gRPC) so their sizes can be
+ * configured, which also means they must be released with {@link #shutdown()}.
+ */
+class NettyTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(NettyTransport.class);
+
+    private final Transport transport;   // resolved: EPOLL or NIO, never AUTO
+    private final EventLoopGroup bossGroup;
+    private final EventLoopGroup workerGroup;
+    private final ByteBufAllocator allocator;
+
+    private NettyTransport(Transport transport, EventLoopGroup bossGroup,
+                           EventLoopGroup workerGroup, ByteBufAllocator allocator) {
+        this.transport   = transport;
+        this.bossGroup   = bossGroup;
+        this.workerGroup = workerGroup;
+        this.allocator   = allocator;
+    }
+
+    static NettyTransport create(NetScopeConfig.GrpcConfig grpcConfig) {
+        Transport transport = resolve(grpcConfig.getTransport());
+        int boss   = Math.max(1, grpcConfig.getBossThreads());
+        int worker = Math.max(0, grpcConfig.getWorkerThreads());
+
+        EventLoopGroup bossGroup;
+        EventLoopGroup workerGroup;
+        if (transport == Transport.EPOLL) {
+            bossGroup   = new EpollEventLoopGroup(boss,   new DefaultThreadFactory("netscope-grpc-boss", true));
+            workerGroup = new EpollEventLoopGroup(worker, new DefaultThreadFactory("netscope-grpc-worker", true));
+        } else {
+            bossGroup   = new NioEventLoopGroup(boss,   new DefaultThreadFactory("netscope-grpc-boss", true));
+            workerGroup = new NioEventLoopGroup(worker, new DefaultThreadFactory("netscope-grpc-worker", true));
+        }
+        return new NettyTransport(transport, bossGroup, workerGroup,
+                allocator(grpcConfig.getBufferAllocator()));
+    }
+
+    /** AUTO → EPOLL when the native transport loads, otherwise NIO. EPOLL fails fast if unavailable. */
+    static Transport resolve(Transport requested) {
+        return switch (requested) {
+            case NIO   -> Transport.NIO;
+            case EPOLL -> {
+                if (!Epoll.isAvailable()) {
+                    throw new IllegalStateException(
+                        "netscope.server.grpc.transport=EPOLL but native epoll is unavailable",
+                        Epoll.unavailabilityCause());
+                }
+                yield Transport.EPOLL;
+            }
+            case AUTO  -> Epoll.isAvailable() ? Transport.EPOLL : Transport.NIO;
+        };
+    }
+
+    private static ByteBufAllocator allocator(BufferAllocator choice) {
+        return switch (choice) {
+            case POOLED_DIRECT -> new PooledByteBufAllocator(true);
+            case POOLED_HEAP   -> new PooledByteBufAllocator(false);
+            case UNPOOLED      -> new UnpooledByteBufAllocator(true);
+            case DEFAULT       -> null;
+        };
+    }
+
+    /** Applies event loops, channel type, allocator, HTTP/2 limits and keepalive to a TCP server builder. */
+    NettyServerBuilder configure(NettyServerBuilder builder, NetScopeConfig.GrpcConfig grpcConfig) {
+        Class<? extends ServerChannel> channelType = transport == Transport.EPOLL
+                ? EpollServerSocketChannel.class
+                : NioServerSocketChannel.class;
+        builder.bossEventLoopGroup(bossGroup)
+               .workerEventLoopGroup(workerGroup)
+               .channelType(channelType);
+
+        if (allocator != null) {
+            builder.withOption(ChannelOption.ALLOCATOR, allocator)
+                   .withChildOption(ChannelOption.ALLOCATOR, allocator);
+        }
+        return connectionSettings(builder, grpcConfig);
+    }
+
+    /**
+     * Configures a Unix domain socket listener that shares this transport's event loops,
+     * with the same HTTP/2 limits and keepalive as the TCP listener. Domain sockets are only
+     * available through the native epoll transport.
+     */
+    NettyServerBuilder configureDomainSocket(NettyServerBuilder builder, NetScopeConfig.GrpcConfig grpcConfig) {
+        if (transport != Transport.EPOLL) {
+            throw new IllegalStateException(
+                "netscope.server.grpc.unixSocketPath requires the epoll transport, but " + transport + " is in use");
+        }
+        builder.bossEventLoopGroup(bossGroup)
+               .workerEventLoopGroup(workerGroup)
+               .channelType(EpollServerDomainSocketChannel.class);
+        if (allocator != null) {
+            builder.withChildOption(ChannelOption.ALLOCATOR, allocator);
+        }
+        return connectionSettings(builder, grpcConfig);
+    }
+
+    /** HTTP/2 limits, keepalive and connection lifetimes, the same for every Netty listener. */
+    private static NettyServerBuilder connectionSettings(NettyServerBuilder builder,
+                                                         NetScopeConfig.GrpcConfig grpcConfig) {
+        if (grpcConfig.getMaxConcurrentCallsPerConnection() > 0)
+            builder.maxConcurrentCallsPerConnection(grpcConfig.getMaxConcurrentCallsPerConnection());
+        if (grpcConfig.getFlowControlWindow() > 0)
+            builder.flowControlWindow(grpcConfig.getFlowControlWindow());
+        if (grpcConfig.getMaxHeaderListSize() > 0)
+            builder.maxInboundMetadataSize(grpcConfig.getMaxHeaderListSize());
+
+        if (grpcConfig.getKeepAliveTime() > 0)
+            builder.keepAliveTime(grpcConfig.getKeepAliveTime(), TimeUnit.SECONDS);
+        if (grpcConfig.getKeepAliveTimeout() > 0)
+            builder.keepAliveTimeout(grpcConfig.getKeepAliveTimeout(), TimeUnit.SECONDS);
+        builder.permitKeepAliveWithoutCalls(grpcConfig.isPermitKeepAliveWithoutCalls());
+
+        if (grpcConfig.getMaxConnectionIdle() > 0)
+            builder.maxConnectionIdle(grpcConfig.getMaxConnectionIdle(), TimeUnit.SECONDS);
+        if (grpcConfig.getMaxConnectionAge() > 0)
+            builder.maxConnectionAge(grpcConfig.getMaxConnectionAge(), TimeUnit.SECONDS);
+        return builder;
+    }
+
+    Transport getTransport() { return transport; }
+
+    String describe() {
+        return transport + (allocator != null ? " / " + allocator.getClass().getSimpleName() : "");
+    }
+
+    /** Releases the event loops. Call after the gRPC server has terminated. */
+    void shutdown() {
+        bossGroup.shutdownGracefully(0, 5, TimeUnit.SECONDS);
+        workerGroup.shutdownGracefully(0, 5, TimeUnit.SECONDS);
+        logger.debug("NetScope: Netty {} event loops released", transport);
+    }
+}
@@ -0,0 +1,98 @@
+package org.fractalx.netscope.server.grpc;
+
+import com.google.protobuf.MessageLite;
+import io.grpc.Drainable;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerMethodDefinition;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.ServiceDescriptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A response message serialized once, so the same bytes can be written to many calls.
+ *
+ * <p>gRPC normally serializes every message for every call that sends it. Methods rebound
+ * with {@link #rebind} get a marshaller that writes a {@code PreEncoded} payload straight
+ * from its byte array and falls back to the normal protobuf marshaller for anything else.
+ */
+final class PreEncoded<T extends MessageLite> {
+
+    private final T message;
+    private final byte[] bytes;
+
+    PreEncoded(T message) {
+        this.message = message;
+        this.bytes   = message.toByteArray();
+    }
+
+    T message()  { return message; }
+    int size()   { return bytes.length; }
+
+    /**
+     * Returns {@code definition} with {@code method} served by {@code handler}, whose
+     * responses may be either {@code PreEncoded} payloads or plain messages. The service
+     * descriptor is rebuilt around the new method so reflection and all other methods
+     * are unchanged.
+     */
+    static <ReqT, RespT extends MessageLite> ServerServiceDefinition rebind(
+            ServerServiceDefinition definition,
+            MethodDescriptor<ReqT, RespT> method,
+            ServerCallHandler<ReqT, Object> handler) {
+
+        MethodDescriptor<ReqT, Object> rebound = method.toBuilder(
+                method.getRequestMarshaller(), marshaller(method.getResponseMarshaller())).build();
+
+        ServiceDescriptor original = definition.getServiceDescriptor();
+        ServiceDescriptor.Builder descriptor = ServiceDescriptor.newBuilder(original.getName())
+                .setSchemaDescriptor(original.getSchemaDescriptor());
+        for (MethodDescriptor<?, ?> m : original.getMethods()) {
+            descriptor.addMethod(m.getFullMethodName().equals(method.getFullMethodName()) ? rebound : m);
+        }
+
+        ServerServiceDefinition.Builder builder = ServerServiceDefinition.builder(descriptor.build());
+        for (ServerMethodDefinition<?, ?> m : definition.getMethods()) {
+            if (!m.getMethodDescriptor().getFullMethodName().equals(method.getFullMethodName())) {
+                builder.addMethod(m);
+            }
+        }
+        return builder.addMethod(rebound, handler).build();
+    }
+
+    private static <RespT> MethodDescriptor.Marshaller<Object> marshaller(
+            MethodDescriptor.Marshaller<RespT> delegate) {
+        return new MethodDescriptor.Marshaller<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public InputStream stream(Object value) {
+                if (value instanceof PreEncoded<?> encoded) return new BytesStream(encoded.bytes);
+                return delegate.stream((RespT) value);
+            }
+
+            @Override
+            public Object parse(InputStream stream) {
+                return delegate.parse(stream);
+            }
+        };
+    }
+
+    /** Lets gRPC size the frame up front and copy the bytes without an intermediate buffer. */
+    private static final class BytesStream extends ByteArrayInputStream implements KnownLength, Drainable {
+        BytesStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public int drainTo(OutputStream target) throws IOException {
+            int n = count - pos;
+            target.write(buf, pos, n);
+            pos = count;
+            return n;
+        }
+    }
+}
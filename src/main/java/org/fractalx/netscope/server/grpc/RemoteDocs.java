@@ -0,0 +1,17 @@
+package org.fractalx.netscope.server.grpc;
+
+import org.fractalx.netscope.server.grpc.proto.MethodInfo;
+
+import java.util.List;
+
+/**
+ * Members served by other nodes, listed by GetDocs next to the local ones.
+ * Implemented by the federation gateway.
+ */
+public interface RemoteDocs {
+
+    /** Changes whenever {@link #members()} changes; GetDocs is rebuilt when it does. */
+    long version();
+
+    List<MethodInfo> members();
+}
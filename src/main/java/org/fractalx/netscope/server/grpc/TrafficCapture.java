@@ -0,0 +1,273 @@
+package org.fractalx.netscope.server.grpc;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import org.fractalx.netscope.server.config.NetScopeConfig;
+import org.fractalx.netscope.server.grpc.proto.InvokeRequest;
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc;
+import org.fractalx.netscope.server.grpc.proto.SetAttributeRequest;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Samples the InvokeRequest and SetAttributeRequest messages the server receives into
+ * rotating memory-mapped files, so production traffic can be replayed offline.
+ *
+ * <p>Each sampled message is appended as one record: its serialized bytes and when it
+ * arrived, in nanoseconds since the capture started. Only the message body is kept —
+ * never the call's headers, so bearer tokens and API keys are not written. When a file
+ * is full, the next one is started and the oldest beyond {@code maxFiles} is deleted.
+ * Appending is a copy into the mapped file; the OS writes the pages back.
+ *
+ * <p>Messages are captured as they arrive, before the service authorizes the call, so
+ * calls that are then refused are captured too. With federation, InvokeMethod and
+ * InvokeMethodStream receive raw bytes; those are written as they came, as invokes.
+ * Files are read back with {@link #read}.
+ */
+public class TrafficCapture implements ServerInterceptor, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrafficCapture.class);
+
+    /** One captured message, {@code arrivalNanos} after its capture session started. */
+    public record Captured(long sessionStartMillis, long arrivalNanos, Message request) {}
+
+    static final String FILE_PREFIX = "capture-";
+    static final String FILE_SUFFIX = ".bin";
+
+    private static final Pattern FILE_NAME = Pattern.compile("capture-(\\d+)\\.bin");
+
+    private static final int MAGIC         = 0x4E534331;   // "NSC1"
+    private static final int HEADER        = 12;           // magic, session start (epoch millis)
+    private static final int RECORD_HEADER = 13;           // message length, kind, arrival nanos
+    private static final int MIN_FILE_SIZE = 4096;
+
+    private static final byte INVOKE        = 1;
+    private static final byte SET_ATTRIBUTE = 2;
+
+    private final Path directory;
+    private final double sampleRate;
+    private final int fileSize;
+    private final int maxFiles;
+    private final long sessionStartMillis = System.currentTimeMillis();
+    private final long sessionStartNanos  = System.nanoTime();
+    private final AtomicLong captured = new AtomicLong();
+    private final AtomicLong dropped  = new AtomicLong();
+
+    // Guarded by this
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long fileNumber;
+    private boolean closed;
+
+    public TrafficCapture(NetScopeConfig.CaptureConfig config) throws IOException {
+        this.directory  = Path.of(config.getDirectory());
+        this.sampleRate = config.getSampleRate();
+        this.fileSize   = Math.max(config.getFileSize(), MIN_FILE_SIZE);
+        this.maxFiles   = Math.max(1, config.getMaxFiles());
+
+        Files.createDirectories(directory);
+        List<Path> existing = files(directory);
+        fileNumber = existing.isEmpty() ? 0 : number(existing.get(existing.size() - 1));
+        synchronized (this) {
+            rotate();
+        }
+        logger.info("NetScope capture: sampling {}% of requests into {}", sampleRate * 100, directory);
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+            ServerCall<ReqT, RespT> call,
+            Metadata headers,
+            ServerCallHandler<ReqT, RespT> next) {
+
+        ServerCall.Listener<ReqT> listener = next.startCall(call, headers);
+        MethodDescriptor<ReqT, RespT> method = call.getMethodDescriptor();
+        if (!NetScopeServiceGrpc.SERVICE_NAME.equals(method.getServiceName())) {
+            return listener;
+        }
+        // Federation rebinds these two to byte[], so their messages are not InvokeRequests
+        String name = method.getFullMethodName();
+        boolean invoke = name.equals(NetScopeServiceGrpc.getInvokeMethodMethod().getFullMethodName())
+                || name.equals(NetScopeServiceGrpc.getInvokeMethodStreamMethod().getFullMethodName());
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onMessage(ReqT message) {
+                if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                    if (message instanceof InvokeRequest r)       append(INVOKE, r.toByteArray());
+                    if (message instanceof SetAttributeRequest r) append(SET_ATTRIBUTE, r.toByteArray());
+                    if (invoke && message instanceof byte[] raw)  append(INVOKE, raw);
+                }
+                super.onMessage(message);
+            }
+        };
+    }
+
+    /** Messages written since starting. */
+    public long captured() {
+        return captured.get();
+    }
+
+    /** Sampled messages not written: larger than a file, or the capture was broken or closed. */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        finishFile();
+        logger.info("NetScope capture: {} request(s) written to {}, {} dropped", captured(), directory, dropped());
+    }
+
+    // ── Writing ───────────────────────────────────────────────────────────────
+
+    private void append(byte kind, byte[] bytes) {
+        long arrival = System.nanoTime() - sessionStartNanos;
+        if (HEADER + RECORD_HEADER + bytes.length > fileSize) {
+            dropped.incrementAndGet();
+            return;
+        }
+        synchronized (this) {
+            if (closed || buffer == null) {
+                dropped.incrementAndGet();
+                return;
+            }
+            int position = buffer.position();
+            if (position + RECORD_HEADER + bytes.length > fileSize) {
+                try {
+                    rotate();
+                } catch (IOException e) {
+                    logger.error("NetScope capture: cannot start a new file in {} — capture stopped", directory, e);
+                    dropped.incrementAndGet();
+                    return;
+                }
+                position = buffer.position();
+            }
+            // The length goes in last, so a reader never sees a record that is half written
+            buffer.put(position + 4, kind);
+            buffer.putLong(position + 5, arrival);
+            buffer.put(position + RECORD_HEADER, bytes);
+            buffer.putInt(position, bytes.length);
+            buffer.position(position + RECORD_HEADER + bytes.length);
+        }
+        captured.incrementAndGet();
+    }
+
+    /** Closes the current file and opens the next, deleting the oldest beyond {@code maxFiles}. */
+    private void rotate() throws IOException {
+        finishFile();
+        Path file = directory.resolve(FILE_PREFIX + String.format("%06d", ++fileNumber) + FILE_SUFFIX);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            channel = null;
+            throw e;
+        }
+        buffer.putInt(0, MAGIC);
+        buffer.putLong(4, sessionStartMillis);
+        buffer.position(HEADER);
+
+        List<Path> all = files(directory);
+        for (int i = 0; i < all.size() - maxFiles; i++) Files.deleteIfExists(all.get(i));
+    }
+
+    private void finishFile() {
+        if (channel == null) return;
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("NetScope capture: could not close {}{}{}", FILE_PREFIX, fileNumber, FILE_SUFFIX, e);
+        }
+        channel = null;
+        buffer  = null;
+    }
+
+    // ── Reading ───────────────────────────────────────────────────────────────
+
+    /**
+     * Reads every capture file in {@code directory}, oldest first, stopping within each
+     * file at the first record that is incomplete or cannot be parsed. Files that are not
+     * captures are skipped.
+     */
+    public static List<Captured> read(Path directory) throws IOException {
+        List<Captured> records = new ArrayList<>();
+        for (Path file : files(directory)) {
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer map = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+                if (map.capacity() < HEADER || map.getInt(0) != MAGIC) {
+                    logger.warn("NetScope capture: {} is not a capture file — skipped", file);
+                    continue;
+                }
+                long sessionStart = map.getLong(4);
+                int offset = HEADER;
+                while (offset + RECORD_HEADER <= map.capacity()) {
+                    int length = map.getInt(offset);
+                    if (length <= 0 || offset + RECORD_HEADER + length > map.capacity()) break;
+                    byte kind = map.get(offset + 4);
+                    long arrival = map.getLong(offset + 5);
+                    byte[] bytes = new byte[length];
+                    map.get(offset + RECORD_HEADER, bytes);
+                    Message request;
+                    try {
+                        request = parse(kind, bytes);
+                    } catch (InvalidProtocolBufferException e) {
+                        logger.warn("NetScope capture: unreadable record at offset {} of {} — rest of the file skipped",
+                                offset, file);
+                        break;
+                    }
+                    records.add(new Captured(sessionStart, arrival, request));
+                    offset += RECORD_HEADER + length;
+                }
+            }
+        }
+        return records;
+    }
+
+    private static Message parse(byte kind, byte[] bytes) throws InvalidProtocolBufferException {
+        return switch (kind) {
+            case INVOKE        -> InvokeRequest.parseFrom(bytes);
+            case SET_ATTRIBUTE -> SetAttributeRequest.parseFrom(bytes);
+            default -> throw new InvalidProtocolBufferException("Unknown capture record kind " + kind);
+        };
+    }
+
+    /** Capture files in {@code directory}, by number. */
+    private static List<Path> files(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) return List.of();
+        try (Stream<Path> list = Files.list(directory)) {
+            return list.filter(p -> FILE_NAME.matcher(p.getFileName().toString()).matches())
+                       .sorted((a, b) -> Long.compare(number(a), number(b)))
+                       .toList();
+        }
+    }
+
+    private static long number(Path file) {
+        Matcher m = FILE_NAME.matcher(file.getFileName().toString());
+        return m.matches() ? Long.parseLong(m.group(1)) : -1;
+    }
+}
@@ -0,0 +1,34 @@
+package org.fractalx.netscope.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event recorded for every authorization decision made by
+ * {@code OAuth2AuthorizationService.authorize}.
+ */
+@Name("org.fractalx.netscope.Authorization")
+@Label("NetScope Authorization")
+@Category({"NetScope", "Security"})
+@Description("Authorization check for an exposed member")
+@StackTrace(false)
+public class AuthorizationEvent extends Event {
+
+    @Label("Bean")
+    public String beanName;
+
+    @Label("Member")
+    public String memberName;
+
+    @Label("Auth Type")
+    @Description("OAUTH, API_KEY, BOTH, or PUBLIC for unsecured members")
+    public String authType;
+
+    @Label("Outcome")
+    @Description("OK, or the gRPC status code the check failed with")
+    public String outcome;
+}
@@ -0,0 +1,44 @@
+package org.fractalx.netscope.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event recorded for every InvokeMethod / InvokeMethodStream item and SetAttribute call.
+ *
+ * <p>Payload sizes are only computed when the event is enabled, so the cost with
+ * recording off is a single {@code isEnabled()} check.
+ */
+@Name("org.fractalx.netscope.Invocation")
+@Label("NetScope Invocation")
+@Category({"NetScope", "gRPC"})
+@Description("A remote call to an exposed bean method or field")
+@StackTrace(false)
+public class InvocationEvent extends Event {
+
+    @Label("RPC")
+    public String rpc;
+
+    @Label("Bean")
+    public String beanName;
+
+    @Label("Member")
+    public String memberName;
+
+    @Label("Argument Bytes")
+    @DataAmount
+    public long argBytes;
+
+    @Label("Result Bytes")
+    @DataAmount
+    public long resultBytes;
+
+    @Label("Outcome")
+    @Description("OK, or the gRPC status code the call failed with")
+    public String outcome;
+}
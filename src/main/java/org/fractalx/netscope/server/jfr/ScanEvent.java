@@ -0,0 +1,28 @@
+package org.fractalx.netscope.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event recorded when {@code NetScopeScanner} scans the application context.
+ */
+@Name("org.fractalx.netscope.Scan")
+@Label("NetScope Scan")
+@Category({"NetScope"})
+@Description("Scan of the application context for exposed members")
+@StackTrace(false)
+public class ScanEvent extends Event {
+
+    @Label("Beans Inspected")
+    public int beanCount;
+
+    @Label("Members Registered")
+    public int memberCount;
+
+    @Label("Aliases Registered")
+    public int aliasCount;
+}
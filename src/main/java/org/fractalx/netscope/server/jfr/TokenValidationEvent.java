@@ -0,0 +1,35 @@
+package org.fractalx.netscope.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event recorded around each OAuth 2.0 token validation. Long durations
+ * point at cache misses that had to fetch the JWK set.
+ */
+@Name("org.fractalx.netscope.TokenValidation")
+@Label("NetScope Token Validation")
+@Category({"NetScope", "Security"})
+@Description("Validation of an OAuth 2.0 bearer token")
+@StackTrace(false)
+public class TokenValidationEvent extends Event {
+
+    @Label("Bean")
+    public String beanName;
+
+    @Label("Member")
+    public String memberName;
+
+    @Label("Valid")
+    public boolean valid;
+
+    @Label("Subject")
+    public String subject;
+
+    @Label("Error")
+    public String error;
+}
@@ -0,0 +1,195 @@
+package org.fractalx.netscope.server.model;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Pre-resolved access to an exposed field, built once at scan time from a {@link VarHandle}.
+ *
+ * <p>Every operation is adapted to an {@code Object}-typed method handle so callers can use
+ * {@code invokeExact} without per-call reflection or access checks. Static fields take the
+ * same shape; their {@code target} argument is simply ignored.
+ *
+ * <ul>
+ *   <li>{@link #get} — volatile read for {@code volatile} fields, plain read otherwise</li>
+ *   <li>{@link #getAndSet} / {@link #compareAndSet} / {@link #getAndAdd} — always atomic
+ *       (volatile semantics)</li>
+ * </ul>
+ *
+ * Final fields get a read-only accessor; the write operations throw
+ * {@link UnsupportedOperationException}. Compare-and-set on reference fields compares by
+ * identity, on primitive fields by value.
+ */
+public final class FieldAccessor {
+
+    private static final MethodType GET_TYPE  = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SWAP_TYPE = MethodType.methodType(Object.class, Object.class, Object.class);
+    private static final MethodType CAS_TYPE  =
+            MethodType.methodType(boolean.class, Object.class, Object.class, Object.class);
+
+    private final Field field;
+    private final boolean volatileField;
+    private final MethodHandle get;
+    private final MethodHandle getAndSet;       // null when the field is final
+    private final MethodHandle compareAndSet;   // null when the field is final
+    private final MethodHandle getAndAdd;       // null unless a non-final numeric primitive
+
+    private FieldAccessor(Field field, boolean volatileField, MethodHandle get,
+                          MethodHandle getAndSet, MethodHandle compareAndSet, MethodHandle getAndAdd) {
+        this.field         = field;
+        this.volatileField = volatileField;
+        this.get           = get;
+        this.getAndSet     = getAndSet;
+        this.compareAndSet = compareAndSet;
+        this.getAndAdd     = getAndAdd;
+    }
+
+    public static FieldAccessor of(Field field) {
+        int modifiers = field.getModifiers();
+        boolean isStatic   = Modifier.isStatic(modifiers);
+        boolean isVolatile = Modifier.isVolatile(modifiers);
+        VarHandle handle;
+        try {
+            handle = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup())
+                    .unreflectVarHandle(field);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access field "
+                    + field.getDeclaringClass().getSimpleName() + "." + field.getName(), e);
+        }
+
+        VarHandle.AccessMode read = isVolatile ? VarHandle.AccessMode.GET_VOLATILE : VarHandle.AccessMode.GET;
+        return new FieldAccessor(field, isVolatile,
+                adapt(handle, read, isStatic, GET_TYPE),
+                adapt(handle, VarHandle.AccessMode.GET_AND_SET, isStatic, SWAP_TYPE),
+                adapt(handle, VarHandle.AccessMode.COMPARE_AND_SET, isStatic, CAS_TYPE),
+                isNumeric(field.getType()) && field.getType().isPrimitive()
+                        ? adapt(handle, VarHandle.AccessMode.GET_AND_ADD, isStatic, SWAP_TYPE)
+                        : null);
+    }
+
+    private static MethodHandle adapt(VarHandle handle, VarHandle.AccessMode mode,
+                                      boolean isStatic, MethodType type) {
+        if (!handle.isAccessModeSupported(mode)) return null;
+        MethodHandle mh = handle.toMethodHandle(mode);
+        if (isStatic) {
+            mh = MethodHandles.dropArguments(mh, 0, Object.class);   // ignored target
+        }
+        return mh.asType(type);
+    }
+
+    // ── Operations ────────────────────────────────────────────────────────────
+
+    public Object get(Object target) {
+        try {
+            return (Object) get.invokeExact(target);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /** Atomically replaces the value and returns the one it replaced. */
+    public Object getAndSet(Object target, Object value) {
+        MethodHandle mh = writable(getAndSet);
+        checkAssignable(value);
+        try {
+            return (Object) mh.invokeExact(target, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /** Atomically sets {@code value} if the current value is {@code expected}. */
+    public boolean compareAndSet(Object target, Object expected, Object value) {
+        MethodHandle mh = writable(compareAndSet);
+        checkAssignable(value);
+        try {
+            return (boolean) mh.invokeExact(target, expected, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Atomically adds {@code delta} and returns the previous value. {@code delta} must already
+     * be of the field's (boxed) type. Primitive fields use the VarHandle's native add; boxed
+     * fields use a compare-and-set loop on the instance that was read.
+     */
+    public Object getAndAdd(Object target, Object delta) {
+        if (!isNumeric(field.getType())) {
+            throw new UnsupportedOperationException("Field is not numeric: "
+                    + field.getDeclaringClass().getSimpleName() + "." + field.getName()
+                    + " (" + field.getType().getSimpleName() + ")");
+        }
+        checkAssignable(delta);
+        if (getAndAdd != null) {
+            try {
+                return (Object) getAndAdd.invokeExact(target, delta);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+        writable(compareAndSet);
+        for (;;) {
+            Object current = get(target);
+            if (current == null) {
+                throw new IllegalStateException("Cannot add to null field " + field.getName());
+            }
+            if (compareAndSet(target, current, add((Number) current, (Number) delta))) {
+                return current;
+            }
+        }
+    }
+
+    /** Sum of two values of the same numeric wrapper type, with Java's overflow semantics. */
+    public static Number add(Number a, Number b) {
+        if (a instanceof Integer) return a.intValue() + b.intValue();
+        if (a instanceof Long)    return a.longValue() + b.longValue();
+        if (a instanceof Double)  return a.doubleValue() + b.doubleValue();
+        if (a instanceof Float)   return a.floatValue() + b.floatValue();
+        if (a instanceof Short)   return (short) (a.shortValue() + b.shortValue());
+        if (a instanceof Byte)    return (byte) (a.byteValue() + b.byteValue());
+        throw new IllegalArgumentException("Unsupported numeric type " + a.getClass().getSimpleName());
+    }
+
+    /** int, long, short, byte, float, double and their wrappers. */
+    public static boolean isNumeric(Class<?> type) {
+        return type == int.class    || type == Integer.class
+            || type == long.class   || type == Long.class
+            || type == short.class  || type == Short.class
+            || type == byte.class   || type == Byte.class
+            || type == float.class  || type == Float.class
+            || type == double.class || type == Double.class;
+    }
+
+    public Field getField()       { return field; }
+    public Class<?> getType()     { return field.getType(); }
+    public boolean isVolatile()   { return volatileField; }
+    public boolean isWriteable()  { return getAndSet != null; }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private MethodHandle writable(MethodHandle mh) {
+        if (mh == null) {
+            throw new UnsupportedOperationException("Field is final: "
+                    + field.getDeclaringClass().getSimpleName() + "." + field.getName());
+        }
+        return mh;
+    }
+
+    private void checkAssignable(Object value) {
+        if (value == null && field.getType().isPrimitive()) {
+            throw new IllegalArgumentException("Cannot assign null to primitive field "
+                    + field.getName() + " of type " + field.getType().getSimpleName());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException re) return re;
+        if (t instanceof Error err) throw err;
+        return new IllegalStateException(t);
+    }
+}
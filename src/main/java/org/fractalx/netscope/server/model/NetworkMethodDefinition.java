@@ -2,6 +2,7 @@ package org.fractalx.netscope.server.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.fractalx.netscope.server.annotation.AuthType;
+import org.fractalx.netscope.server.annotation.Priority;
 import org.springframework.aop.support.AopUtils;
 
 import java.lang.reflect.Field;
@@ -20,6 +21,7 @@ public class NetworkMethodDefinition {
     @JsonIgnore private final Object bean;
     @JsonIgnore private final Method method;   // null if field
     @JsonIgnore private final Field field;     // null if method
+    @JsonIgnore private final FieldAccessor fieldAccessor;   // null if method
 
     private final String beanName;
     private final String methodName;      // for fields: field name
@@ -32,13 +34,30 @@ public class NetworkMethodDefinition {
     private final SourceType sourceType;
     private final boolean isStatic;
     private final boolean isFinal;
+    private final Priority priority;
+    private final boolean constantResult;
+    private final boolean async;
 
     /** Constructor for METHOD */
     public NetworkMethodDefinition(Object bean, Method method,
                                    boolean secured, AuthType authType, String description) {
+        this(bean, method, secured, authType, description, Priority.NORMAL);
+    }
+
+    public NetworkMethodDefinition(Object bean, Method method,
+                                   boolean secured, AuthType authType, String description,
+                                   Priority priority) {
+        this(bean, method, secured, authType, description, priority, false);
+    }
+
+    /** {@code async} takes effect only on void methods. */
+    public NetworkMethodDefinition(Object bean, Method method,
+                                   boolean secured, AuthType authType, String description,
+                                   Priority priority, boolean async) {
         this.bean        = bean;
         this.method      = method;
         this.field       = null;
+        this.fieldAccessor = null;
         this.sourceType  = SourceType.METHOD;
         this.beanName    = AopUtils.getTargetClass(bean).getSimpleName();
         this.methodName  = method.getName();
@@ -50,6 +69,9 @@ public class NetworkMethodDefinition {
         this.description = description != null ? description : "";
         this.isStatic    = Modifier.isStatic(method.getModifiers());
         this.isFinal     = Modifier.isFinal(method.getModifiers());
+        this.priority    = priority != null ? priority : Priority.NORMAL;
+        this.constantResult = voidReturn;
+        this.async       = async && voidReturn;
 
         Parameter[] params = method.getParameters();
         this.parameters = new ParameterInfo[params.length];
@@ -62,9 +84,16 @@ public class NetworkMethodDefinition {
     /** Constructor for FIELD */
     public NetworkMethodDefinition(Object bean, Field field,
                                    boolean secured, AuthType authType, String description) {
+        this(bean, field, secured, authType, description, Priority.NORMAL);
+    }
+
+    public NetworkMethodDefinition(Object bean, Field field,
+                                   boolean secured, AuthType authType, String description,
+                                   Priority priority) {
         this.bean        = bean;
         this.method      = null;
         this.field       = field;
+        this.fieldAccessor = FieldAccessor.of(field);   // resolved once, reused per request
         this.sourceType  = SourceType.FIELD;
         this.beanName    = AopUtils.getTargetClass(bean).getSimpleName();
         this.methodName  = field.getName();
@@ -75,7 +104,18 @@ public class NetworkMethodDefinition {
         this.description = description != null ? description : "";
         this.isStatic    = Modifier.isStatic(field.getModifiers());
         this.isFinal     = Modifier.isFinal(field.getModifiers());
+        this.priority    = priority != null ? priority : Priority.NORMAL;
         this.parameters  = new ParameterInfo[0];  // fields take no parameters
+        this.constantResult = isStatic && isFinal && isImmutable(field.getType());
+        this.async       = false;
+    }
+
+    /** Types whose values cannot change once a final field holds them. */
+    private static boolean isImmutable(Class<?> type) {
+        return type.isPrimitive() || type.isEnum() || type == String.class
+            || type == Boolean.class || type == Character.class
+            || type == Byte.class || type == Short.class || type == Integer.class
+            || type == Long.class || type == Float.class || type == Double.class;
     }
 
     // ── Getters ───────────────────────────────────────────────────────────────
@@ -83,6 +123,7 @@ public class NetworkMethodDefinition {
     public Object getBean()              { return bean; }
     public Method getMethod()            { return method; }
     public Field getField()              { return field; }
+    public FieldAccessor getFieldAccessor() { return fieldAccessor; }
     public String getBeanName()          { return beanName; }
     public String getMethodName()        { return methodName; }
     public boolean isSecured()           { return secured; }
@@ -95,6 +136,17 @@ public class NetworkMethodDefinition {
     public boolean isField()             { return sourceType == SourceType.FIELD; }
     public boolean isStatic()            { return isStatic; }
     public boolean isFinal()             { return isFinal; }
+    public Priority getPriority()        { return priority; }
+
+    /**
+     * True when every call gets the same result: void methods, which still run but always
+     * answer {@code {"status":"accepted"}}, and static final fields of an immutable type
+     * (primitives, their wrappers, String, enums), which cannot change after class init.
+     */
+    public boolean hasConstantResult()   { return constantResult; }
+
+    /** True for a void method declared with {@code async = true}: calls are queued, not awaited. */
+    public boolean isAsync()             { return async; }
 
     /**
      * A field attribute is writeable when it is not declared final.
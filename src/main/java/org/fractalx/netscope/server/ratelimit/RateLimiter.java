@@ -0,0 +1,156 @@
+package org.fractalx.netscope.server.ratelimit;
+
+import org.fractalx.netscope.server.config.NetScopeConfig;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Global, per-member and per-principal call limits, each a {@link TokenBucket}.
+ *
+ * <p>A call takes one token from every bucket that applies to it. If any bucket is empty,
+ * the tokens already taken are given back and the call is rejected with
+ * RESOURCE_EXHAUSTED. The trailers say when to retry: {@code retry-after} in whole seconds
+ * and {@code grpc-retry-pushback-ms}, which gRPC's own retry policy honours.
+ *
+ * <p>Principal buckets live in a concurrent map bounded by {@code maxPrincipals}. When it
+ * is full, buckets that have refilled completely are dropped, which loses nothing. If none
+ * has, calls from principals not yet tracked are rejected until one has: dropping a bucket
+ * that is not full would hand its caller a fresh limit.
+ */
+public class RateLimiter {
+
+    public static final Metadata.Key<String> RETRY_AFTER =
+            Metadata.Key.of("retry-after", Metadata.ASCII_STRING_MARSHALLER);
+
+    public static final Metadata.Key<String> RETRY_PUSHBACK_MS =
+            Metadata.Key.of("grpc-retry-pushback-ms", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final NetScopeConfig.RateLimitConfig config;
+    private final LongSupplier clock;
+    private final TokenBucket global;                                          // null = unlimited
+    private final Map<String, TokenBucket> members = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> principals = new ConcurrentHashMap<>();
+
+    public RateLimiter(NetScopeConfig.RateLimitConfig config) {
+        this(config, System::nanoTime);
+    }
+
+    RateLimiter(NetScopeConfig.RateLimitConfig config, LongSupplier clock) {
+        this.config = config;
+        this.clock  = clock;
+        this.global = bucket(config.getGlobal(), clock.getAsLong());
+    }
+
+    /**
+     * Admits one call to {@code member} ("Bean.member") by {@code principal}, or throws
+     * RESOURCE_EXHAUSTED. A null principal (an unauthenticated call) has no principal limit.
+     */
+    public void acquire(String member, String principal) {
+        acquire(List.of(member), principal);
+    }
+
+    /**
+     * Admits one call that uses every member in {@code members}, such as a ReadAttributes of
+     * several fields: one permit from each member's bucket, but only one from the principal's
+     * and the global bucket. All of them are taken, or none.
+     */
+    public void acquire(List<String> members, String principal) {
+        long now = clock.getAsLong();
+        TokenBucket principalBucket = principal == null ? null : principalBucket(principal, now);
+
+        List<TokenBucket> taken = new ArrayList<>(members.size() + 2);
+        for (String member : members) {
+            TokenBucket memberBucket = memberBucket(member, now);
+            long wait = take(memberBucket, now);
+            if (wait > 0) {
+                refund(taken);
+                throw exhausted("member " + member, wait);
+            }
+            taken.add(memberBucket);
+        }
+        long wait = take(principalBucket, now);
+        if (wait > 0) {
+            refund(taken);
+            throw exhausted("principal " + principal, wait);
+        }
+        taken.add(principalBucket);
+        wait = take(global, now);
+        if (wait > 0) {
+            refund(taken);
+            throw exhausted("server", wait);
+        }
+    }
+
+    /** True if principals have a limit, so calls need their principal named to be admitted. */
+    public boolean limitsPrincipals() {
+        return config.getPrincipal().isLimited();
+    }
+
+    int trackedPrincipals() {
+        return principals.size();
+    }
+
+    // ── Buckets ───────────────────────────────────────────────────────────────
+
+    private TokenBucket memberBucket(String member, long now) {
+        TokenBucket bucket = members.get(member);
+        if (bucket != null) return bucket;
+        NetScopeConfig.RateLimitConfig.Limit limit = config.getMembers().getOrDefault(member, config.getMember());
+        if (!limit.isLimited()) return null;
+        return members.computeIfAbsent(member, m -> bucket(limit, now));
+    }
+
+    private TokenBucket principalBucket(String principal, long now) {
+        if (!config.getPrincipal().isLimited()) return null;
+        TokenBucket bucket = principals.get(principal);
+        if (bucket != null) return bucket;
+        if (principals.size() >= config.getMaxPrincipals()) {
+            principals.values().removeIf(b -> b.isFull(now));
+            if (principals.size() >= config.getMaxPrincipals()) {
+                throw exhausted("new principals (" + principals.size() + " tracked)", untilAnyFull(now));
+            }
+        }
+        return principals.computeIfAbsent(principal, p -> bucket(config.getPrincipal(), now));
+    }
+
+    /** Nanoseconds until the first tracked principal bucket has refilled and can be dropped. */
+    private long untilAnyFull(long now) {
+        long wait = Long.MAX_VALUE;
+        for (TokenBucket bucket : principals.values()) wait = Math.min(wait, bucket.untilFull(now));
+        return wait == Long.MAX_VALUE ? 1 : Math.max(1, wait);
+    }
+
+    private static TokenBucket bucket(NetScopeConfig.RateLimitConfig.Limit limit, long now) {
+        if (limit == null || !limit.isLimited()) return null;
+        int burst = limit.getBurst() > 0 ? limit.getBurst() : (int) Math.max(1, Math.ceil(limit.getPermitsPerSecond()));
+        return new TokenBucket(limit.getPermitsPerSecond(), burst, now);
+    }
+
+    private static long take(TokenBucket bucket, long now) {
+        return bucket == null ? 0 : bucket.tryAcquire(now);
+    }
+
+    private static void refund(List<TokenBucket> buckets) {
+        for (TokenBucket bucket : buckets) {
+            if (bucket != null) bucket.refund();
+        }
+    }
+
+    private static StatusRuntimeException exhausted(String scope, long waitNanos) {
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos + 999_999));   // rounded up
+        Metadata trailers = new Metadata();
+        trailers.put(RETRY_AFTER, Long.toString((millis + 999) / 1000));
+        trailers.put(RETRY_PUSHBACK_MS, Long.toString(millis));
+        return Status.RESOURCE_EXHAUSTED
+                .withDescription("Rate limit exceeded for " + scope + "; retry in " + millis + " ms")
+                .asRuntimeException(trailers);
+    }
+}
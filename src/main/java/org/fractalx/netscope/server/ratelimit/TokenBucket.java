@@ -0,0 +1,50 @@
+package org.fractalx.netscope.server.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket, kept as a single timestamp (the generic cell rate algorithm).
+ *
+ * <p>Instead of a token count refilled by a timer, the bucket stores the time at which it
+ * would be full again. Taking a token moves that time one token interval later; the
+ * bucket is empty when the time is more than {@code burst} intervals ahead of now. Each
+ * acquisition is one compare-and-set, with no refill thread.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;   // time to earn one token
+    private final long capacityNanos;   // burst × interval
+    private final AtomicLong fullAt;    // nanoTime at which the bucket is full again
+
+    TokenBucket(double permitsPerSecond, int burst, long now) {
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000d / permitsPerSecond));
+        this.capacityNanos = intervalNanos * Math.max(1, burst);
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /** Takes a token. Returns 0 if one was available, otherwise the nanoseconds until one will be. */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long ahead = next - now;
+            if (ahead > capacityNanos) return ahead - capacityNanos;
+            if (fullAt.compareAndSet(current, next)) return 0;
+        }
+    }
+
+    /** Gives back a token taken by {@link #tryAcquire} for a call that was then rejected elsewhere. */
+    void refund() {
+        fullAt.addAndGet(-intervalNanos);
+    }
+
+    /** Nanoseconds until the bucket holds all its tokens again; 0 if it does now. */
+    long untilFull(long now) {
+        return Math.max(0, fullAt.get() - now);
+    }
+
+    /** True if the bucket holds all its tokens, so dropping it changes nothing. */
+    boolean isFull(long now) {
+        return fullAt.get() - now <= 0;
+    }
+}
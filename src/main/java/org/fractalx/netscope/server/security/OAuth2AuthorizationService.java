@@ -2,17 +2,30 @@ package org.fractalx.netscope.server.security;
 
 import org.fractalx.netscope.server.annotation.AuthType;
 import org.fractalx.netscope.server.config.NetScopeConfig;
+import org.fractalx.netscope.server.jfr.AuthorizationEvent;
+import org.fractalx.netscope.server.jfr.TokenValidationEvent;
 import org.fractalx.netscope.server.model.NetworkMethodDefinition;
 import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Authorizes gRPC calls based on the AuthType declared on the method/field.
  *
  *   AuthType.OAUTH   → only OAuth JWT accepted
  *   AuthType.API_KEY → only API key accepted
  *   AuthType.BOTH    → either accepted
+ *
+ * A successful check returns the caller's principal: "oauth:" + the token subject, or
+ * "api-key:" + a short hash of the key, so keys never appear in logs or metrics.
  */
 public class OAuth2AuthorizationService {
 
@@ -21,6 +34,7 @@ public class OAuth2AuthorizationService {
     private final NetScopeConfig config;
     private final OAuth2TokenValidator oauthValidator;
     private final ApiKeyValidator apiKeyValidator;
+    private final Map<String, String> apiKeyPrincipals = new ConcurrentHashMap<>();   // valid keys only
 
     public OAuth2AuthorizationService(NetScopeConfig config,
                                       OAuth2TokenValidator oauthValidator,
@@ -37,22 +51,52 @@ public class OAuth2AuthorizationService {
         }
     }
 
-    public void authorize(NetworkMethodDefinition def, String accessToken, String apiKey) {
+    /** True unless OAuth is configured and its signing keys cannot be fetched. */
+    public boolean isKeySourceAvailable() {
+        return oauthValidator == null || oauthValidator.isKeySourceAvailable();
+    }
 
-        // @NetworkPublic — always allow
-        if (!def.isSecured()) return;
+    /**
+     * Throws UNAUTHENTICATED unless the call may use {@code def}. Returns the authenticated
+     * principal, or null for public members and disabled security, which need no credentials
+     * and so are not checked; {@link #principalOf} names their caller when that is needed.
+     */
+    public String authorize(NetworkMethodDefinition def, String accessToken, String apiKey) {
+        AuthorizationEvent event = new AuthorizationEvent();
+        event.begin();
+        String outcome = "OK";
+        try {
+            return doAuthorize(def, accessToken, apiKey);
+        } catch (StatusRuntimeException e) {
+            outcome = e.getStatus().getCode().name();
+            throw e;
+        } finally {
+            if (event.shouldCommit()) {
+                event.beanName   = def.getBeanName();
+                event.memberName = def.getMethodName();
+                event.authType   = def.isSecured() ? String.valueOf(def.getAuthType()) : "PUBLIC";
+                event.outcome    = outcome;
+                event.commit();
+            }
+        }
+    }
 
-        // Security globally disabled — allow everything
-        if (!config.getSecurity().isEnabled()) return;
+    private String doAuthorize(NetworkMethodDefinition def, String accessToken, String apiKey) {
 
-        AuthType authType = def.getAuthType();
         boolean hasToken  = accessToken != null && !accessToken.isBlank();
         boolean hasApiKey = apiKey != null && !apiKey.isBlank();
 
+        // @NetworkPublic, or security globally disabled — allow everything
+        if (!def.isSecured() || !config.getSecurity().isEnabled()) {
+            return null;
+        }
+
+        AuthType authType = def.getAuthType();
+
         logger.debug("Authorizing {}.{} | authType={} | hasToken={} | hasApiKey={}",
                 def.getBeanName(), def.getMethodName(), authType, hasToken, hasApiKey);
 
-        switch (authType) {
+        return switch (authType) {
 
             case OAUTH -> {
                 // Only OAuth accepted — reject API key even if provided
@@ -62,7 +106,7 @@ public class OAuth2AuthorizationService {
                                     + "' requires OAuth token (authorization header)")
                             .asRuntimeException();
                 }
-                validateOAuth(def, accessToken);
+                yield validateOAuth(def, accessToken);
             }
 
             case API_KEY -> {
@@ -73,7 +117,7 @@ public class OAuth2AuthorizationService {
                                     + "' requires API key (x-api-key header)")
                             .asRuntimeException();
                 }
-                validateApiKey(apiKey);
+                yield validateApiKey(apiKey);
             }
 
             case BOTH -> {
@@ -86,9 +130,11 @@ public class OAuth2AuthorizationService {
                             .asRuntimeException();
                 }
                 // Try OAuth first if provided
-                if (hasToken && tryOAuth(def, accessToken)) return;
+                String principal = hasToken ? tryOAuth(def, accessToken) : null;
+                if (principal != null) yield principal;
                 // Try API key if provided
-                if (hasApiKey && tryApiKey(apiKey)) return;
+                principal = hasApiKey ? tryApiKey(apiKey) : null;
+                if (principal != null) yield principal;
 
                 // Both were provided but both failed
                 throw Status.UNAUTHENTICATED
@@ -96,18 +142,32 @@ public class OAuth2AuthorizationService {
                                 + "invalid OAuth token and invalid API key")
                         .asRuntimeException();
             }
+        };
+    }
+
+    /**
+     * The principal of whichever credential sent with a call to {@code def} is valid, or
+     * null; never throws. For calls {@link #authorize} lets through unchecked, such as
+     * those to public members. It validates the token, so call it only when the principal
+     * is needed, e.g. for a per-principal rate limit.
+     */
+    public String principalOf(NetworkMethodDefinition def, String accessToken, String apiKey) {
+        if (accessToken != null && !accessToken.isBlank() && oauthValidator != null) {
+            OAuth2TokenValidator.TokenValidationResult result = validateToken(def, accessToken);
+            if (result.isValid()) return "oauth:" + result.getSubject();
         }
+        return apiKey != null && !apiKey.isBlank() ? tryApiKey(apiKey) : null;
     }
 
     // ── OAuth helpers ─────────────────────────────────────────────────────────
 
-    private void validateOAuth(NetworkMethodDefinition def, String token) {
+    private String validateOAuth(NetworkMethodDefinition def, String token) {
         if (oauthValidator == null) {
             throw Status.UNAUTHENTICATED
                     .withDescription("OAuth is not configured on this server")
                     .asRuntimeException();
         }
-        OAuth2TokenValidator.TokenValidationResult result = oauthValidator.validate(token);
+        OAuth2TokenValidator.TokenValidationResult result = validateToken(def, token);
         if (!result.isValid()) {
             throw Status.UNAUTHENTICATED
                     .withDescription("Invalid OAuth token: " + result.getError())
@@ -115,23 +175,41 @@ public class OAuth2AuthorizationService {
         }
         logger.info("Authorized {}.{} via OAuth (subject={})",
                 def.getBeanName(), def.getMethodName(), result.getSubject());
+        return "oauth:" + result.getSubject();
     }
 
-    /** Returns true if OAuth succeeds, false if it fails (no exception) */
-    private boolean tryOAuth(NetworkMethodDefinition def, String token) {
-        if (oauthValidator == null) return false;
-        OAuth2TokenValidator.TokenValidationResult result = oauthValidator.validate(token);
+    /** Returns the principal if OAuth succeeds, null if it fails (no exception) */
+    private String tryOAuth(NetworkMethodDefinition def, String token) {
+        if (oauthValidator == null) return null;
+        OAuth2TokenValidator.TokenValidationResult result = validateToken(def, token);
         if (result.isValid()) {
             logger.info("Authorized {}.{} via OAuth (subject={})",
                     def.getBeanName(), def.getMethodName(), result.getSubject());
-            return true;
+            return "oauth:" + result.getSubject();
         }
-        return false;
+        return null;
+    }
+
+    /** Runs the validator inside a JFR TokenValidationEvent */
+    private OAuth2TokenValidator.TokenValidationResult validateToken(NetworkMethodDefinition def,
+                                                                     String token) {
+        TokenValidationEvent event = new TokenValidationEvent();
+        event.begin();
+        OAuth2TokenValidator.TokenValidationResult result = oauthValidator.validate(token);
+        if (event.shouldCommit()) {
+            event.beanName   = def.getBeanName();
+            event.memberName = def.getMethodName();
+            event.valid      = result.isValid();
+            event.subject    = result.getSubject();
+            event.error      = result.getError();
+            event.commit();
+        }
+        return result;
     }
 
     // ── API key helpers ───────────────────────────────────────────────────────
 
-    private void validateApiKey(String apiKey) {
+    private String validateApiKey(String apiKey) {
         if (apiKeyValidator == null) {
             throw Status.UNAUTHENTICATED
                     .withDescription("API key auth is not configured on this server")
@@ -142,11 +220,23 @@ public class OAuth2AuthorizationService {
                     .withDescription("Invalid API key")
                     .asRuntimeException();
         }
+        return apiKeyPrincipal(apiKey);
     }
 
-    /** Returns true if API key is valid, false if not (no exception) */
-    private boolean tryApiKey(String apiKey) {
-        if (apiKeyValidator == null) return false;
-        return apiKeyValidator.isValid(apiKey);
+    /** Returns the principal if the API key is valid, null if not (no exception) */
+    private String tryApiKey(String apiKey) {
+        if (apiKeyValidator == null || !apiKeyValidator.isValid(apiKey)) return null;
+        return apiKeyPrincipal(apiKey);
+    }
+
+    private String apiKeyPrincipal(String apiKey) {
+        return apiKeyPrincipals.computeIfAbsent(apiKey, key -> {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+                return "api-key:" + HexFormat.of().formatHex(digest, 0, 6);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);   // every JRE has SHA-256
+            }
+        });
     }
 }
@@ -2,6 +2,9 @@ package org.fractalx.netscope.server.security;
 
 import org.fractalx.netscope.server.config.NetScopeConfig;
 import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.jwk.source.RemoteJWKSet;
 import com.nimbusds.jose.proc.JWSKeySelector;
@@ -25,6 +28,7 @@ public class OAuth2TokenValidator {
     private final NetScopeConfig.SecurityConfig.OAuthConfig oauthConfig;
     private final ConfigurableJWTProcessor<SecurityContext> jwtProcessor;
     private final Map<String, TokenValidationResult> tokenCache = new ConcurrentHashMap<>();
+    private JWKSource<SecurityContext> keySource;   // null unless jwkSetUri is set
 
     public OAuth2TokenValidator(NetScopeConfig config) {
         this.oauthConfig = config.getSecurity().getOauth();
@@ -82,6 +86,20 @@ public class OAuth2TokenValidator {
         }
     }
 
+    /**
+     * True if signing keys can be had: from the cached JWK set, or by fetching it now.
+     * Always true without a {@code jwkSetUri}.
+     */
+    public boolean isKeySourceAvailable() {
+        if (keySource == null) return oauthConfig.getJwkSetUri() == null;
+        try {
+            return !keySource.get(new JWKSelector(new JWKMatcher.Builder().build()), null).isEmpty();
+        } catch (KeySourceException e) {
+            logger.debug("JWK set unavailable: {}", e.getMessage());
+            return false;
+        }
+    }
+
     private Set<String> extractScopes(JWTClaimsSet claims) {
         Set<String> scopes = new HashSet<>();
         try {
@@ -97,8 +115,7 @@ public class OAuth2TokenValidator {
         ConfigurableJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
         try {
             if (oauthConfig.getJwkSetUri() != null) {
-                JWKSource<SecurityContext> keySource =
-                        new RemoteJWKSet<>(new URL(oauthConfig.getJwkSetUri()));
+                keySource = new RemoteJWKSet<>(new URL(oauthConfig.getJwkSetUri()));
                 // Support all common signing algorithms used by OAuth 2.0 providers
                 Set<JWSAlgorithm> algorithms = Set.of(
                     JWSAlgorithm.RS256, JWSAlgorithm.RS384, JWSAlgorithm.RS512,
@@ -27,6 +27,11 @@ class NetScopeConfigSpec extends Specification {
         new NetScopeConfig().getGrpc().getMaxConcurrentCallsPerConnection() == 100
     }
 
+    def "GrpcConfig default: maxBatchSize = 1000"() {
+        expect:
+        new NetScopeConfig().getGrpc().getMaxBatchSize() == 1000
+    }
+
     def "GrpcConfig default: keepAliveTime = 300"() {
         expect:
         new NetScopeConfig().getGrpc().getKeepAliveTime() == 300L
@@ -57,6 +62,26 @@ class NetScopeConfigSpec extends Specification {
         new NetScopeConfig().getGrpc().isEnableReflection()
     }
 
+    def "GrpcConfig default: transport = AUTO with Netty-default sizing"() {
+        given:
+        def cfg = new NetScopeConfig().getGrpc()
+        expect:
+        cfg.getTransport() == NetScopeConfig.GrpcConfig.Transport.AUTO
+        cfg.getBossThreads() == 1
+        cfg.getWorkerThreads() == 0
+        cfg.getBufferAllocator() == NetScopeConfig.GrpcConfig.BufferAllocator.DEFAULT
+        cfg.getFlowControlWindow() == 0
+        cfg.getMaxHeaderListSize() == 0
+    }
+
+    def "GrpcConfig default: no Unix socket or in-process listener"() {
+        given:
+        def cfg = new NetScopeConfig().getGrpc()
+        expect:
+        cfg.getUnixSocketPath() == null
+        cfg.getInProcessName() == null
+    }
+
     // ── GrpcConfig setters ────────────────────────────────────────────────────
 
     def "GrpcConfig setters override defaults"() {
@@ -73,6 +98,14 @@ class NetScopeConfigSpec extends Specification {
         cfg.setMaxConnectionIdle(120)
         cfg.setMaxConnectionAge(3600)
         cfg.setEnableReflection(false)
+        cfg.setTransport(NetScopeConfig.GrpcConfig.Transport.NIO)
+        cfg.setBossThreads(2)
+        cfg.setWorkerThreads(8)
+        cfg.setBufferAllocator(NetScopeConfig.GrpcConfig.BufferAllocator.POOLED_DIRECT)
+        cfg.setFlowControlWindow(4 * 1024 * 1024)
+        cfg.setMaxHeaderListSize(16384)
+        cfg.setUnixSocketPath("/tmp/netscope.sock")
+        cfg.setInProcessName("netscope")
         then:
         !cfg.isEnabled()
         cfg.getPort() == 50051
@@ -84,6 +117,288 @@ class NetScopeConfigSpec extends Specification {
         cfg.getMaxConnectionIdle() == 120L
         cfg.getMaxConnectionAge() == 3600L
         !cfg.isEnableReflection()
+        cfg.getTransport() == NetScopeConfig.GrpcConfig.Transport.NIO
+        cfg.getBossThreads() == 2
+        cfg.getWorkerThreads() == 8
+        cfg.getBufferAllocator() == NetScopeConfig.GrpcConfig.BufferAllocator.POOLED_DIRECT
+        cfg.getFlowControlWindow() == 4 * 1024 * 1024
+        cfg.getMaxHeaderListSize() == 16384
+        cfg.getUnixSocketPath() == "/tmp/netscope.sock"
+        cfg.getInProcessName() == "netscope"
+    }
+
+    // ── CompressionConfig ─────────────────────────────────────────────────────
+
+    def "CompressionConfig defaults: disabled, gzip, 1 KiB threshold, no overrides"() {
+        given:
+        def cfg = new NetScopeConfig().getCompression()
+        expect:
+        !cfg.isEnabled()
+        cfg.getAlgorithm() == "gzip"
+        cfg.getMinResponseSize() == 1024
+        cfg.getMembers().isEmpty()
+    }
+
+    def "CompressionConfig setters override defaults"() {
+        given:
+        def cfg = new NetScopeConfig().getCompression()
+        when:
+        cfg.setEnabled(true)
+        cfg.setAlgorithm("lz4")
+        cfg.setMinResponseSize(0)
+        cfg.setMembers(["Svc.op": "identity"])
+        then:
+        cfg.isEnabled()
+        cfg.getAlgorithm() == "lz4"
+        cfg.getMinResponseSize() == 0
+        cfg.getMembers() == ["Svc.op": "identity"]
+    }
+
+    // ── FederationConfig ──────────────────────────────────────────────────────
+
+    def "FederationConfig is off by default with no peers"() {
+        given:
+        def cfg = new NetScopeConfig().getFederation()
+        expect:
+        !cfg.isEnabled()
+        cfg.getPeers().isEmpty()
+        cfg.getRefreshIntervalMillis() == 30000
+        cfg.getDocsTimeoutMillis() == 5000
+        cfg.getChannelsPerPeer() == 1
+    }
+
+    def "FederationConfig setters round-trip"() {
+        given:
+        def cfg = new NetScopeConfig().getFederation()
+        when:
+        cfg.setEnabled(true)
+        cfg.setPeers(["node-b:9090", "in-process:node-c"])
+        cfg.setRefreshIntervalMillis(1000)
+        cfg.setDocsTimeoutMillis(250)
+        cfg.setChannelsPerPeer(4)
+        then:
+        cfg.isEnabled()
+        cfg.getPeers() == ["node-b:9090", "in-process:node-c"]
+        cfg.getRefreshIntervalMillis() == 1000
+        cfg.getDocsTimeoutMillis() == 250
+        cfg.getChannelsPerPeer() == 4
+    }
+
+    // ── IdempotencyConfig ─────────────────────────────────────────────────────
+
+    def "IdempotencyConfig is off by default and bounded"() {
+        given:
+        def cfg = new NetScopeConfig().getIdempotency()
+        expect:
+        !cfg.isEnabled()
+        cfg.getTtlMillis() == 300000
+        cfg.getMaxEntries() == 10000
+        cfg.getMaxResponseBytes() == 65536
+    }
+
+    def "IdempotencyConfig setters round-trip"() {
+        given:
+        def cfg = new NetScopeConfig().getIdempotency()
+        when:
+        cfg.setEnabled(true)
+        cfg.setTtlMillis(1000)
+        cfg.setMaxEntries(50)
+        cfg.setMaxResponseBytes(1024)
+        then:
+        cfg.isEnabled()
+        cfg.getTtlMillis() == 1000
+        cfg.getMaxEntries() == 50
+        cfg.getMaxResponseBytes() == 1024
+    }
+
+    // ── RateLimitConfig ───────────────────────────────────────────────────────
+
+    def "RateLimitConfig is off by default with every limit unlimited"() {
+        given:
+        def cfg = new NetScopeConfig().getRateLimit()
+        expect:
+        !cfg.isEnabled()
+        [cfg.global, cfg.principal, cfg.member].every { !it.isLimited() && it.burst == 0 }
+        cfg.members.isEmpty()
+        cfg.maxPrincipals == 10000
+    }
+
+    def "RateLimitConfig setters round-trip"() {
+        given:
+        def cfg = new NetScopeConfig().getRateLimit()
+        def limit = new NetScopeConfig.RateLimitConfig.Limit()
+        when:
+        limit.permitsPerSecond = 50
+        limit.burst = 100
+        cfg.enabled = true
+        cfg.principal = limit
+        cfg.members = ["Orders.place": limit]
+        cfg.maxPrincipals = 500
+        then:
+        cfg.isEnabled()
+        cfg.principal.isLimited()
+        cfg.principal.permitsPerSecond == 50d
+        cfg.members["Orders.place"].burst == 100
+        cfg.maxPrincipals == 500
+    }
+
+    // ── SchedulingConfig ──────────────────────────────────────────────────────
+
+    def "SchedulingConfig is off by default and favours higher priorities"() {
+        given:
+        def cfg = new NetScopeConfig().getScheduling()
+        expect:
+        !cfg.isEnabled()
+        cfg.threads == 0
+        cfg.maxQueued == 10000
+        cfg.highWeight > cfg.normalWeight
+        cfg.normalWeight > cfg.lowWeight
+        cfg.maxWaitMillis == 1000
+        !cfg.isAllowHeaderRaise()
+    }
+
+    def "SchedulingConfig setters round-trip"() {
+        given:
+        def cfg = new NetScopeConfig().getScheduling()
+        when:
+        cfg.enabled = true
+        cfg.threads = 16
+        cfg.maxQueued = 50
+        cfg.highWeight = 10
+        cfg.normalWeight = 5
+        cfg.lowWeight = 2
+        cfg.maxWaitMillis = 250
+        cfg.allowHeaderRaise = true
+        then:
+        cfg.isEnabled()
+        [cfg.threads, cfg.maxQueued, cfg.highWeight, cfg.normalWeight, cfg.lowWeight] == [16, 50, 10, 5, 2]
+        cfg.maxWaitMillis == 250
+        cfg.isAllowHeaderRaise()
+    }
+
+    // ── ShutdownConfig ────────────────────────────────────────────────────────
+
+    def "ShutdownConfig drains for 30 s with no readiness delay by default"() {
+        given:
+        def cfg = new NetScopeConfig().getShutdown()
+        expect:
+        cfg.readinessDelayMillis == 0
+        cfg.drainTimeoutMillis == 30000
+        when:
+        cfg.readinessDelayMillis = 5000
+        cfg.drainTimeoutMillis = 10000
+        then:
+        cfg.readinessDelayMillis == 5000
+        cfg.drainTimeoutMillis == 10000
+    }
+
+    // ── AsyncConfig ───────────────────────────────────────────────────────────
+
+    def "AsyncConfig runs on 4 threads with a bounded queue and outcome buffer"() {
+        given:
+        def cfg = new NetScopeConfig().getAsync()
+        expect:
+        cfg.threads == 4
+        cfg.maxQueued == 10000
+        cfg.outcomeBuffer == 1000
+        cfg.shutdownTimeoutMillis == 10000
+        when:
+        cfg.threads = 8
+        cfg.maxQueued = 500
+        cfg.outcomeBuffer = 50
+        cfg.shutdownTimeoutMillis = 2000
+        then:
+        [cfg.threads, cfg.maxQueued, cfg.outcomeBuffer] == [8, 500, 50]
+        cfg.shutdownTimeoutMillis == 2000L
+    }
+
+    // ── JournalConfig ─────────────────────────────────────────────────────────
+
+    def "JournalConfig is off by default, syncing every 10 ms without making writes wait"() {
+        given:
+        def cfg = new NetScopeConfig().getJournal()
+        expect:
+        !cfg.isEnabled()
+        cfg.directory == "netscope-journal"
+        cfg.fileSize == 16 * 1024 * 1024
+        cfg.syncIntervalMillis == 10
+        !cfg.isWaitForSync()
+        cfg.snapshotIntervalMillis == 60000
+        when:
+        cfg.enabled = true
+        cfg.directory = "/var/lib/app/journal"
+        cfg.fileSize = 1 << 20
+        cfg.syncIntervalMillis = 2
+        cfg.waitForSync = true
+        cfg.snapshotIntervalMillis = 0
+        then:
+        cfg.isEnabled() && cfg.isWaitForSync()
+        cfg.directory == "/var/lib/app/journal"
+        cfg.fileSize == 1 << 20
+        [cfg.syncIntervalMillis, cfg.snapshotIntervalMillis] == [2L, 0L]
+    }
+
+    // ── CaptureConfig ─────────────────────────────────────────────────────────
+
+    def "CaptureConfig is off by default, sampling 1 % into eight 64 MiB files"() {
+        given:
+        def cfg = new NetScopeConfig().getCapture()
+        expect:
+        !cfg.isEnabled()
+        cfg.directory == "netscope-capture"
+        cfg.sampleRate == 0.01d
+        cfg.fileSize == 64 * 1024 * 1024
+        cfg.maxFiles == 8
+        when:
+        cfg.enabled = true
+        cfg.directory = "/var/tmp/capture"
+        cfg.sampleRate = 1.0d
+        cfg.fileSize = 1 << 20
+        cfg.maxFiles = 2
+        then:
+        cfg.isEnabled()
+        cfg.directory == "/var/tmp/capture"
+        cfg.sampleRate == 1.0d
+        [cfg.fileSize, cfg.maxFiles] == [1 << 20, 2]
+    }
+
+    // ── HealthConfig ──────────────────────────────────────────────────────────
+
+    def "HealthConfig re-evaluates every second, with saturation limits off or at 80 %"() {
+        given:
+        def cfg = new NetScopeConfig().getHealth()
+        expect:
+        cfg.isEnabled()
+        cfg.intervalMillis == 1000
+        cfg.maxInFlight == 0
+        cfg.maxQueuedRatio == 0.8d
+        cfg.resumeRatio == 0.8d
+        cfg.isCheckJwks()
+        when:
+        cfg.enabled = false
+        cfg.intervalMillis = 250
+        cfg.maxInFlight = 400
+        cfg.maxQueuedRatio = 0.5d
+        cfg.resumeRatio = 0.6d
+        cfg.checkJwks = false
+        then:
+        !cfg.isEnabled()
+        [cfg.intervalMillis, cfg.maxInFlight] == [250L, 400]
+        [cfg.maxQueuedRatio, cfg.resumeRatio] == [0.5d, 0.6d]
+        !cfg.isCheckJwks()
+    }
+
+    // ── WatchConfig ───────────────────────────────────────────────────────────
+
+    def "WatchConfig samples every second by default and can be turned off"() {
+        given:
+        def cfg = new NetScopeConfig().getWatch()
+        expect:
+        cfg.getSampleIntervalMillis() == 1000
+        when:
+        cfg.setSampleIntervalMillis(0)
+        then:
+        cfg.getSampleIntervalMillis() == 0
     }
 
     // ── SecurityConfig defaults ───────────────────────────────────────────────
@@ -0,0 +1,179 @@
+package org.fractalx.netscope.server.core
+
+import org.fractalx.netscope.server.config.NetScopeConfig
+import org.fractalx.netscope.server.model.NetworkMethodDefinition
+import io.grpc.Status
+import io.grpc.StatusRuntimeException
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class AsyncInvocationsSpec extends Specification {
+
+    // ── Fixtures: one thread, held busy while calls queue up ──────────────────
+
+    static class Events {
+        void record() {}
+        void flush()  {}
+    }
+
+    def config = new NetScopeConfig().getAsync()
+    def events = new Events()
+    def record = new NetworkMethodDefinition(events, Events.getDeclaredMethod("record"), false, null, "", null, true)
+    def flush  = new NetworkMethodDefinition(events, Events.getDeclaredMethod("flush"), false, null, "", null, true)
+    List<AsyncInvocations.Outcome> outcomes = new CopyOnWriteArrayList<>()
+    CountDownLatch release = new CountDownLatch(1)
+    AsyncInvocations async
+
+    def setup() {
+        config.threads = 1
+    }
+
+    def cleanup() {
+        release.countDown()
+        async?.close()
+    }
+
+    AsyncInvocations blocked() {
+        async = new AsyncInvocations(config)
+        def busy = new CountDownLatch(1)
+        async.submit(flush, { busy.countDown(); release.await(5, TimeUnit.SECONDS) } as Callable)
+        assert busy.await(5, TimeUnit.SECONDS)
+        async
+    }
+
+    List<AsyncInvocations.Outcome> awaitOutcomes(int expected) {
+        def deadline = System.currentTimeMillis() + 5000
+        while (outcomes.size() < expected && System.currentTimeMillis() < deadline) Thread.sleep(5)
+        outcomes
+    }
+
+    // ── Submission ────────────────────────────────────────────────────────────
+
+    def "submit returns a distinct id at once and runs the call later"() {
+        given:
+        blocked()
+        async.subscribe("Events", "record", { outcomes << it } as AsyncInvocations.Listener)
+        def ran = new CountDownLatch(1)
+
+        when:
+        def first  = async.submit(record, { ran.countDown() } as Callable)
+        def second = async.submit(record, { null } as Callable)
+
+        then:
+        first != second
+        ran.count == 1
+        async.queued() == 2
+
+        when:
+        release.countDown()
+
+        then:
+        ran.await(5, TimeUnit.SECONDS)
+        awaitOutcomes(2)*.invocationId == [first, second]
+        outcomes.every { it.success() && it.beanName == "Events" && it.memberName == "record" }
+    }
+
+    def "a full queue rejects with RESOURCE_EXHAUSTED"() {
+        given:
+        config.maxQueued = 2
+        blocked()
+        2.times { async.submit(record, { null } as Callable) }
+
+        when:
+        async.submit(record, { null } as Callable)
+
+        then:
+        def e = thrown(StatusRuntimeException)
+        e.status.code == Status.Code.RESOURCE_EXHAUSTED
+        async.queued() == 2
+    }
+
+    def "after close, submit fails with UNAVAILABLE"() {
+        given:
+        async = new AsyncInvocations(config)
+        async.close()
+
+        when:
+        async.submit(record, { null } as Callable)
+
+        then:
+        def e = thrown(StatusRuntimeException)
+        e.status.code == Status.Code.UNAVAILABLE
+    }
+
+    def "close waits for queued calls to run"() {
+        given:
+        blocked()
+        def ran = new CopyOnWriteArrayList()
+        3.times { n -> async.submit(record, { ran << n } as Callable) }
+
+        when:
+        release.countDown()
+        async.close()
+
+        then:
+        ran == [0, 1, 2]
+    }
+
+    // ── Outcomes ──────────────────────────────────────────────────────────────
+
+    def "a failure reaches the member's listeners with its error"() {
+        given:
+        async = new AsyncInvocations(config)
+        async.subscribe("Events", "record", { outcomes << it } as AsyncInvocations.Listener)
+
+        when:
+        def id = async.submit(record, { throw new IllegalStateException("disk full") } as Callable)
+
+        then:
+        with(awaitOutcomes(1)[0]) {
+            invocationId == id
+            !success()
+            error instanceof IllegalStateException
+            error.message == "disk full"
+            durationNanos >= 0
+        }
+    }
+
+    def "listeners hear only their member, and not after their registration closes"() {
+        given:
+        async = new AsyncInvocations(config)
+        def registration = async.subscribe("Events", "record", { outcomes << it } as AsyncInvocations.Listener)
+        def flushed = new CountDownLatch(1)
+        async.subscribe("Events", "flush", { flushed.countDown() } as AsyncInvocations.Listener)
+
+        when:
+        async.submit(flush, { null } as Callable)
+        async.submit(record, { null } as Callable)
+
+        then:
+        flushed.await(5, TimeUnit.SECONDS)
+        awaitOutcomes(1)*.memberName == ["record"]
+
+        when:
+        registration.close()
+        registration.close()
+        async.submit(record, { null } as Callable)
+        async.close()
+
+        then:
+        outcomes.size() == 1
+    }
+
+    def "a listener that throws does not stop the others"() {
+        given:
+        async = new AsyncInvocations(config)
+        async.subscribe("Events", "record", { throw new RuntimeException("bad listener") } as AsyncInvocations.Listener)
+        async.subscribe("Events", "record", { outcomes << it } as AsyncInvocations.Listener)
+
+        when:
+        async.submit(record, { null } as Callable)
+
+        then:
+        awaitOutcomes(1).size() == 1
+    }
+}
@@ -0,0 +1,262 @@
+package org.fractalx.netscope.server.core
+
+import org.fractalx.netscope.server.annotation.NetworkPublic
+import org.fractalx.netscope.server.config.NetScopeConfig
+import org.fractalx.netscope.server.model.NetworkMethodDefinition
+import io.grpc.Status
+import io.grpc.StatusRuntimeException
+import org.springframework.context.ApplicationContext
+import spock.lang.Specification
+
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardOpenOption
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class AttributeJournalSpec extends Specification {
+
+    // ── Fixtures ──────────────────────────────────────────────────────────────
+
+    static class Toggles {
+        @NetworkPublic String mode = "off"
+        @NetworkPublic int limit = 5
+        @NetworkPublic Map<String, Object> settings = [:]
+        @NetworkPublic final String fixed = "x"
+    }
+
+    Path dir = Files.createTempDirectory("netscope-journal")
+    NetScopeConfig.JournalConfig config = new NetScopeConfig().getJournal()
+    List<AttributeJournal> opened = []
+
+    def setup() {
+        config.directory = dir.toString()
+    }
+
+    def cleanup() {
+        opened.reverse().each { it.close() }
+        dir.toFile().deleteDir()
+    }
+
+    AttributeJournal open() {
+        def journal = new AttributeJournal(config)
+        opened << journal
+        journal
+    }
+
+    /** A node: a fresh bean, its scanner, and an invoker recording into {@code journal}, replayed. */
+    Map node(AttributeJournal journal) {
+        def toggles = new Toggles()
+        def context = Mock(ApplicationContext) {
+            getBeanDefinitionNames() >> (["toggles"] as String[])
+            getBean("toggles") >> toggles
+        }
+        def scanner = new NetScopeScanner(context, new NetScopeConfig())
+        def invoker = new NetScopeInvoker(null, journal)
+        journal.replay(scanner, invoker)
+        [toggles: toggles, invoker: invoker, scanner: scanner]
+    }
+
+    static NetworkMethodDefinition attribute(Map node, String name) {
+        node.scanner.findMethod("Toggles", name, []).get()
+    }
+
+    // ── Recording and replay ──────────────────────────────────────────────────
+
+    def "writes survive a restart without close, the last value of each field winning"() {
+        given:
+        def before = node(open())
+        before.invoker.write(attribute(before, "mode"), '"on"')
+        before.invoker.write(attribute(before, "mode"), '"auto"')
+        before.invoker.addAndGet(attribute(before, "limit"), "3")
+        before.invoker.compareAndSet(attribute(before, "settings"), "{}", '{"region":"eu"}')
+
+        when:
+        def after = node(open())
+
+        then:
+        after.toggles.mode == "auto"
+        after.toggles.limit == 8
+        after.toggles.settings == [region: "eu"]
+    }
+
+    def "a failed compare-and-set is not recorded"() {
+        given:
+        def before = node(open())
+        before.invoker.compareAndSet(attribute(before, "mode"), '"wrong"', '"on"')
+
+        expect:
+        opened[0].size() == 0
+    }
+
+    def "close compacts everything into the snapshot and empties the journal"() {
+        given:
+        def first = open()
+        def before = node(first)
+        before.invoker.write(attribute(before, "mode"), '"on"')
+
+        when:
+        first.close()
+
+        then:
+        new String(Files.readAllBytes(dir.resolve(AttributeJournal.SNAPSHOT_FILE))) == '{"Toggles.mode":"on"}'
+        node(open()).toggles.mode == "on"
+    }
+
+    def "a full journal is compacted and keeps taking writes"() {
+        given:
+        config.fileSize = 4096
+        def before = node(open())
+
+        when:
+        500.times { before.invoker.write(attribute(before, "limit"), "$it") }
+
+        then:
+        Files.exists(dir.resolve(AttributeJournal.SNAPSHOT_FILE))
+        node(open()).toggles.limit == 499
+    }
+
+    def "a value too large for the journal goes straight to the snapshot"() {
+        given:
+        config.fileSize = 4096
+        def before = node(open())
+        def big = "x" * 10000
+
+        when:
+        before.invoker.write(attribute(before, "mode"), "\"$big\"")
+
+        then:
+        node(open()).toggles.mode == big
+    }
+
+    def "a torn record and everything after it are dropped"() {
+        given:
+        def before = node(open())
+        before.invoker.write(attribute(before, "mode"), '"first"')
+        before.invoker.write(attribute(before, "mode"), '"second"')
+        corruptLastByteOf("second")
+
+        when:
+        def after = node(open())
+
+        then:
+        after.toggles.mode == "first"
+    }
+
+    def "attributes that are gone are kept but not restored"() {
+        given:
+        Files.writeString(dir.resolve(AttributeJournal.SNAPSHOT_FILE), '{"Removed.flag":true,"Toggles.fixed":"y"}')
+        def journal = open()
+
+        when:
+        def restored = journal.replay(Mock(NetScopeScanner) {
+            findMethod("Removed", "flag", []) >> Optional.empty()
+            findMethod("Toggles", "fixed", []) >> Optional.of(new NetworkMethodDefinition(new Toggles(),
+                    Toggles.getDeclaredField("fixed"), false, null, ""))
+        }, new NetScopeInvoker())
+        journal.close()
+
+        then:
+        restored == 0
+        new String(Files.readAllBytes(dir.resolve(AttributeJournal.SNAPSHOT_FILE))).contains('"Removed.flag":true')
+    }
+
+    // ── Gating and sync ───────────────────────────────────────────────────────
+
+    def "writes fail with UNAVAILABLE until the journal is replayed"() {
+        given:
+        def journal = open()
+        def invoker = new NetScopeInvoker(null, journal)
+        def toggles = new Toggles()
+        def mode = new NetworkMethodDefinition(toggles, Toggles.getDeclaredField("mode"), false, null, "")
+
+        when:
+        invoker.write(mode, '"on"')
+
+        then:
+        def e = thrown(StatusRuntimeException)
+        e.status.code == Status.Code.UNAVAILABLE
+        toggles.mode == "off"
+        !journal.isReplayed()
+    }
+
+    def "a write the journal cannot take still succeeds and is reported until the next snapshot"() {
+        given:
+        def journal = open()
+        def before = node(journal)
+        journal.close()
+
+        when:
+        def previous = before.invoker.write(attribute(before, "mode"), '"on"')
+
+        then:
+        previous == '"off"'
+        before.toggles.mode == "on"
+        journal.failure() == "Toggles.mode was written but not journaled: UNAVAILABLE: Attribute journal is closed"
+    }
+
+    def "a snapshot clears a reported failure, since it holds every last value"() {
+        given:
+        config.fileSize = 4096
+        def journal = open()
+        def before = node(journal)
+        journal.recordFailed(attribute(before, "mode"), new IOException("disk full"))
+
+        expect:
+        journal.failure().endsWith("disk full")
+
+        when:
+        500.times { before.invoker.write(attribute(before, "limit"), "$it") }
+
+        then:
+        journal.failure() == null
+    }
+
+    def "with waitForSync, concurrent writers share fsyncs instead of waiting out the interval"() {
+        given:
+        config.waitForSync = true
+        config.syncIntervalMillis = 60000
+        def before = node(open())
+        def pool = Executors.newFixedThreadPool(8)
+
+        when:
+        long start = System.nanoTime()
+        def futures = (1..200).collect { n -> pool.submit({ before.invoker.write(attribute(before, "limit"), "$n") } as Callable) }
+        futures*.get(10, TimeUnit.SECONDS)
+
+        then:
+        TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 10
+        node(open()).toggles.limit == before.toggles.limit
+
+        cleanup:
+        pool.shutdownNow()
+    }
+
+    def "a file that is not a journal is refused"() {
+        given:
+        Files.writeString(dir.resolve(AttributeJournal.JOURNAL_FILE), "not a journal")
+
+        when:
+        open()
+
+        then:
+        thrown(IOException)
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /** Flips the last byte of the record holding {@code value}, as a torn write would leave it. */
+    void corruptLastByteOf(String value) {
+        try (FileChannel channel = FileChannel.open(dir.resolve(AttributeJournal.JOURNAL_FILE),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            def bytes = ByteBuffer.allocate((int) Math.min(channel.size(), 65536))
+            channel.read(bytes, 0)
+            def text = new String(bytes.array(), "ISO-8859-1")
+            int at = text.indexOf("\"$value\"") + value.length() + 1
+            channel.write(ByteBuffer.wrap([(byte) 'X'] as byte[]), at)
+        }
+    }
+}
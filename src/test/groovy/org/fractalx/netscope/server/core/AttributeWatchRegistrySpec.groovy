@@ -0,0 +1,281 @@
+package org.fractalx.netscope.server.core
+
+import org.fractalx.netscope.server.config.NetScopeConfig
+import org.fractalx.netscope.server.core.AttributeWatchRegistry.Change
+import org.fractalx.netscope.server.core.AttributeWatchRegistry.Source
+import org.fractalx.netscope.server.model.NetworkMethodDefinition
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CopyOnWriteArrayList
+
+class AttributeWatchRegistrySpec extends Specification {
+
+    // ── Fixtures ──────────────────────────────────────────────────────────────
+
+    static class Gauge {
+        volatile int level = 1
+        String status = "UP"
+        final String id = "g-1"
+        int read() { level }
+    }
+
+    def bean     = new Gauge()
+    def config   = new NetScopeConfig.WatchConfig()
+    def registry = new AttributeWatchRegistry(config.with { sampleIntervalMillis = 0; it })
+
+    def cleanup() {
+        registry.close()
+    }
+
+    NetworkMethodDefinition fieldDef(String name) {
+        new NetworkMethodDefinition(bean, Gauge.getDeclaredField(name), false, null, "")
+    }
+
+    static class Recorder implements AttributeWatchRegistry.Listener {
+        final List<Change> changes = new CopyOnWriteArrayList<>()
+        boolean closed
+        void onChange(Change change) { changes << change }
+        void onClose() { closed = true }
+        List<String> values() { changes*.json }
+    }
+
+    // ── Initial snapshot ──────────────────────────────────────────────────────
+
+    def "watch delivers the current value as INITIAL version 0"() {
+        given:
+        def recorder = new Recorder()
+        when:
+        registry.watch(fieldDef("level"), recorder)
+        then:
+        recorder.changes.size() == 1
+        with(recorder.changes[0]) {
+            json == "1"
+            version == 0
+            source == Source.INITIAL
+        }
+    }
+
+    def "final fields can be watched"() {
+        given:
+        def recorder = new Recorder()
+        when:
+        registry.watch(fieldDef("id"), recorder)
+        then:
+        recorder.values() == ['"g-1"']
+    }
+
+    def "methods cannot be watched"() {
+        when:
+        registry.watch(new NetworkMethodDefinition(bean, Gauge.getDeclaredMethod("read"), false, null, ""),
+                new Recorder())
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    // ── Change sources ────────────────────────────────────────────────────────
+
+    def "written re-reads the field and publishes a WRITE change"() {
+        given:
+        def def_ = fieldDef("level")
+        def recorder = new Recorder()
+        registry.watch(def_, recorder)
+        when:
+        bean.level = 5
+        registry.written(def_)
+        then:
+        recorder.values() == ["1", "5"]
+        recorder.changes[1].version == 1
+        recorder.changes[1].source == Source.WRITE
+    }
+
+    def "notifyChanged by bean instance publishes a NOTIFY change"() {
+        given:
+        def recorder = new Recorder()
+        registry.watch(fieldDef("status"), recorder)
+        when:
+        bean.status = "DRAINING"
+        registry.notifyChanged(bean, "status")
+        then:
+        recorder.values() == ['"UP"', '"DRAINING"']
+        recorder.changes[1].source == Source.NOTIFY
+    }
+
+    def "notifyChanged by bean name publishes a NOTIFY change"() {
+        given:
+        def recorder = new Recorder()
+        registry.watch(fieldDef("status"), recorder)
+        when:
+        bean.status = "DOWN"
+        registry.notifyChanged("Gauge", "status")
+        then:
+        recorder.values() == ['"UP"', '"DOWN"']
+    }
+
+    def "an unchanged value is suppressed"() {
+        given:
+        def def_ = fieldDef("level")
+        def recorder = new Recorder()
+        registry.watch(def_, recorder)
+        when:
+        registry.written(def_)
+        registry.notifyChanged(bean, "level")
+        then:
+        recorder.values() == ["1"]
+    }
+
+    def "notifications for unwatched attributes are ignored"() {
+        when:
+        registry.notifyChanged("Gauge", "level")
+        registry.notifyChanged("Nope", "missing")
+        then:
+        noExceptionThrown()
+        registry.watcherCount() == 0
+    }
+
+    def "the sampler picks up changes made without a notification"() {
+        given:
+        def sampled = new AttributeWatchRegistry(new NetScopeConfig.WatchConfig(sampleIntervalMillis: 10))
+        def recorder = new Recorder()
+        sampled.watch(fieldDef("level"), recorder)
+        when:
+        bean.level = 9
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            assert recorder.values() == ["1", "9"]
+            assert recorder.changes[1].source == Source.SAMPLE
+        }
+        cleanup:
+        sampled.close()
+    }
+
+    // ── Fan-out ───────────────────────────────────────────────────────────────
+
+    def "all watchers receive the same Change instance and encode it once"() {
+        given:
+        def def_ = fieldDef("level")
+        def a = new Recorder(), b = new Recorder()
+        registry.watch(def_, a)
+        registry.watch(def_, b)
+        int encodes = 0
+        when:
+        bean.level = 2
+        registry.written(def_)
+        def encodedA = a.changes.last().encoded { encodes++; "bytes:" + it.json }
+        def encodedB = b.changes.last().encoded { encodes++; "bytes:" + it.json }
+        then:
+        a.changes.last().is(b.changes.last())
+        encodedA == "bytes:2"
+        encodedB.is(encodedA)
+        encodes == 1
+    }
+
+    def "a late watcher starts from the current version"() {
+        given:
+        def def_ = fieldDef("level")
+        def early = new Recorder(), late = new Recorder()
+        registry.watch(def_, early)
+        bean.level = 3
+        registry.written(def_)
+        when:
+        registry.watch(def_, late)
+        then:
+        late.changes.size() == 1
+        late.changes[0].json == "3"
+        late.changes[0].version == 1
+        late.changes[0].source == Source.INITIAL
+    }
+
+    def "a newcomer first brings existing watchers up to date"() {
+        given:
+        def def_ = fieldDef("level")
+        def early = new Recorder()
+        registry.watch(def_, early)
+        bean.level = 4
+        when:
+        registry.watch(def_, new Recorder())
+        then:
+        early.values() == ["1", "4"]
+    }
+
+    // ── Lifecycle ─────────────────────────────────────────────────────────────
+
+    def "closing a registration stops delivery and drops the attribute when last"() {
+        given:
+        def def_ = fieldDef("level")
+        def recorder = new Recorder()
+        def registration = registry.watch(def_, recorder)
+        when:
+        registration.close()
+        registration.close()
+        bean.level = 7
+        registry.written(def_)
+        then:
+        recorder.values() == ["1"]
+        registry.watcherCount() == 0
+    }
+
+    def "close notifies every watcher and rejects new watches"() {
+        given:
+        def recorder = new Recorder()
+        registry.watch(fieldDef("level"), recorder)
+        when:
+        registry.close()
+        then:
+        recorder.closed
+        registry.watcherCount() == 0
+        when:
+        registry.watch(fieldDef("level"), new Recorder())
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def "a failing watcher does not stop the others"() {
+        given:
+        def def_ = fieldDef("level")
+        def recorder = new Recorder()
+        registry.watch(def_, { Change c -> if (c.source != Source.INITIAL) throw new RuntimeException("boom") }
+                as AttributeWatchRegistry.Listener)
+        registry.watch(def_, recorder)
+        when:
+        bean.level = 8
+        registry.written(def_)
+        then:
+        recorder.values() == ["1", "8"]
+    }
+
+    def "a listener may use the registry from inside a callback"() {
+        given:
+        def def_ = fieldDef("level")
+        def nested = new Recorder()
+        AttributeWatchRegistry.Registration inner = null
+        def listener = { Change c ->
+            if (c.source == Source.INITIAL && inner == null) inner = registry.watch(def_, nested)
+            else if (c.source == Source.WRITE) inner.close()
+        } as AttributeWatchRegistry.Listener
+
+        when:
+        registry.watch(def_, listener)
+        bean.level = 4
+        registry.written(def_)
+
+        then:
+        nested.values() == ["1", "4"]
+        registry.watcherCount() == 1
+    }
+
+    def "a watch started after the last one closed gets a fresh topic"() {
+        given:
+        def def_ = fieldDef("level")
+        registry.watch(def_, new Recorder()).close()
+        def recorder = new Recorder()
+
+        when:
+        registry.watch(def_, recorder)
+        bean.level = 5
+        registry.written(def_)
+
+        then:
+        recorder.values() == ["1", "5"]
+    }
+}
@@ -0,0 +1,61 @@
+package org.fractalx.netscope.server.core
+
+import io.grpc.Context
+import spock.lang.Specification
+
+import java.util.concurrent.CancellationException
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class NetScopeCallContextSpec extends Specification {
+
+    def callContext = new NetScopeCallContext()
+    def scheduler = Executors.newSingleThreadScheduledExecutor()
+
+    def cleanup() {
+        scheduler.shutdownNow()
+    }
+
+    def "outside a call nothing is cancelled and there is no deadline"() {
+        when:
+        callContext.checkCancelled()
+        then:
+        noExceptionThrown()
+        !callContext.isCancelled()
+        callContext.remaining().isEmpty()
+    }
+
+    def "reports the calling context's cancellation"() {
+        given:
+        def ctx = Context.current().withCancellation()
+        ctx.cancel(null)
+        when:
+        def cancelled = ctx.call { callContext.isCancelled() }
+        ctx.run { callContext.checkCancelled() }
+        then:
+        cancelled
+        thrown(CancellationException)
+    }
+
+    def "reports the time left until the caller's deadline"() {
+        given:
+        def ctx = Context.current().withDeadlineAfter(5, TimeUnit.SECONDS, scheduler)
+        when:
+        def remaining = ctx.call { callContext.remaining() }.get()
+        then:
+        remaining.toMillis() > 4000
+        remaining.toMillis() <= 5000
+        cleanup:
+        ctx.cancel(null)
+    }
+
+    def "a passed deadline cancels the call"() {
+        given:
+        def ctx = Context.current().withDeadlineAfter(10, TimeUnit.MILLISECONDS, scheduler)
+        when:
+        Thread.sleep(100)
+        then:
+        ctx.call { callContext.isCancelled() }
+        ctx.call { callContext.remaining().get().isNegative() }
+    }
+}
@@ -1,10 +1,12 @@
 package org.fractalx.netscope.server.core
 
+import io.grpc.Context
 import org.fractalx.netscope.server.model.NetworkMethodDefinition
 import spock.lang.Specification
 
 import java.lang.reflect.Field
 import java.lang.reflect.Method
+import java.util.concurrent.CancellationException
 import java.util.concurrent.CompletableFuture
 
 class NetScopeInvokerSpec extends Specification {
@@ -13,6 +15,11 @@ class NetScopeInvokerSpec extends Specification {
 
     static class InvokerBean {
         String name = "initial"
+        int count = 0
+        Long total = 0L
+        double ratio = 0.5d
+        byte small = 0
+        Map<String, Object> settings = [mode: "fast"]
         final String immutable = "cannot-change"
         static String shared = "static-value"
 
@@ -36,6 +43,27 @@ class NetScopeInvokerSpec extends Specification {
             f.completeExceptionally(new Error("not-an-exception"))
             f
         }
+
+        CompletableFuture<String> pending = new CompletableFuture<>()
+        CompletableFuture<String> asyncPending() { pending }
+
+        static NetScopeCallContext callContext = new NetScopeCallContext()
+        String checksCancellation() { callContext.checkCancelled(); "finished" }
+        String throwsCancellation() { throw new CancellationException("gave up") }
+
+        Tracked tracked() { new Tracked() }
+
+        List<String> recorded = []
+        void record(String event) {
+            if (event == "fail") throw new IllegalStateException("refused")
+            recorded << event
+        }
+    }
+
+    /** Counts how often its property is read, i.e. whether it was serialized. */
+    static class Tracked {
+        static int reads = 0
+        String getValue() { reads++; "v" }
     }
 
     def invoker = new NetScopeInvoker()
@@ -259,6 +287,100 @@ class NetScopeInvokerSpec extends Specification {
         thrown(RuntimeException)
     }
 
+    // ── prepare() ─────────────────────────────────────────────────────────────
+
+    def "prepare: arguments are decoded up front, the method runs only when the task is called"() {
+        given:
+        def def_ = methodDef("record", String)
+        when:
+        def task = invoker.prepare(def_, '["x"]')
+        then:
+        bean.recorded == []
+        when:
+        task.call()
+        then:
+        bean.recorded == ["x"]
+    }
+
+    def "prepare: argument errors are thrown by prepare itself"() {
+        when:
+        invoker.prepare(methodDef("record", String), '["a","b"]')
+        then:
+        thrown(IllegalArgumentException)
+        bean.recorded == []
+    }
+
+    def "prepare: the task throws what the method threw, unwrapped"() {
+        given:
+        def task = invoker.prepare(methodDef("record", String), '["fail"]')
+        when:
+        task.call()
+        then:
+        def e = thrown(IllegalStateException)
+        e.message == "refused"
+    }
+
+    // ── Cancellation ──────────────────────────────────────────────────────────
+
+    def "cancelling the call stops waiting, but leaves the bean's CompletableFuture alone"() {
+        given:
+        def ctx = Context.current().withCancellation()
+        def def_ = methodDef("asyncPending")
+        when:
+        Thread.start { Thread.sleep(100); ctx.cancel(null) }
+        ctx.call { invoker.invoke(def_, null) }
+        then:
+        thrown(CancellationException)
+        !bean.pending.isDone()
+    }
+
+    def "a future the bean cancelled itself is an ordinary failure, not a cancelled call"() {
+        given:
+        bean.pending.cancel(false)
+        when:
+        invoker.invoke(methodDef("asyncPending"), null)
+        then:
+        def e = thrown(IllegalStateException)
+        e.message.startsWith("Cancelled by the method, not the client")
+        e.cause instanceof CancellationException
+    }
+
+    def "a CancellationException thrown by the bean during a live call is an ordinary failure"() {
+        when:
+        invoker.invoke(methodDef("throwsCancellation"), null)
+        then:
+        def e = thrown(IllegalStateException)
+        e.message == "Cancelled by the method, not the client: gave up"
+    }
+
+    def "a result is not serialized once the call is cancelled"() {
+        given:
+        def ctx = Context.current().withCancellation()
+        ctx.cancel(null)
+        Tracked.reads = 0
+        when:
+        ctx.call { invoker.invoke(methodDef("tracked"), null) }
+        then:
+        thrown(CancellationException)
+        Tracked.reads == 0
+    }
+
+    def "a bean's checkCancelled() surfaces as CancellationException, not a reflection wrapper"() {
+        given:
+        def ctx = Context.current().withCancellation()
+        ctx.cancel(null)
+        when:
+        ctx.call { invoker.invoke(methodDef("checksCancellation"), null) }
+        then:
+        thrown(CancellationException)
+    }
+
+    def "outside a cancelled call the same methods complete normally"() {
+        expect:
+        invoker.invoke(methodDef("checksCancellation"), null) == '"finished"'
+        invoker.invoke(methodDef("tracked"), null) == '{"value":"v"}'
+    }
+
     // ── write() ───────────────────────────────────────────────────────────────
 
     def "write(): throws UnsupportedOperationException for method definition"() {
@@ -334,4 +456,343 @@ class NetScopeInvokerSpec extends Specification {
         previous == '"old-static"'
         InvokerBean.shared == "updated"
     }
+
+    def "write(): converts JSON to a primitive field's type"() {
+        given:
+        bean.count = 3
+        def def_ = fieldDef("count")
+        when:
+        def previous = invoker.write(def_, "42")
+        then:
+        previous == "3"
+        bean.count == 42
+    }
+
+    def "write(): null cannot be assigned to a primitive field"() {
+        given:
+        def def_ = fieldDef("count")
+        when:
+        invoker.write(def_, "null")
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "restore() sets the field and tells watchers, even before a journal is replayed"() {
+        given:
+        def registry = Mock(AttributeWatchRegistry)
+        def journal = Mock(AttributeJournal)
+        def journaling = new NetScopeInvoker(registry, journal)
+        def def_ = fieldDef("count")
+        when:
+        journaling.restore(def_, "42")
+        then:
+        bean.count == 42
+        1 * registry.written(def_)
+        0 * journal._
+    }
+
+    def "write() records the new value in the journal before telling watchers"() {
+        given:
+        def registry = Mock(AttributeWatchRegistry)
+        def journal = Mock(AttributeJournal)
+        def journaling = new NetScopeInvoker(registry, journal)
+        def def_ = fieldDef("name")
+        when:
+        journaling.write(def_, '"journaled"')
+        then:
+        1 * journal.checkReplayed()
+        then:
+        1 * journal.record(def_)
+        then:
+        1 * registry.written(def_)
+    }
+
+    def "write(): a journal failure leaves the write applied, tells watchers, and is reported"() {
+        given:
+        def registry = Mock(AttributeWatchRegistry)
+        def journal = Mock(AttributeJournal)
+        def journaling = new NetScopeInvoker(registry, journal)
+        def def_ = fieldDef("count")
+        def failure = new IOException("disk full")
+
+        when:
+        def previous = journaling.write(def_, "7")
+        def update = journaling.addAndGet(def_, "1")
+
+        then:
+        2 * journal.record(def_) >> { throw failure }
+        2 * journal.recordFailed(def_, failure)
+        2 * registry.written(def_)
+        previous == "0"
+        update.currentJson() == "8"
+        bean.count == 8
+    }
+
+    def "write(): an interrupt while waiting for the journal's fsync keeps the interrupt and the write"() {
+        given:
+        def registry = Mock(AttributeWatchRegistry)
+        def journal = Mock(AttributeJournal)
+        def journaling = new NetScopeInvoker(registry, journal)
+        def def_ = fieldDef("count")
+
+        when:
+        journaling.write(def_, "3")
+        def interrupted = Thread.interrupted()
+
+        then:
+        1 * journal.record(def_) >> { throw new InterruptedException() }
+        0 * journal.recordFailed(_, _)
+        1 * registry.written(def_)
+        interrupted
+        bean.count == 3
+    }
+
+    // ── compareAndSet() ───────────────────────────────────────────────────────
+
+    def "compareAndSet(): swaps when the current value equals expected"() {
+        given:
+        bean.name = new String("current")   // distinct instance from the parsed expected value
+        when:
+        def update = invoker.compareAndSet(fieldDef("name"), '"current"', '"next"')
+        then:
+        update.applied()
+        update.previousJson() == '"current"'
+        update.currentJson() == '"next"'
+        bean.name == "next"
+    }
+
+    def "compareAndSet(): leaves the field unchanged and reports the witness on a miss"() {
+        given:
+        bean.name = "actual"
+        when:
+        def update = invoker.compareAndSet(fieldDef("name"), '"stale"', '"next"')
+        then:
+        !update.applied()
+        update.currentJson() == '"actual"'
+        bean.name == "actual"
+    }
+
+    def "compareAndSet(): compares structured values by content"() {
+        when:
+        def update = invoker.compareAndSet(fieldDef("settings"), '{"mode":"fast"}', '{"mode":"safe"}')
+        then:
+        update.applied()
+        bean.settings == [mode: "safe"]
+    }
+
+    def "compareAndSet(): null expected matches a null field"() {
+        given:
+        bean.name = null
+        expect:
+        invoker.compareAndSet(fieldDef("name"), "null", '"set"').applied()
+        bean.name == "set"
+    }
+
+    def "compareAndSet(): rejects final fields"() {
+        when:
+        invoker.compareAndSet(fieldDef("immutable"), '"cannot-change"', '"x"')
+        then:
+        thrown(IllegalStateException)
+    }
+
+    // ── addAndGet() ───────────────────────────────────────────────────────────
+
+    def "addAndGet(): adds to primitive, boxed and floating-point fields"() {
+        given:
+        bean.count = 40
+        bean.total = 100L
+        bean.ratio = 0.5d
+        expect:
+        invoker.addAndGet(fieldDef("count"), "2").currentJson() == "42"
+        invoker.addAndGet(fieldDef("total"), "-1").previousJson() == "100"
+        invoker.addAndGet(fieldDef("ratio"), "0.25").currentJson() == "0.75"
+        bean.count == 42
+        bean.total == 99L
+        bean.ratio == 0.75d
+    }
+
+    def "addAndGet(): integral fields wrap on overflow like Java arithmetic"() {
+        given:
+        bean.small = 127 as byte
+        when:
+        def update = invoker.addAndGet(fieldDef("small"), "1")
+        then:
+        update.currentJson() == "-128"
+        bean.small == (-128 as byte)
+    }
+
+    def "addAndGet(): rejects a fractional or out-of-range delta for integral fields"() {
+        when:
+        invoker.addAndGet(fieldDef(field), delta)
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        field   | delta
+        "count" | "1.5"
+        "count" | "3000000000"
+        "small" | "200"
+        "count" | "null"
+    }
+
+    def "addAndGet(): rejects non-numeric fields"() {
+        when:
+        invoker.addAndGet(fieldDef("name"), "1")
+        then:
+        thrown(UnsupportedOperationException)
+    }
+
+    def "addAndGet(): concurrent increments are never lost"() {
+        given:
+        bean.count = 0
+        bean.total = 0L
+        def threads = (1..8).collect {
+            Thread.start {
+                500.times {
+                    invoker.addAndGet(fieldDef("count"), "1")
+                    invoker.addAndGet(fieldDef("total"), "1")
+                }
+            }
+        }
+        when:
+        threads*.join()
+        then:
+        bean.count == 4000
+        bean.total == 4000L
+    }
+
+    // ── Watch notifications ───────────────────────────────────────────────────
+
+    def "successful writes are reported to the watch registry"() {
+        given:
+        def registry = Mock(AttributeWatchRegistry)
+        def watched  = new NetScopeInvoker(registry)
+        when:
+        watched.write(fieldDef("count"), "1")
+        watched.compareAndSet(fieldDef("count"), "1", "2")
+        watched.addAndGet(fieldDef("count"), "3")
+        then:
+        3 * registry.written({ it.methodName == "count" })
+        bean.count == 5
+    }
+
+    def "a missed compare-and-set is not reported"() {
+        given:
+        def registry = Mock(AttributeWatchRegistry)
+        when:
+        new NetScopeInvoker(registry).compareAndSet(fieldDef("count"), "42", "1")
+        then:
+        0 * registry.written(_)
+    }
+
+    def "reads are not reported"() {
+        given:
+        def registry = Mock(AttributeWatchRegistry)
+        when:
+        new NetScopeInvoker(registry).invoke(fieldDef("count"), "[]")
+        then:
+        0 * registry._
+    }
+
+    // ── readAll() ─────────────────────────────────────────────────────────────
+
+    static class LockedBean implements SnapshotLockProvider {
+        final java.util.concurrent.locks.Lock lock
+        int low = 1
+        int high = 9
+        LockedBean(java.util.concurrent.locks.Lock lock) { this.lock = lock }
+        java.util.concurrent.locks.Lock snapshotLock() { lock }
+    }
+
+    def "readAll returns one JSON object keyed by field name in request order"() {
+        when:
+        def snapshot = invoker.readAll([fieldDef("name"), fieldDef("count"), fieldDef("settings")], false)
+        then:
+        snapshot.json() == '{"name":"initial","count":0,"settings":{"mode":"fast"}}'
+        snapshot.consistent()
+        snapshot.attempts() == 1
+    }
+
+    def "readAll of no fields is an empty object"() {
+        expect:
+        invoker.readAll([], true).json() == "{}"
+    }
+
+    def "readAll includes static and final fields"() {
+        given:
+        InvokerBean.shared = "static-value"
+        expect:
+        invoker.readAll([fieldDef("immutable"), fieldDef("shared")], true).json() ==
+                '{"immutable":"cannot-change","shared":"static-value"}'
+    }
+
+    def "consistent readAll without a bean lock re-reads until two passes agree"() {
+        when:
+        def snapshot = invoker.readAll([fieldDef("name"), fieldDef("count")], true)
+        then:
+        snapshot.consistent()
+        snapshot.attempts() == 2
+    }
+
+    def "consistent readAll holds the bean-supplied lock while reading"() {
+        given:
+        def lock = Mock(java.util.concurrent.locks.Lock)
+        def locked = new LockedBean(lock)
+        def defs = ["low", "high"].collect {
+            new NetworkMethodDefinition(locked, LockedBean.getDeclaredField(it), false, null, "")
+        }
+        when:
+        def snapshot = invoker.readAll(defs, true)
+        then:
+        1 * lock.lock()
+        then:
+        1 * lock.unlock()
+        snapshot.json() == '{"low":1,"high":9}'
+        snapshot.attempts() == 1
+    }
+
+    def "readAll without consistency ignores the bean lock"() {
+        given:
+        def lock = Mock(java.util.concurrent.locks.Lock)
+        def locked = new LockedBean(lock)
+        when:
+        invoker.readAll([new NetworkMethodDefinition(locked, LockedBean.getDeclaredField("low"), false, null, "")], false)
+        then:
+        0 * lock._
+    }
+
+    def "consistent readAll never mixes values from concurrent lock-guarded updates"() {
+        given:
+        def rw = new java.util.concurrent.locks.ReentrantReadWriteLock()
+        def locked = new LockedBean(rw.readLock())
+        def defs = ["low", "high"].collect {
+            new NetworkMethodDefinition(locked, LockedBean.getDeclaredField(it), false, null, "")
+        }
+        def running = true
+        def writer = Thread.start {
+            int i = 0
+            while (running) {
+                rw.writeLock().lock()
+                try { locked.low = i; locked.high = i + 8 } finally { rw.writeLock().unlock() }
+                i++
+            }
+        }
+        when:
+        def torn = (1..2000).collect { invoker.readAll(defs, true).json() }.findAll {
+            def m = new com.fasterxml.jackson.databind.ObjectMapper().readTree(it)
+            m.get("high").asInt() - m.get("low").asInt() != 8
+        }
+        then:
+        torn.isEmpty()
+        cleanup:
+        running = false
+        writer?.join()
+    }
+
+    def "readAll rejects methods"() {
+        when:
+        invoker.readAll([methodDef("greet")], false)
+        then:
+        thrown(UnsupportedOperationException)
+    }
 }
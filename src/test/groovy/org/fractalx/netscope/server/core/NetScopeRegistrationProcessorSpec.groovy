@@ -0,0 +1,153 @@
+package org.fractalx.netscope.server.core
+
+import org.fractalx.netscope.server.annotation.NetworkPublic
+import org.fractalx.netscope.server.config.NetScopeConfig
+import org.springframework.beans.factory.config.BeanDefinition
+import org.springframework.beans.factory.support.RootBeanDefinition
+import org.springframework.context.support.GenericApplicationContext
+import org.springframework.context.support.SimpleThreadScope
+import spock.lang.Specification
+
+import java.util.function.Supplier
+
+class NetScopeRegistrationProcessorSpec extends Specification {
+
+    // ── Fixtures ──────────────────────────────────────────────────────────────
+
+    static class StartupBean {
+        @NetworkPublic String ping() { "pong" }
+    }
+
+    static class PluginBean {
+        @NetworkPublic String status = "ready"
+    }
+
+    static class PlainBean {
+        String notExposed() { "x" }
+    }
+
+    GenericApplicationContext context = new GenericApplicationContext()
+
+    def setup() {
+        define("processor", new RootBeanDefinition(NetScopeRegistrationProcessor))
+        define("scanner", new RootBeanDefinition(NetScopeScanner,
+                { new NetScopeScanner(context, new NetScopeConfig()) } as Supplier))
+        define("startup", new RootBeanDefinition(StartupBean))
+        context.refresh()
+    }
+
+    void define(String name, RootBeanDefinition definition) {
+        context.registerBeanDefinition(name, definition)
+    }
+
+    def cleanup() {
+        context.close()
+    }
+
+    NetScopeScanner scanner() { context.getBean(NetScopeScanner) }
+
+    // ── Startup ───────────────────────────────────────────────────────────────
+
+    def "beans present at startup are registered once by the initial scan"() {
+        expect:
+        scanner().findMethod("StartupBean", "ping", []).isPresent()
+        scanner().getVersion() == 1
+    }
+
+    def "the attribute journal is replayed into the scanned fields"() {
+        given:
+        def dir = java.nio.file.Files.createTempDirectory("netscope-journal")
+        java.nio.file.Files.writeString(dir.resolve(AttributeJournal.SNAPSHOT_FILE), '{"PluginBean.status":"restored"}')
+        def journalConfig = new NetScopeConfig().getJournal()
+        journalConfig.directory = dir.toString()
+        def journaled = new GenericApplicationContext()
+        journaled.registerBeanDefinition("processor", new RootBeanDefinition(NetScopeRegistrationProcessor))
+        journaled.registerBeanDefinition("scanner", new RootBeanDefinition(NetScopeScanner,
+                { new NetScopeScanner(journaled, new NetScopeConfig()) } as Supplier))
+        journaled.registerBeanDefinition("journal", new RootBeanDefinition(AttributeJournal,
+                { new AttributeJournal(journalConfig) } as Supplier))
+        journaled.registerBeanDefinition("invoker", new RootBeanDefinition(NetScopeInvoker,
+                { new NetScopeInvoker(null, journaled.getBean(AttributeJournal)) } as Supplier))
+        journaled.registerBeanDefinition("plugin", new RootBeanDefinition(PluginBean))
+
+        when:
+        journaled.refresh()
+
+        then:
+        journaled.getBean(PluginBean).status == "restored"
+        journaled.getBean(AttributeJournal).isReplayed()
+
+        cleanup:
+        journaled.close()
+        dir.toFile().deleteDir()
+    }
+
+    // ── Runtime registration ──────────────────────────────────────────────────
+
+    def "a bean created after startup is registered and bumps the version"() {
+        when:
+        define("plugin", new RootBeanDefinition(PluginBean))
+        context.getBean("plugin")
+        then:
+        scanner().findMethod("PluginBean", "status", []).isPresent()
+        scanner().getVersion() == 2
+    }
+
+    def "a destroyed bean is removed"() {
+        given:
+        define("plugin", new RootBeanDefinition(PluginBean))
+        context.getBean("plugin")
+        when:
+        context.getBeanFactory().destroySingleton("plugin")
+        then:
+        !scanner().findMethod("PluginBean", "status", []).isPresent()
+        scanner().getVersion() == 3
+        scanner().findMethod("StartupBean", "ping", []).isPresent()
+    }
+
+    def "beans without exposed members never touch the registry"() {
+        when:
+        define("plain", new RootBeanDefinition(PlainBean))
+        context.getBean("plain")
+        context.getBeanFactory().destroySingleton("plain")
+        then:
+        scanner().getVersion() == 1
+    }
+
+    def "prototype beans are not registered per instance"() {
+        when:
+        define("proto", new RootBeanDefinition(PluginBean).tap { scope = BeanDefinition.SCOPE_PROTOTYPE })
+        context.getBean("proto")
+        context.getBean("proto")
+        then:
+        scanner().getVersion() == 1
+    }
+
+    def "request-scoped beans are not registered per request"() {
+        given:
+        def requests = new SimpleThreadScope()
+        context.getBeanFactory().registerScope("request", requests)
+        define("perRequest", new RootBeanDefinition(PluginBean).tap { scope = "request" })
+
+        when:
+        3.times {
+            context.getBean("perRequest")
+            requests.remove("perRequest")   // the request ends
+        }
+        then:
+        scanner().getVersion() == 1
+        !scanner().findMethod("PluginBean", "status", []).isPresent()
+    }
+
+    def "refresh-scoped beans are registered when re-created"() {
+        given:
+        context.getBeanFactory().registerScope("refresh", new SimpleThreadScope())
+        define("settings", new RootBeanDefinition(PluginBean).tap { scope = "refresh" })
+
+        when:
+        context.getBean("settings")
+        then:
+        scanner().findMethod("PluginBean", "status", []).isPresent()
+        scanner().getVersion() == 2
+    }
+}
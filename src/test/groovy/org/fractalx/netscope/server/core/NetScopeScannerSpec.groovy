@@ -3,6 +3,7 @@ package org.fractalx.netscope.server.core
 import org.fractalx.netscope.server.annotation.AuthType
 import org.fractalx.netscope.server.annotation.NetworkPublic
 import org.fractalx.netscope.server.annotation.NetworkSecured
+import org.fractalx.netscope.server.annotation.Priority
 import org.fractalx.netscope.server.config.NetScopeConfig
 import org.springframework.context.ApplicationContext
 import spock.lang.Specification
@@ -24,7 +25,7 @@ class NetScopeScannerSpec extends Specification {
         @NetworkPublic(description = "find items")
         String find(String query) { "result:$query" }
 
-        @NetworkSecured(auth = AuthType.OAUTH, description = "secured data")
+        @NetworkSecured(auth = AuthType.OAUTH, description = "secured data", priority = Priority.HIGH)
         String getSecured() { "secret" }
 
         @NetworkPublic
@@ -41,7 +42,7 @@ class NetScopeScannerSpec extends Specification {
     }
 
     static class FieldBean {
-        @NetworkPublic
+        @NetworkPublic(priority = Priority.LOW)
         String version = "1.0"
 
         @NetworkSecured(auth = AuthType.API_KEY)
@@ -64,6 +65,17 @@ class NetScopeScannerSpec extends Specification {
         String childMethod() { "child" }
     }
 
+    static class AsyncBean {
+        @NetworkPublic(async = true)
+        void record(String event) {}
+
+        @NetworkSecured(auth = AuthType.API_KEY, async = true)
+        String notVoid() { "ignored" }
+
+        @NetworkPublic
+        void flush() {}
+    }
+
     // ── Helpers ───────────────────────────────────────────────────────────────
 
     ApplicationContext mockCtx(Map<String, Object> beans) {
@@ -112,6 +124,28 @@ class NetScopeScannerSpec extends Specification {
         results.find { it.getMethodName() == "getSecured" }.getDescription() == "secured data"
     }
 
+    def "scan() captures priority from annotation, NORMAL by default"() {
+        given:
+        def scanner = new NetScopeScanner(mockCtx([svc: new SearchServiceImpl(), fields: new FieldBean()]), config)
+        when:
+        def results = scanner.scan()
+        then:
+        results.find { it.getMethodName() == "getSecured" }.getPriority() == Priority.HIGH
+        results.find { it.getMethodName() == "version" }.getPriority() == Priority.LOW
+        results.find { it.getMethodName() == "find" }.getPriority() == Priority.NORMAL
+    }
+
+    def "scan() marks async = true void methods async, ignoring it elsewhere"() {
+        given:
+        def scanner = new NetScopeScanner(mockCtx([events: new AsyncBean()]), config)
+        when:
+        def results = scanner.scan()
+        then:
+        results.find { it.getMethodName() == "record" }.isAsync()
+        !results.find { it.getMethodName() == "notVoid" }.isAsync()
+        !results.find { it.getMethodName() == "flush" }.isAsync()
+    }
+
     def "scan() returns distinct list — does not duplicate entries"() {
         given:
         def bean = new SearchServiceImpl()
@@ -137,6 +171,17 @@ class NetScopeScannerSpec extends Specification {
         first.size() == second.size()
     }
 
+    def "isScanned() turns true with the first scan"() {
+        given:
+        def scanner = new NetScopeScanner(mockCtx([svc: new SearchServiceImpl()]), config)
+        expect:
+        !scanner.isScanned()
+        when:
+        scanner.refresh()
+        then:
+        scanner.isScanned()
+    }
+
     def "scan() returns empty list when context has no annotated beans"() {
         given:
         def ctx = Mock(ApplicationContext)
@@ -226,6 +271,153 @@ class NetScopeScannerSpec extends Specification {
         results.size() >= 1
     }
 
+    // ── getVersion() ──────────────────────────────────────────────────────────
+
+    def "getVersion() scans on first use and stays put while members are unchanged"() {
+        given:
+        def scanner = new NetScopeScanner(mockCtx([svc: new SearchServiceImpl()]), config)
+        when:
+        def first = scanner.getVersion()
+        scanner.scan()
+        then:
+        first == 1
+        scanner.getVersion() == first
+    }
+
+    // ── Hot registration ──────────────────────────────────────────────────────
+
+    def "register() adds a bean's members and bumps the version"() {
+        given:
+        def scanner = new NetScopeScanner(mockCtx([:]), config)
+        def before = scanner.getVersion()
+        when:
+        def changed = scanner.register("fields", new FieldBean())
+        then:
+        changed
+        scanner.getVersion() == before + 1
+        scanner.findMethod("FieldBean", "version", []).isPresent()
+    }
+
+    def "register() of a bean without exposed members changes nothing"() {
+        given:
+        def scanner = new NetScopeScanner(mockCtx([:]), config)
+        def before = scanner.getVersion()
+        expect:
+        !scanner.register("plain", new Object())
+        scanner.getVersion() == before
+    }
+
+    def "register() under an existing name replaces the old instance"() {
+        given:
+        def first  = new FieldBean()
+        def second = new FieldBean()
+        def scanner = new NetScopeScanner(mockCtx([fields: first]), config)
+        when:
+        scanner.register("fields", second)
+        then:
+        scanner.findMethod("FieldBean", "version", []).get().getBean().is(second)
+        !scanner.register("fields", second)
+    }
+
+    def "register() also registers interface aliases"() {
+        given:
+        def scanner = new NetScopeScanner(mockCtx([:]), config)
+        when:
+        scanner.register("svc", new SearchServiceImpl())
+        then:
+        scanner.findMethod("SearchService", "find", []).isPresent()
+    }
+
+    def "unregister() removes members and aliases and bumps the version"() {
+        given:
+        def scanner = new NetScopeScanner(mockCtx([svc: new SearchServiceImpl()]), config)
+        def before = scanner.getVersion()
+        when:
+        def removed = scanner.unregister("svc")
+        then:
+        removed
+        scanner.getVersion() == before + 1
+        scanner.scan().isEmpty()
+        !scanner.findMethod("SearchServiceImpl", "find", []).isPresent()
+        !scanner.findMethod("SearchService", "find", []).isPresent()
+        !scanner.unregister("svc")
+    }
+
+    def "unregister() with a bean instance ignores a name now held by a newer instance"() {
+        given:
+        def old     = new FieldBean()
+        def current = new FieldBean()
+        def scanner = new NetScopeScanner(mockCtx([fields: old]), config)
+        scanner.register("fields", current)
+        expect:
+        !scanner.unregister("fields", old)
+        scanner.unregister("fields", current)
+    }
+
+    def "a resolved member stays usable after its bean is removed"() {
+        given:
+        def bean = new FieldBean()
+        def scanner = new NetScopeScanner(mockCtx([fields: bean]), config)
+        def def_ = scanner.findMethod("FieldBean", "version", []).get()
+        when:
+        scanner.unregister("fields")
+        then:
+        def_.getFieldAccessor().get(bean) == "1.0"
+    }
+
+    def "refresh() publishes a new version only when the context's beans changed"() {
+        given:
+        def beans = [svc: new SearchServiceImpl()]
+        def ctx = Mock(ApplicationContext)
+        ctx.getBeanDefinitionNames() >> { beans.keySet().toArray(new String[0]) }
+        ctx.getBean(_ as String) >> { String name -> beans[name] }
+        def scanner = new NetScopeScanner(ctx, config)
+        def first = scanner.refresh()
+        when:
+        def same = scanner.refresh()
+        beans.fields = new FieldBean()
+        def grown = scanner.refresh()
+        then:
+        first == 1
+        same == 1
+        grown == 2
+        scanner.findMethod("FieldBean", "version", []).isPresent()
+    }
+
+    def "hasNetworkMembers() detects annotated methods and fields"() {
+        expect:
+        NetScopeScanner.hasNetworkMembers(SearchServiceImpl)
+        NetScopeScanner.hasNetworkMembers(FieldBean)
+        NetScopeScanner.hasNetworkMembers(InheritedChild)
+        !NetScopeScanner.hasNetworkMembers(Object)
+        !NetScopeScanner.hasNetworkMembers(String)
+    }
+
+    def "lookups racing with registrations always see a complete snapshot"() {
+        given:
+        def scanner = new NetScopeScanner(mockCtx([svc: new SearchServiceImpl()]), config)
+        def errors = Collections.synchronizedList([])
+        def running = true
+        def writer = Thread.start {
+            int i = 0
+            while (running) {
+                scanner.register("fields", new FieldBean())
+                scanner.unregister("fields")
+                i++
+            }
+        }
+        when:
+        10_000.times {
+            if (!scanner.findMethod("SearchServiceImpl", "find", []).isPresent()) errors << "missing"
+            scanner.findMethod("FieldBean", "version", [])   // present or not, never throws
+        }
+        then:
+        errors.isEmpty()
+        cleanup:
+        running = false
+        writer?.join()
+    }
+
     // ── findMethod(): lazy scan trigger ──────────────────────────────────────
 
     def "findMethod() triggers scan on first call"() {
@@ -344,6 +536,24 @@ class NetScopeScannerSpec extends Specification {
         result.isEmpty()
     }
 
+    // ── hasBean() ─────────────────────────────────────────────────────────────
+
+    def "hasBean() knows concrete names and interface aliases, and follows registration"() {
+        given:
+        def scanner = new NetScopeScanner(mockCtx([svc: new SearchServiceImpl()]), config)
+        expect:
+        scanner.hasBean("SearchServiceImpl")
+        scanner.hasBean("SearchService")
+        !scanner.hasBean("FieldBean")
+        when:
+        scanner.register("fields", new FieldBean())
+        scanner.unregister("svc")
+        then:
+        scanner.hasBean("FieldBean")
+        !scanner.hasBean("SearchServiceImpl")
+        !scanner.hasBean("SearchService")
+    }
+
     // ── findMethod(): interface alias lookup ──────────────────────────────────
 
     def "findMethod() by interface alias finds same definition as concrete name"() {
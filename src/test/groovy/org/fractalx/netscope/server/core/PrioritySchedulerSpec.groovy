@@ -0,0 +1,176 @@
+package org.fractalx.netscope.server.core
+
+import org.fractalx.netscope.server.annotation.Priority
+import org.fractalx.netscope.server.config.NetScopeConfig
+import io.grpc.Status
+import io.grpc.StatusRuntimeException
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class PrioritySchedulerSpec extends Specification {
+
+    // ── Fixtures: one worker, held busy while calls queue up ──────────────────
+
+    long now = 0
+    def config = new NetScopeConfig().getScheduling()
+    List<String> ran = new CopyOnWriteArrayList<>()
+    CountDownLatch release = new CountDownLatch(1)
+    PriorityScheduler scheduler
+
+    def cleanup() {
+        release.countDown()
+        scheduler?.close()
+    }
+
+    PriorityScheduler blockedScheduler() {
+        scheduler = new PriorityScheduler(1, config, { now })
+        def busy = new CountDownLatch(1)
+        scheduler.execute(Priority.NORMAL) { busy.countDown(); release.await() }
+        assert busy.await(5, TimeUnit.SECONDS)
+        scheduler
+    }
+
+    void submit(Priority priority, int count) {
+        count.times { scheduler.execute(priority) { ran << priority.name().substring(0, 1) } }
+    }
+
+    List<String> runAll(int expected) {
+        release.countDown()
+        def deadline = System.currentTimeMillis() + 5000
+        while (ran.size() < expected && System.currentTimeMillis() < deadline) Thread.sleep(5)
+        ran
+    }
+
+    // ── Fair queuing ──────────────────────────────────────────────────────────
+
+    def "workers are shared between waiting priorities in proportion to their weights"() {
+        given:
+        config.highWeight = 4
+        config.normalWeight = 2
+        config.lowWeight = 1
+        blockedScheduler()
+        submit(Priority.LOW, 30)
+        submit(Priority.NORMAL, 30)
+        submit(Priority.HIGH, 30)
+
+        when:
+        def first = runAll(90).take(21).countBy { it }
+
+        then:
+        Math.abs(first.H - 12) <= 1
+        Math.abs(first.N - 6) <= 1
+        Math.abs(first.L - 3) <= 1
+    }
+
+    def "a priority with nothing waiting does not save up credit"() {
+        given:
+        blockedScheduler()
+        submit(Priority.LOW, 10)
+
+        when:
+        def order = runAll(10)
+
+        then:
+        order == ["L"] * 10
+        scheduler.queued(Priority.LOW) == 0
+    }
+
+    def "queued() counts waiting calls across priorities"() {
+        given:
+        config.maxQueued = 7
+        blockedScheduler()
+        submit(Priority.HIGH, 2)
+        submit(Priority.LOW, 3)
+
+        expect:
+        scheduler.queued() == 5
+        scheduler.maxQueued() == 7
+    }
+
+    // ── Starvation protection ─────────────────────────────────────────────────
+
+    def "a call waiting past maxWait runs before higher priorities"() {
+        given:
+        config.maxWaitMillis = maxWait
+        blockedScheduler()
+        submit(Priority.LOW, 1)
+        now += 50_000_000L
+        submit(Priority.HIGH, 3)
+        now += 150_000_000L
+
+        expect:
+        runAll(4).first() == first
+
+        where:
+        maxWait || first
+        100     || "L"
+        10_000  || "H"
+    }
+
+    // ── Limits and shutdown ───────────────────────────────────────────────────
+
+    def "a full queue rejects new calls with RESOURCE_EXHAUSTED"() {
+        given:
+        config.maxQueued = 2
+        blockedScheduler()
+        submit(Priority.HIGH, 2)
+
+        when:
+        submit(Priority.HIGH, 1)
+
+        then:
+        def ex = thrown(StatusRuntimeException)
+        ex.status.code == Status.Code.RESOURCE_EXHAUSTED
+    }
+
+    def "after close, queued calls still run and new ones are refused"() {
+        given:
+        blockedScheduler()
+        submit(Priority.NORMAL, 3)
+
+        when:
+        scheduler.close()
+        submit(Priority.NORMAL, 1)
+
+        then:
+        def ex = thrown(StatusRuntimeException)
+        ex.status.code == Status.Code.UNAVAILABLE
+        runAll(3).size() == 3
+    }
+
+    def "a failing call does not stop its worker"() {
+        given:
+        blockedScheduler()
+        scheduler.execute(Priority.NORMAL) { throw new IllegalStateException("boom") }
+        submit(Priority.NORMAL, 1)
+
+        expect:
+        runAll(1) == ["N"]
+    }
+
+    // ── Header priority ───────────────────────────────────────────────────────
+
+    @Unroll
+    def "header '#header' on a #declared member runs at #expected (raise allowed: #raise)"() {
+        given:
+        config.allowHeaderRaise = raise
+        scheduler = new PriorityScheduler(1, config, { now })
+
+        expect:
+        scheduler.effective(declared, header) == expected
+
+        where:
+        declared        | header   | raise || expected
+        Priority.HIGH   | "low"    | false || Priority.LOW
+        Priority.NORMAL | " Low "  | false || Priority.LOW
+        Priority.LOW    | "high"   | false || Priority.LOW
+        Priority.LOW    | "high"   | true  || Priority.HIGH
+        Priority.NORMAL | ""       | false || Priority.NORMAL
+        Priority.NORMAL | null     | false || Priority.NORMAL
+        Priority.NORMAL | "urgent" | true  || Priority.NORMAL
+    }
+}
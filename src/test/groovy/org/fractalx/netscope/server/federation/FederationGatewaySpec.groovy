@@ -0,0 +1,476 @@
+package org.fractalx.netscope.server.federation
+
+import com.google.protobuf.ListValue
+import com.google.protobuf.Value
+import io.grpc.ManagedChannel
+import io.grpc.Metadata
+import io.grpc.Status
+import io.grpc.StatusRuntimeException
+import io.grpc.inprocess.InProcessChannelBuilder
+import io.grpc.stub.MetadataUtils
+import io.grpc.stub.StreamObserver
+import org.fractalx.netscope.server.annotation.AuthType
+import org.fractalx.netscope.server.annotation.NetworkPublic
+import org.fractalx.netscope.server.annotation.NetworkSecured
+import org.fractalx.netscope.server.config.NetScopeConfig
+import org.fractalx.netscope.server.core.NetScopeInvoker
+import org.fractalx.netscope.server.core.NetScopeScanner
+import org.fractalx.netscope.server.grpc.NetScopeCompression
+import org.fractalx.netscope.server.grpc.NetScopeGrpcServer
+import org.fractalx.netscope.server.grpc.NetScopeGrpcServiceImpl
+import org.fractalx.netscope.server.grpc.proto.DocsRequest
+import org.fractalx.netscope.server.grpc.proto.InvokeBatchRequest
+import org.fractalx.netscope.server.grpc.proto.InvokeRequest
+import org.fractalx.netscope.server.grpc.proto.InvokeResponse
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc
+import org.fractalx.netscope.server.security.ApiKeyValidator
+import org.fractalx.netscope.server.security.OAuth2AuthorizationService
+import org.springframework.context.ApplicationContext
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class FederationGatewaySpec extends Specification {
+
+    // ── Fixtures: beans served by different nodes ─────────────────────────────
+
+    static class Orders {
+        @NetworkPublic
+        String find(String id) { "order:$id" }
+    }
+
+    static class Inventory {
+        @NetworkPublic
+        int stock(String sku) { sku.length() }
+
+        @NetworkSecured(auth = AuthType.API_KEY)
+        String restock(String sku) { "restocked:$sku" }
+    }
+
+    static class Billing {
+        @NetworkPublic
+        String invoice(String id) { "invoice:$id" }
+    }
+
+    /** One NetScope node on its own in-process listener, optionally federating peers. */
+    class Node {
+        final String name
+        final NetScopeConfig config = new NetScopeConfig()
+        final NetScopeScanner scanner
+        final NetScopeGrpcServiceImpl service
+        FederationGateway gateway
+        NetScopeGrpcServer server
+
+        Node(ApplicationContext context, String name, Map<String, Object> beans, List<String> peers) {
+            this.name = name
+            config.getGrpc().setPort(0)
+            config.getGrpc().setEnableReflection(false)
+            config.getGrpc().setInProcessName(name)
+            config.getSecurity().getApiKey().setEnabled(true)
+            config.getSecurity().getApiKey().setKeys(["k1"])
+            scanner = new NetScopeScanner(context, config)
+            beans.each { beanName, bean -> scanner.register(beanName, bean) }
+            service = new NetScopeGrpcServiceImpl(scanner, new NetScopeInvoker(),
+                    new OAuth2AuthorizationService(config, null, new ApiKeyValidator(config)),
+                    NetScopeCompression.disabled())
+            if (peers) {
+                config.getFederation().setEnabled(true)
+                config.getFederation().setPeers(peers.collect { "in-process:" + it })
+                config.getFederation().setRefreshIntervalMillis(0)
+                config.getFederation().setChannelsPerPeer(2)
+                gateway = new FederationGateway(config, scanner, service)
+            }
+            server = new NetScopeGrpcServer(config, service, gateway)
+            server.start()
+            nodes << this
+        }
+
+        void stop() {
+            server.stop()
+            gateway?.close()
+        }
+    }
+
+    List<Node> nodes = []
+
+    Node node(Map<String, Object> beans, List<String> peers = [], String name = "federation-spec-" + UUID.randomUUID()) {
+        def context = Stub(ApplicationContext) { getBeanDefinitionNames() >> new String[0] }
+        new Node(context, name, beans, peers)
+    }
+    List<ManagedChannel> channels = []
+
+    def cleanup() {
+        channels*.shutdownNow()
+        nodes*.stop()
+    }
+
+    NetScopeServiceGrpc.NetScopeServiceBlockingStub stub(Node node) {
+        def channel = InProcessChannelBuilder.forName(node.name).build()
+        channels << channel
+        NetScopeServiceGrpc.newBlockingStub(channel).withDeadlineAfter(5, TimeUnit.SECONDS)
+    }
+
+    NetScopeServiceGrpc.NetScopeServiceStub asyncStub(Node node) {
+        def channel = InProcessChannelBuilder.forName(node.name).build()
+        channels << channel
+        NetScopeServiceGrpc.newStub(channel).withDeadlineAfter(5, TimeUnit.SECONDS)
+    }
+
+    static InvokeRequest call(String bean, String member, String arg) {
+        InvokeRequest.newBuilder().setBeanName(bean).setMemberName(member)
+                .setArguments(ListValue.newBuilder().addValues(Value.newBuilder().setStringValue(arg)))
+                .build()
+    }
+
+    /** Gateway node A serving Orders, with peers B (Inventory) and C (Billing). */
+    Node cluster() {
+        def b = node([inventory: new Inventory()])
+        def c = node([billing: new Billing()])
+        def a = node([orders: new Orders()], [b.name, c.name])
+        a.gateway.refresh()   // waits for the first poll if it is already running
+        a
+    }
+
+    // ── Routing table ─────────────────────────────────────────────────────────
+
+    def "routing table maps each remote bean to the peer serving it"() {
+        when:
+        def a = cluster()
+
+        then:
+        a.gateway.peerFor("Inventory") == "in-process:" + nodes[0].name
+        a.gateway.peerFor("Billing")   == "in-process:" + nodes[1].name
+        a.gateway.peerFor("Orders") == null
+        a.gateway.peerFor("Missing") == null
+    }
+
+    def "an unchanged peer does not change the routing table"() {
+        given:
+        def a = cluster()
+        def version = a.gateway.version()
+
+        expect:
+        !a.gateway.refresh()
+        a.gateway.version() == version
+    }
+
+    def "a bean registered on a peer is routed after the next refresh"() {
+        given:
+        def a = cluster()
+        def c = nodes[1]
+        def version = a.gateway.version()
+        c.scanner.register("orders", new Orders())
+
+        expect:
+        a.gateway.refresh()
+        a.gateway.version() > version
+        a.gateway.members()*.beanName.contains("Orders")
+        a.gateway.peerFor("Orders") == null          // still served locally on a
+    }
+
+    def "the first configured peer wins when two serve the same bean"() {
+        given:
+        def b = node([inventory: new Inventory()])
+        def c = node([inventory: new Inventory()])
+        def a = node([:], [b.name, c.name])
+
+        when:
+        a.gateway.refresh()
+
+        then:
+        a.gateway.peerFor("Inventory") == "in-process:" + b.name
+        a.gateway.members().count { it.beanName == "Inventory" } == 2   // stock and restock, once
+    }
+
+    def "local beans win over peers serving the same bean"() {
+        given:
+        def b = node([orders: new Orders()])
+        def a = node([orders: new Orders()], [b.name])
+
+        when:
+        a.gateway.refresh()
+
+        then:
+        a.gateway.peerFor("Orders") == null
+    }
+
+    def "an unreachable peer is skipped without failing the refresh"() {
+        given:
+        def b = node([inventory: new Inventory()])
+        def a = node([:], ["missing-" + UUID.randomUUID(), b.name])
+
+        when:
+        a.gateway.refresh()
+
+        then:
+        a.gateway.peerFor("Inventory") == "in-process:" + b.name
+    }
+
+    // ── GetDocs ───────────────────────────────────────────────────────────────
+
+    def "GetDocs on the gateway lists local and remote members; local_only lists its own"() {
+        given:
+        def a = cluster()
+
+        when:
+        def all   = stub(a).getDocs(DocsRequest.getDefaultInstance())
+        def local = stub(a).getDocs(DocsRequest.newBuilder().setLocalOnly(true).build())
+
+        then:
+        all.methodsList*.beanName.toSet() == ["Orders", "Inventory", "Billing"] as Set
+        local.methodsList*.beanName.toSet() == ["Orders"] as Set
+        all.version != local.version
+    }
+
+    // ── InvokeMethod ──────────────────────────────────────────────────────────
+
+    def "InvokeMethod is served locally or forwarded to the owning peer"() {
+        given:
+        def a = cluster()
+
+        expect:
+        stub(a).invokeMethod(call("Orders", "find", "7")).result.stringValue == "order:7"
+        stub(a).invokeMethod(call("Inventory", "stock", "abcd")).result.numberValue == 4
+        stub(a).invokeMethod(call("Billing", "invoice", "9")).result.stringValue == "invoice:9"
+    }
+
+    def "unknown beans fail with NOT_FOUND from the gateway"() {
+        given:
+        def a = cluster()
+
+        when:
+        stub(a).invokeMethod(call("Missing", "x", "1"))
+
+        then:
+        def e = thrown(StatusRuntimeException)
+        e.status.code == Status.Code.NOT_FOUND
+    }
+
+    def "errors from the peer keep their status"() {
+        given:
+        def a = cluster()
+
+        when:
+        stub(a).invokeMethod(call("Inventory", "nope", "1"))
+
+        then:
+        def e = thrown(StatusRuntimeException)
+        e.status.code == Status.Code.NOT_FOUND
+    }
+
+    def "credentials are passed on to the peer for authorization"() {
+        given:
+        def a = cluster()
+        def headers = new Metadata()
+        headers.put(Metadata.Key.of("x-api-key", Metadata.ASCII_STRING_MARSHALLER), "k1")
+
+        when:
+        def ok = stub(a).withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers))
+                .invokeMethod(call("Inventory", "restock", "s1"))
+
+        then:
+        ok.result.stringValue == "restocked:s1"
+
+        when:
+        stub(a).invokeMethod(call("Inventory", "restock", "s1"))
+
+        then:
+        def e = thrown(StatusRuntimeException)
+        e.status.code == Status.Code.UNAUTHENTICATED
+    }
+
+    def "forwarded calls are served where they arrive, so mutual peers never loop"() {
+        given:
+        def aName = "federation-spec-" + UUID.randomUUID()
+        def b = node([inventory: new Inventory()], [aName])
+        def a = node([orders: new Orders()], [b.name], aName)
+        a.gateway.refresh()
+        b.gateway.refresh()
+        // a still routes Inventory to b, which no longer serves it
+        b.scanner.unregister("inventory")
+
+        when:
+        stub(a).invokeMethod(call("Inventory", "stock", "x"))
+
+        then:
+        def e = thrown(StatusRuntimeException)
+        e.status.code == Status.Code.NOT_FOUND
+    }
+
+    def "a peer that goes away fails calls with UNAVAILABLE"() {
+        given:
+        def a = cluster()
+        nodes[0].stop()
+
+        when:
+        stub(a).invokeMethod(call("Inventory", "stock", "x"))
+
+        then:
+        def e = thrown(StatusRuntimeException)
+        e.status.code == Status.Code.UNAVAILABLE
+    }
+
+    // ── InvokeMethodStream ────────────────────────────────────────────────────
+
+    def "stream items are routed one by one and answered in request order"() {
+        given:
+        def a = cluster()
+        def responses = Collections.synchronizedList([])
+        def done = new CountDownLatch(1)
+        Throwable failure = null
+        def requests = asyncStub(a).invokeMethodStream(new StreamObserver<InvokeResponse>() {
+            void onNext(InvokeResponse r) { responses << r.result }
+            void onError(Throwable t)     { failure = t; done.countDown() }
+            void onCompleted()            { done.countDown() }
+        })
+
+        when:
+        requests.onNext(call("Inventory", "stock", "ab"))
+        requests.onNext(call("Orders", "find", "1"))
+        requests.onNext(call("Billing", "invoice", "2"))
+        requests.onNext(call("Orders", "find", "3"))
+        requests.onCompleted()
+        done.await(5, TimeUnit.SECONDS)
+
+        then:
+        failure == null
+        responses*.kindCase*.name() == ["NUMBER_VALUE", "STRING_VALUE", "STRING_VALUE", "STRING_VALUE"]
+        responses[0].numberValue == 2
+        responses[1..3]*.stringValue == ["order:1", "invoice:2", "order:3"]
+    }
+
+    def "a failed remote item ends the stream with its status"() {
+        given:
+        def a = cluster()
+        def responses = Collections.synchronizedList([])
+        def done = new CountDownLatch(1)
+        Throwable failure = null
+        def requests = asyncStub(a).invokeMethodStream(new StreamObserver<InvokeResponse>() {
+            void onNext(InvokeResponse r) { responses << r.result }
+            void onError(Throwable t)     { failure = t; done.countDown() }
+            void onCompleted()            { done.countDown() }
+        })
+
+        when:
+        requests.onNext(call("Orders", "find", "1"))
+        requests.onNext(call("Billing", "nope", "2"))
+        requests.onCompleted()
+        done.await(5, TimeUnit.SECONDS)
+
+        then:
+        responses*.stringValue == ["order:1"]
+        Status.fromThrowable(failure).code == Status.Code.NOT_FOUND
+    }
+
+    def "open streams complete without an error when the gateway drains"() {
+        given:
+        def a = cluster()
+        a.config.getShutdown().setDrainTimeoutMillis(10_000)
+        def responses = new java.util.concurrent.LinkedBlockingQueue()
+        def done = new CountDownLatch(1)
+        Throwable failure = null
+        def requests = asyncStub(a).invokeMethodStream(new StreamObserver<InvokeResponse>() {
+            void onNext(InvokeResponse r) { responses << r.result }
+            void onError(Throwable t)     { failure = t; done.countDown() }
+            void onCompleted()            { done.countDown() }
+        })
+        requests.onNext(call("Orders", "find", "1"))
+        requests.onNext(call("Billing", "invoice", "2"))
+
+        expect:
+        responses.poll(5, TimeUnit.SECONDS).stringValue == "order:1"
+        responses.poll(5, TimeUnit.SECONDS).stringValue == "invoice:2"
+
+        when:
+        long started = System.nanoTime()
+        a.server.stop()
+
+        then:
+        done.await(5, TimeUnit.SECONDS)
+        failure == null
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 5_000
+    }
+
+    def "a drained local stream completes the federated stream; later items are dropped"() {
+        given:
+        def a = cluster()
+        def responses = Collections.synchronizedList([])
+        def done = new CountDownLatch(1)
+        Throwable failure = null
+        def requests = asyncStub(a).invokeMethodStream(new StreamObserver<InvokeResponse>() {
+            void onNext(InvokeResponse r) { responses << r.result }
+            void onError(Throwable t)     { failure = t; done.countDown() }
+            void onCompleted()            { done.countDown() }
+        })
+
+        when:
+        requests.onNext(call("Inventory", "stock", "ab"))
+        Thread.sleep(200)
+        a.service.drainStreams()
+        requests.onNext(call("Orders", "find", "1"))
+
+        then:
+        done.await(5, TimeUnit.SECONDS)
+        failure == null
+        responses*.numberValue == [2]
+    }
+
+    // ── InvokeBatch ───────────────────────────────────────────────────────────
+
+    def "batch items are split by owner and answered in request order"() {
+        given:
+        def a = cluster()
+        def batch = InvokeBatchRequest.newBuilder()
+                .addRequests(call("Inventory", "stock", "abc"))
+                .addRequests(call("Orders", "find", "1"))
+                .addRequests(call("Billing", "invoice", "2"))
+                .addRequests(call("Inventory", "nope", "x"))
+                .addRequests(call("Missing", "x", "y"))
+                .addRequests(call("Orders", "find", "3"))
+                .build()
+
+        when:
+        def results = stub(a).invokeBatch(batch).resultsList
+
+        then:
+        results[0].result.numberValue == 3
+        results[1].result.stringValue == "order:1"
+        results[2].result.stringValue == "invoice:2"
+        results[3].error.code == Status.Code.NOT_FOUND.value()
+        results[4].error.code == Status.Code.NOT_FOUND.value()
+        results[5].result.stringValue == "order:3"
+    }
+
+    def "a peer that goes away fails only its own batch items"() {
+        given:
+        def a = cluster()
+        nodes[0].stop()
+        def batch = InvokeBatchRequest.newBuilder()
+                .addRequests(call("Orders", "find", "1"))
+                .addRequests(call("Inventory", "stock", "x"))
+                .build()
+
+        when:
+        def results = stub(a).invokeBatch(batch).resultsList
+
+        then:
+        results[0].result.stringValue == "order:1"
+        results[1].error.code == Status.Code.UNAVAILABLE.value()
+    }
+
+    def "a batch larger than maxBatchSize is refused by the gateway"() {
+        given:
+        def a = cluster()
+        a.service.setMaxBatchSize(2)
+        def batch = InvokeBatchRequest.newBuilder()
+        for (int i = 0; i < 3; i++) batch.addRequests(call("Inventory", "stock", "x"))
+
+        when:
+        stub(a).invokeBatch(batch.build())
+
+        then:
+        def e = thrown(StatusRuntimeException)
+        e.status.code == Status.Code.INVALID_ARGUMENT
+    }
+}
@@ -0,0 +1,59 @@
+package org.fractalx.netscope.server.federation
+
+import com.google.protobuf.ListValue
+import com.google.protobuf.Value
+import io.grpc.Status
+import io.grpc.StatusRuntimeException
+import org.fractalx.netscope.server.grpc.proto.InvokeRequest
+import org.fractalx.netscope.server.grpc.proto.InvokeResponse
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc
+import spock.lang.Specification
+
+class RawBytesSpec extends Specification {
+
+    def "beanName reads field 1 regardless of field order"() {
+        given:
+        def request = InvokeRequest.newBuilder()
+                .setMemberName("find")
+                .setArguments(ListValue.newBuilder().addValues(Value.newBuilder().setStringValue("x")))
+                .setBeanName("Orders")
+                .build()
+
+        expect:
+        RawBytes.beanName(request.toByteArray()) == "Orders"
+    }
+
+    def "beanName is empty when the field is absent"() {
+        expect:
+        RawBytes.beanName(InvokeRequest.newBuilder().setMemberName("find").build().toByteArray()) == ""
+        RawBytes.beanName(new byte[0]) == ""
+    }
+
+    def "beanName rejects malformed bytes with INVALID_ARGUMENT"() {
+        when:
+        RawBytes.beanName([0x0A, 0x05, 0x41] as byte[])
+
+        then:
+        def e = thrown(StatusRuntimeException)
+        e.status.code == Status.Code.INVALID_ARGUMENT
+    }
+
+    def "the byte marshaller passes bytes through unchanged"() {
+        given:
+        def bytes = InvokeRequest.newBuilder().setBeanName("Orders").build().toByteArray()
+
+        expect:
+        RawBytes.MARSHALLER.parse(RawBytes.MARSHALLER.stream(bytes)) == bytes
+    }
+
+    def "the response marshaller writes bytes as-is and messages through the delegate"() {
+        given:
+        def response = InvokeResponse.newBuilder().setResult(Value.newBuilder().setStringValue("ok")).build()
+        def marshaller = RawBytes.orMessage(NetScopeServiceGrpc.getInvokeMethodMethod().getResponseMarshaller())
+
+        expect:
+        marshaller.stream(response.toByteArray()).readAllBytes() == response.toByteArray()
+        marshaller.stream(response).readAllBytes() == response.toByteArray()
+        marshaller.parse(new ByteArrayInputStream(response.toByteArray())) == response
+    }
+}
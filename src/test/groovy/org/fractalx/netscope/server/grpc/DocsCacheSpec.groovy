@@ -0,0 +1,296 @@
+package org.fractalx.netscope.server.grpc
+
+import org.fractalx.netscope.server.core.NetScopeScanner
+import org.fractalx.netscope.server.grpc.proto.DocsRequest
+import org.fractalx.netscope.server.grpc.proto.DocsResponse
+import org.fractalx.netscope.server.grpc.proto.MemberKind
+import org.fractalx.netscope.server.grpc.proto.MethodInfo
+import org.fractalx.netscope.server.model.NetworkMethodDefinition
+import io.grpc.Status
+import io.grpc.StatusRuntimeException
+import spock.lang.Specification
+
+class DocsCacheSpec extends Specification {
+
+    // ── Fixtures ──────────────────────────────────────────────────────────────
+
+    static class Orders {
+        String place(String item)     { item }
+        String place(String item, int n) { item * n }
+        String cancel()               { "ok" }
+        void   archive()              {}
+        final String region = "eu"
+    }
+
+    static class Billing {
+        String invoice()              { "inv" }
+        int retries = 3
+    }
+
+    def orders  = new Orders()
+    def billing = new Billing()
+    def scanner = Mock(NetScopeScanner)
+    def cache   = new DocsCache(scanner)
+
+    List<NetworkMethodDefinition> members() {
+        [
+            new NetworkMethodDefinition(billing, Billing.getDeclaredField("retries"), false, null, ""),
+            new NetworkMethodDefinition(orders, Orders.getDeclaredMethod("place", String, int), false, null, ""),
+            new NetworkMethodDefinition(orders, Orders.getDeclaredMethod("cancel"), true, null, "Cancel it"),
+            new NetworkMethodDefinition(orders, Orders.getDeclaredMethod("place", String), false, null, ""),
+            new NetworkMethodDefinition(orders, Orders.getDeclaredField("region"), false, null, ""),
+            new NetworkMethodDefinition(billing, Billing.getDeclaredMethod("invoice"), false, null, ""),
+        ]
+    }
+
+    static DocsRequest.Builder request() { DocsRequest.newBuilder() }
+
+    static DocsResponse message(Object response) {
+        response instanceof PreEncoded ? ((PreEncoded) response).message() : (DocsResponse) response
+    }
+
+    static List<String> names(DocsResponse response) {
+        response.methodsList.collect { it.beanName + "." + it.memberName + "/" + it.parametersCount }
+    }
+
+    // ── Full response ─────────────────────────────────────────────────────────
+
+    def "full response is pre-encoded, sorted by bean and member, and versioned"() {
+        given:
+        scanner.getVersion() >> 1L
+        scanner.scan() >> members()
+        when:
+        def response = cache.respond(request().build())
+        then:
+        response instanceof PreEncoded
+        names(message(response)) == ["Billing.invoice/0", "Billing.retries/0", "Orders.cancel/0",
+                                     "Orders.place/1", "Orders.place/2", "Orders.region/0"]
+        message(response).version ==~ /[0-9a-f]{16}/
+        message(response).nextPageToken.isEmpty()
+    }
+
+    def "MethodInfo carries the member's metadata"() {
+        given:
+        scanner.getVersion() >> 1L
+        scanner.scan() >> members()
+        when:
+        def infos = message(cache.respond(request().build())).methodsList
+        then:
+        with(infos.find { it.memberName == "cancel" }) {
+            secured
+            description == "Cancel it"
+            kind == MemberKind.METHOD
+            priority == "NORMAL"
+        }
+        with(infos.find { it.memberName == "region" }) {
+            kind == MemberKind.FIELD
+            isFinal
+            !writeable
+        }
+        infos.find { it.memberName == "place" && it.parametersCount == 2 }.getParameters(1).type == "int"
+    }
+
+    def "MethodInfo flags async members"() {
+        given:
+        scanner.getVersion() >> 1L
+        scanner.scan() >> [
+            new NetworkMethodDefinition(orders, Orders.getDeclaredMethod("archive"), false, null, "", null, true),
+            new NetworkMethodDefinition(orders, Orders.getDeclaredMethod("cancel"), false, null, ""),
+        ]
+        when:
+        def infos = message(cache.respond(request().build())).methodsList
+        then:
+        infos.find { it.memberName == "archive" }.async
+        !infos.find { it.memberName == "cancel" }.async
+    }
+
+    def "the registry is scanned once per registry version"() {
+        given:
+        scanner.getVersion() >>> [1L, 1L, 2L]
+        when:
+        def first  = cache.respond(request().build())
+        def second = cache.respond(request().build())
+        def third  = cache.respond(request().build())
+        then:
+        2 * scanner.scan() >> members() >> members().take(2)
+        second.is(first)
+        !third.is(first)
+        message(third).version != message(first).version
+    }
+
+    def "version depends only on content"() {
+        given:
+        def other = Mock(NetScopeScanner) { getVersion() >> 7L; scan() >> members().reverse() }
+        scanner.getVersion() >> 1L
+        scanner.scan() >> members()
+        expect:
+        message(new DocsCache(other).respond(request().build())).version ==
+                message(cache.respond(request().build())).version
+    }
+
+    def "a failed scan is not cached"() {
+        given:
+        scanner.getVersion() >> 1L
+        when:
+        cache.respond(request().build())
+        then:
+        1 * scanner.scan() >> { throw new RuntimeException("scan-fail") }
+        thrown(RuntimeException)
+        when:
+        def response = cache.respond(request().build())
+        then:
+        1 * scanner.scan() >> members()
+        message(response).methodsCount == 6
+    }
+
+    // ── Not modified ──────────────────────────────────────────────────────────
+
+    def "the current version short-circuits to a pre-encoded not_modified response"() {
+        given:
+        scanner.getVersion() >> 1L
+        scanner.scan() >> members()
+        def version = message(cache.respond(request().build())).version
+        when:
+        def response = cache.respond(request().setIfNoneMatch(version).build())
+        then:
+        response instanceof PreEncoded
+        message(response).notModified
+        message(response).version == version
+        message(response).methodsCount == 0
+    }
+
+    def "a stale version gets the full response"() {
+        given:
+        scanner.getVersion() >> 1L
+        scanner.scan() >> members()
+        when:
+        def response = message(cache.respond(request().setIfNoneMatch("0000000000000000").build()))
+        then:
+        !response.notModified
+        response.methodsCount == 6
+    }
+
+    // ── Filtering and paging ──────────────────────────────────────────────────
+
+    def "bean_names limits the response to those beans"() {
+        given:
+        scanner.getVersion() >> 1L
+        scanner.scan() >> members()
+        when:
+        def response = message(cache.respond(request().addBeanNames("Billing").build()))
+        then:
+        names(response) == ["Billing.invoice/0", "Billing.retries/0"]
+        response.version == message(cache.respond(request().build())).version
+    }
+
+    def "pages walk the members in order until next_page_token is empty"() {
+        given:
+        scanner.getVersion() >> 1L
+        scanner.scan() >> members()
+        def seen = []
+        def token = ""
+        def pages = 0
+        when:
+        while (true) {
+            def page = message(cache.respond(request().setPageSize(4).setPageToken(token).build()))
+            seen.addAll(names(page))
+            pages++
+            token = page.nextPageToken
+            if (token.isEmpty()) break
+        }
+        then:
+        pages == 2
+        seen == names(message(cache.respond(request().build())))
+    }
+
+    def "paging combines with a bean filter"() {
+        given:
+        scanner.getVersion() >> 1L
+        scanner.scan() >> members()
+        when:
+        def first  = message(cache.respond(request().addBeanNames("Orders").setPageSize(3).build()))
+        def second = message(cache.respond(request().addBeanNames("Orders").setPageSize(3)
+                .setPageToken(first.nextPageToken).build()))
+        then:
+        names(first) == ["Orders.cancel/0", "Orders.place/1", "Orders.place/2"]
+        names(second) == ["Orders.region/0"]
+        second.nextPageToken.isEmpty()
+    }
+
+    def "a page token from an older registry version is ABORTED"() {
+        given:
+        scanner.getVersion() >>> [1L, 2L]
+        scanner.scan() >>> [members(), members().take(3)]
+        def token = message(cache.respond(request().setPageSize(2).build())).nextPageToken
+        when:
+        cache.respond(request().setPageSize(2).setPageToken(token).build())
+        then:
+        def e = thrown(StatusRuntimeException)
+        e.status.code == Status.Code.ABORTED
+    }
+
+    def "a malformed page token or negative page size is INVALID_ARGUMENT"() {
+        given:
+        scanner.getVersion() >> 1L
+        scanner.scan() >> members()
+        when:
+        cache.respond(req)
+        then:
+        def e = thrown(StatusRuntimeException)
+        e.status.code == Status.Code.INVALID_ARGUMENT
+        where:
+        req << [request().setPageToken("not-a-token").build(),
+                request().setPageToken(Base64.urlEncoder.encodeToString("abc:x".bytes)).build(),
+                request().setPageSize(-1).build()]
+    }
+
+    // ── Remote members ────────────────────────────────────────────────────────
+
+    static RemoteDocs remote(long version, List<MethodInfo> members) {
+        new RemoteDocs() {
+            long version() { version }
+            List<MethodInfo> members() { members }
+        }
+    }
+
+    static MethodInfo info(String bean, String member) {
+        MethodInfo.newBuilder().setBeanName(bean).setMemberName(member).build()
+    }
+
+    def "remote members are merged in order, except beans served locally; local_only omits them"() {
+        given:
+        scanner.getVersion() >> 1L
+        scanner.scan() >> members()
+        cache.setRemote(remote(1, [info("Shipping", "track"), info("Billing", "refund")]))
+        when:
+        def all   = message(cache.respond(request().build()))
+        def local = message(cache.respond(request().setLocalOnly(true).build()))
+        then:
+        names(all) == ["Billing.invoice/0", "Billing.retries/0", "Orders.cancel/0", "Orders.place/1",
+                       "Orders.place/2", "Orders.region/0", "Shipping.track/0"]
+        names(local) == names(all) - "Shipping.track/0"
+        all.version != local.version
+    }
+
+    def "a new remote version rebuilds the response"() {
+        given:
+        scanner.getVersion() >> 1L
+        scanner.scan() >> members()
+        def remoteVersion = 1L
+        def remoteMembers = [info("Shipping", "track")]
+        cache.setRemote(new RemoteDocs() {
+            long version() { remoteVersion }
+            List<MethodInfo> members() { remoteMembers }
+        })
+        def first = message(cache.respond(request().build())).version
+        when:
+        def unchanged = message(cache.respond(request().build())).version
+        remoteVersion = 2L
+        remoteMembers = [info("Shipping", "track"), info("Shipping", "cancel")]
+        def second = message(cache.respond(request().build()))
+        then:
+        unchanged == first
+        second.version != first
+        names(second).contains("Shipping.cancel/0")
+    }
+}
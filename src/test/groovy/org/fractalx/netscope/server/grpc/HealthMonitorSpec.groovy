@@ -0,0 +1,170 @@
+package org.fractalx.netscope.server.grpc
+
+import org.fractalx.netscope.server.config.NetScopeConfig
+import org.fractalx.netscope.server.core.AttributeJournal
+import org.fractalx.netscope.server.core.NetScopeInvoker
+import org.fractalx.netscope.server.core.NetScopeScanner
+import org.fractalx.netscope.server.core.PriorityScheduler
+import org.fractalx.netscope.server.security.OAuth2AuthorizationService
+import io.grpc.health.v1.HealthCheckResponse.ServingStatus
+import io.grpc.protobuf.services.HealthStatusManager
+import spock.lang.Specification
+
+class HealthMonitorSpec extends Specification {
+
+    // ── Fixtures ──────────────────────────────────────────────────────────────
+
+    def health = new HealthStatusManager()
+    def config = new NetScopeConfig()
+    def scanner = Mock(NetScopeScanner)
+    def authService = Mock(OAuth2AuthorizationService)
+    def service = new NetScopeGrpcServiceImpl(scanner, Mock(NetScopeInvoker), authService)
+    HealthMonitor monitor
+
+    def cleanup() {
+        monitor?.close()
+    }
+
+    HealthMonitor monitorOf(Map<String, HealthMonitor.Check> checks) {
+        monitor = new HealthMonitor(health, checks, 1000)
+    }
+
+    // ── Evaluation ────────────────────────────────────────────────────────────
+
+    def "SERVING when every check passes, NOT_SERVING with the reasons of those that fail"() {
+        given:
+        String queue = null
+        monitorOf([scan: { null } as HealthMonitor.Check, queue: { queue } as HealthMonitor.Check])
+
+        expect:
+        monitor.status() == null
+        monitor.evaluate() == ServingStatus.SERVING
+        monitor.reasons() == []
+
+        when:
+        queue = "calls queued 90 (limit 80)"
+
+        then:
+        monitor.evaluate() == ServingStatus.NOT_SERVING
+        monitor.status() == ServingStatus.NOT_SERVING
+        monitor.reasons() == ["queue: calls queued 90 (limit 80)"]
+    }
+
+    def "a check that throws counts as failing"() {
+        given:
+        monitorOf([jwks: { throw new IllegalStateException("boom") } as HealthMonitor.Check])
+
+        expect:
+        monitor.evaluate() == ServingStatus.NOT_SERVING
+        monitor.reasons()[0].startsWith("jwks: check failed")
+    }
+
+    def "start() publishes the first status before returning"() {
+        given:
+        monitorOf([scan: { null } as HealthMonitor.Check])
+
+        when:
+        monitor.start()
+
+        then:
+        monitor.status() == ServingStatus.SERVING
+    }
+
+    // ── Thresholds ────────────────────────────────────────────────────────────
+
+    def "a threshold trips at its limit and clears only below the resume ratio"() {
+        given:
+        int value = 0
+        def check = HealthMonitor.threshold("calls in flight", { value }, 100, 0.8d)
+
+        expect:
+        values.collect { value = it; check.unavailableReason() != null } == saturated
+
+        where:
+        values                         || saturated
+        [99, 100, 90, 80, 79, 99, 100] || [false, true, true, true, false, false, true]
+    }
+
+    def "a threshold names the value and the limit"() {
+        expect:
+        HealthMonitor.threshold("calls queued", { 12 }, 10, 0.8d).unavailableReason() == "calls queued 12 (limit 10)"
+    }
+
+    // ── Checks from config ────────────────────────────────────────────────────
+
+    def "by default only the scan is checked"() {
+        given:
+        scanner.isScanned() >>> [false, true]
+        monitor = HealthMonitor.create(config, health, service, new InFlightCalls())
+
+        expect:
+        monitor.evaluate() == ServingStatus.NOT_SERVING
+        monitor.reasons() == ["scan: members not scanned yet"]
+        monitor.evaluate() == ServingStatus.SERVING
+    }
+
+    def "the scheduler queue is checked against maxQueuedRatio of its capacity"() {
+        given:
+        scanner.isScanned() >> true
+        def scheduler = Mock(PriorityScheduler) {
+            maxQueued() >> 100
+            queued() >>> [79, 80]
+        }
+        service.setScheduler(scheduler)
+        monitor = HealthMonitor.create(config, health, service, new InFlightCalls())
+
+        expect:
+        monitor.evaluate() == ServingStatus.SERVING
+        monitor.evaluate() == ServingStatus.NOT_SERVING
+        monitor.reasons() == ["queue: calls queued 80 (limit 80)"]
+    }
+
+    def "with a journal, health waits for its replay"() {
+        given:
+        scanner.isScanned() >> true
+        def attributeJournal = Mock(AttributeJournal) { isReplayed() >>> [false, true] }
+        def journaling = new NetScopeGrpcServiceImpl(scanner, Mock(NetScopeInvoker) { journal() >> attributeJournal }, authService)
+        monitor = HealthMonitor.create(config, health, journaling, new InFlightCalls())
+
+        expect:
+        monitor.evaluate() == ServingStatus.NOT_SERVING
+        monitor.reasons() == ["journal: attribute journal not replayed yet"]
+        monitor.evaluate() == ServingStatus.SERVING
+    }
+
+    def "with a journal, a write it could not take is reported until cleared"() {
+        given:
+        scanner.isScanned() >> true
+        def attributeJournal = Mock(AttributeJournal) {
+            isReplayed() >> true
+            failure() >>> ["Toggles.mode was written but not journaled: disk full", null]
+        }
+        def journaling = new NetScopeGrpcServiceImpl(scanner, Mock(NetScopeInvoker) { journal() >> attributeJournal }, authService)
+        monitor = HealthMonitor.create(config, health, journaling, new InFlightCalls())
+
+        expect:
+        monitor.evaluate() == ServingStatus.NOT_SERVING
+        monitor.reasons() == ["journal: Toggles.mode was written but not journaled: disk full"]
+        monitor.evaluate() == ServingStatus.SERVING
+    }
+
+    def "the JWK set is checked only when OAuth with a jwkSetUri is configured"() {
+        given:
+        scanner.isScanned() >> true
+        authService.isKeySourceAvailable() >> false
+        config.getSecurity().getOauth().setEnabled(oauth)
+        config.getSecurity().getOauth().setJwkSetUri(uri)
+        config.getHealth().setCheckJwks(check)
+        monitor = HealthMonitor.create(config, health, service, new InFlightCalls())
+
+        expect:
+        monitor.evaluate() == expected
+
+        where:
+        oauth | uri                      | check || expected
+        true  | "https://idp/jwks.json"  | true  || ServingStatus.NOT_SERVING
+        true  | "https://idp/jwks.json"  | false || ServingStatus.SERVING
+        true  | null                     | true  || ServingStatus.SERVING
+        false | "https://idp/jwks.json"  | true  || ServingStatus.SERVING
+    }
+}
@@ -0,0 +1,230 @@
+package org.fractalx.netscope.server.grpc
+
+import com.google.protobuf.Value
+import io.grpc.Context
+import io.grpc.ManagedChannel
+import io.grpc.Metadata
+import io.grpc.Server
+import io.grpc.ServerInterceptors
+import io.grpc.Status
+import io.grpc.StatusRuntimeException
+import io.grpc.inprocess.InProcessChannelBuilder
+import io.grpc.inprocess.InProcessServerBuilder
+import io.grpc.stub.MetadataUtils
+import io.grpc.stub.StreamObserver
+import org.fractalx.netscope.server.config.NetScopeConfig
+import org.fractalx.netscope.server.grpc.proto.DocsRequest
+import org.fractalx.netscope.server.grpc.proto.DocsResponse
+import org.fractalx.netscope.server.grpc.proto.InvokeRequest
+import org.fractalx.netscope.server.grpc.proto.InvokeResponse
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
+
+class IdempotencyInterceptorSpec extends Specification {
+
+    // ── Fixture: a service counting how often it runs ─────────────────────────
+    //
+    // InvokeMethod answers "<member>#<run>". Member "flaky" is refused on its first run,
+    // before its method runs; member "slow" waits for the gate to open; member "late" runs
+    // until the caller's deadline has passed; member "big" answers more than 64 KiB.
+
+    AtomicInteger runs = new AtomicInteger()
+    AtomicInteger docs = new AtomicInteger()
+    CountDownLatch gate = new CountDownLatch(1)
+    CountDownLatch started = new CountDownLatch(1)
+    Server server
+    ManagedChannel channel
+
+    def setup() {
+        def name = "idempotency-" + UUID.randomUUID()
+        def service = new NetScopeServiceGrpc.NetScopeServiceImplBase() {
+            @Override
+            void invokeMethod(InvokeRequest request, StreamObserver<InvokeResponse> observer) {
+                int run = runs.incrementAndGet()
+                if (request.memberName == "flaky" && run == 1) {
+                    observer.onError(Status.UNAVAILABLE.withDescription("try again").asRuntimeException())
+                    return
+                }
+                IdempotencyInterceptor.markExecuted()
+                if (request.memberName == "late") {
+                    def ctx = Context.current()
+                    for (int i = 0; i < 500 && !ctx.isCancelled(); i++) Thread.sleep(10)
+                    observer.onError(Status.DEADLINE_EXCEEDED.withDescription("too late").asRuntimeException())
+                    return
+                }
+                if (request.memberName == "slow") {
+                    started.countDown()
+                    gate.await(5, TimeUnit.SECONDS)
+                }
+                String answer = request.memberName == "big" ? "x" * 70000 : request.memberName + "#" + run
+                observer.onNext(InvokeResponse.newBuilder()
+                        .setResult(Value.newBuilder().setStringValue(answer)).build())
+                observer.onCompleted()
+            }
+
+            @Override
+            void getDocs(DocsRequest request, StreamObserver<DocsResponse> observer) {
+                docs.incrementAndGet()
+                observer.onNext(DocsResponse.getDefaultInstance())
+                observer.onCompleted()
+            }
+        }
+        def config = new NetScopeConfig.IdempotencyConfig()
+        config.enabled = true
+        server = InProcessServerBuilder.forName(name)
+                .addService(ServerInterceptors.intercept(service,
+                        new IdempotencyInterceptor(config), new NetScopeAuthInterceptor()))
+                .build().start()
+        channel = InProcessChannelBuilder.forName(name).build()
+    }
+
+    def cleanup() {
+        gate.countDown()
+        channel.shutdownNow()
+        server.shutdownNow()
+    }
+
+    /** Stub sending {@code key} and {@code token}, recording response headers in {@code received}. */
+    NetScopeServiceGrpc.NetScopeServiceBlockingStub stub(String key, String token = null,
+                                                         AtomicReference<Metadata> received = new AtomicReference<>()) {
+        def headers = new Metadata()
+        if (key != null) headers.put(IdempotencyInterceptor.IDEMPOTENCY_KEY_HEADER, key)
+        if (token != null) headers.put(NetScopeAuthInterceptor.AUTHORIZATION_KEY, "Bearer " + token)
+        NetScopeServiceGrpc.newBlockingStub(channel).withInterceptors(
+                MetadataUtils.newAttachHeadersInterceptor(headers),
+                MetadataUtils.newCaptureMetadataInterceptor(received, new AtomicReference<Metadata>()))
+    }
+
+    static InvokeRequest request(String member) {
+        InvokeRequest.newBuilder().setBeanName("Orders").setMemberName(member).build()
+    }
+
+    static String result(InvokeResponse response) {
+        response.result.stringValue
+    }
+
+    // ── Replays ───────────────────────────────────────────────────────────────
+
+    def "a repeated call is answered from the store without running again"() {
+        given:
+        def replayed = new AtomicReference<Metadata>()
+        when:
+        def first  = result(stub("order-1").invokeMethod(request("place")))
+        def second = result(stub("order-1", null, replayed).invokeMethod(request("place")))
+        then:
+        first == "place#1"
+        second == "place#1"
+        runs.get() == 1
+        replayed.get().get(IdempotencyInterceptor.REPLAYED_HEADER) == "true"
+    }
+
+    def "a repeat arriving while the first call runs waits for its response"() {
+        given:
+        def results = Collections.synchronizedList([])
+        when:
+        def t1 = Thread.start { results << result(stub("hedged").invokeMethod(request("slow"))) }
+        started.await(5, TimeUnit.SECONDS)
+        def t2 = Thread.start { results << result(stub("hedged").invokeMethod(request("slow"))) }
+        Thread.sleep(100)
+        gate.countDown()
+        t1.join(5000)
+        t2.join(5000)
+        then:
+        results == ["slow#1", "slow#1"]
+        runs.get() == 1
+    }
+
+    def "a deadline that passes after the method ran is replayed, not run again"() {
+        when:
+        stub("late-1").withDeadlineAfter(200, TimeUnit.MILLISECONDS).invokeMethod(request("late"))
+        then:
+        def first = thrown(StatusRuntimeException)
+        first.status.code == Status.Code.DEADLINE_EXCEEDED
+
+        when:
+        stub("late-1").withDeadlineAfter(5, TimeUnit.SECONDS).invokeMethod(request("late"))
+        then:
+        def retried = thrown(StatusRuntimeException)
+        retried.status.code == Status.Code.DEADLINE_EXCEEDED
+        retried.status.description == "too late"
+        retried.trailers.get(IdempotencyInterceptor.REPLAYED_HEADER) == "true"
+        runs.get() == 1
+    }
+
+    def "a response too large to keep still stops the method running again"() {
+        when:
+        def first = result(stub("big-1").invokeMethod(request("big")))
+        then:
+        first.length() == 70000
+
+        when:
+        stub("big-1").invokeMethod(request("big"))
+        then:
+        def ex = thrown(StatusRuntimeException)
+        ex.status.code == Status.Code.ALREADY_EXISTS
+        runs.get() == 1
+    }
+
+    def "a call refused before its method ran is not stored, so retrying its key runs it again"() {
+        when:
+        stub("retry-me").invokeMethod(request("flaky"))
+        then:
+        def ex = thrown(StatusRuntimeException)
+        ex.status.code == Status.Code.UNAVAILABLE
+
+        when:
+        def retried = result(stub("retry-me").invokeMethod(request("flaky")))
+        then:
+        retried == "flaky#2"
+        result(stub("retry-me").invokeMethod(request("flaky"))) == "flaky#2"
+        runs.get() == 2
+    }
+
+    // ── Scope ─────────────────────────────────────────────────────────────────
+
+    def "calls without a key always run"() {
+        when:
+        2.times { stub(null).invokeMethod(request("place")) }
+        then:
+        runs.get() == 2
+    }
+
+    def "keys are scoped to the caller's credentials"() {
+        expect:
+        result(stub("shared", "alice").invokeMethod(request("place"))) == "place#1"
+        result(stub("shared", "bob").invokeMethod(request("place"))) == "place#2"
+        result(stub("shared", "alice").invokeMethod(request("place"))) == "place#1"
+    }
+
+    def "reusing a key for a different request is rejected"() {
+        given:
+        stub("k").invokeMethod(request("place"))
+        when:
+        stub("k").invokeMethod(request("cancel"))
+        then:
+        def ex = thrown(StatusRuntimeException)
+        ex.status.code == Status.Code.INVALID_ARGUMENT
+        runs.get() == 1
+    }
+
+    def "an over-long key is rejected"() {
+        when:
+        stub("x" * (IdempotencyInterceptor.MAX_KEY_LENGTH + 1)).invokeMethod(request("place"))
+        then:
+        def ex = thrown(StatusRuntimeException)
+        ex.status.code == Status.Code.INVALID_ARGUMENT
+        runs.get() == 0
+    }
+
+    def "read-only calls ignore the key"() {
+        when:
+        2.times { stub("docs").getDocs(DocsRequest.getDefaultInstance()) }
+        then:
+        docs.get() == 2
+    }
+}
@@ -0,0 +1,101 @@
+package org.fractalx.netscope.server.grpc
+
+import io.grpc.Status
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class IdempotencyStoreSpec extends Specification {
+
+    long now = 0
+    def store = new IdempotencyStore(TimeUnit.SECONDS.toNanos(10), 3, { now })
+    static byte[] fp1 = [1] as byte[]
+    static byte[] fp2 = [2] as byte[]
+
+    void done(String key) {
+        store.complete(key, store.claim(key, fp1).entry(), IdempotencyStore.Outcome.of([9] as byte[]))
+    }
+
+    def "the first claim owns the key; later claims see the same entry"() {
+        when:
+        def first  = store.claim("k", fp1)
+        def second = store.claim("k", fp1)
+        then:
+        first.owner()
+        !second.owner()
+        second.entry().is(first.entry())
+    }
+
+    def "a completed entry hands its response to later claims"() {
+        given:
+        def first = store.claim("k", fp1)
+        store.complete("k", first.entry(), IdempotencyStore.Outcome.of([1, 2, 3] as byte[]))
+        expect:
+        store.claim("k", fp1).entry().response.getNow(null).response() == [1, 2, 3] as byte[]
+    }
+
+    def "the error of a call that ran is kept like a response"() {
+        given:
+        def first = store.claim("k", fp1)
+        store.complete("k", first.entry(), IdempotencyStore.Outcome.of(Status.DEADLINE_EXCEEDED))
+        when:
+        def later = store.claim("k", fp1)
+        then:
+        !later.owner()
+        later.entry().response.getNow(null).status().code == Status.Code.DEADLINE_EXCEEDED
+    }
+
+    def "an abandoned entry is removed and its waiters are told to retry"() {
+        given:
+        def first = store.claim("k", fp1)
+        def waiter = store.claim("k", fp1).entry().response
+        when:
+        store.abandon("k", first.entry())
+        then:
+        waiter.isDone()
+        waiter.getNow([0] as byte[]) == null
+        store.claim("k", fp1).owner()
+    }
+
+    def "entries expire the ttl after their call ended, not after it started"() {
+        given:
+        def first = store.claim("k", fp1)
+        now = TimeUnit.SECONDS.toNanos(8)
+        store.complete("k", first.entry(), IdempotencyStore.Outcome.of([1] as byte[]))
+        when:
+        now = TimeUnit.SECONDS.toNanos(15)
+        then:
+        !store.claim("k", fp1).owner()
+        when:
+        now = TimeUnit.SECONDS.toNanos(19)
+        then:
+        store.claim("k", fp1).owner()
+    }
+
+    def "a call still running never expires"() {
+        given:
+        store.claim("k", fp1)
+        when:
+        now = TimeUnit.SECONDS.toNanos(60)
+        then:
+        !store.claim("k", fp1).owner()
+    }
+
+    def "the oldest finished entries are dropped beyond maxEntries"() {
+        when:
+        ["a", "b", "c", "d"].each { done(it) }
+        then:
+        store.size() == 3
+        store.claim("a", fp1).owner()
+        !store.claim("d", fp1).owner()
+    }
+
+    def "the fingerprint of the first request is kept"() {
+        given:
+        store.claim("k", fp1)
+        expect:
+        store.claim("k", fp2).entry().fingerprint == fp1
+        store.claim("k", fp2).entry().matches(fp1)
+        !store.claim("k", fp2).entry().matches(fp2)
+    }
+}
@@ -0,0 +1,162 @@
+package org.fractalx.netscope.server.grpc
+
+import com.google.protobuf.Value
+import io.grpc.ManagedChannel
+import io.grpc.Server
+import io.grpc.ServerInterceptors
+import io.grpc.Status
+import io.grpc.StatusRuntimeException
+import io.grpc.health.v1.HealthCheckRequest
+import io.grpc.health.v1.HealthGrpc
+import io.grpc.inprocess.InProcessChannelBuilder
+import io.grpc.inprocess.InProcessServerBuilder
+import io.grpc.protobuf.services.HealthStatusManager
+import io.grpc.stub.StreamObserver
+import org.fractalx.netscope.server.grpc.proto.AttributeChange
+import org.fractalx.netscope.server.grpc.proto.InvokeRequest
+import org.fractalx.netscope.server.grpc.proto.InvokeResponse
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc
+import org.fractalx.netscope.server.grpc.proto.WatchAttributeRequest
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class InFlightCallsSpec extends Specification {
+
+    // ── Fixtures: a service whose "slow" member waits to be released ──────────
+
+    def inFlight = new InFlightCalls()
+    def release = new CountDownLatch(1)
+    def health = new HealthStatusManager()
+    Server server
+    ManagedChannel channel
+
+    def setup() {
+        def name = "in-flight-spec-" + UUID.randomUUID()
+        def service = new NetScopeServiceGrpc.NetScopeServiceImplBase() {
+            @Override
+            void invokeMethod(InvokeRequest request, StreamObserver<InvokeResponse> observer) {
+                if (request.memberName == "slow") release.await(5, TimeUnit.SECONDS)
+                if (request.memberName == "fail") {
+                    observer.onError(Status.NOT_FOUND.asRuntimeException())
+                    return
+                }
+                observer.onNext(InvokeResponse.newBuilder().setResult(Value.newBuilder().setStringValue("ok")).build())
+                observer.onCompleted()
+            }
+
+            @Override
+            void watchAttribute(WatchAttributeRequest request, StreamObserver<AttributeChange> observer) {
+                // Stays open, as a watch waiting for changes does
+            }
+        }
+        server = InProcessServerBuilder.forName(name).executor(java.util.concurrent.Executors.newCachedThreadPool())
+                .addService(ServerInterceptors.intercept(service, inFlight))
+                .addService(ServerInterceptors.intercept(health.getHealthService(), inFlight))
+                .build().start()
+        channel = InProcessChannelBuilder.forName(name).build()
+    }
+
+    def cleanup() {
+        release.countDown()
+        channel.shutdownNow()
+        server.shutdownNow()
+    }
+
+    static InvokeRequest request(String bean, String member) {
+        InvokeRequest.newBuilder().setBeanName(bean).setMemberName(member).build()
+    }
+
+    void waitFor(Closure<Boolean> condition) {
+        def deadline = System.currentTimeMillis() + 5000
+        while (!condition() && System.currentTimeMillis() < deadline) Thread.sleep(5)
+    }
+
+    // ── Tracking ──────────────────────────────────────────────────────────────
+
+    def "running calls are counted by RPC and member until they close"() {
+        given:
+        def stub = NetScopeServiceGrpc.newFutureStub(channel)
+
+        when:
+        def a = stub.invokeMethod(request("Orders", "slow"))
+        def b = stub.invokeMethod(request("Orders", "slow"))
+        waitFor { inFlight.count() == 2 }
+
+        then:
+        inFlight.byMember() == ["InvokeMethod Orders.slow": 2]
+        inFlight.streaming() == 0
+
+        when:
+        release.countDown()
+        a.get(5, TimeUnit.SECONDS)
+        b.get(5, TimeUnit.SECONDS)
+
+        then:
+        inFlight.awaitIdle(5, TimeUnit.SECONDS)
+        inFlight.count() == 0
+    }
+
+    def "an open watch is in flight but not active; unary calls are both"() {
+        given:
+        def watch = NetScopeServiceGrpc.newStub(channel)
+        watch.watchAttribute(WatchAttributeRequest.newBuilder().setBeanName("Orders").setAttributeName("status").build(),
+                [onNext: { }, onError: { }, onCompleted: { }] as StreamObserver)
+        waitFor { inFlight.count() == 1 }
+
+        expect:
+        inFlight.active() == 0
+
+        when:
+        NetScopeServiceGrpc.newFutureStub(channel).invokeMethod(request("Orders", "slow"))
+        waitFor { inFlight.count() == 2 }
+
+        then:
+        inFlight.active() == 1
+        inFlight.streaming() == 1
+    }
+
+    def "failed and cancelled calls stop counting too"() {
+        given:
+        def stub = NetScopeServiceGrpc.newBlockingStub(channel)
+
+        when:
+        stub.invokeMethod(request("Orders", "fail"))
+        then:
+        thrown(StatusRuntimeException)
+        inFlight.awaitIdle(5, TimeUnit.SECONDS)
+
+        when:
+        def future = NetScopeServiceGrpc.newFutureStub(channel).invokeMethod(request("Orders", "slow"))
+        waitFor { inFlight.count() == 1 }
+        future.cancel(true)
+        then:
+        inFlight.awaitIdle(5, TimeUnit.SECONDS)
+    }
+
+    def "awaitIdle gives up after its timeout while a call runs"() {
+        given:
+        NetScopeServiceGrpc.newFutureStub(channel).invokeMethod(request("Orders", "slow"))
+        waitFor { inFlight.count() == 1 }
+
+        expect:
+        !inFlight.awaitIdle(50, TimeUnit.MILLISECONDS)
+    }
+
+    def "calls to other services, like a health watch left open, are not tracked"() {
+        given:
+        def updates = new CountDownLatch(1)
+
+        when:
+        HealthGrpc.newStub(channel).watch(HealthCheckRequest.getDefaultInstance(), [
+                onNext     : { updates.countDown() },
+                onError    : { },
+                onCompleted: { }] as StreamObserver)
+
+        then:
+        updates.await(5, TimeUnit.SECONDS)
+        inFlight.count() == 0
+        inFlight.byMember().isEmpty()
+    }
+}
@@ -16,6 +16,7 @@ class NetScopeAuthInterceptorSpec extends Specification {
 
     def capturedToken
     def capturedApiKey
+    def capturedPriority
 
     /**
      * Runs interceptCall with the given headers and captures the context values
@@ -27,6 +28,7 @@ class NetScopeAuthInterceptorSpec extends Specification {
             startCall(_, _) >> {
                 capturedToken  = NetScopeAuthInterceptor.ACCESS_TOKEN_CTX.get()
                 capturedApiKey = NetScopeAuthInterceptor.API_KEY_CTX.get()
+                capturedPriority = NetScopeAuthInterceptor.PRIORITY_CTX.get()
                 Mock(Listener)
             }
         }
@@ -144,6 +146,22 @@ class NetScopeAuthInterceptorSpec extends Specification {
 
     // ── Static key constants ──────────────────────────────────────────────────
 
+    // ── netscope-priority header ──────────────────────────────────────────────
+
+    def "netscope-priority header: stored in context, empty string when absent"() {
+        given:
+        def headers = new Metadata()
+        when:
+        intercept(headers)
+        then:
+        capturedPriority == ""
+        when:
+        headers.put(NetScopeAuthInterceptor.PRIORITY_HEADER, "low")
+        intercept(headers)
+        then:
+        capturedPriority == "low"
+    }
+
     def "AUTHORIZATION_KEY metadata key name is 'authorization'"() {
         expect:
         NetScopeAuthInterceptor.AUTHORIZATION_KEY.name() == "authorization"
@@ -0,0 +1,256 @@
+package org.fractalx.netscope.server.grpc
+
+import io.grpc.CallOptions
+import io.grpc.Channel
+import io.grpc.ClientCall
+import io.grpc.ClientInterceptor
+import io.grpc.ForwardingClientCall
+import io.grpc.ForwardingClientCallListener
+import io.grpc.ManagedChannel
+import io.grpc.Metadata
+import io.grpc.MethodDescriptor
+import io.grpc.Server
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder
+import io.grpc.stub.ServerCallStreamObserver
+import org.fractalx.netscope.server.config.NetScopeConfig
+import org.fractalx.netscope.server.core.NetScopeInvoker
+import org.fractalx.netscope.server.core.NetScopeScanner
+import org.fractalx.netscope.server.grpc.proto.InvokeRequest
+import org.fractalx.netscope.server.grpc.proto.InvokeResponse
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc
+import org.fractalx.netscope.server.model.NetworkMethodDefinition
+import org.fractalx.netscope.server.security.OAuth2AuthorizationService
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class NetScopeCompressionSpec extends Specification {
+
+    // ── Fixtures ──────────────────────────────────────────────────────────────
+
+    static class ReportService {
+        String export() { "" }
+        String summary() { "" }
+    }
+
+    static final String LARGE = '"' + ('netscope ' * 1024) + '"'
+    static final String SMALL = '"ok"'
+
+    def bean    = new ReportService()
+    def export  = new NetworkMethodDefinition(bean, ReportService.getDeclaredMethod("export"), false, null, "")
+    def summary = new NetworkMethodDefinition(bean, ReportService.getDeclaredMethod("summary"), false, null, "")
+
+    def config = new NetScopeConfig.CompressionConfig()
+
+    Server server
+    ManagedChannel channel
+    String responseEncoding
+
+    def setup() {
+        config.setEnabled(true)
+        config.setMinResponseSize(1024)
+    }
+
+    def cleanup() {
+        channel?.shutdownNow()?.awaitTermination(5, TimeUnit.SECONDS)
+        server?.shutdownNow()?.awaitTermination(5, TimeUnit.SECONDS)
+    }
+
+    /** Serves `export` → LARGE and `summary` → SMALL over TCP and returns the response encoding. */
+    InvokeResponse call(String member) {
+        if (server == null) {
+            def scanner = Stub(NetScopeScanner) {
+                findMethod("ReportService", "export", _)  >> Optional.of(export)
+                findMethod("ReportService", "summary", _) >> Optional.of(summary)
+            }
+            def invoker = Stub(NetScopeInvoker) {
+                invoke(export, _)  >> LARGE
+                invoke(summary, _) >> SMALL
+            }
+            def service = new NetScopeGrpcServiceImpl(scanner, invoker,
+                    Stub(OAuth2AuthorizationService), new NetScopeCompression(config))
+            server = NettyServerBuilder.forPort(0)
+                    .addService(service)
+                    .compressorRegistry(NetScopeCompression.compressorRegistry())
+                    .decompressorRegistry(NetScopeCompression.decompressorRegistry())
+                    .build().start()
+            channel = NettyChannelBuilder.forAddress("localhost", server.getPort())
+                    .usePlaintext()
+                    .decompressorRegistry(NetScopeCompression.decompressorRegistry())
+                    .intercept(encodingCapture())
+                    .build()
+        }
+        NetScopeServiceGrpc.newBlockingStub(channel).invokeMethod(InvokeRequest.newBuilder()
+                .setBeanName("ReportService").setMemberName(member).build())
+    }
+
+    ClientInterceptor encodingCapture() {
+        new ClientInterceptor() {
+            @Override
+            <Q, R> ClientCall<Q, R> interceptCall(MethodDescriptor<Q, R> method, CallOptions options, Channel next) {
+                new ForwardingClientCall.SimpleForwardingClientCall<Q, R>(next.newCall(method, options)) {
+                    @Override
+                    void start(ClientCall.Listener<R> listener, Metadata headers) {
+                        super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<R>(listener) {
+                            @Override
+                            void onHeaders(Metadata h) {
+                                responseEncoding = h.get(Metadata.Key.of("grpc-encoding", Metadata.ASCII_STRING_MARSHALLER))
+                                super.onHeaders(h)
+                            }
+                        }, headers)
+                    }
+                }
+            }
+        }
+    }
+
+    // ── Threshold ─────────────────────────────────────────────────────────────
+
+    def "responses at or above the threshold are gzip-compressed"() {
+        when:
+        def response = call("export")
+        then:
+        responseEncoding == "gzip"
+        '"' + response.getResult().getStringValue() + '"' == LARGE
+    }
+
+    def "responses below the threshold are sent uncompressed"() {
+        when:
+        def response = call("summary")
+        then:
+        responseEncoding in [null, "identity"]
+        response.getResult().getStringValue() == "ok"
+    }
+
+    def "disabled compression never compresses"() {
+        given:
+        config.setEnabled(false)
+        when:
+        call("export")
+        then:
+        responseEncoding in [null, "identity"]
+    }
+
+    // ── Codecs and overrides ──────────────────────────────────────────────────
+
+    def "lz4 is registered and negotiated when lz4-java is present"() {
+        given:
+        config.setAlgorithm("lz4")
+        when:
+        def response = call("export")
+        then:
+        NetScopeCompression.availableCodecs().contains("lz4")
+        responseEncoding == "lz4"
+        '"' + response.getResult().getStringValue() + '"' == LARGE
+    }
+
+    def "member override opts a large response out of compression"() {
+        given:
+        config.setMembers(["ReportService.export": "identity"])
+        when:
+        call("export")
+        then:
+        responseEncoding in [null, "identity"]
+    }
+
+    def "member override selects a different codec than the default"() {
+        given:
+        config.setAlgorithm("identity")
+        config.setMembers(["ReportService.export": "lz4"])
+        expect:
+        new NetScopeCompression(config).codecFor(export) == "lz4"
+        new NetScopeCompression(config).codecFor(summary) == "identity"
+        new NetScopeCompression(config).codecFor(null) == "identity"
+    }
+
+    def "codec names are case-insensitive"() {
+        given:
+        config.setAlgorithm(" GZIP ")
+        expect:
+        new NetScopeCompression(config).codecFor(export) == "gzip"
+    }
+
+    def "unknown codec fails fast with the available names"() {
+        given:
+        config.setMembers(["ReportService.export": "brotli"])
+        when:
+        new NetScopeCompression(config)
+        then:
+        def ex = thrown(IllegalStateException)
+        ex.message.contains("brotli")
+        ex.message.contains("gzip")
+    }
+
+    // ── Streams ───────────────────────────────────────────────────────────────
+
+    def "stream messages are compressed individually by size and override"() {
+        given:
+        config.setMembers(["ReportService.summary": "identity"])
+        def policy   = new NetScopeCompression(config)
+        def observer = Mock(ServerCallStreamObserver)
+        def large = InvokeResponse.newBuilder().setResult(
+                com.google.protobuf.Value.newBuilder().setStringValue(LARGE)).build()
+        when:
+        def stream = policy.forStream(observer)
+        stream.beforeMessage(export, large)
+        stream.beforeMessage(export, InvokeResponse.getDefaultInstance())
+        stream.beforeMessage(summary, large)
+        then:
+        1 * observer.setCompression("gzip")
+        then:
+        1 * observer.setMessageCompression(true)
+        then:
+        2 * observer.setMessageCompression(false)
+    }
+
+    def "a stream opens with the first compressed member's own codec"() {
+        given:
+        config.setMembers(["ReportService.export": "lz4"])
+        def observer = Mock(ServerCallStreamObserver)
+        def stream = new NetScopeCompression(config).forStream(observer)
+
+        when:
+        stream.beforeMessage(export, largeResponse())
+        stream.beforeMessage(summary, largeResponse())
+
+        then:
+        1 * observer.setCompression("lz4")
+        0 * observer.setCompression(_)
+        2 * observer.setMessageCompression(true)
+    }
+
+    def "with an identity default, members overridden to compress are still compressed on streams"() {
+        given:
+        config.setAlgorithm("identity")
+        config.setMembers(["ReportService.export": "gzip"])
+        def observer = Mock(ServerCallStreamObserver)
+        def stream = new NetScopeCompression(config).forStream(observer)
+
+        when:
+        stream.beforeMessage(summary, largeResponse())
+        stream.beforeMessage(export, largeResponse())
+
+        then:
+        1 * observer.setCompression("gzip")
+        1 * observer.setMessageCompression(false)
+        then:
+        1 * observer.setMessageCompression(true)
+    }
+
+    def "streams are left alone when no codec compresses"() {
+        given:
+        config.setAlgorithm("identity")
+        def observer = Mock(ServerCallStreamObserver)
+
+        when:
+        new NetScopeCompression(config).forStream(observer).beforeMessage(export, largeResponse())
+
+        then:
+        0 * observer._
+    }
+
+    static InvokeResponse largeResponse() {
+        InvokeResponse.newBuilder().setResult(com.google.protobuf.Value.newBuilder().setStringValue(LARGE)).build()
+    }
+}
@@ -0,0 +1,495 @@
+package org.fractalx.netscope.server.grpc
+
+import io.grpc.ManagedChannel
+import io.grpc.Metadata
+import io.grpc.Status
+import io.grpc.StatusRuntimeException
+import io.grpc.health.v1.HealthCheckRequest
+import io.grpc.health.v1.HealthCheckResponse.ServingStatus
+import io.grpc.health.v1.HealthGrpc
+import io.grpc.stub.MetadataUtils
+import io.grpc.stub.StreamObserver
+import io.grpc.inprocess.InProcessChannelBuilder
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder
+import io.grpc.netty.shaded.io.netty.channel.epoll.Epoll
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollDomainSocketChannel
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup
+import io.grpc.netty.shaded.io.netty.channel.unix.DomainSocketAddress
+import org.fractalx.netscope.server.config.NetScopeConfig
+import org.fractalx.netscope.server.core.AttributeWatchRegistry
+import org.fractalx.netscope.server.core.NetScopeInvoker
+import org.fractalx.netscope.server.core.NetScopeScanner
+import org.fractalx.netscope.server.grpc.proto.ChangeSource
+import org.fractalx.netscope.server.grpc.proto.DocsRequest
+import org.fractalx.netscope.server.grpc.proto.InvokeRequest
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc
+import org.fractalx.netscope.server.grpc.proto.WatchAttributeRequest
+import org.fractalx.netscope.server.model.NetworkMethodDefinition
+import org.fractalx.netscope.server.security.OAuth2AuthorizationService
+import io.grpc.ManagedChannelBuilder
+import spock.lang.IgnoreIf
+import spock.lang.Specification
+
+import java.net.StandardProtocolFamily
+import java.net.UnixDomainSocketAddress
+import java.nio.channels.ServerSocketChannel
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
+
+class NetScopeGrpcServerSpec extends Specification {
+
+    // ── Fixtures ──────────────────────────────────────────────────────────────
+
+    def scanner = Mock(NetScopeScanner) { scan() >> [] }
+    def config  = new NetScopeConfig()
+    def server  = new NetScopeGrpcServer(config,
+            new NetScopeGrpcServiceImpl(scanner, Mock(NetScopeInvoker), Mock(OAuth2AuthorizationService)))
+
+    List<ManagedChannel> channels = []
+
+    def setup() {
+        config.getGrpc().setPort(0)
+        config.getGrpc().setEnableReflection(false)
+    }
+
+    def cleanup() {
+        release.countDown()
+        channels*.shutdownNow()
+        server.stop()
+    }
+
+    boolean docsReachable(ManagedChannel channel) {
+        channels << channel
+        NetScopeServiceGrpc.newBlockingStub(channel)
+                .withDeadlineAfter(5, TimeUnit.SECONDS)
+                .getDocs(DocsRequest.getDefaultInstance()) != null
+    }
+
+    // ── TCP ───────────────────────────────────────────────────────────────────
+
+    def "TCP listener binds an ephemeral port when port = 0"() {
+        when:
+        server.start()
+        then:
+        server.getPort() > 0
+        docsReachable(ManagedChannelBuilder.forAddress("localhost", server.getPort()).usePlaintext().build())
+    }
+
+    def "disabled server never binds"() {
+        given:
+        config.getGrpc().setEnabled(false)
+        when:
+        server.start()
+        then:
+        server.getPort() == -1
+    }
+
+    // ── In-process ────────────────────────────────────────────────────────────
+
+    def "in-process listener serves the same service"() {
+        given:
+        def name = "netscope-spec-" + UUID.randomUUID()
+        config.getGrpc().setInProcessName(name)
+        when:
+        server.start()
+        then:
+        docsReachable(InProcessChannelBuilder.forName(name).build())
+    }
+
+    def "in-process listener is released on stop"() {
+        given:
+        def name = "netscope-spec-" + UUID.randomUUID()
+        config.getGrpc().setInProcessName(name)
+        server.start()
+        when:
+        server.stop()
+        docsReachable(InProcessChannelBuilder.forName(name).build())
+        then:
+        thrown(io.grpc.StatusRuntimeException)
+    }
+
+    // ── Traffic capture ───────────────────────────────────────────────────────
+
+    def "with capture enabled, requests on any listener are written and the files closed on stop"() {
+        given:
+        def dir = Files.createTempDirectory("netscope-capture")
+        def name = "netscope-spec-" + UUID.randomUUID()
+        config.getGrpc().setInProcessName(name)
+        config.getCapture().setEnabled(true)
+        config.getCapture().setDirectory(dir.toString())
+        config.getCapture().setSampleRate(1.0d)
+        scanner.findMethod(*_) >> Optional.empty()
+        server.start()
+        def channel = InProcessChannelBuilder.forName(name).build()
+        channels << channel
+        def request = InvokeRequest.newBuilder().setBeanName("Orders").setMemberName("place").build()
+
+        when:
+        try { NetScopeServiceGrpc.newBlockingStub(channel).invokeMethod(request) }
+        catch (io.grpc.StatusRuntimeException ignored) { }   // no such member — captured all the same
+        server.stop()
+
+        then:
+        server.capture() == null
+        TrafficCapture.read(dir)*.request == [request]
+
+        cleanup:
+        dir.toFile().deleteDir()
+    }
+
+    // ── GetDocs ───────────────────────────────────────────────────────────────
+
+    def "GetDocs over the wire returns the cached response and honours if_none_match"() {
+        given:
+        def name = "netscope-spec-" + UUID.randomUUID()
+        config.getGrpc().setInProcessName(name)
+        server.start()
+        def channel = InProcessChannelBuilder.forName(name).build()
+        channels << channel
+        def stub = NetScopeServiceGrpc.newBlockingStub(channel)
+
+        when:
+        def full = stub.getDocs(DocsRequest.getDefaultInstance())
+        def again = stub.getDocs(DocsRequest.newBuilder().setIfNoneMatch(full.version).build())
+
+        then:
+        !full.version.isEmpty()
+        !full.notModified
+        again.notModified
+        again.version == full.version
+    }
+
+    // ── Watches ───────────────────────────────────────────────────────────────
+
+    static class Thermostat {
+        volatile int target = 20
+    }
+
+    def "watchers over the wire receive the same changes and are completed on stop"() {
+        given:
+        def bean     = new Thermostat()
+        def def_     = new NetworkMethodDefinition(bean, Thermostat.getDeclaredField("target"), false, null, "")
+        def registry = new AttributeWatchRegistry(new NetScopeConfig.WatchConfig(sampleIntervalMillis: 0))
+        scanner.findMethod("Thermostat", "target", []) >> Optional.of(def_)
+        server = new NetScopeGrpcServer(config, new NetScopeGrpcServiceImpl(scanner, Mock(NetScopeInvoker),
+                Mock(OAuth2AuthorizationService), NetScopeCompression.disabled(), registry))
+        def name = "netscope-spec-" + UUID.randomUUID()
+        config.getGrpc().setInProcessName(name)
+        server.start()
+        def channel = InProcessChannelBuilder.forName(name).build()
+        channels << channel
+        def request = WatchAttributeRequest.newBuilder().setBeanName("Thermostat").setAttributeName("target").build()
+        def first  = NetScopeServiceGrpc.newBlockingStub(channel).watchAttribute(request)
+        def second = NetScopeServiceGrpc.newBlockingStub(channel).watchAttribute(request)
+
+        expect:
+        first.next().value.numberValue == 20
+        second.next().value.numberValue == 20
+
+        when:
+        bean.target = 22
+        registry.notifyChanged(bean, "target")
+        def a = first.next(), b = second.next()
+        then:
+        a == b
+        a.value.numberValue == 22
+        a.version == 1
+        a.source == ChangeSource.NOTIFY
+
+        when:
+        server.stop()
+        then:
+        !first.hasNext()
+        !second.hasNext()
+        registry.watcherCount() == 0
+
+        cleanup:
+        registry.close()
+    }
+
+    // ── Graceful drain ────────────────────────────────────────────────────────
+
+    static class Slow {
+        final CountDownLatch release
+        Slow(CountDownLatch release) { this.release = release }
+        String run() { release.await(5, TimeUnit.SECONDS); "done" }
+    }
+
+    CountDownLatch release = new CountDownLatch(1)
+    volatile boolean scanned = true
+
+    /** Starts an in-process server whose Slow.run waits for {@code release}; returns its channel. */
+    ManagedChannel slowServer() {
+        // A real invoker: a blocking Mock would hold Spock's lock and stall the health thread
+        def def_ = new NetworkMethodDefinition(new Slow(release), Slow.getDeclaredMethod("run"), false, null, "")
+        scanner.findMethod("Slow", "run", []) >> Optional.of(def_)
+        scanner.isScanned() >> { scanned }
+        server = new NetScopeGrpcServer(config,
+                new NetScopeGrpcServiceImpl(scanner, new NetScopeInvoker(), Mock(OAuth2AuthorizationService)))
+        def name = "netscope-spec-" + UUID.randomUUID()
+        config.getGrpc().setInProcessName(name)
+        server.start()
+        def channel = InProcessChannelBuilder.forName(name).build()
+        channels << channel
+        channel
+    }
+
+    static InvokeRequest slowRun() {
+        InvokeRequest.newBuilder().setBeanName("Slow").setMemberName("run").build()
+    }
+
+    static void waitFor(Closure<Boolean> condition) {
+        def deadline = System.currentTimeMillis() + 5000
+        while (!condition() && System.currentTimeMillis() < deadline) Thread.sleep(5)
+    }
+
+    def "health reports SERVING, then NOT_SERVING for the readiness delay before listeners close"() {
+        given:
+        config.getShutdown().setReadinessDelayMillis(500)
+        def health = HealthGrpc.newBlockingStub(slowServer())
+        def check = HealthCheckRequest.newBuilder().setService("netscope.NetScopeService").build()
+
+        expect:
+        health.check(check).status == ServingStatus.SERVING
+
+        when:
+        def stopping = Thread.start { server.stop() }
+        waitFor { health.check(check).status == ServingStatus.NOT_SERVING }
+
+        then:
+        health.check(check).status == ServingStatus.NOT_SERVING
+
+        cleanup:
+        stopping?.join(5000)
+    }
+
+    def "a call running when the server stops is allowed to finish"() {
+        given:
+        def future = NetScopeServiceGrpc.newFutureStub(slowServer()).invokeMethod(slowRun())
+        waitFor { server.inFlight().count() == 1 }
+
+        expect:
+        server.inFlight().byMember() == ["InvokeMethod Slow.run": 1]
+
+        when:
+        def stopping = Thread.start { server.stop() }
+        Thread.sleep(100)
+        release.countDown()
+        stopping.join(5000)
+
+        then:
+        future.get(5, TimeUnit.SECONDS).result.stringValue == "done"
+        !stopping.isAlive()
+    }
+
+    def "calls still running at the drain timeout are cut and reported by member"() {
+        given:
+        config.getShutdown().setDrainTimeoutMillis(100)
+        def future = NetScopeServiceGrpc.newFutureStub(slowServer()).invokeMethod(slowRun())
+        waitFor { server.inFlight().count() == 1 }
+
+        when:
+        def cut = server.drain()
+        release.countDown()
+        future.get(5, TimeUnit.SECONDS)
+
+        then:
+        cut == ["InvokeMethod Slow.run": 1]
+        def ex = thrown(ExecutionException)
+        Status.fromThrowable(ex.cause).code in [Status.Code.CANCELLED, Status.Code.UNAVAILABLE]
+    }
+
+    def "open InvokeMethodStream calls complete without an error when the server drains"() {
+        given:
+        release.countDown()
+        def responses = new LinkedBlockingQueue()
+        def completed = new CountDownLatch(1)
+        Throwable error = null
+        def requests = NetScopeServiceGrpc.newStub(slowServer()).invokeMethodStream([
+                onNext     : { responses << it },
+                onError    : { error = it; completed.countDown() },
+                onCompleted: { completed.countDown() }] as StreamObserver)
+        requests.onNext(slowRun())
+
+        expect:
+        responses.poll(5, TimeUnit.SECONDS).result.stringValue == "done"
+
+        when:
+        server.stop()
+
+        then:
+        completed.await(5, TimeUnit.SECONDS)
+        error == null
+    }
+
+    // ── Saturation-aware health ───────────────────────────────────────────────
+
+    static HealthCheckRequest netScopeHealth() {
+        HealthCheckRequest.newBuilder().setService("netscope.NetScopeService").build()
+    }
+
+    def "health turns NOT_SERVING while maxInFlight calls run, and SERVING again once they finish"() {
+        given:
+        config.getHealth().setMaxInFlight(1)
+        config.getHealth().setIntervalMillis(20)
+        def channel = slowServer()
+        def health = HealthGrpc.newBlockingStub(channel)
+        def future = NetScopeServiceGrpc.newFutureStub(channel).invokeMethod(slowRun())
+
+        when:
+        waitFor { health.check(netScopeHealth()).status == ServingStatus.NOT_SERVING }
+
+        then:
+        health.check(netScopeHealth()).status == ServingStatus.NOT_SERVING
+        server.healthMonitor().reasons() == ["in-flight: calls in flight 1 (limit 1)"]
+
+        when:
+        release.countDown()
+        future.get(5, TimeUnit.SECONDS)
+        waitFor { health.check(netScopeHealth()).status == ServingStatus.SERVING }
+
+        then:
+        health.check(netScopeHealth()).status == ServingStatus.SERVING
+    }
+
+    def "health stays NOT_SERVING until the members have been scanned"() {
+        given:
+        scanned = false
+        config.getHealth().setIntervalMillis(20)
+        def health = HealthGrpc.newBlockingStub(slowServer())
+
+        expect:
+        health.check(netScopeHealth()).status == ServingStatus.NOT_SERVING
+
+        when:
+        scanned = true
+        waitFor { health.check(netScopeHealth()).status == ServingStatus.SERVING }
+
+        then:
+        health.check(netScopeHealth()).status == ServingStatus.SERVING
+    }
+
+    def "with health monitoring disabled the service is SERVING from start"() {
+        given:
+        scanned = false
+        config.getHealth().setEnabled(false)
+        def health = HealthGrpc.newBlockingStub(slowServer())
+
+        expect:
+        health.check(netScopeHealth()).status == ServingStatus.SERVING
+        server.healthMonitor() == null
+    }
+
+    // ── Unix domain socket ────────────────────────────────────────────────────
+
+    @IgnoreIf({ !Epoll.isAvailable() })
+    def "unix domain socket listener serves the same service and removes its file on stop"() {
+        given:
+        def socket = Files.createTempDirectory("netscope").resolve("grpc.sock")
+        staleSocket(socket)
+        config.getGrpc().setUnixSocketPath(socket.toString())
+        def group = new EpollEventLoopGroup(1)
+
+        when:
+        server.start()
+        def channel = NettyChannelBuilder.forAddress(new DomainSocketAddress(socket.toString()))
+                .eventLoopGroup(group)
+                .channelType(EpollDomainSocketChannel)
+                .usePlaintext()
+                .build()
+        then:
+        docsReachable(channel)
+
+        when:
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS)
+        server.stop()
+        then:
+        !Files.exists(socket)
+
+        cleanup:
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS)
+    }
+
+    @IgnoreIf({ !Epoll.isAvailable() })
+    def "unix domain socket listener has the TCP listener's header limit"() {
+        given:
+        def socket = Files.createTempDirectory("netscope").resolve("grpc.sock")
+        config.getGrpc().setUnixSocketPath(socket.toString())
+        config.getGrpc().setMaxHeaderListSize(1024)
+        def group = new EpollEventLoopGroup(1)
+        def headers = new Metadata()
+        headers.put(Metadata.Key.of("x-padding", Metadata.ASCII_STRING_MARSHALLER), "x" * 4096)
+
+        when:
+        server.start()
+        def channel = NettyChannelBuilder.forAddress(new DomainSocketAddress(socket.toString()))
+                .eventLoopGroup(group)
+                .channelType(EpollDomainSocketChannel)
+                .usePlaintext()
+                .build()
+        then:
+        docsReachable(channel)
+
+        when:
+        NetScopeServiceGrpc.newBlockingStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers))
+                .withDeadlineAfter(5, TimeUnit.SECONDS)
+                .getDocs(DocsRequest.getDefaultInstance())
+        then:
+        thrown(StatusRuntimeException)
+
+        cleanup:
+        channel?.shutdownNow()?.awaitTermination(5, TimeUnit.SECONDS)
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS)
+    }
+
+    def "a unixSocketPath holding a file that is not a socket fails startup and is left alone"() {
+        given:
+        def file = Files.createTempDirectory("netscope").resolve("application.yaml")
+        Files.writeString(file, "keep me")
+        config.getGrpc().setUnixSocketPath(file.toString())
+        when:
+        server.start()
+        then:
+        def ex = thrown(IOException)
+        ex.message.contains("is not a socket")
+        Files.readString(file) == "keep me"
+        server.getPort() == -1
+    }
+
+    def "a unixSocketPath another process listens on fails startup and keeps its socket"() {
+        given:
+        def socket = Files.createTempDirectory("netscope").resolve("grpc.sock")
+        def live = ServerSocketChannel.open(StandardProtocolFamily.UNIX).bind(UnixDomainSocketAddress.of(socket))
+        config.getGrpc().setUnixSocketPath(socket.toString())
+        when:
+        server.start()
+        then:
+        def ex = thrown(IOException)
+        ex.message.contains("in use by another process")
+        Files.exists(socket)
+        cleanup:
+        live.close()
+    }
+
+    /** Leaves a socket file nobody listens on, as an unclean shutdown does. */
+    static void staleSocket(Path socket) {
+        ServerSocketChannel.open(StandardProtocolFamily.UNIX).withCloseable { it.bind(UnixDomainSocketAddress.of(socket)) }
+    }
+
+    def "unix domain socket on the NIO transport fails startup without leaking the TCP listener"() {
+        given:
+        config.getGrpc().setTransport(NetScopeConfig.GrpcConfig.Transport.NIO)
+        config.getGrpc().setUnixSocketPath(Files.createTempDirectory("netscope").resolve("grpc.sock").toString())
+        when:
+        server.start()
+        then:
+        def ex = thrown(IllegalStateException)
+        ex.message.contains("unixSocketPath")
+        server.getPort() == -1
+    }
+}
@@ -4,20 +4,48 @@ import com.google.protobuf.ListValue
 import com.google.protobuf.NullValue
 import com.google.protobuf.Struct
 import com.google.protobuf.Value
+import org.fractalx.netscope.server.annotation.Priority
 import org.fractalx.netscope.server.core.AmbiguousInvocationException
+import org.fractalx.netscope.server.core.AsyncInvocations
 import org.fractalx.netscope.server.core.NetScopeInvoker
 import org.fractalx.netscope.server.core.NetScopeScanner
+import org.fractalx.netscope.server.core.PriorityScheduler
+import org.fractalx.netscope.server.grpc.proto.AddAndGetAttributeRequest
+import org.fractalx.netscope.server.grpc.proto.AsyncOutcome
+import org.fractalx.netscope.server.grpc.proto.AsyncOutcomesRequest
+import org.fractalx.netscope.server.grpc.proto.CompareAndSetAttributeRequest
 import org.fractalx.netscope.server.grpc.proto.DocsRequest
+import org.fractalx.netscope.server.grpc.proto.InvokeBatchRequest
+import org.fractalx.netscope.server.grpc.proto.InvokeBatchResponse
 import org.fractalx.netscope.server.grpc.proto.InvokeRequest
+import org.fractalx.netscope.server.grpc.proto.InvokeResult
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc
 import org.fractalx.netscope.server.grpc.proto.SetAttributeRequest
+import org.fractalx.netscope.server.grpc.proto.ChangeSource
+import org.fractalx.netscope.server.grpc.proto.WatchAttributeRequest
+import org.fractalx.netscope.server.grpc.proto.ReadAttributesRequest
+import org.fractalx.netscope.server.core.AttributeWatchRegistry
+import org.fractalx.netscope.server.config.NetScopeConfig
 import org.fractalx.netscope.server.model.NetworkMethodDefinition
+import org.fractalx.netscope.server.ratelimit.RateLimiter
 import org.fractalx.netscope.server.security.OAuth2AuthorizationService
+import org.fractalx.netscope.server.security.OAuth2TokenValidator
+import io.grpc.Context
+import io.grpc.inprocess.InProcessChannelBuilder
+import io.grpc.inprocess.InProcessServerBuilder
 import io.grpc.Status
 import io.grpc.StatusRuntimeException
+import io.grpc.stub.ServerCallStreamObserver
 import io.grpc.stub.StreamObserver
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import java.util.concurrent.Callable
+import java.util.concurrent.CancellationException
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
 class NetScopeGrpcServiceImplSpec extends Specification {
 
     // ── Test bean fixtures ────────────────────────────────────────────────────
@@ -39,6 +67,36 @@ class NetScopeGrpcServiceImplSpec extends Specification {
         final String locked = "cannot-change"
     }
 
+    static class ConstantsBean {
+        static final int LIMIT = 10
+    }
+
+    /** A call whose transport is ready only while {@code ready} is set; flipping it back runs onReady. */
+    static class HeldObserver extends ServerCallStreamObserver<AsyncOutcome> {
+        List<AsyncOutcome> received = []
+        boolean ready = true
+        boolean completed
+        Runnable onReady
+        Runnable onCancel
+
+        void setReady(boolean ready) {
+            this.ready = ready
+            if (ready) onReady?.run()
+        }
+
+        @Override boolean isReady()                              { ready }
+        @Override void setOnReadyHandler(Runnable handler)       { onReady = handler }
+        @Override void setOnCancelHandler(Runnable handler)      { onCancel = handler }
+        @Override boolean isCancelled()                          { false }
+        @Override void setCompression(String compression)        {}
+        @Override void disableAutoInboundFlowControl()           {}
+        @Override void request(int count)                        {}
+        @Override void setMessageCompression(boolean enable)     {}
+        @Override void onNext(AsyncOutcome value)                { received << value }
+        @Override void onError(Throwable t)                      {}
+        @Override void onCompleted()                             { completed = true }
+    }
+
     // ── Mocks ─────────────────────────────────────────────────────────────────
 
     def scanner     = Mock(NetScopeScanner)
@@ -193,6 +251,192 @@ class NetScopeGrpcServiceImplSpec extends Specification {
         1 * observer.onCompleted()
     }
 
+    // ── invokeMethod: constant results ────────────────────────────────────────
+
+    def "invokeMethod: a void method runs on every call and answers the shared accepted response"() {
+        given:
+        def def_ = methodDef("voidOp")
+        scanner.findMethod("SvcBean", "voidOp", []) >> Optional.of(def_)
+        def request = InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("voidOp").build()
+        def responses = []
+        def observer = Mock(StreamObserver) { onNext(_) >> { responses << it[0] } }
+
+        when:
+        2.times { service.invokeMethod(request, observer) }
+
+        then:
+        2 * invoker.invoke(def_, "[]") >> NetScopeInvoker.VOID_RESULT
+        responses.size() == 2
+        responses[0].is(responses[1])
+        responses[0].result.structValue.fieldsMap["status"].stringValue == "accepted"
+    }
+
+    def "invokeMethod: a static final field is read once and then served from its encoded response"() {
+        given:
+        def def_ = new NetworkMethodDefinition(new ConstantsBean(), ConstantsBean.getDeclaredField("LIMIT"),
+                false, null, "")
+        scanner.findMethod("ConstantsBean", "LIMIT", []) >> Optional.of(def_)
+        def request = InvokeRequest.newBuilder().setBeanName("ConstantsBean").setMemberName("LIMIT").build()
+        def results = []
+        def observer = Mock(StreamObserver) { onNext(_) >> { results << it[0].result.numberValue } }
+
+        when:
+        3.times { service.invokeMethod(request, observer) }
+
+        then:
+        1 * invoker.invoke(def_, "[]") >> "10"
+        results == [10d, 10d, 10d]
+    }
+
+    def "invokeMethod: constant fields are read again after the registry changes"() {
+        given:
+        def def_ = new NetworkMethodDefinition(new ConstantsBean(), ConstantsBean.getDeclaredField("LIMIT"),
+                false, null, "")
+        scanner.findMethod("ConstantsBean", "LIMIT", []) >> Optional.of(def_)
+        scanner.getVersion() >>> [1L, 1L, 2L]
+        def request = InvokeRequest.newBuilder().setBeanName("ConstantsBean").setMemberName("LIMIT").build()
+
+        when:
+        3.times { service.invokeMethod(request, Mock(StreamObserver)) }
+
+        then:
+        2 * invoker.invoke(def_, "[]") >> "10"
+    }
+
+    def "invokeMethod: over the pre-encoded binding, constant results arrive intact"() {
+        given:
+        def voidDef = methodDef("voidOp")
+        def fieldDef = new NetworkMethodDefinition(new ConstantsBean(), ConstantsBean.getDeclaredField("LIMIT"),
+                false, null, "")
+        scanner.findMethod("SvcBean", "voidOp", []) >> Optional.of(voidDef)
+        scanner.findMethod("ConstantsBean", "LIMIT", []) >> Optional.of(fieldDef)
+        invoker.invoke(voidDef, "[]") >> NetScopeInvoker.VOID_RESULT
+        invoker.invoke(fieldDef, "[]") >> "10"
+        def name = "constants-" + UUID.randomUUID()
+        def server = InProcessServerBuilder.forName(name).addService(service.bindPreEncodedService()).build().start()
+        def channel = InProcessChannelBuilder.forName(name).build()
+        def stub = NetScopeServiceGrpc.newBlockingStub(channel)
+
+        expect:
+        stub.invokeMethod(InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("voidOp").build())
+                .result.structValue.fieldsMap["status"].stringValue == "accepted"
+        2.times {
+            assert stub.invokeMethod(InvokeRequest.newBuilder().setBeanName("ConstantsBean").setMemberName("LIMIT").build())
+                    .result.numberValue == 10d
+        }
+
+        cleanup:
+        channel?.shutdownNow()
+        server?.shutdownNow()
+    }
+
+    // ── invokeMethod: async void methods ──────────────────────────────────────
+
+    NetworkMethodDefinition asyncDef() {
+        new NetworkMethodDefinition(svcBean, SvcBean.getDeclaredMethod("voidOp"), false, null, "", null, true)
+    }
+
+    static InvokeRequest voidOpRequest() {
+        InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("voidOp").build()
+    }
+
+    def "invokeMethod: an async member is answered with its invocation id before it runs"() {
+        given:
+        def async = new AsyncInvocations(new NetScopeConfig().getAsync())
+        service.setAsyncInvocations(async)
+        def def_ = asyncDef()
+        scanner.findMethod("SvcBean", "voidOp", []) >> Optional.of(def_)
+        def release = new CountDownLatch(1)
+        def ran = new CountDownLatch(1)
+        invoker.prepare(def_, "[]") >> ({ release.await(5, TimeUnit.SECONDS); ran.countDown() } as Callable)
+        def observer = Mock(StreamObserver)
+
+        when:
+        service.invokeMethod(voidOpRequest(), observer)
+
+        then:
+        1 * observer.onNext({
+            def fields = it.result.structValue.fieldsMap
+            fields["status"].stringValue == "accepted" && !fields["invocationId"].stringValue.isEmpty()
+        })
+        1 * observer.onCompleted()
+        0 * invoker.invoke(*_)
+        ran.count == 1
+
+        when:
+        release.countDown()
+
+        then:
+        ran.await(5, TimeUnit.SECONDS)
+
+        cleanup:
+        release.countDown()
+        async.close()
+    }
+
+    def "invokeMethod: without AsyncInvocations an async member runs in the call"() {
+        given:
+        def def_ = asyncDef()
+        scanner.findMethod("SvcBean", "voidOp", []) >> Optional.of(def_)
+        def observer = Mock(StreamObserver)
+
+        when:
+        service.invokeMethod(voidOpRequest(), observer)
+
+        then:
+        1 * invoker.invoke(def_, "[]") >> NetScopeInvoker.VOID_RESULT
+        1 * observer.onNext({ !it.result.structValue.fieldsMap.containsKey("invocationId") })
+    }
+
+    def "invokeMethod: a full async queue answers RESOURCE_EXHAUSTED"() {
+        given:
+        def cfg = new NetScopeConfig().getAsync()
+        cfg.threads = 1
+        cfg.maxQueued = 1
+        def async = new AsyncInvocations(cfg)
+        service.setAsyncInvocations(async)
+        def def_ = asyncDef()
+        scanner.findMethod("SvcBean", "voidOp", []) >> Optional.of(def_)
+        def release = new CountDownLatch(1)
+        def busy = new CountDownLatch(1)
+        async.submit(def_, { busy.countDown(); release.await(5, TimeUnit.SECONDS) } as Callable)
+        busy.await(5, TimeUnit.SECONDS)
+        invoker.prepare(def_, "[]") >> ({ null } as Callable)
+        def observer = Mock(StreamObserver)
+
+        when:
+        2.times { service.invokeMethod(voidOpRequest(), observer) }
+
+        then:
+        1 * observer.onNext(_)
+        1 * observer.onError({ Status.fromThrowable(it).code == Status.Code.RESOURCE_EXHAUSTED })
+
+        cleanup:
+        release.countDown()
+        async.close()
+    }
+
+    def "invokeMethod: argument errors of an async member go back to the caller"() {
+        given:
+        def async = new AsyncInvocations(new NetScopeConfig().getAsync())
+        service.setAsyncInvocations(async)
+        def def_ = asyncDef()
+        scanner.findMethod("SvcBean", "voidOp", _) >> Optional.of(def_)
+        invoker.prepare(def_, _) >> { throw new IllegalArgumentException("Expected 0 argument(s) but got 1") }
+        def observer = Mock(StreamObserver)
+
+        when:
+        service.invokeMethod(InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("voidOp")
+                .setArguments(ListValue.newBuilder().addValues(Value.newBuilder().setStringValue("x"))).build(), observer)
+
+        then:
+        1 * observer.onError({ Status.fromThrowable(it).code == Status.Code.INTERNAL })
+        0 * observer.onNext(_)
+
+        cleanup:
+        async.close()
+    }
+
     // ── invokeMethod: NOT FOUND ────────────────────────────────────────────────
 
     def "invokeMethod: member not found — sends NOT_FOUND error"() {
@@ -225,6 +469,149 @@ class NetScopeGrpcServiceImplSpec extends Specification {
         0 * invoker._
     }
 
+    // ── invokeMethod: rate limiting ───────────────────────────────────────────
+
+    RateLimiter principalLimit(double perSecond) {
+        def config = new NetScopeConfig().getRateLimit()
+        config.principal.permitsPerSecond = perSecond
+        new RateLimiter(config)
+    }
+
+    def "invokeMethod: over the principal's limit — RESOURCE_EXHAUSTED with retry-after, invoker not called"() {
+        given:
+        def def_ = methodDef("noArgs")
+        scanner.findMethod("SvcBean", "noArgs", []) >> Optional.of(def_)
+        authService.authorize(def_, _, _) >> "oauth:alice"
+        service.setRateLimiter(principalLimit(0.001))
+        def request = InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("noArgs").build()
+        def first = Mock(StreamObserver)
+        def second = Mock(StreamObserver)
+
+        when:
+        service.invokeMethod(request, first)
+        service.invokeMethod(request, second)
+
+        then:
+        1 * invoker.invoke(def_, "[]") >> '"ok"'
+        1 * first.onCompleted()
+        1 * second.onError({
+            def ex = (StatusRuntimeException) it
+            ex.status.code == Status.Code.RESOURCE_EXHAUSTED && ex.trailers.get(RateLimiter.RETRY_AFTER) != null
+        })
+        0 * invoker._
+    }
+
+    def "invokeMethod: calls with no principal are not limited per principal"() {
+        given:
+        def def_ = methodDef("noArgs")
+        scanner.findMethod("SvcBean", "noArgs", []) >> Optional.of(def_)
+        service.setRateLimiter(principalLimit(0.001))
+        def observer = Mock(StreamObserver)
+
+        when:
+        3.times { service.invokeMethod(InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("noArgs").build(), observer) }
+
+        then:
+        3 * invoker.invoke(def_, "[]") >> '"ok"'
+        3 * observer.onCompleted()
+        0 * observer.onError(_)
+    }
+
+    def "invokeMethod: a public call's credentials are checked only when principals have a limit"() {
+        given:
+        def validator = Mock(OAuth2TokenValidator)
+        def config = new NetScopeConfig()
+        def publicService = new NetScopeGrpcServiceImpl(scanner, invoker, new OAuth2AuthorizationService(config, validator, null))
+        def def_ = methodDef("noArgs")
+        scanner.findMethod("SvcBean", "noArgs", []) >> Optional.of(def_)
+        invoker.invoke(def_, "[]") >> '"ok"'
+        def limits = config.getRateLimit()
+        limits.global.permitsPerSecond = 1000
+        publicService.setRateLimiter(new RateLimiter(limits))
+        def request = InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("noArgs").build()
+        def withToken = Context.current().withValue(NetScopeAuthInterceptor.ACCESS_TOKEN_CTX, "some-token")
+
+        when:
+        withToken.run { publicService.invokeMethod(request, Mock(StreamObserver)) }
+        publicService.setRateLimiter(null)
+        withToken.run { publicService.invokeMethod(request, Mock(StreamObserver)) }
+        then:
+        0 * validator._
+
+        when:
+        limits.principal.permitsPerSecond = 1000
+        publicService.setRateLimiter(new RateLimiter(limits))
+        withToken.run { publicService.invokeMethod(request, Mock(StreamObserver)) }
+        then:
+        1 * validator.validate("some-token") >> OAuth2TokenValidator.TokenValidationResult.valid("alice", Set.of(), null)
+    }
+
+    // ── invokeMethod: priority scheduling ─────────────────────────────────────
+
+    def "invokeMethod: with a scheduler, the call is queued at the priority the header lowers it to"() {
+        given:
+        def m = SvcBean.getDeclaredMethod("noArgs")
+        def def_ = new NetworkMethodDefinition(svcBean, m, false, null, "test", Priority.HIGH)
+        scanner.findMethod("SvcBean", "noArgs", []) >> Optional.of(def_)
+        def scheduler = Mock(PriorityScheduler)
+        service.setScheduler(scheduler)
+        def observer = Mock(StreamObserver)
+
+        when:
+        Context.current().withValue(NetScopeAuthInterceptor.PRIORITY_CTX, "low").run {
+            service.invokeMethod(InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("noArgs").build(), observer)
+        }
+
+        then:
+        1 * scheduler.effective(Priority.HIGH, "low") >> Priority.LOW
+        1 * scheduler.execute(Priority.LOW, _) >> { args -> args[1].run() }
+        1 * invoker.invoke(def_, "[]") >> '"ok"'
+        1 * observer.onCompleted()
+    }
+
+    def "invokeMethod: scheduled calls run on the scheduler's workers"() {
+        given:
+        def def_ = methodDef("noArgs")
+        scanner.findMethod("SvcBean", "noArgs", []) >> Optional.of(def_)
+        def config = new NetScopeConfig().getScheduling()
+        config.threads = 1
+        def scheduler = new PriorityScheduler(config)
+        service.setScheduler(scheduler)
+        String thread = null
+        invoker.invoke(def_, "[]") >> { thread = Thread.currentThread().name; '"ok"' }
+        def done = new java.util.concurrent.CountDownLatch(1)
+        def observer = Mock(StreamObserver)
+
+        when:
+        service.invokeMethod(InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("noArgs").build(), observer)
+        done.await(5, TimeUnit.SECONDS)
+
+        then:
+        1 * observer.onCompleted() >> { done.countDown() }
+        thread == "netscope-worker-0"
+
+        cleanup:
+        scheduler.close()
+    }
+
+    def "invokeMethod: a full scheduler queue fails the call with RESOURCE_EXHAUSTED"() {
+        given:
+        def def_ = methodDef("noArgs")
+        scanner.findMethod("SvcBean", "noArgs", []) >> Optional.of(def_)
+        def scheduler = Mock(PriorityScheduler)
+        scheduler.effective(_, _) >> Priority.NORMAL
+        scheduler.execute(_, _) >> { throw Status.RESOURCE_EXHAUSTED.asRuntimeException() }
+        service.setScheduler(scheduler)
+        def observer = Mock(StreamObserver)
+
+        when:
+        service.invokeMethod(InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("noArgs").build(), observer)
+
+        then:
+        1 * observer.onError({ ((StatusRuntimeException) it).status.code == Status.Code.RESOURCE_EXHAUSTED })
+        0 * invoker._
+    }
+
     // ── invokeMethod: invocation exception ────────────────────────────────────
 
     def "invokeMethod: invoker throws — sends INTERNAL error with message"() {
@@ -398,125 +785,873 @@ class NetScopeGrpcServiceImplSpec extends Specification {
         1 * observer.onError({ ((StatusRuntimeException) it).status.code == Status.Code.INVALID_ARGUMENT })
     }
 
-    // ── setAttribute: happy path ──────────────────────────────────────────────
+    // ── invokeMethod: cancellation and deadlines ──────────────────────────────
 
-    def "setAttribute: writeable field — writes and responds with previous value"() {
+    def "invokeMethod: call already cancelled — sends CANCELLED without resolving or invoking"() {
         given:
-        def def_ = fieldDef_("mutableField")
-        def request = SetAttributeRequest.newBuilder()
-            .setBeanName("SvcBean").setAttributeName("mutableField")
-            .setValue(Value.newBuilder().setStringValue("new").build()).build()
+        def ctx = Context.current().withCancellation()
+        ctx.cancel(null)
+        def request = InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("noArgs").build()
         def observer = Mock(StreamObserver)
-        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(def_)
-        invoker.write(def_, _) >> '"old"'
 
         when:
-        service.setAttribute(request, observer)
+        ctx.run { service.invokeMethod(request, observer) }
 
         then:
-        1 * observer.onNext({ it.getPreviousValue().getStringValue() == "old" })
-        1 * observer.onCompleted()
-        0 * observer.onError(_)
+        1 * observer.onError({ ((StatusRuntimeException) it).status.code == Status.Code.CANCELLED })
+        0 * scanner._
+        0 * invoker._
+        0 * observer.onNext(_)
     }
 
-    def "setAttribute: null Value in request — passes 'null' to invoker"() {
+    def "invokeMethod: cancelled during authorization — arguments are never decoded"() {
         given:
-        def def_ = fieldDef_("mutableField")
-        def request = SetAttributeRequest.newBuilder()
-            .setBeanName("SvcBean").setAttributeName("mutableField").build()
+        def def_ = methodDef("withString", String)
+        def ctx = Context.current().withCancellation()
+        scanner.findMethod("SvcBean", "withString", []) >> Optional.of(def_)
+        authService.authorize(def_, _, _) >> { ctx.cancel(null) }
+        def request = InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("withString")
+                .setArguments(ListValue.newBuilder().addValues(Value.newBuilder().setStringValue("x"))).build()
         def observer = Mock(StreamObserver)
-        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(def_)
-        String capturedValueJson
-        invoker.write(def_, _) >> { d, String vj -> capturedValueJson = vj; "null" }
 
         when:
-        service.setAttribute(request, observer)
+        ctx.run { service.invokeMethod(request, observer) }
 
         then:
-        capturedValueJson == "null"
-        1 * observer.onCompleted()
+        1 * observer.onError({ ((StatusRuntimeException) it).status.code == Status.Code.CANCELLED })
+        0 * invoker._
     }
 
-    // ── setAttribute: NOT FOUND ───────────────────────────────────────────────
+    def "invokeMethod: deadline passes during the invocation — sends DEADLINE_EXCEEDED, not INTERNAL"() {
+        given:
+        def def_ = methodDef("noArgs")
+        def scheduler = Executors.newSingleThreadScheduledExecutor()
+        def ctx = Context.current().withDeadlineAfter(20, TimeUnit.MILLISECONDS, scheduler)
+        scanner.findMethod("SvcBean", "noArgs", []) >> Optional.of(def_)
+        invoker.invoke(def_, "[]") >> { Thread.sleep(200); throw new CancellationException("Call cancelled by the client") }
+        def request = InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("noArgs").build()
+        def observer = Mock(StreamObserver)
 
-    def "setAttribute: attribute not found — sends NOT_FOUND error"() {
+        when:
+        ctx.run { service.invokeMethod(request, observer) }
+
+        then:
+        1 * observer.onError({ ((StatusRuntimeException) it).status.code == Status.Code.DEADLINE_EXCEEDED })
+        0 * observer.onNext(_)
+
+        cleanup:
+        scheduler.shutdownNow()
+    }
+
+    def "invokeBatch: items after the caller cancels are not run"() {
         given:
-        scanner.findMethod("SvcBean", "ghost", []) >> Optional.empty()
+        def noArgs = methodDef("noArgs")
+        def ctx = Context.current().withCancellation()
+        scanner.findMethod("SvcBean", "noArgs", []) >> Optional.of(noArgs)
+        def item = InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("noArgs").build()
         def observer = Mock(StreamObserver)
 
         when:
-        service.setAttribute(SetAttributeRequest.newBuilder().setBeanName("SvcBean").setAttributeName("ghost").build(), observer)
+        ctx.run {
+            service.invokeBatch(InvokeBatchRequest.newBuilder().addRequests(item).addRequests(item).build(), observer)
+        }
 
         then:
-        1 * observer.onError({ ((StatusRuntimeException) it).status.code == Status.Code.NOT_FOUND })
+        1 * invoker.invoke(noArgs, "[]") >> { ctx.cancel(null); '"ok"' }
+        1 * observer.onError({ ((StatusRuntimeException) it).status.code == Status.Code.CANCELLED })
+        0 * observer.onNext(_)
     }
 
-    // ── setAttribute: resolves to method, not field ───────────────────────────
+    // ── invokeBatch ───────────────────────────────────────────────────────────
 
-    def "setAttribute: attribute is a method — sends INVALID_ARGUMENT with hint"() {
+    def "invokeBatch: answers every request in order; failures stay in their own result"() {
         given:
-        def def_ = methodDef("noArgs")
-        scanner.findMethod("SvcBean", "noArgs", []) >> Optional.of(def_)
+        def noArgs = methodDef("noArgs")
+        def withString = methodDef("withString", String)
+        scanner.findMethod("SvcBean", "noArgs", []) >> Optional.of(noArgs)
+        scanner.findMethod("SvcBean", "withString", ["String"]) >> Optional.of(withString)
+        scanner.findMethod("SvcBean", "missing", []) >> Optional.empty()
+        invoker.invoke(noArgs, "[]") >> '"ok"'
+        invoker.invoke(withString, '["x"]') >> { throw new RuntimeException("boom") }
+        def request = InvokeBatchRequest.newBuilder()
+                .addRequests(InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("noArgs"))
+                .addRequests(InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("missing"))
+                .addRequests(InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("withString")
+                        .addParameterTypes("String")
+                        .setArguments(ListValue.newBuilder().addValues(Value.newBuilder().setStringValue("x"))))
+                .addRequests(InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("noArgs"))
+                .build()
         def observer = Mock(StreamObserver)
+        InvokeBatchResponse response = null
 
         when:
-        service.setAttribute(SetAttributeRequest.newBuilder().setBeanName("SvcBean").setAttributeName("noArgs").build(), observer)
+        service.invokeBatch(request, observer)
 
         then:
-        1 * observer.onError({
-            ((StatusRuntimeException) it).status.code == Status.Code.INVALID_ARGUMENT &&
-            it.message.contains("InvokeMethod")
-        })
+        1 * observer.onNext(_) >> { args -> response = args[0] }
+        1 * observer.onCompleted()
+        0 * observer.onError(_)
+        response.resultsList*.outcomeCase == [InvokeResult.OutcomeCase.RESULT, InvokeResult.OutcomeCase.ERROR,
+                                              InvokeResult.OutcomeCase.ERROR, InvokeResult.OutcomeCase.RESULT]
+        response.getResults(0).result.stringValue == "ok"
+        response.getResults(1).error.code == Status.Code.NOT_FOUND.value()
+        response.getResults(1).error.message.contains("SvcBean.missing")
+        response.getResults(2).error.code == Status.Code.INTERNAL.value()
+        response.getResults(3).result.stringValue == "ok"
     }
 
-    // ── setAttribute: final (not writeable) ──────────────────────────────────
-
-    def "setAttribute: final field — sends FAILED_PRECONDITION error"() {
+    def "invokeBatch: authorization is checked per request"() {
         given:
-        def def_ = finalFieldDef()
-        scanner.findMethod("BeanWithFinalField", "locked", []) >> Optional.of(def_)
+        def noArgs = methodDef("noArgs")
+        scanner.findMethod("SvcBean", "noArgs", []) >> Optional.of(noArgs)
+        def calls = 0
+        authService.authorize(noArgs, _, _) >> {
+            if (++calls == 2) throw Status.UNAUTHENTICATED.withDescription("no").asRuntimeException()
+        }
+        invoker.invoke(noArgs, "[]") >> '"ok"'
+        def item = InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("noArgs").build()
         def observer = Mock(StreamObserver)
+        InvokeBatchResponse response = null
 
         when:
-        service.setAttribute(SetAttributeRequest.newBuilder().setBeanName("BeanWithFinalField").setAttributeName("locked").build(), observer)
+        service.invokeBatch(InvokeBatchRequest.newBuilder().addRequests(item).addRequests(item).build(), observer)
 
         then:
-        1 * observer.onError({ ((StatusRuntimeException) it).status.code == Status.Code.FAILED_PRECONDITION })
+        1 * observer.onNext(_) >> { args -> response = args[0] }
+        response.getResults(0).hasResult()
+        response.getResults(1).error.code == Status.Code.UNAUTHENTICATED.value()
     }
 
-    // ── setAttribute: auth failure ────────────────────────────────────────────
+    def "invokeBatch: each request takes its own rate-limit permit"() {
+        given:
+        def noArgs = methodDef("noArgs")
+        scanner.findMethod("SvcBean", "noArgs", []) >> Optional.of(noArgs)
+        authService.authorize(noArgs, _, _) >> "oauth:alice"
+        invoker.invoke(noArgs, "[]") >> '"ok"'
+        service.setRateLimiter(principalLimit(0.001))
+        def item = InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("noArgs").build()
+        def observer = Mock(StreamObserver)
+        InvokeBatchResponse response = null
 
-    def "setAttribute: auth fails — sends error, write not called"() {
+        when:
+        service.invokeBatch(InvokeBatchRequest.newBuilder().addRequests(item).addRequests(item).build(), observer)
+
+        then:
+        1 * observer.onNext(_) >> { args -> response = args[0] }
+        response.getResults(0).hasResult()
+        response.getResults(1).error.code == Status.Code.RESOURCE_EXHAUSTED.value()
+    }
+
+    def "invokeBatch: with a scheduler, the whole batch is one NORMAL task"() {
         given:
-        def def_ = fieldDef_("mutableField")
-        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(def_)
-        authService.authorize(def_, _, _) >> { throw Status.UNAUTHENTICATED.asRuntimeException() }
+        def scheduler = Mock(PriorityScheduler)
+        service.setScheduler(scheduler)
         def observer = Mock(StreamObserver)
 
         when:
-        service.setAttribute(SetAttributeRequest.newBuilder().setBeanName("SvcBean").setAttributeName("mutableField")
-            .setValue(Value.newBuilder().setStringValue("x").build()).build(), observer)
+        service.invokeBatch(InvokeBatchRequest.getDefaultInstance(), observer)
 
         then:
-        1 * observer.onError({ ((StatusRuntimeException) it).status.code == Status.Code.UNAUTHENTICATED })
-        0 * invoker._
+        1 * scheduler.effective(Priority.NORMAL, _) >> Priority.NORMAL
+        1 * scheduler.execute(Priority.NORMAL, _) >> { args -> args[1].run() }
+        1 * observer.onCompleted()
     }
 
-    // ── setAttribute: write exception ─────────────────────────────────────────
+    def "invokeBatch: with a scheduler, the batch is queued at its lowest member priority"() {
+        given:
+        def scheduler = Mock(PriorityScheduler)
+        service.setScheduler(scheduler)
+        def high = new NetworkMethodDefinition(svcBean, SvcBean.getDeclaredMethod("noArgs"), false, null, "", Priority.HIGH)
+        def low  = new NetworkMethodDefinition(svcBean, SvcBean.getDeclaredMethod("withString", String),
+                false, null, "", Priority.LOW)
+        scanner.findMethod("SvcBean", "noArgs", []) >> Optional.of(high)
+        scanner.findMethod("SvcBean", "withString", ["String"]) >> Optional.of(low)
+        scanner.findMethod("SvcBean", "missing", []) >> Optional.empty()
+        invoker.invoke(high, "[]") >> '"ok"'
+        invoker.invoke(low, '["x"]') >> '"ok"'
+        def request = InvokeBatchRequest.newBuilder()
+                .addRequests(InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("noArgs"))
+                .addRequests(InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("missing"))
+                .addRequests(InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("withString")
+                        .addParameterTypes("String")
+                        .setArguments(ListValue.newBuilder().addValues(Value.newBuilder().setStringValue("x"))))
+                .build()
+        def observer = Mock(StreamObserver)
+        InvokeBatchResponse response = null
 
-    def "setAttribute: write throws — sends INTERNAL error"() {
+        when:
+        service.invokeBatch(request, observer)
+
+        then:
+        1 * scheduler.effective(Priority.LOW, _) >> Priority.LOW
+        1 * scheduler.execute(Priority.LOW, _) >> { args -> args[1].run() }
+        1 * observer.onNext(_) >> { args -> response = args[0] }
+        response.resultsList*.outcomeCase == [InvokeResult.OutcomeCase.RESULT, InvokeResult.OutcomeCase.ERROR,
+                                              InvokeResult.OutcomeCase.RESULT]
+        response.getResults(1).error.code == Status.Code.NOT_FOUND.value()
+    }
+
+    def "invokeBatch: an empty batch gets an empty response"() {
         given:
-        def def_ = fieldDef_("mutableField")
-        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(def_)
-        invoker.write(def_, _) >> { throw new RuntimeException("write-fail") }
         def observer = Mock(StreamObserver)
 
         when:
-        service.setAttribute(SetAttributeRequest.newBuilder().setBeanName("SvcBean").setAttributeName("mutableField")
-            .setValue(Value.newBuilder().setStringValue("x").build()).build(), observer)
+        service.invokeBatch(InvokeBatchRequest.getDefaultInstance(), observer)
 
         then:
-        1 * observer.onError({ ((StatusRuntimeException) it).status.code == Status.Code.INTERNAL })
+        1 * observer.onNext({ it.resultsCount == 0 })
+        1 * observer.onCompleted()
+    }
+
+    def "invokeBatch: a batch larger than maxBatchSize fails before any item runs"() {
+        given:
+        service.setMaxBatchSize(2)
+        def item = InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("noArgs").build()
+        def observer = Mock(StreamObserver)
+
+        when:
+        service.invokeBatch(InvokeBatchRequest.newBuilder().addRequests(item).addRequests(item).addRequests(item).build(),
+                observer)
+
+        then:
+        0 * scanner.findMethod(*_)
+        1 * observer.onError({ ((StatusRuntimeException) it).status.code == Status.Code.INVALID_ARGUMENT &&
+                ((StatusRuntimeException) it).status.description.contains("maxBatchSize 2") })
+        0 * observer.onNext(_)
+    }
+
+    def "invokeMethod: marks the call executed for idempotency only once the method runs"() {
+        given:
+        def noArgs = methodDef("noArgs")
+        scanner.findMethod("SvcBean", "noArgs", []) >> Optional.of(noArgs)
+        scanner.findMethod("SvcBean", "missing", []) >> Optional.empty()
+        invoker.invoke(noArgs, "[]") >> '"ok"'
+        def ran = new java.util.concurrent.atomic.AtomicBoolean()
+        def refused = new java.util.concurrent.atomic.AtomicBoolean()
+
+        when:
+        Context.current().withValue(IdempotencyInterceptor.EXECUTED_CTX, ran).run {
+            service.invokeMethod(InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("noArgs").build(),
+                    Mock(StreamObserver))
+        }
+        Context.current().withValue(IdempotencyInterceptor.EXECUTED_CTX, refused).run {
+            service.invokeMethod(InvokeRequest.newBuilder().setBeanName("SvcBean").setMemberName("missing").build(),
+                    Mock(StreamObserver))
+        }
+
+        then:
+        ran.get()
+        !refused.get()
+    }
+
+    // ── setAttribute: happy path ──────────────────────────────────────────────
+
+    def "setAttribute: writeable field — writes and responds with previous value"() {
+        given:
+        def def_ = fieldDef_("mutableField")
+        def request = SetAttributeRequest.newBuilder()
+            .setBeanName("SvcBean").setAttributeName("mutableField")
+            .setValue(Value.newBuilder().setStringValue("new").build()).build()
+        def observer = Mock(StreamObserver)
+        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(def_)
+        invoker.write(def_, _) >> '"old"'
+
+        when:
+        service.setAttribute(request, observer)
+
+        then:
+        1 * observer.onNext({ it.getPreviousValue().getStringValue() == "old" })
+        1 * observer.onCompleted()
+        0 * observer.onError(_)
+    }
+
+    def "setAttribute: null Value in request — passes 'null' to invoker"() {
+        given:
+        def def_ = fieldDef_("mutableField")
+        def request = SetAttributeRequest.newBuilder()
+            .setBeanName("SvcBean").setAttributeName("mutableField").build()
+        def observer = Mock(StreamObserver)
+        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(def_)
+        String capturedValueJson
+        invoker.write(def_, _) >> { d, String vj -> capturedValueJson = vj; "null" }
+
+        when:
+        service.setAttribute(request, observer)
+
+        then:
+        capturedValueJson == "null"
+        1 * observer.onCompleted()
+    }
+
+    // ── setAttribute: NOT FOUND ───────────────────────────────────────────────
+
+    def "setAttribute: attribute not found — sends NOT_FOUND error"() {
+        given:
+        scanner.findMethod("SvcBean", "ghost", []) >> Optional.empty()
+        def observer = Mock(StreamObserver)
+
+        when:
+        service.setAttribute(SetAttributeRequest.newBuilder().setBeanName("SvcBean").setAttributeName("ghost").build(), observer)
+
+        then:
+        1 * observer.onError({ ((StatusRuntimeException) it).status.code == Status.Code.NOT_FOUND })
+    }
+
+    // ── setAttribute: resolves to method, not field ───────────────────────────
+
+    def "setAttribute: attribute is a method — sends INVALID_ARGUMENT with hint"() {
+        given:
+        def def_ = methodDef("noArgs")
+        scanner.findMethod("SvcBean", "noArgs", []) >> Optional.of(def_)
+        def observer = Mock(StreamObserver)
+
+        when:
+        service.setAttribute(SetAttributeRequest.newBuilder().setBeanName("SvcBean").setAttributeName("noArgs").build(), observer)
+
+        then:
+        1 * observer.onError({
+            ((StatusRuntimeException) it).status.code == Status.Code.INVALID_ARGUMENT &&
+            it.message.contains("InvokeMethod")
+        })
+    }
+
+    // ── setAttribute: final (not writeable) ──────────────────────────────────
+
+    def "setAttribute: final field — sends FAILED_PRECONDITION error"() {
+        given:
+        def def_ = finalFieldDef()
+        scanner.findMethod("BeanWithFinalField", "locked", []) >> Optional.of(def_)
+        def observer = Mock(StreamObserver)
+
+        when:
+        service.setAttribute(SetAttributeRequest.newBuilder().setBeanName("BeanWithFinalField").setAttributeName("locked").build(), observer)
+
+        then:
+        1 * observer.onError({ ((StatusRuntimeException) it).status.code == Status.Code.FAILED_PRECONDITION })
+    }
+
+    // ── setAttribute: auth failure ────────────────────────────────────────────
+
+    def "setAttribute: auth fails — sends error, write not called"() {
+        given:
+        def def_ = fieldDef_("mutableField")
+        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(def_)
+        authService.authorize(def_, _, _) >> { throw Status.UNAUTHENTICATED.asRuntimeException() }
+        def observer = Mock(StreamObserver)
+
+        when:
+        service.setAttribute(SetAttributeRequest.newBuilder().setBeanName("SvcBean").setAttributeName("mutableField")
+            .setValue(Value.newBuilder().setStringValue("x").build()).build(), observer)
+
+        then:
+        1 * observer.onError({ ((StatusRuntimeException) it).status.code == Status.Code.UNAUTHENTICATED })
+        0 * invoker._
+    }
+
+    // ── setAttribute: write exception ─────────────────────────────────────────
+
+    def "setAttribute: write throws — sends INTERNAL error"() {
+        given:
+        def def_ = fieldDef_("mutableField")
+        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(def_)
+        invoker.write(def_, _) >> { throw new RuntimeException("write-fail") }
+        def observer = Mock(StreamObserver)
+
+        when:
+        service.setAttribute(SetAttributeRequest.newBuilder().setBeanName("SvcBean").setAttributeName("mutableField")
+            .setValue(Value.newBuilder().setStringValue("x").build()).build(), observer)
+
+        then:
+        1 * observer.onError({ ((StatusRuntimeException) it).status.code == Status.Code.INTERNAL })
+    }
+
+    // ── compareAndSetAttribute / addAndGetAttribute ───────────────────────────
+
+    static Value str(String s) { Value.newBuilder().setStringValue(s).build() }
+    static Value num(double d) { Value.newBuilder().setNumberValue(d).build() }
+
+    def "compareAndSetAttribute: swap — responds swapped with the new value"() {
+        given:
+        def def_ = fieldDef_("mutableField")
+        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(def_)
+        def observer = Mock(StreamObserver)
+
+        when:
+        service.compareAndSetAttribute(CompareAndSetAttributeRequest.newBuilder()
+            .setBeanName("SvcBean").setAttributeName("mutableField")
+            .setExpectedValue(str("old")).setNewValue(str("new")).build(), observer)
+
+        then:
+        1 * invoker.compareAndSet(def_, '"old"', '"new"') >>
+            new NetScopeInvoker.AttributeUpdate(true, '"old"', '"new"')
+        1 * observer.onNext({ it.getSwapped() && it.getCurrentValue().getStringValue() == "new" })
+        1 * observer.onCompleted()
+    }
+
+    def "compareAndSetAttribute: miss — responds not swapped with the current value"() {
+        given:
+        def def_ = fieldDef_("mutableField")
+        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(def_)
+        invoker.compareAndSet(def_, _, _) >> new NetScopeInvoker.AttributeUpdate(false, '"other"', '"other"')
+        def observer = Mock(StreamObserver)
+
+        when:
+        service.compareAndSetAttribute(CompareAndSetAttributeRequest.newBuilder()
+            .setBeanName("SvcBean").setAttributeName("mutableField")
+            .setExpectedValue(str("old")).setNewValue(str("new")).build(), observer)
+
+        then:
+        1 * observer.onNext({ !it.getSwapped() && it.getCurrentValue().getStringValue() == "other" })
+        1 * observer.onCompleted()
+    }
+
+    def "compareAndSetAttribute: final field — FAILED_PRECONDITION, invoker not called"() {
+        given:
+        def def_ = new NetworkMethodDefinition(finalBean, BeanWithFinalField.getDeclaredField("locked"), false, null, "")
+        scanner.findMethod("BeanWithFinalField", "locked", []) >> Optional.of(def_)
+        def observer = Mock(StreamObserver)
+
+        when:
+        service.compareAndSetAttribute(CompareAndSetAttributeRequest.newBuilder()
+            .setBeanName("BeanWithFinalField").setAttributeName("locked").build(), observer)
+
+        then:
+        0 * invoker._
+        1 * observer.onError({ ((StatusRuntimeException) it).status.code == Status.Code.FAILED_PRECONDITION })
+    }
+
+    def "addAndGetAttribute: responds with previous and resulting value"() {
+        given:
+        def def_ = fieldDef_("mutableField")
+        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(def_)
+        def observer = Mock(StreamObserver)
+
+        when:
+        service.addAndGetAttribute(AddAndGetAttributeRequest.newBuilder()
+            .setBeanName("SvcBean").setAttributeName("mutableField").setDelta(num(5)).build(), observer)
+
+        then:
+        1 * invoker.addAndGet(def_, "5.0") >> new NetScopeInvoker.AttributeUpdate(true, "10", "15")
+        1 * observer.onNext({ it.getPreviousValue().getNumberValue() == 10d && it.getValue().getNumberValue() == 15d })
+        1 * observer.onCompleted()
+    }
+
+    def "addAndGetAttribute: auth fails — forwards error, invoker not called"() {
+        given:
+        def def_ = fieldDef_("mutableField")
+        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(def_)
+        authService.authorize(def_, _, _) >> { throw Status.UNAUTHENTICATED.asRuntimeException() }
+        def observer = Mock(StreamObserver)
+
+        when:
+        service.addAndGetAttribute(AddAndGetAttributeRequest.newBuilder()
+            .setBeanName("SvcBean").setAttributeName("mutableField").setDelta(num(1)).build(), observer)
+
+        then:
+        0 * invoker._
+        1 * observer.onError({ ((StatusRuntimeException) it).status.code == Status.Code.UNAUTHENTICATED })
+    }
+
+    @Unroll
+    def "addAndGetAttribute: #exception.class.simpleName maps to #code"() {
+        given:
+        def def_ = fieldDef_("mutableField")
+        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(def_)
+        invoker.addAndGet(def_, _) >> { throw exception }
+        def observer = Mock(StreamObserver)
+
+        when:
+        service.addAndGetAttribute(AddAndGetAttributeRequest.newBuilder()
+            .setBeanName("SvcBean").setAttributeName("mutableField").setDelta(num(1)).build(), observer)
+
+        then:
+        1 * observer.onError({ ((StatusRuntimeException) it).status.code == code })
+
+        where:
+        exception                                     || code
+        new IllegalArgumentException("bad delta")     || Status.Code.INVALID_ARGUMENT
+        new UnsupportedOperationException("not num")  || Status.Code.FAILED_PRECONDITION
+        new IllegalStateException("null field")       || Status.Code.FAILED_PRECONDITION
+        new RuntimeException("boom")                  || Status.Code.INTERNAL
+    }
+
+    // ── readAttributes ────────────────────────────────────────────────────────
+
+    static ReadAttributesRequest readRequest(boolean consistent, String... names) {
+        ReadAttributesRequest.newBuilder().setBeanName("SvcBean")
+                .addAllAttributeNames(names.toList()).setConsistent(consistent).build()
+    }
+
+    def "readAttributes: returns one Struct with every requested field"() {
+        given:
+        def field = fieldDef_("mutableField")
+        def locked = finalFieldDef()
+        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(field)
+        scanner.findMethod("SvcBean", "locked", []) >> Optional.of(locked)
+        def observer = Mock(StreamObserver)
+
+        when:
+        service.readAttributes(readRequest(true, "mutableField", "locked", "mutableField"), observer)
+
+        then:
+        1 * invoker.readAll([field, locked], true) >>
+                new NetScopeInvoker.Snapshot('{"mutableField":"val","locked":"cannot-change"}', true, 2)
+        1 * observer.onNext({
+            it.values.fieldsMap["mutableField"].stringValue == "val" &&
+            it.values.fieldsMap["locked"].stringValue == "cannot-change" &&
+            it.consistent
+        })
+        1 * observer.onCompleted()
+    }
+
+    def "readAttributes: reports an inconsistent snapshot"() {
+        given:
+        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(fieldDef_("mutableField"))
+        invoker.readAll(_, true) >> new NetScopeInvoker.Snapshot('{"mutableField":"val"}', false, 8)
+        def observer = Mock(StreamObserver)
+        when:
+        service.readAttributes(readRequest(true, "mutableField"), observer)
+        then:
+        1 * observer.onNext({ !it.consistent })
+    }
+
+    def "readAttributes: a read of several fields takes one principal permit, and all of its permits or none"() {
+        given:
+        def field = fieldDef_("mutableField")
+        def locked = finalFieldDef()
+        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(field)
+        scanner.findMethod("SvcBean", "locked", []) >> Optional.of(locked)
+        authService.authorize(_, _, _) >> "oauth:alice"
+        service.setRateLimiter(principalLimit(0.001))
+        def first = Mock(StreamObserver)
+        def second = Mock(StreamObserver)
+
+        when:
+        service.readAttributes(readRequest(false, "mutableField", "locked"), first)
+        service.readAttributes(readRequest(false, "mutableField", "locked"), second)
+
+        then:
+        1 * invoker.readAll([field, locked], false) >> new NetScopeInvoker.Snapshot('{}', true, 1)
+        1 * first.onCompleted()
+        1 * second.onError({ Status.fromThrowable(it).code == Status.Code.RESOURCE_EXHAUSTED })
+        0 * invoker._
+    }
+
+    def "readAttributes: no names — sends INVALID_ARGUMENT"() {
+        given:
+        def observer = Mock(StreamObserver)
+        when:
+        service.readAttributes(readRequest(false), observer)
+        then:
+        1 * observer.onError({ Status.fromThrowable(it).code == Status.Code.INVALID_ARGUMENT })
+        0 * invoker._
+    }
+
+    def "readAttributes: one unknown name — sends NOT_FOUND, nothing read"() {
+        given:
+        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(fieldDef_("mutableField"))
+        scanner.findMethod("SvcBean", "nope", []) >> Optional.empty()
+        def observer = Mock(StreamObserver)
+        when:
+        service.readAttributes(readRequest(false, "mutableField", "nope"), observer)
+        then:
+        1 * observer.onError({ Status.fromThrowable(it).code == Status.Code.NOT_FOUND && it.message.contains("nope") })
+        0 * invoker._
+    }
+
+    def "readAttributes: a method name — sends INVALID_ARGUMENT"() {
+        given:
+        scanner.findMethod("SvcBean", "noArgs", []) >> Optional.of(methodDef("noArgs"))
+        def observer = Mock(StreamObserver)
+        when:
+        service.readAttributes(readRequest(false, "noArgs"), observer)
+        then:
+        1 * observer.onError({ Status.fromThrowable(it).code == Status.Code.INVALID_ARGUMENT })
+    }
+
+    def "readAttributes: auth fails on any field — forwards error, nothing read"() {
+        given:
+        def def_ = fieldDef_("mutableField")
+        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(def_)
+        authService.authorize(def_, _, _) >> { throw Status.UNAUTHENTICATED.asRuntimeException() }
+        def observer = Mock(StreamObserver)
+        when:
+        service.readAttributes(readRequest(false, "mutableField"), observer)
+        then:
+        1 * observer.onError({ Status.fromThrowable(it).code == Status.Code.UNAUTHENTICATED })
+        0 * invoker._
+    }
+
+    def "readAttributes: invoker failure — sends INTERNAL"() {
+        given:
+        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(fieldDef_("mutableField"))
+        invoker.readAll(_, _) >> { throw new RuntimeException("boom") }
+        def observer = Mock(StreamObserver)
+        when:
+        service.readAttributes(readRequest(false, "mutableField"), observer)
+        then:
+        1 * observer.onError({ Status.fromThrowable(it).code == Status.Code.INTERNAL })
+    }
+
+    // ── watchAttribute ────────────────────────────────────────────────────────
+
+    static WatchAttributeRequest watchRequest(String attr) {
+        WatchAttributeRequest.newBuilder().setBeanName("SvcBean").setAttributeName(attr).build()
+    }
+
+    def "watchAttribute: sends the current value, then written changes"() {
+        given:
+        def registry = new AttributeWatchRegistry(new NetScopeConfig.WatchConfig(sampleIntervalMillis: 0))
+        def watching = new NetScopeGrpcServiceImpl(scanner, new NetScopeInvoker(registry), authService,
+                NetScopeCompression.disabled(), registry)
+        def def_ = fieldDef_("mutableField")
+        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(def_)
+        def received = []
+        def observer = Stub(StreamObserver) { onNext(_) >> { args -> received << args[0] } }
+
+        when:
+        watching.watchAttribute(watchRequest("mutableField"), observer)
+        watching.setAttribute(SetAttributeRequest.newBuilder().setBeanName("SvcBean")
+                .setAttributeName("mutableField")
+                .setValue(Value.newBuilder().setStringValue("next")).build(), Mock(StreamObserver))
+
+        then:
+        received*.value*.stringValue == ["val", "next"]
+        received*.version == [0L, 1L]
+        received*.source == [ChangeSource.INITIAL, ChangeSource.WRITE]
+
+        cleanup:
+        registry.close()
+    }
+
+    def "watchAttribute: without an explicit registry, the invoker's registry is used"() {
+        given:
+        def registry = new AttributeWatchRegistry(new NetScopeConfig.WatchConfig(sampleIntervalMillis: 0))
+        def watching = new NetScopeGrpcServiceImpl(scanner, new NetScopeInvoker(registry), authService)
+        def def_ = fieldDef_("mutableField")
+        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(def_)
+        def received = []
+        def observer = Stub(StreamObserver) { onNext(_) >> { args -> received << args[0] } }
+
+        when:
+        watching.watchAttribute(watchRequest("mutableField"), observer)
+        watching.setAttribute(SetAttributeRequest.newBuilder().setBeanName("SvcBean")
+                .setAttributeName("mutableField")
+                .setValue(Value.newBuilder().setStringValue("next")).build(), Mock(StreamObserver))
+
+        then:
+        received*.value*.stringValue == ["val", "next"]
+
+        cleanup:
+        registry.close()
+    }
+
+    def "watchAttribute: closeWatches completes the stream"() {
+        given:
+        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(fieldDef_("mutableField"))
+        def observer = Mock(StreamObserver)
+        service.watchAttribute(watchRequest("mutableField"), observer)
+
+        when:
+        service.closeWatches()
+        service.closeWatches()
+
+        then:
+        1 * observer.onCompleted()
+    }
+
+    def "watchAttribute: not found — sends NOT_FOUND"() {
+        given:
+        def observer = Mock(StreamObserver)
+        scanner.findMethod("SvcBean", "nope", []) >> Optional.empty()
+        when:
+        service.watchAttribute(watchRequest("nope"), observer)
+        then:
+        1 * observer.onError({ Status.fromThrowable(it).code == Status.Code.NOT_FOUND })
+        0 * observer.onNext(_)
+    }
+
+    def "watchAttribute: method — sends INVALID_ARGUMENT"() {
+        given:
+        def observer = Mock(StreamObserver)
+        scanner.findMethod("SvcBean", "noArgs", []) >> Optional.of(methodDef("noArgs"))
+        when:
+        service.watchAttribute(watchRequest("noArgs"), observer)
+        then:
+        1 * observer.onError({ Status.fromThrowable(it).code == Status.Code.INVALID_ARGUMENT })
+    }
+
+    def "watchAttribute: final fields can be watched"() {
+        given:
+        def observer = Mock(StreamObserver)
+        scanner.findMethod("SvcBean", "locked", []) >> Optional.of(finalFieldDef())
+        when:
+        service.watchAttribute(watchRequest("locked"), observer)
+        then:
+        1 * observer.onNext({ it.value.stringValue == "cannot-change" })
+        0 * observer.onError(_)
+        cleanup:
+        service.closeWatches()
+    }
+
+    def "watchAttribute: auth fails — forwards error, nothing sent"() {
+        given:
+        def def_ = fieldDef_("mutableField")
+        def observer = Mock(StreamObserver)
+        scanner.findMethod("SvcBean", "mutableField", []) >> Optional.of(def_)
+        authService.authorize(def_, _, _) >> { throw Status.UNAUTHENTICATED.asRuntimeException() }
+        when:
+        service.watchAttribute(watchRequest("mutableField"), observer)
+        then:
+        1 * observer.onError({ Status.fromThrowable(it).code == Status.Code.UNAUTHENTICATED })
+        0 * observer.onNext(_)
+    }
+
+    // ── watchAsyncOutcomes ────────────────────────────────────────────────────
+
+    static AsyncOutcomesRequest outcomesRequest(String member, boolean includeSuccesses = false) {
+        AsyncOutcomesRequest.newBuilder().setBeanName("SvcBean").setMemberName(member)
+                .setIncludeSuccesses(includeSuccesses).build()
+    }
+
+    List<AsyncOutcome> awaitReceived(HeldObserver observer, int expected) {
+        def deadline = System.currentTimeMillis() + 5000
+        while (observer.received.size() < expected && System.currentTimeMillis() < deadline) Thread.sleep(5)
+        observer.received
+    }
+
+    def "watchAsyncOutcomes: failures are streamed, successes only when asked for"() {
+        given:
+        def async = new AsyncInvocations(new NetScopeConfig().getAsync())
+        service.setAsyncInvocations(async)
+        def def_ = asyncDef()
+        scanner.findMethod("SvcBean", "voidOp", []) >> Optional.of(def_)
+        def failures = new HeldObserver()
+        def everything = new HeldObserver()
+        service.watchAsyncOutcomes(outcomesRequest("voidOp"), failures)
+        service.watchAsyncOutcomes(outcomesRequest("voidOp", true), everything)
+
+        when:
+        def failed = async.submit(def_, { throw new IllegalStateException("disk full") } as Callable)
+        def succeeded = async.submit(def_, { null } as Callable)
+
+        then:
+        awaitReceived(everything, 2)*.invocationId.toSet() == [failed, succeeded].toSet()
+        with(awaitReceived(failures, 1)[0]) {
+            invocationId == failed
+            beanName == "SvcBean"
+            memberName == "voidOp"
+            !success
+            error.code == Status.Code.INTERNAL.value()
+            error.message == "Invocation error: disk full"
+        }
+        failures.received.size() == 1
+
+        cleanup:
+        async.close()
+    }
+
+    def "watchAsyncOutcomes: while the caller is not ready, the oldest outcomes are dropped and counted"() {
+        given:
+        def cfg = new NetScopeConfig().getAsync()
+        cfg.threads = 1
+        cfg.outcomeBuffer = 2
+        def async = new AsyncInvocations(cfg)
+        service.setAsyncInvocations(async)
+        def def_ = asyncDef()
+        scanner.findMethod("SvcBean", "voidOp", []) >> Optional.of(def_)
+        def observer = new HeldObserver(ready: false)
+        service.watchAsyncOutcomes(outcomesRequest("voidOp", true), observer)
+        def ids = (1..5).collect { async.submit(def_, { null } as Callable) }
+        async.close()
+
+        when:
+        observer.ready = true
+
+        then:
+        observer.received*.invocationId == ids[3..4]
+        observer.received*.dropped == [3L, 0L]
+    }
+
+    def "watchAsyncOutcomes: closeWatches completes the stream and stops delivery"() {
+        given:
+        def async = new AsyncInvocations(new NetScopeConfig().getAsync())
+        service.setAsyncInvocations(async)
+        def def_ = asyncDef()
+        scanner.findMethod("SvcBean", "voidOp", []) >> Optional.of(def_)
+        def observer = new HeldObserver()
+        service.watchAsyncOutcomes(outcomesRequest("voidOp", true), observer)
+
+        when:
+        service.closeWatches()
+        async.submit(def_, { null } as Callable)
+        async.close()
+
+        then:
+        observer.completed
+        observer.received.isEmpty()
+    }
+
+    def "watchAsyncOutcomes: overloads resolve to their async member"() {
+        given:
+        def async = new AsyncInvocations(new NetScopeConfig().getAsync())
+        service.setAsyncInvocations(async)
+        def def_ = asyncDef()
+        scanner.findMethod("SvcBean", "voidOp", []) >> {
+            throw new AmbiguousInvocationException("SvcBean", "voidOp", [methodDef("noArgs"), def_])
+        }
+        def observer = new HeldObserver()
+        service.watchAsyncOutcomes(outcomesRequest("voidOp", true), observer)
+
+        when:
+        def id = async.submit(def_, { null } as Callable)
+
+        then:
+        awaitReceived(observer, 1)*.invocationId == [id]
+
+        cleanup:
+        async.close()
+    }
+
+    @Unroll
+    def "watchAsyncOutcomes: #scenario — sends #code"() {
+        given:
+        if (configured) service.setAsyncInvocations(Mock(AsyncInvocations))
+        scanner.findMethod("SvcBean", member, []) >> Optional.ofNullable(resolve(member))
+        def observer = Mock(StreamObserver)
+
+        when:
+        service.watchAsyncOutcomes(outcomesRequest(member), observer)
+
+        then:
+        1 * observer.onError({ Status.fromThrowable(it).code == code })
+
+        where:
+        scenario                   | member   | configured || code
+        "member not found"         | "ghost"  | true       || Status.Code.NOT_FOUND
+        "member not async"         | "noArgs" | true       || Status.Code.FAILED_PRECONDITION
+        "no AsyncInvocations set"  | "voidOp" | false      || Status.Code.FAILED_PRECONDITION
+    }
+
+    NetworkMethodDefinition resolve(String member) {
+        member == "ghost" ? null : member == "voidOp" ? asyncDef() : methodDef(member)
+    }
+
+    def "watchAsyncOutcomes: auth fails — forwards error, nothing subscribed"() {
+        given:
+        def async = Mock(AsyncInvocations)
+        service.setAsyncInvocations(async)
+        def def_ = asyncDef()
+        scanner.findMethod("SvcBean", "voidOp", []) >> Optional.of(def_)
+        authService.authorize(def_, _, _) >> { throw Status.UNAUTHENTICATED.asRuntimeException() }
+        def observer = Mock(StreamObserver)
+
+        when:
+        service.watchAsyncOutcomes(outcomesRequest("voidOp"), observer)
+
+        then:
+        1 * observer.onError({ Status.fromThrowable(it).code == Status.Code.UNAUTHENTICATED })
+        0 * async.subscribe(*_)
     }
 
     // ── getDocs ───────────────────────────────────────────────────────────────
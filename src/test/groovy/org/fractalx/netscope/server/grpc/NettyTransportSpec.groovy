@@ -0,0 +1,92 @@
+package org.fractalx.netscope.server.grpc
+
+import io.grpc.ManagedChannelBuilder
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder
+import io.grpc.netty.shaded.io.netty.channel.epoll.Epoll
+import org.fractalx.netscope.server.config.NetScopeConfig
+import org.fractalx.netscope.server.config.NetScopeConfig.GrpcConfig.BufferAllocator
+import org.fractalx.netscope.server.config.NetScopeConfig.GrpcConfig.Transport
+import org.fractalx.netscope.server.grpc.proto.DocsRequest
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc
+import spock.lang.IgnoreIf
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class NettyTransportSpec extends Specification {
+
+    // ── Transport resolution ──────────────────────────────────────────────────
+
+    def "NIO always resolves to NIO"() {
+        expect:
+        NettyTransport.resolve(Transport.NIO) == Transport.NIO
+    }
+
+    def "AUTO resolves to EPOLL exactly when the native transport is available"() {
+        expect:
+        NettyTransport.resolve(Transport.AUTO) == (Epoll.isAvailable() ? Transport.EPOLL : Transport.NIO)
+    }
+
+    @IgnoreIf({ Epoll.isAvailable() })
+    def "explicit EPOLL without native support fails fast"() {
+        when:
+        NettyTransport.resolve(Transport.EPOLL)
+        then:
+        def ex = thrown(IllegalStateException)
+        ex.message.contains("epoll")
+    }
+
+    // ── Server wiring ─────────────────────────────────────────────────────────
+
+    def "configured server accepts calls on #transport with #allocator"() {
+        given:
+        def grpcConfig = new NetScopeConfig().getGrpc()
+        grpcConfig.setTransport(transport)
+        grpcConfig.setWorkerThreads(2)
+        grpcConfig.setBufferAllocator(allocator)
+        grpcConfig.setFlowControlWindow(2 * 1024 * 1024)
+        grpcConfig.setMaxHeaderListSize(16 * 1024)
+        def netty = NettyTransport.create(grpcConfig)
+        def service = new NetScopeServiceGrpc.NetScopeServiceImplBase() {
+            @Override
+            void getDocs(DocsRequest request, io.grpc.stub.StreamObserver responseObserver) {
+                responseObserver.onNext(org.fractalx.netscope.server.grpc.proto.DocsResponse.getDefaultInstance())
+                responseObserver.onCompleted()
+            }
+        }
+        def server = netty.configure(NettyServerBuilder.forPort(0).addService(service), grpcConfig).build().start()
+        def channel = ManagedChannelBuilder.forAddress("localhost", server.getPort()).usePlaintext().build()
+
+        when:
+        def response = NetScopeServiceGrpc.newBlockingStub(channel).getDocs(DocsRequest.getDefaultInstance())
+
+        then:
+        response != null
+        netty.getTransport() == NettyTransport.resolve(transport)
+
+        cleanup:
+        channel?.shutdownNow()?.awaitTermination(5, TimeUnit.SECONDS)
+        server?.shutdownNow()?.awaitTermination(5, TimeUnit.SECONDS)
+        netty?.shutdown()
+
+        where:
+        transport      | allocator
+        Transport.NIO  | BufferAllocator.DEFAULT
+        Transport.NIO  | BufferAllocator.POOLED_DIRECT
+        Transport.AUTO | BufferAllocator.UNPOOLED
+    }
+
+    def "describe names the resolved transport and explicit allocator"() {
+        given:
+        def grpcConfig = new NetScopeConfig().getGrpc()
+        grpcConfig.setTransport(Transport.NIO)
+        grpcConfig.setBufferAllocator(BufferAllocator.POOLED_HEAP)
+        def netty = NettyTransport.create(grpcConfig)
+
+        expect:
+        netty.describe() == "NIO / PooledByteBufAllocator"
+
+        cleanup:
+        netty.shutdown()
+    }
+}
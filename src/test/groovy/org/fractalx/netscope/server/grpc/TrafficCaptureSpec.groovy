@@ -0,0 +1,295 @@
+package org.fractalx.netscope.server.grpc
+
+import com.google.protobuf.ListValue
+import com.google.protobuf.Value
+import io.grpc.ManagedChannel
+import io.grpc.Metadata
+import io.grpc.MethodDescriptor
+import io.grpc.Server
+import io.grpc.ServerInterceptors
+import io.grpc.ServerServiceDefinition
+import io.grpc.inprocess.InProcessChannelBuilder
+import io.grpc.inprocess.InProcessServerBuilder
+import io.grpc.stub.MetadataUtils
+import io.grpc.stub.ServerCalls
+import io.grpc.stub.StreamObserver
+import org.fractalx.netscope.server.config.NetScopeConfig
+import org.fractalx.netscope.server.grpc.proto.DocsRequest
+import org.fractalx.netscope.server.grpc.proto.DocsResponse
+import org.fractalx.netscope.server.grpc.proto.InvokeRequest
+import org.fractalx.netscope.server.grpc.proto.InvokeResponse
+import org.fractalx.netscope.server.grpc.proto.NetScopeServiceGrpc
+import org.fractalx.netscope.server.grpc.proto.SetAttributeRequest
+import org.fractalx.netscope.server.grpc.proto.SetAttributeResponse
+import spock.lang.Specification
+
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardOpenOption
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class TrafficCaptureSpec extends Specification {
+
+    // ── Fixtures: an echo service behind the capture ──────────────────────────
+
+    Path dir = Files.createTempDirectory("netscope-capture")
+    NetScopeConfig.CaptureConfig config = new NetScopeConfig().getCapture()
+    TrafficCapture capture
+    Server server
+    ManagedChannel channel
+
+    def setup() {
+        config.directory = dir.toString()
+        config.sampleRate = 1.0d
+    }
+
+    def cleanup() {
+        channel?.shutdownNow()
+        server?.shutdownNow()
+        capture?.close()
+        dir.toFile().deleteDir()
+    }
+
+    NetScopeServiceGrpc.NetScopeServiceBlockingStub start(ServerServiceDefinition service = echo()) {
+        capture = new TrafficCapture(config)
+        def name = "capture-spec-" + UUID.randomUUID()
+        server = InProcessServerBuilder.forName(name)
+                .addService(ServerInterceptors.intercept(service, capture))
+                .build().start()
+        channel = InProcessChannelBuilder.forName(name).build()
+        NetScopeServiceGrpc.newBlockingStub(channel)
+    }
+
+    static ServerServiceDefinition echo() {
+        new NetScopeServiceGrpc.NetScopeServiceImplBase() {
+            @Override
+            void invokeMethod(InvokeRequest request, StreamObserver<InvokeResponse> observer) {
+                observer.onNext(InvokeResponse.getDefaultInstance())
+                observer.onCompleted()
+            }
+
+            @Override
+            void setAttribute(SetAttributeRequest request, StreamObserver<SetAttributeResponse> observer) {
+                observer.onNext(SetAttributeResponse.getDefaultInstance())
+                observer.onCompleted()
+            }
+
+            @Override
+            void getDocs(DocsRequest request, StreamObserver<DocsResponse> observer) {
+                observer.onNext(DocsResponse.getDefaultInstance())
+                observer.onCompleted()
+            }
+        }.bindService()
+    }
+
+    static final MethodDescriptor.Marshaller<byte[]> BYTES = new MethodDescriptor.Marshaller<byte[]>() {
+        InputStream stream(byte[] value) { new ByteArrayInputStream(value) }
+        byte[] parse(InputStream stream) { stream.readAllBytes() }
+    }
+
+    /** InvokeMethod and InvokeMethodStream bound to raw bytes, as federation binds them. */
+    static ServerServiceDefinition raw() {
+        byte[] reply = InvokeResponse.getDefaultInstance().toByteArray()
+        ServerServiceDefinition.builder(NetScopeServiceGrpc.SERVICE_NAME)
+                .addMethod(NetScopeServiceGrpc.getInvokeMethodMethod().toBuilder(BYTES, BYTES).build(),
+                        ServerCalls.asyncUnaryCall({ byte[] request, StreamObserver<byte[]> observer ->
+                            observer.onNext(reply)
+                            observer.onCompleted()
+                        } as ServerCalls.UnaryMethod))
+                .addMethod(NetScopeServiceGrpc.getInvokeMethodStreamMethod().toBuilder(BYTES, BYTES).build(),
+                        ServerCalls.asyncBidiStreamingCall({ StreamObserver<byte[]> observer ->
+                            [onNext     : { observer.onNext(reply) },
+                             onError    : { },
+                             onCompleted: { observer.onCompleted() }] as StreamObserver
+                        } as ServerCalls.BidiStreamingMethod))
+                .build()
+    }
+
+    static InvokeRequest place(String order) {
+        InvokeRequest.newBuilder().setBeanName("OrderService").setMemberName("place")
+                .setArguments(ListValue.newBuilder().addValues(Value.newBuilder().setStringValue(order)))
+                .build()
+    }
+
+    static SetAttributeRequest status(String value) {
+        SetAttributeRequest.newBuilder().setBeanName("OrderService").setAttributeName("status")
+                .setValue(Value.newBuilder().setStringValue(value)).build()
+    }
+
+    // ── Capture ───────────────────────────────────────────────────────────────
+
+    def "invokes and attribute writes are read back in arrival order with rising timestamps"() {
+        given:
+        def stub = start()
+
+        when:
+        stub.invokeMethod(place("a-1"))
+        stub.setAttribute(status("open"))
+        stub.invokeMethod(place("a-2"))
+        stub.getDocs(DocsRequest.getDefaultInstance())
+        capture.close()
+        def records = TrafficCapture.read(dir)
+
+        then:
+        records*.request == [place("a-1"), status("open"), place("a-2")]
+        records*.arrivalNanos == records*.arrivalNanos.sort(false)
+        records.every { it.sessionStartMillis > 0 }
+        capture.captured() == 3
+    }
+
+    def "headers, and with them credentials, are never written"() {
+        given:
+        def headers = new Metadata()
+        headers.put(NetScopeAuthInterceptor.API_KEY_HEADER, "secret-key-123")
+        def stub = start().withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers))
+
+        when:
+        stub.invokeMethod(place("a-1"))
+        capture.close()
+
+        then:
+        Files.list(dir).withCloseable { files ->
+            files.noneMatch { new String(Files.readAllBytes(it), "ISO-8859-1").contains("secret-key-123") }
+        }
+        TrafficCapture.read(dir)*.request == [place("a-1")]
+    }
+
+    def "a sample rate of zero writes nothing"() {
+        given:
+        config.sampleRate = 0
+        def stub = start()
+
+        when:
+        10.times { stub.invokeMethod(place("a-$it")) }
+
+        then:
+        capture.captured() == 0
+        TrafficCapture.read(dir).isEmpty()
+    }
+
+    def "invokes arriving as raw bytes, as under federation, are captured as invokes"() {
+        given:
+        def stub = start(raw())
+        def replies = new CountDownLatch(2)
+        def done = new CountDownLatch(1)
+
+        when:
+        stub.invokeMethod(place("unary"))
+        def stream = NetScopeServiceGrpc.newStub(channel).invokeMethodStream([
+                onNext     : { replies.countDown() },
+                onError    : { done.countDown() },
+                onCompleted: { done.countDown() }] as StreamObserver)
+        stream.onNext(place("streamed-1"))
+        stream.onNext(place("streamed-2"))
+        replies.await(5, TimeUnit.SECONDS)
+        stream.onCompleted()
+        done.await(5, TimeUnit.SECONDS)
+        capture.close()
+
+        then:
+        TrafficCapture.read(dir)*.request == [place("unary"), place("streamed-1"), place("streamed-2")]
+    }
+
+    // ── Files ─────────────────────────────────────────────────────────────────
+
+    def "full files rotate, keeping only the newest maxFiles"() {
+        given:
+        config.fileSize = 4096
+        config.maxFiles = 2
+        def stub = start()
+
+        when:
+        300.times { stub.invokeMethod(place("order-" + String.format("%04d", it))) }
+        capture.close()
+        def records = TrafficCapture.read(dir)
+
+        then:
+        Files.list(dir).withCloseable { it.count() } == 2
+        records.size() < 300
+        records.last().request == place("order-0299")
+        records*.request*.arguments*.getValues(0)*.stringValue == records*.request*.arguments*.getValues(0)*.stringValue.sort(false)
+    }
+
+    def "a message larger than a file is dropped rather than written"() {
+        given:
+        config.fileSize = 4096
+        def stub = start()
+
+        when:
+        stub.invokeMethod(place("x" * 5000))
+        stub.invokeMethod(place("small"))
+        capture.close()
+
+        then:
+        capture.dropped() == 1
+        TrafficCapture.read(dir)*.request == [place("small")]
+    }
+
+    def "a restart continues after the newest existing file"() {
+        given:
+        start().invokeMethod(place("first"))
+        capture.close()
+        channel.shutdownNow()
+        server.shutdownNow()
+
+        when:
+        start().invokeMethod(place("second"))
+        capture.close()
+
+        then:
+        TrafficCapture.read(dir)*.request == [place("first"), place("second")]
+    }
+
+    def "reading stops at a record whose length was never written"() {
+        given:
+        def stub = start()
+        stub.invokeMethod(place("whole"))
+        stub.invokeMethod(place("torn"))
+        capture.close()
+        clearLengthOf(place("torn"))
+
+        expect:
+        TrafficCapture.read(dir)*.request == [place("whole")]
+    }
+
+    def "reading stops at a record that cannot be parsed, rather than failing"() {
+        given:
+        def stub = start()
+        stub.invokeMethod(place("whole"))
+        stub.invokeMethod(place("garbled"))
+        stub.invokeMethod(place("after"))
+        capture.close()
+        overwrite(place("garbled"), 4, 9 as byte)   // a record kind that does not exist
+
+        expect:
+        TrafficCapture.read(dir)*.request == [place("whole")]
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /** Zeroes the length of the record holding {@code request}, as a crash mid-append would leave it. */
+    void clearLengthOf(InvokeRequest request) {
+        overwrite(request, 0, new byte[4])
+    }
+
+    /** Writes {@code bytes} at {@code offset} into the header of the record holding {@code request}. */
+    void overwrite(InvokeRequest request, int offset, byte... bytes) {
+        Path file = Files.list(dir).withCloseable { it.findFirst().get() }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            def content = ByteBuffer.allocate((int) Math.min(channel.size(), 65536))
+            channel.read(content, 0)
+            int at = indexOf(content.array(), request.toByteArray()) - 13
+            channel.write(ByteBuffer.wrap(bytes), at + offset)
+        }
+    }
+
+    static int indexOf(byte[] haystack, byte[] needle) {
+        for (int i = 0; i <= haystack.length - needle.length; i++) {
+            if (Arrays.equals(haystack, i, i + needle.length, needle, 0, needle.length)) return i
+        }
+        -1
+    }
+}
@@ -0,0 +1,151 @@
+package org.fractalx.netscope.server.jfr
+
+import io.grpc.StatusRuntimeException
+import io.grpc.stub.StreamObserver
+import jdk.jfr.Recording
+import jdk.jfr.consumer.RecordedEvent
+import jdk.jfr.consumer.RecordingFile
+import org.fractalx.netscope.server.annotation.AuthType
+import org.fractalx.netscope.server.annotation.NetworkPublic
+import org.fractalx.netscope.server.config.NetScopeConfig
+import org.fractalx.netscope.server.core.NetScopeInvoker
+import org.fractalx.netscope.server.core.NetScopeScanner
+import org.fractalx.netscope.server.grpc.NetScopeGrpcServiceImpl
+import org.fractalx.netscope.server.grpc.proto.InvokeRequest
+import org.fractalx.netscope.server.model.NetworkMethodDefinition
+import org.fractalx.netscope.server.security.OAuth2AuthorizationService
+import org.fractalx.netscope.server.security.OAuth2TokenValidator
+import org.springframework.context.ApplicationContext
+import spock.lang.Specification
+
+import java.nio.file.Files
+
+class NetScopeEventsSpec extends Specification {
+
+    // ── Fixtures ──────────────────────────────────────────────────────────────
+
+    static class EventBean {
+        @NetworkPublic
+        String greet() { "hello" }
+
+        void secured() {}
+    }
+
+    def config = new NetScopeConfig()
+    def bean   = new EventBean()
+
+    ApplicationContext mockCtx() {
+        def ctx = Mock(ApplicationContext)
+        ctx.getBeanDefinitionNames() >> (["eventBean"] as String[])
+        ctx.getBean("eventBean") >> bean
+        ctx
+    }
+
+    /** Runs the action inside a JFR recording and returns every event of the given type. */
+    List<RecordedEvent> recordEvents(Class<? extends jdk.jfr.Event> type, Closure action) {
+        def recording = new Recording()
+        recording.enable(type)
+        recording.start()
+        try {
+            action.call()
+        } finally {
+            recording.stop()
+        }
+        def file = Files.createTempFile("netscope", ".jfr")
+        try {
+            recording.dump(file)
+            return RecordingFile.readAllEvents(file)
+                    .findAll { it.eventType.name == type.getAnnotation(jdk.jfr.Name).value() }
+        } finally {
+            recording.close()
+            Files.deleteIfExists(file)
+        }
+    }
+
+    // ── ScanEvent ─────────────────────────────────────────────────────────────
+
+    def "scan emits a ScanEvent with bean and member counts"() {
+        given:
+        def scanner = new NetScopeScanner(mockCtx(), config)
+
+        when:
+        def events = recordEvents(ScanEvent) { scanner.scan() }
+
+        then:
+        events.size() == 1
+        events[0].getInt("beanCount") == 1
+        events[0].getInt("memberCount") == 1
+    }
+
+    // ── InvocationEvent ───────────────────────────────────────────────────────
+
+    def "invokeMethod emits an InvocationEvent with member, sizes and outcome"() {
+        given:
+        def scanner = new NetScopeScanner(mockCtx(), config)
+        def authService = new OAuth2AuthorizationService(config, null, null)
+        def service = new NetScopeGrpcServiceImpl(scanner, new NetScopeInvoker(), authService)
+        def request = InvokeRequest.newBuilder().setBeanName("EventBean").setMemberName("greet").build()
+
+        when:
+        def events = recordEvents(InvocationEvent) { service.invokeMethod(request, Mock(StreamObserver)) }
+
+        then:
+        events.size() == 1
+        events[0].getString("rpc") == "InvokeMethod"
+        events[0].getString("beanName") == "EventBean"
+        events[0].getString("memberName") == "greet"
+        events[0].getLong("resultBytes") > 0
+        events[0].getString("outcome") == "OK"
+    }
+
+    def "invokeMethod on an unknown member records NOT_FOUND outcome"() {
+        given:
+        def scanner = new NetScopeScanner(mockCtx(), config)
+        def service = new NetScopeGrpcServiceImpl(scanner, new NetScopeInvoker(),
+                new OAuth2AuthorizationService(config, null, null))
+        def request = InvokeRequest.newBuilder().setBeanName("EventBean").setMemberName("ghost").build()
+
+        when:
+        def events = recordEvents(InvocationEvent) { service.invokeMethod(request, Mock(StreamObserver)) }
+
+        then:
+        events.size() == 1
+        events[0].getString("outcome") == "NOT_FOUND"
+    }
+
+    // ── AuthorizationEvent / TokenValidationEvent ─────────────────────────────
+
+    def "failed authorization records the status code"() {
+        given:
+        def def_ = new NetworkMethodDefinition(bean, EventBean.getDeclaredMethod("secured"),
+                true, AuthType.API_KEY, "")
+        def authService = new OAuth2AuthorizationService(config, null, null)
+
+        when:
+        def events = recordEvents(AuthorizationEvent) {
+            try { authService.authorize(def_, null, null) } catch (StatusRuntimeException ignored) {}
+        }
+
+        then:
+        events.size() == 1
+        events[0].getString("authType") == "API_KEY"
+        events[0].getString("outcome") == "UNAUTHENTICATED"
+    }
+
+    def "OAuth validation emits a TokenValidationEvent"() {
+        given:
+        def def_ = new NetworkMethodDefinition(bean, EventBean.getDeclaredMethod("secured"),
+                true, AuthType.OAUTH, "")
+        def validator = Mock(OAuth2TokenValidator)
+        validator.validate("tok") >> OAuth2TokenValidator.TokenValidationResult.valid("alice", Set.of(), null)
+        def authService = new OAuth2AuthorizationService(config, validator, null)
+
+        when:
+        def events = recordEvents(TokenValidationEvent) { authService.authorize(def_, "tok", null) }
+
+        then:
+        events.size() == 1
+        events[0].getBoolean("valid")
+        events[0].getString("subject") == "alice"
+    }
+}
@@ -0,0 +1,154 @@
+package org.fractalx.netscope.server.model
+
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class FieldAccessorSpec extends Specification {
+
+    // ── Fixtures ──────────────────────────────────────────────────────────────
+    // Java-style fields: Groovy properties would add accessors we do not want here.
+
+    static class Counters {
+        public String label = "start"
+        public volatile long hits = 0L
+        public int level = 1
+        public final String fixed = "fixed"
+        public static String shared = "shared"
+        private Integer boxed = 7
+    }
+
+    def bean = new Counters()
+
+    FieldAccessor accessor(String name) {
+        FieldAccessor.of(Counters.getDeclaredField(name))
+    }
+
+    def cleanup() {
+        Counters.shared = "shared"
+    }
+
+    // ── Reads ─────────────────────────────────────────────────────────────────
+
+    def "reads plain, volatile, private and static fields"() {
+        expect:
+        accessor("label").get(bean) == "start"
+        accessor("hits").get(bean) == 0L
+        accessor("boxed").get(bean) == 7
+        accessor("shared").get(null) == "shared"
+        accessor("shared").get(bean) == "shared"   // target ignored for static fields
+    }
+
+    def "volatile flag follows the field modifier"() {
+        expect:
+        accessor("hits").isVolatile()
+        !accessor("label").isVolatile()
+    }
+
+    // ── getAndSet ─────────────────────────────────────────────────────────────
+
+    def "getAndSet returns the replaced value"() {
+        given:
+        def label = accessor("label")
+        when:
+        def previous = label.getAndSet(bean, "next")
+        then:
+        previous == "start"
+        bean.label == "next"
+    }
+
+    def "getAndSet boxes and unboxes primitive fields"() {
+        given:
+        def level = accessor("level")
+        when:
+        def previous = level.getAndSet(bean, 5)
+        then:
+        previous == 1
+        bean.level == 5
+    }
+
+    def "getAndSet on a static field"() {
+        when:
+        def previous = accessor("shared").getAndSet(null, "updated")
+        then:
+        previous == "shared"
+        Counters.shared == "updated"
+    }
+
+    def "null cannot be assigned to a primitive field"() {
+        when:
+        accessor("level").getAndSet(bean, null)
+        then:
+        def ex = thrown(IllegalArgumentException)
+        ex.message.contains("level")
+        bean.level == 1
+    }
+
+    def "final fields are read-only"() {
+        given:
+        def fixed = accessor("fixed")
+        when:
+        fixed.getAndSet(bean, "changed")
+        then:
+        !fixed.isWriteable()
+        fixed.get(bean) == "fixed"
+        thrown(UnsupportedOperationException)
+    }
+
+    // ── compareAndSet ─────────────────────────────────────────────────────────
+
+    def "compareAndSet on a reference field compares identity"() {
+        given:
+        def label = accessor("label")
+        def current = bean.label
+        expect:
+        label.compareAndSet(bean, current, "swapped")
+        !label.compareAndSet(bean, new String("swapped"), "again")
+        bean.label == "swapped"
+    }
+
+    def "compareAndSet on a primitive field compares values"() {
+        given:
+        def hits = accessor("hits")
+        expect:
+        hits.compareAndSet(bean, 0L, 10L)
+        !hits.compareAndSet(bean, 0L, 20L)
+        bean.hits == 10L
+    }
+
+    // ── Atomicity ─────────────────────────────────────────────────────────────
+
+    def "concurrent getAndSet hands every replaced value to exactly one writer"() {
+        given:
+        def level   = accessor("level")
+        def threads = 8
+        def perThread = 2_000
+        def seen  = new ConcurrentLinkedQueue<Integer>()
+        def start = new CountDownLatch(1)
+        def pool  = Executors.newFixedThreadPool(threads)
+        bean.level = 0
+
+        when:
+        threads.times { t ->
+            pool.submit {
+                start.await()
+                for (int i = 1; i <= perThread; i++) {
+                    seen << (level.getAndSet(bean, t * perThread + i) as Integer)
+                }
+            }
+        }
+        start.countDown()
+        pool.shutdown()
+        pool.awaitTermination(30, TimeUnit.SECONDS)
+        seen << bean.level
+
+        then:
+        // Every written value (plus the initial 0) is observed once: nothing lost, nothing duplicated
+        seen.size() == threads * perThread + 1
+        seen.toSet().size() == seen.size()
+        seen.toSet() == (0..threads * perThread).toSet()
+    }
+}
@@ -23,6 +23,15 @@ class NetworkMethodDefinitionSpec extends Specification {
         String withParams(String name, int count) { name }
     }
 
+    static class ConstantsBean {
+        static final int LIMIT = 10
+        static final String NAME = "orders"
+        static final AuthType MODE = AuthType.OAUTH
+        static final List<String> TAGS = []
+        static int counter = 0
+        final long instanceFinal = 1L
+    }
+
     def bean = new TestBean()
 
     // ── METHOD constructor ────────────────────────────────────────────────────
@@ -271,6 +280,51 @@ class NetworkMethodDefinitionSpec extends Specification {
         !d.isStatic()
     }
 
+    def "hasConstantResult: void methods only, among methods"() {
+        expect:
+        new NetworkMethodDefinition(bean, TestBean.getDeclaredMethod(name), false, null, "").hasConstantResult() == constant
+
+        where:
+        name              || constant
+        "voidMethod"      || true
+        "voidClassMethod" || true
+        "greet"           || false
+        "staticMethod"    || false
+    }
+
+    def "hasConstantResult: static final fields of immutable types only"() {
+        expect:
+        new NetworkMethodDefinition(new ConstantsBean(), ConstantsBean.getDeclaredField(name), false, null, "")
+                .hasConstantResult() == constant
+
+        where:
+        name            || constant
+        "LIMIT"         || true
+        "NAME"          || true
+        "MODE"          || true
+        "TAGS"          || false    // the list itself can change
+        "counter"       || false
+        "instanceFinal" || false
+    }
+
+    def "isAsync: kept for void methods only, false without it"() {
+        expect:
+        new NetworkMethodDefinition(bean, TestBean.getDeclaredMethod("voidMethod"), false, null, "", null, true).isAsync()
+        !new NetworkMethodDefinition(bean, TestBean.getDeclaredMethod("greet"), false, null, "", null, true).isAsync()
+        !new NetworkMethodDefinition(bean, TestBean.getDeclaredMethod("voidMethod"), false, null, "").isAsync()
+        !new NetworkMethodDefinition(bean, TestBean.getDeclaredField("mutableField"), false, null, "").isAsync()
+    }
+
+    def "field constructor: builds a field accessor; method constructor does not"() {
+        given:
+        def fieldDef  = new NetworkMethodDefinition(bean, TestBean.getDeclaredField("mutableField"), false, null, "")
+        def methodDef = new NetworkMethodDefinition(bean, TestBean.getDeclaredMethod("greet"), false, null, "")
+        expect:
+        fieldDef.getFieldAccessor().get(bean) == "hello"
+        fieldDef.getFieldAccessor().isWriteable()
+        methodDef.getFieldAccessor() == null
+    }
+
     def "field constructor: secured and authType propagated"() {
         given:
         Field f = TestBean.getDeclaredField("mutableField")
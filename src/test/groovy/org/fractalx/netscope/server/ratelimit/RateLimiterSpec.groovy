@@ -0,0 +1,213 @@
+package org.fractalx.netscope.server.ratelimit
+
+import org.fractalx.netscope.server.config.NetScopeConfig
+import io.grpc.Status
+import io.grpc.StatusRuntimeException
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class RateLimiterSpec extends Specification {
+
+    // ── Fixtures ──────────────────────────────────────────────────────────────
+
+    long now = 0
+    def config = new NetScopeConfig().getRateLimit()
+
+    RateLimiter limiter() {
+        new RateLimiter(config, { now })
+    }
+
+    static NetScopeConfig.RateLimitConfig.Limit limit(double perSecond, int burst = 0) {
+        def l = new NetScopeConfig.RateLimitConfig.Limit()
+        l.permitsPerSecond = perSecond
+        l.burst = burst
+        l
+    }
+
+    static int admitted(RateLimiter limiter, int calls, String member = "Orders.place", String principal = "oauth:alice") {
+        int ok = 0
+        calls.times {
+            try {
+                limiter.acquire(member, principal)
+                ok++
+            } catch (StatusRuntimeException ignored) { }
+        }
+        ok
+    }
+
+    // ── Token bucket ──────────────────────────────────────────────────────────
+
+    def "a bucket allows its burst at once, then one token per interval"() {
+        given:
+        def bucket = new TokenBucket(10, 3, 0)
+        expect:
+        (1..3).every { bucket.tryAcquire(0) == 0 }
+        bucket.tryAcquire(0) == 100_000_000L          // the next token is due in 100 ms
+        bucket.tryAcquire(100_000_000L) == 0
+        bucket.tryAcquire(100_000_000L) > 0
+    }
+
+    def "a refunded token can be taken again; an idle bucket is full"() {
+        given:
+        def bucket = new TokenBucket(1, 1, 0)
+        expect:
+        bucket.tryAcquire(0) == 0
+        !bucket.isFull(0)
+        when:
+        bucket.refund()
+        then:
+        bucket.isFull(0)
+        bucket.tryAcquire(0) == 0
+        bucket.isFull(1_000_000_000L)
+    }
+
+    def "concurrent callers never take more than the burst"() {
+        given:
+        def bucket = new TokenBucket(0.001, 100, 0)
+        def pool = Executors.newFixedThreadPool(8)
+        def start = new CountDownLatch(1)
+        def taken = new AtomicInteger()
+        when:
+        8.times { pool.submit { start.await(); 1000.times { if (bucket.tryAcquire(0) == 0) taken.incrementAndGet() } } }
+        start.countDown()
+        pool.shutdown()
+        pool.awaitTermination(10, TimeUnit.SECONDS)
+        then:
+        taken.get() == 100
+    }
+
+    // ── Limits ────────────────────────────────────────────────────────────────
+
+    def "nothing is limited by default"() {
+        expect:
+        admitted(limiter(), 1000) == 1000
+    }
+
+    def "the principal limit applies to each principal separately; anonymous calls are exempt"() {
+        given:
+        config.principal = limit(5)
+        def rl = limiter()
+        expect:
+        admitted(rl, 10, "Orders.place", "oauth:alice") == 5
+        admitted(rl, 10, "Orders.place", "oauth:bob") == 5
+        admitted(rl, 10, "Orders.place", null) == 10
+    }
+
+    def "member limits apply per member and can be overridden for one member"() {
+        given:
+        config.member = limit(2)
+        config.members = ["Orders.place": limit(1, 4)]
+        def rl = limiter()
+        expect:
+        admitted(rl, 10, "Orders.place") == 4
+        admitted(rl, 10, "Orders.list") == 2
+        admitted(rl, 10, "Stock.get") == 2
+    }
+
+    def "the global limit is shared by every call"() {
+        given:
+        config.global = limit(3)
+        def rl = limiter()
+        expect:
+        admitted(rl, 2, "A.a", "oauth:x") + admitted(rl, 2, "B.b", "oauth:y") == 3
+    }
+
+    def "permits refill over time"() {
+        given:
+        config.global = limit(2)
+        def rl = limiter()
+        expect:
+        admitted(rl, 5) == 2
+        when:
+        now += 500_000_000L
+        then:
+        admitted(rl, 5) == 1
+    }
+
+    def "a rejected call gives back what it took from the other buckets"() {
+        given:
+        config.member = limit(100)
+        config.principal = limit(1)
+        def rl = limiter()
+        when:
+        admitted(rl, 51, "Orders.place", "oauth:alice")    // 1 admitted, 50 rejected by the principal limit
+        then:
+        admitted(rl, 200, "Orders.place", "oauth:bob") == 1
+        admitted(rl, 200, "Orders.place", null) == 98
+    }
+
+    def "a call using several members takes each member permit but one principal permit, all or none"() {
+        given:
+        config.principal = limit(0.001, 2)
+        config.members["Toggles.b"] = limit(0.001, 1)
+        def rl = limiter()
+        rl.acquire(["Toggles.a", "Toggles.b"], "oauth:alice")
+
+        when:
+        rl.acquire(["Toggles.a", "Toggles.b"], "oauth:alice")
+        then:
+        def ex = thrown(StatusRuntimeException)
+        ex.status.description.contains("member Toggles.b")
+
+        expect:
+        admitted(rl, 5, "Toggles.a", "oauth:alice") == 1      // the principal's second permit was left
+    }
+
+    def "rejection is RESOURCE_EXHAUSTED with retry-after trailers"() {
+        given:
+        config.principal = limit(0.5, 1)
+        def rl = limiter()
+        rl.acquire("Orders.place", "oauth:alice")
+        when:
+        rl.acquire("Orders.place", "oauth:alice")
+        then:
+        def ex = thrown(StatusRuntimeException)
+        ex.status.code == Status.Code.RESOURCE_EXHAUSTED
+        ex.status.description.contains("principal oauth:alice")
+        ex.trailers.get(RateLimiter.RETRY_AFTER) == "2"
+        ex.trailers.get(RateLimiter.RETRY_PUSHBACK_MS) == "2000"
+    }
+
+    def "principal buckets stay within maxPrincipals, dropping full buckets first"() {
+        given:
+        config.principal = limit(1)
+        config.maxPrincipals = 10
+        def rl = limiter()
+        when:
+        (1..10).each { rl.acquire("A.a", "oauth:busy-$it") }
+        now += 2_000_000_000L                                  // all refilled
+        rl.acquire("A.a", "oauth:late")
+        then:
+        rl.trackedPrincipals() == 1
+        when:
+        int admittedNew = (1..50).count { admitted(rl, 1, "A.a", "oauth:new-$it") == 1 }
+        then:
+        admittedNew == 9
+        rl.trackedPrincipals() == 10
+    }
+
+    def "when every tracked bucket is busy, a new principal is rejected rather than an abuser's bucket reset"() {
+        given:
+        config.principal = limit(1)
+        config.maxPrincipals = 2
+        def rl = limiter()
+        rl.acquire("A.a", "oauth:abuser")
+        rl.acquire("A.a", "oauth:other")
+        now += 400_000_000L
+
+        when:
+        rl.acquire("A.a", "oauth:newcomer")
+        then:
+        def ex = thrown(StatusRuntimeException)
+        ex.status.code == Status.Code.RESOURCE_EXHAUSTED
+        ex.trailers.get(RateLimiter.RETRY_PUSHBACK_MS) == "600"
+
+        expect:
+        admitted(rl, 1, "A.a", "oauth:abuser") == 0
+        rl.trackedPrincipals() == 2
+    }
+}
@@ -273,8 +273,79 @@ class OAuth2AuthorizationServiceSpec extends Specification {
         thrown(StatusRuntimeException)
     }
 
+    // ── Principal ─────────────────────────────────────────────────────────────
+
+    def "authorize returns the OAuth subject as the principal"() {
+        given:
+        def svc = new OAuth2AuthorizationService(config, oauthValidator, apiKeyValidator)
+        oauthValidator.validate("good-token") >> validResult()
+        expect:
+        svc.authorize(defWith(true, AuthType.OAUTH), "good-token", null) == "oauth:user"
+        svc.authorize(defWith(true, AuthType.BOTH), "good-token", "ignored-key") == "oauth:user"
+    }
+
+    def "an API key principal is a short hash that is stable and differs between keys"() {
+        given:
+        def svc = new OAuth2AuthorizationService(config, oauthValidator, apiKeyValidator)
+        apiKeyValidator.isValid(_) >> true
+        when:
+        def first  = svc.authorize(defWith(true, AuthType.API_KEY), null, "key-one")
+        def again  = svc.authorize(defWith(true, AuthType.BOTH), null, "key-one")
+        def second = svc.authorize(defWith(true, AuthType.API_KEY), null, "key-two")
+        then:
+        first ==~ /api-key:[0-9a-f]{12}/
+        first == again
+        first != second
+        !first.contains("key-one")
+    }
+
+    def "public members and disabled security are let through without checking credentials"() {
+        given:
+        def svc = new OAuth2AuthorizationService(config, oauthValidator, apiKeyValidator)
+        expect:
+        svc.authorize(defWith(false, AuthType.OAUTH), null, null) == null
+        svc.authorize(defWith(false, AuthType.OAUTH), "some-token", "some-key") == null
+        when:
+        config.getSecurity().setEnabled(false)
+        then:
+        svc.authorize(defWith(true, AuthType.OAUTH), "some-token", null) == null
+        0 * oauthValidator._
+        0 * apiKeyValidator._
+    }
+
+    def "principalOf names the caller of valid credentials, and is null without them"() {
+        given:
+        def svc = new OAuth2AuthorizationService(config, oauthValidator, apiKeyValidator)
+        oauthValidator.validate("good-token") >> validResult()
+        oauthValidator.validate("bad-token") >> invalidResult()
+        apiKeyValidator.isValid("good-key") >> true
+        apiKeyValidator.isValid("bad-key") >> false
+        expect:
+        svc.principalOf(defWith(false, null), "good-token", null) == "oauth:user"
+        svc.principalOf(defWith(false, null), "bad-token", "good-key") ==~ /api-key:[0-9a-f]{12}/
+        svc.principalOf(defWith(false, null), "bad-token", "bad-key") == null
+        svc.principalOf(defWith(false, null), " ", null) == null
+    }
+
     // ── Constructor logging (both null) ───────────────────────────────────────
 
+    // ── Key source availability ───────────────────────────────────────────────
+
+    def "key source availability comes from the OAuth validator, and is true without one"() {
+        given:
+        oauthValidator.isKeySourceAvailable() >> false
+        expect:
+        !new OAuth2AuthorizationService(config, oauthValidator, apiKeyValidator).isKeySourceAvailable()
+        new OAuth2AuthorizationService(config, null, apiKeyValidator).isKeySourceAvailable()
+    }
+
+    def "a JWK set that cannot be fetched is unavailable"() {
+        given:
+        config.getSecurity().getOauth().setJwkSetUri("http://127.0.0.1:1/jwks.json")
+        expect:
+        !new OAuth2TokenValidator(config).isKeySourceAvailable()
+    }
+
     def "constructor with both validators null logs warning but does not throw"() {
         when:
         def svc = new OAuth2AuthorizationService(config, null, null)